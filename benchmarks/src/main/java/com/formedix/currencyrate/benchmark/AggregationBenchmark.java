@@ -0,0 +1,70 @@
+package com.formedix.currencyrate.benchmark;
+
+import com.formedix.currencyrate.config.AggregationProperties;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.domain.RateStatistics;
+import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
+import com.formedix.currencyrate.repository.IndexedCurrencyRateRepositoryImpl;
+import com.formedix.currencyrate.service.RateStatisticsAggregator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the statistics of every currency over the whole history, scaled up by {@code historyScale}, aggregated in a
+ * single pass on the calling thread and in parallel on the aggregation pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AggregationBenchmark {
+    @Param({"10", "50"})
+    private int historyScale;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private RateStatisticsAggregator rateStatisticsAggregator;
+    private List<CurrencyRate> currencyRates;
+
+    @Setup
+    public void setUp() {
+        IndexedCurrencyRateRepositoryImpl repository = new IndexedCurrencyRateRepositoryImpl(new CurrencyRatesContextHolder());
+        List<LocalDate> dates = repository.update(SyntheticCurrencyRates.rates(historyScale)).stream()
+                .map(CurrencyRate::date)
+                .sorted(Comparator.naturalOrder())
+                .toList();
+        currencyRates = repository.findBetweenDates(dates.get(0), dates.get(dates.size() - 1));
+        AggregationProperties aggregationProperties = new AggregationProperties();
+        aggregationProperties.setParallelThreshold(parallel ? aggregationProperties.getParallelThreshold() : Integer.MAX_VALUE);
+        rateStatisticsAggregator = new RateStatisticsAggregator(aggregationProperties);
+    }
+
+    @TearDown
+    public void tearDown() {
+        rateStatisticsAggregator.destroy();
+    }
+
+    @Benchmark
+    public Map<String, RateStatistics> aggregateEveryCurrency() {
+        return rateStatisticsAggregator.aggregate(currencyRates, List.of());
+    }
+}
@@ -0,0 +1,105 @@
+package com.formedix.currencyrate.benchmark;
+
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.domain.DecimalSum;
+import com.formedix.currencyrate.repository.CurrencyRateSlice;
+import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
+import com.formedix.currencyrate.repository.IndexedCurrencyRateRepositoryImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares ways of averaging the rates of a currency over the whole history, scaled up by {@code historyScale}.
+ * <p>
+ * {@code averagingDouble} is the stream pipeline the service used to run over plain lists, {@code kahanDouble} a
+ * compensated {@code double} loop and {@code decimalSum} the exact scaled-{@code long} sum the service runs now.
+ * {@code indexedDecimalSum} answers the same average from the exact prefix sums of an indexed snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AverageBenchmark {
+    private static final String CURRENCY = "USD";
+    private static final int SCALE = 2;
+
+    @Param({"1", "10"})
+    private int historyScale;
+
+    private List<CurrencyRate> rates;
+    private CurrencyRateSlice slice;
+
+    @Setup
+    public void setUp() {
+        rates = SyntheticCurrencyRates.rates(historyScale).stream()
+                .sorted(Comparator.comparing(CurrencyRate::date))
+                .toList();
+        IndexedCurrencyRateRepositoryImpl repository = new IndexedCurrencyRateRepositoryImpl(new CurrencyRatesContextHolder());
+        repository.update(rates);
+        slice = (CurrencyRateSlice) repository.findBetweenDates(rates.get(0).date(), rates.get(rates.size() - 1).date());
+    }
+
+    @Benchmark
+    public BigDecimal averagingDouble() {
+        double average = rates.stream()
+                .map(rate -> rate.currencies().get(CURRENCY))
+                .filter(Objects::nonNull)
+                .collect(Collectors.averagingDouble(BigDecimal::doubleValue));
+        return BigDecimal.valueOf(average).setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public BigDecimal kahanDouble() {
+        double sum = 0;
+        double compensation = 0;
+        int count = 0;
+        for (CurrencyRate currencyRate : rates) {
+            BigDecimal rate = currencyRate.currencies().get(CURRENCY);
+            if (rate != null) {
+                double compensated = rate.doubleValue() - compensation;
+                double total = sum + compensated;
+                compensation = (total - sum) - compensated;
+                sum = total;
+                count++;
+            }
+        }
+        return BigDecimal.valueOf(sum / count).setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public Optional<BigDecimal> decimalSum() {
+        DecimalSum sum = new DecimalSum();
+        for (CurrencyRate currencyRate : rates) {
+            BigDecimal rate = currencyRate.currencies().get(CURRENCY);
+            if (rate != null) {
+                sum.add(rate);
+            }
+        }
+        return sum.average(SCALE);
+    }
+
+    @Benchmark
+    public Optional<BigDecimal> indexedDecimalSum() {
+        return slice.sumRates(CURRENCY).average(SCALE);
+    }
+}
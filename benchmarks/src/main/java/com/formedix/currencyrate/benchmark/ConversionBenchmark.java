@@ -0,0 +1,65 @@
+package com.formedix.currencyrate.benchmark;
+
+import com.formedix.currencyrate.domain.CrossRate;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures converting amounts with a cached cross rate, with {@code BigDecimal} and with fixed-point arithmetic.
+ * <p>
+ * Every operation converts the same {@value #AMOUNTS} amounts of up to two decimals between the USD and GBP rates of
+ * the most recent date, the way a cached cross rate serves repeated conversions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConversionBenchmark {
+    private static final int AMOUNTS = 1_000;
+    private static final int SCALE = 2;
+
+    @Param({"false", "true"})
+    private boolean fixedPoint;
+
+    private CrossRate crossRate;
+    private BigDecimal[] amounts;
+
+    @Setup
+    public void setUp() {
+        CurrencyRate currencyRate = SyntheticCurrencyRates.rates(1).get(0);
+        BigDecimal sourceRate = currencyRate.currencies().get("USD");
+        BigDecimal targetRate = currencyRate.currencies().get("GBP");
+        crossRate = fixedPoint
+                ? CrossRate.fixedPoint(currencyRate.date(), "USD", "GBP", sourceRate, targetRate)
+                : new CrossRate(currencyRate.date(), "USD", "GBP", sourceRate, targetRate);
+        Random random = new Random(AMOUNTS);
+        amounts = new BigDecimal[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            amounts[i] = BigDecimal.valueOf(random.nextInt(10_000_000), random.nextInt(SCALE + 1));
+        }
+    }
+
+    @Benchmark
+    public void convert(Blackhole blackhole) {
+        for (BigDecimal amount : amounts) {
+            blackhole.consume(crossRate.convert(amount, SCALE));
+        }
+    }
+}
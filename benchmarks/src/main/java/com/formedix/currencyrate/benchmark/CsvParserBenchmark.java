@@ -0,0 +1,54 @@
+package com.formedix.currencyrate.benchmark;
+
+import com.formedix.currencyrate.config.CsvProperties;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.parser.CsvParserType;
+import com.formedix.currencyrate.parser.CurrencyRateCsvParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing the default CSV file, scaled up by {@code historyScale}, with every parser engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CsvParserBenchmark {
+    @Param({"1", "10"})
+    private int historyScale;
+
+    @Param({"OPENCSV", "BYTE_SCANNER"})
+    private CsvParserType parser;
+
+    private byte[] csv;
+    private CurrencyRateCsvParser currencyRateCsvParser;
+
+    @Setup
+    public void setUp() {
+        csv = SyntheticCurrencyRates.csv(historyScale);
+        CsvProperties csvProperties = new CsvProperties();
+        csvProperties.setParser(parser);
+        currencyRateCsvParser = new CurrencyRateCsvParser(csvProperties);
+    }
+
+    @Benchmark
+    public List<CurrencyRate> parse() {
+        return currencyRateCsvParser.parse(new ByteArrayInputStream(csv)).get();
+    }
+}
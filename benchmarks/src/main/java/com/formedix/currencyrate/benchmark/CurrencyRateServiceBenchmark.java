@@ -0,0 +1,119 @@
+package com.formedix.currencyrate.benchmark;
+
+import com.formedix.currencyrate.config.AggregationProperties;
+import com.formedix.currencyrate.config.ConversionProperties;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.dto.AverageExchangeRateDto;
+import com.formedix.currencyrate.dto.ConvertCurrencyDto;
+import com.formedix.currencyrate.dto.ConvertCurrencyRequestDto;
+import com.formedix.currencyrate.dto.HighestExchangeRateDto;
+import com.formedix.currencyrate.dto.RateStatisticsDto;
+import com.formedix.currencyrate.mapper.CurrencyRateMapper;
+import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
+import com.formedix.currencyrate.repository.IndexedCurrencyRateRepositoryImpl;
+import com.formedix.currencyrate.service.CrossRateProvider;
+import com.formedix.currencyrate.service.CurrencyRateService;
+import com.formedix.currencyrate.service.RateStatisticsAggregator;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the service queries over a history scaled up by {@code historyScale}, without the Spring caches in front of
+ * them.
+ * <p>
+ * The short span covers the last 30 days of the history and the long span the whole history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CurrencyRateServiceBenchmark {
+    private static final int SHORT_SPAN_DAYS = 30;
+    private static final String SOURCE_CURRENCY = "USD";
+    private static final String TARGET_CURRENCY = "GBP";
+    private static final BigDecimal AMOUNT = new BigDecimal("100.00");
+    private static final int BATCH_SIZE = 1_000;
+
+    @Param({"1", "10"})
+    private int historyScale;
+
+    private CurrencyRateService currencyRateService;
+    private LocalDate firstDate;
+    private LocalDate lastDate;
+    private LocalDate middleDate;
+    private List<ConvertCurrencyRequestDto> conversions;
+
+    @Setup
+    public void setUp() {
+        IndexedCurrencyRateRepositoryImpl repository = new IndexedCurrencyRateRepositoryImpl(new CurrencyRatesContextHolder());
+        List<CurrencyRate> rates = repository.update(SyntheticCurrencyRates.rates(historyScale));
+        currencyRateService = new CurrencyRateService(Mappers.getMapper(CurrencyRateMapper.class), repository, new CrossRateProvider(repository, new ConversionProperties()),
+                new RateStatisticsAggregator(new AggregationProperties()));
+        List<LocalDate> dates = rates.stream().map(CurrencyRate::date).sorted(Comparator.naturalOrder()).toList();
+        firstDate = dates.get(0);
+        lastDate = dates.get(dates.size() - 1);
+        middleDate = dates.get(dates.size() / 2);
+        conversions = IntStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> new ConvertCurrencyRequestDto(dates.get(i * 7 % dates.size()), SOURCE_CURRENCY, TARGET_CURRENCY, AMOUNT))
+                .toList();
+    }
+
+    @Benchmark
+    public ConvertCurrencyDto convertCurrency() {
+        return currencyRateService.convertCurrency(middleDate, SOURCE_CURRENCY, TARGET_CURRENCY, AMOUNT);
+    }
+
+    @Benchmark
+    public List<ConvertCurrencyDto> convertCurrenciesBatch() {
+        return currencyRateService.convertCurrencies(conversions).toList();
+    }
+
+    @Benchmark
+    public HighestExchangeRateDto highestExchangeRateShortSpan() {
+        return currencyRateService.getHighestExchangeRate(lastDate.minusDays(SHORT_SPAN_DAYS), lastDate, SOURCE_CURRENCY);
+    }
+
+    @Benchmark
+    public HighestExchangeRateDto highestExchangeRateLongSpan() {
+        return currencyRateService.getHighestExchangeRate(firstDate, lastDate, SOURCE_CURRENCY);
+    }
+
+    @Benchmark
+    public AverageExchangeRateDto averageExchangeRateShortSpan() {
+        return currencyRateService.getAverageExchangeRate(lastDate.minusDays(SHORT_SPAN_DAYS), lastDate, SOURCE_CURRENCY);
+    }
+
+    @Benchmark
+    public AverageExchangeRateDto averageExchangeRateLongSpan() {
+        return currencyRateService.getAverageExchangeRate(firstDate, lastDate, SOURCE_CURRENCY);
+    }
+
+    @Benchmark
+    public RateStatisticsDto rateStatisticsLongSpan() {
+        return currencyRateService.getRateStatistics(firstDate, lastDate, List.of(SOURCE_CURRENCY, TARGET_CURRENCY));
+    }
+
+    @Benchmark
+    public RateStatisticsDto rateStatisticsOfEveryCurrencyLongSpan() {
+        return currencyRateService.getRateStatistics(firstDate, lastDate, List.of());
+    }
+}
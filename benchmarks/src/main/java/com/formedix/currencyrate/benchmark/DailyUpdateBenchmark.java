@@ -0,0 +1,60 @@
+package com.formedix.currencyrate.benchmark;
+
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.repository.CurrencyRateMerge;
+import com.formedix.currencyrate.repository.CurrencyRateSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures publishing a daily update, which adds the rates of one new date to a history scaled up by
+ * {@code historyScale}, either by replacing the whole history or by merging the new date into the current snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DailyUpdateBenchmark {
+    @Param({"1", "10"})
+    private int historyScale;
+
+    private CurrencyRateSnapshot snapshot;
+    private List<CurrencyRate> dailyUpdate;
+    private List<CurrencyRate> updatedHistory;
+
+    @Setup
+    public void setUp() {
+        List<CurrencyRate> history = SyntheticCurrencyRates.rates(historyScale);
+        snapshot = CurrencyRateSnapshot.of(new ArrayList<>(history));
+        CurrencyRate lastRate = history.stream().max(Comparator.comparing(CurrencyRate::date)).orElseThrow();
+        dailyUpdate = List.of(new CurrencyRate(lastRate.date().plusDays(1), lastRate.currencies()));
+        updatedHistory = new ArrayList<>(dailyUpdate);
+        updatedHistory.addAll(history);
+    }
+
+    @Benchmark
+    public CurrencyRateSnapshot replace() {
+        return CurrencyRateSnapshot.of(updatedHistory);
+    }
+
+    @Benchmark
+    public CurrencyRateMerge merge() {
+        return snapshot.merge(dailyUpdate);
+    }
+}
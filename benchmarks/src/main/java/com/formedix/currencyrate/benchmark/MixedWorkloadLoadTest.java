@@ -0,0 +1,167 @@
+package com.formedix.currencyrate.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of a running application under a mixed upload and query workload.
+ * <p>
+ * Every client sends requests back to back for the configured duration. A fixed share of the requests uploads the
+ * synthetic CSV file, the others are single-date lookups, conversions and range queries. The throughput and the
+ * latency percentiles of every request type are printed as JSON, counting server errors and timeouts as failures, so
+ * runs with and without {@code web-server.virtual-threads} can be compared.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar com.formedix.currencyrate.benchmark.MixedWorkloadLoadTest
+ * [baseUri] [clients] [durationSeconds] [uploadPercentage] [historyScale]}
+ */
+public final class MixedWorkloadLoadTest {
+    private static final String BOUNDARY = "currency-rate-load-test";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final String[] TYPES = {"upload", "date", "convert", "range"};
+    private static final int UPLOAD = 0;
+    private static final int DATE = 1;
+    private static final int CONVERT = 2;
+    private static final int RANGE = 3;
+
+    private MixedWorkloadLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUri = args.length > 0 ? args[0] : "http://localhost:8080/formedix";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int uploadPercentage = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        int historyScale = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+
+        byte[] upload = multipartBody(SyntheticCurrencyRates.csv(historyScale));
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<ClientResult>> futures = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            Random random = new Random(client);
+            futures.add(executor.submit(() -> runClient(httpClient, baseUri, upload, uploadPercentage, random, deadline)));
+        }
+        ClientResult total = new ClientResult();
+        for (Future<ClientResult> future : futures) {
+            total.add(future.get());
+        }
+        executor.shutdown();
+        System.out.println(total.toJson(clients, durationSeconds, uploadPercentage, historyScale));
+    }
+
+    private static ClientResult runClient(HttpClient httpClient, String baseUri, byte[] upload, int uploadPercentage,
+                                          Random random, long deadline) {
+        ClientResult result = new ClientResult();
+        while (System.nanoTime() < deadline) {
+            int type = random.nextInt(100) < uploadPercentage ? UPLOAD : 1 + random.nextInt(TYPES.length - 1);
+            HttpRequest request = request(type, baseUri, upload, random).timeout(REQUEST_TIMEOUT).build();
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                result.record(type, System.nanoTime() - start, response.statusCode() < 500);
+            } catch (IOException e) {
+                result.record(type, System.nanoTime() - start, false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static HttpRequest.Builder request(int type, String baseUri, byte[] upload, Random random) {
+        String date = "2023-0" + (1 + random.nextInt(5)) + "-" + (10 + random.nextInt(9));
+        return switch (type) {
+            case UPLOAD -> HttpRequest.newBuilder(URI.create(baseUri + "/csv/v1/upload"))
+                    .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(upload));
+            case DATE -> HttpRequest.newBuilder(URI.create(baseUri + "/currency-rates/v1/" + date));
+            case CONVERT -> HttpRequest.newBuilder(URI.create(baseUri + "/currency-rates/v1/convert?date=" + date
+                    + "&sourceCurrency=USD&targetCurrency=GBP&amount=" + (1 + random.nextInt(10_000))));
+            case RANGE -> HttpRequest.newBuilder(URI.create(baseUri + "/currency-rates/v1/" + (random.nextBoolean() ? "highest-rate" : "average-rate")
+                    + "?startDate=20" + (10 + random.nextInt(10)) + "-01-01&endDate=" + date + "&currency=USD"));
+            default -> throw new IllegalArgumentException("Unknown request type " + type);
+        };
+    }
+
+    private static byte[] multipartBody(byte[] csv) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"currency-rates.csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(csv);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    /**
+     * Latencies and failures recorded by a client, per request type.
+     */
+    private static final class ClientResult {
+        private final long[][] latencies = new long[TYPES.length][1024];
+        private final int[] counts = new int[TYPES.length];
+        private final int[] failures = new int[TYPES.length];
+
+        private void record(int type, long latencyNanos, boolean success) {
+            if (counts[type] == latencies[type].length) {
+                latencies[type] = Arrays.copyOf(latencies[type], counts[type] * 2);
+            }
+            latencies[type][counts[type]++] = latencyNanos;
+            failures[type] += success ? 0 : 1;
+        }
+
+        private void add(ClientResult other) {
+            for (int type = 0; type < TYPES.length; type++) {
+                for (int i = 0; i < other.counts[type]; i++) {
+                    record(type, other.latencies[type][i], true);
+                }
+                failures[type] += other.failures[type];
+            }
+        }
+
+        private String toJson(int clients, int durationSeconds, int uploadPercentage, int historyScale) {
+            StringBuilder json = new StringBuilder()
+                    .append("{\"clients\":").append(clients)
+                    .append(",\"durationSeconds\":").append(durationSeconds)
+                    .append(",\"uploadPercentage\":").append(uploadPercentage)
+                    .append(",\"historyScale\":").append(historyScale)
+                    .append(",\"throughputPerSecond\":").append(String.format("%.1f", (double) Arrays.stream(counts).sum() / durationSeconds))
+                    .append(",\"requests\":{");
+            for (int type = 0; type < TYPES.length; type++) {
+                long[] sorted = Arrays.copyOf(latencies[type], counts[type]);
+                Arrays.sort(sorted);
+                json.append(type == 0 ? "" : ",").append('"').append(TYPES[type]).append("\":{")
+                        .append("\"count\":").append(counts[type])
+                        .append(",\"failures\":").append(failures[type])
+                        .append(",\"p50Millis\":").append(percentileMillis(sorted, 0.50))
+                        .append(",\"p99Millis\":").append(percentileMillis(sorted, 0.99))
+                        .append('}');
+            }
+            return json.append("}}").toString();
+        }
+
+        private static String percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return "null";
+            }
+            int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+            return String.format("%.2f", sorted[Math.max(0, index)] / 1_000_000.0);
+        }
+    }
+}
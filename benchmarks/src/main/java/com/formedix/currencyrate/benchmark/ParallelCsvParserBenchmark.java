@@ -0,0 +1,62 @@
+package com.formedix.currencyrate.benchmark;
+
+import com.formedix.currencyrate.config.CsvProperties;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.parser.CsvParserType;
+import com.formedix.currencyrate.parser.CurrencyRateCsvParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing the default CSV file, scaled up by {@code historyScale}, with the byte scanner split into chunks
+ * that are parsed on {@code parallelism} threads. A parallelism of {@code 1} parses the file sequentially.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParallelCsvParserBenchmark {
+    @Param({"1", "10"})
+    private int historyScale;
+
+    @Param({"1", "2", "4"})
+    private int parallelism;
+
+    private byte[] csv;
+    private CurrencyRateCsvParser currencyRateCsvParser;
+
+    @Setup
+    public void setUp() {
+        csv = SyntheticCurrencyRates.csv(historyScale);
+        CsvProperties csvProperties = new CsvProperties();
+        csvProperties.setParser(CsvParserType.BYTE_SCANNER);
+        csvProperties.setParallelism(parallelism);
+        currencyRateCsvParser = new CurrencyRateCsvParser(csvProperties);
+    }
+
+    @TearDown
+    public void tearDown() {
+        currencyRateCsvParser.destroy();
+    }
+
+    @Benchmark
+    public List<CurrencyRate> parse() {
+        return currencyRateCsvParser.parse(new ByteArrayInputStream(csv)).get();
+    }
+}
@@ -0,0 +1,88 @@
+package com.formedix.currencyrate.benchmark;
+
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.repository.CurrencyRateRepository;
+import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
+import com.formedix.currencyrate.repository.InMemoryCurrencyRateRepositoryImpl;
+import com.formedix.currencyrate.repository.IndexedCurrencyRateRepositoryImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures date lookups of every repository implementation over a history scaled up by {@code historyScale}.
+ * <p>
+ * The short span covers the last 30 days of the history and the long span the whole history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RepositoryBenchmark {
+    private static final int SHORT_SPAN_DAYS = 30;
+
+    @Param({"1", "10"})
+    private int historyScale;
+
+    @Param({"indexed", "scan"})
+    private String repository;
+
+    private CurrencyRateRepository<CurrencyRate> currencyRateRepository;
+    private LocalDate firstDate;
+    private LocalDate lastDate;
+    private LocalDate middleDate;
+
+    @Setup
+    public void setUp() {
+        CurrencyRatesContextHolder currencyRatesContextHolder = new CurrencyRatesContextHolder();
+        currencyRateRepository = repository.equals("scan")
+                ? new InMemoryCurrencyRateRepositoryImpl(currencyRatesContextHolder)
+                : new IndexedCurrencyRateRepositoryImpl(currencyRatesContextHolder);
+        List<CurrencyRate> rates = currencyRateRepository.update(SyntheticCurrencyRates.rates(historyScale));
+        List<LocalDate> dates = rates.stream().map(CurrencyRate::date).sorted(Comparator.naturalOrder()).toList();
+        firstDate = dates.get(0);
+        lastDate = dates.get(dates.size() - 1);
+        middleDate = dates.get(dates.size() / 2);
+    }
+
+    @Benchmark
+    public Optional<CurrencyRate> findByDate() {
+        return currencyRateRepository.findByDate(middleDate);
+    }
+
+    @Benchmark
+    public void findBetweenDatesShortSpan(Blackhole blackhole) {
+        consume(currencyRateRepository.findBetweenDates(lastDate.minusDays(SHORT_SPAN_DAYS), lastDate), blackhole);
+    }
+
+    @Benchmark
+    public void findBetweenDatesLongSpan(Blackhole blackhole) {
+        consume(currencyRateRepository.findBetweenDates(firstDate, lastDate), blackhole);
+    }
+
+    /**
+     * Reads every rate of the result, so lazy views are measured like the lists they stand in for.
+     */
+    private static void consume(List<CurrencyRate> rates, Blackhole blackhole) {
+        for (CurrencyRate rate : rates) {
+            blackhole.consume(rate);
+        }
+    }
+}
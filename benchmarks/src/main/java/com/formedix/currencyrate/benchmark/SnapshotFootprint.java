@@ -0,0 +1,72 @@
+package com.formedix.currencyrate.benchmark;
+
+import com.formedix.currencyrate.repository.CurrencyRateSnapshot;
+import com.formedix.currencyrate.repository.CurrencyRateSnapshotFile;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the heap retained by the snapshot of a parsed currency rate history.
+ * <p>
+ * For every history scale, the synthetic CSV file is parsed into a snapshot, and the used heap after a full garbage
+ * collection is compared with the used heap before parsing. The CSV file and everything else that is only needed while
+ * parsing is garbage by then, so the difference is the heap the application keeps for the rates between uploads. The
+ * results are printed as JSON, so runs of two builds can be compared. The numbers are most stable with a
+ * non-concurrent collector, such as {@code -XX:+UseSerialGC}.
+ * <p>
+ * The snapshot is then written to a {@link CurrencyRateSnapshotFile} and the heap retained by the snapshot mapped from
+ * the file is measured the same way, so the mapped rates, which are read from the file, are not counted.
+ * <p>
+ * Usage: {@code java -XX:+UseSerialGC -cp benchmarks.jar com.formedix.currencyrate.benchmark.SnapshotFootprint
+ * [historyScale...]}
+ */
+public final class SnapshotFootprint {
+    private static final int COLLECTIONS = 3;
+
+    private SnapshotFootprint() {
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int[] historyScales = args.length > 0
+                ? List.of(args).stream().mapToInt(Integer::parseInt).toArray()
+                : new int[]{1, 10, 50};
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        List<String> results = new ArrayList<>();
+        for (int historyScale : historyScales) {
+            long before = usedHeapAfterCollection(memory);
+            CurrencyRateSnapshot snapshot = CurrencyRateSnapshot.of(SyntheticCurrencyRates.rates(historyScale));
+            long retained = usedHeapAfterCollection(memory) - before;
+            int rows = snapshot.rates().size();
+            Path snapshotFile = Files.createTempFile("currency-rates", ".snapshot");
+            CurrencyRateSnapshotFile.write(snapshotFile, snapshot);
+            Reference.reachabilityFence(snapshot);
+            snapshot = null;
+
+            long mappedBefore = usedHeapAfterCollection(memory);
+            CurrencyRateSnapshot mappedSnapshot = CurrencyRateSnapshotFile.map(snapshotFile);
+            long mappedRetained = usedHeapAfterCollection(memory) - mappedBefore;
+            Reference.reachabilityFence(mappedSnapshot);
+            Files.delete(snapshotFile);
+            results.add(("{\"historyScale\":%d,\"rows\":%d,\"retainedBytes\":%d,\"bytesPerRow\":%d,"
+                    + "\"mappedRetainedBytes\":%d,\"mappedBytesPerRow\":%d}")
+                    .formatted(historyScale, rows, retained, rows == 0 ? 0 : retained / rows,
+                            mappedRetained, rows == 0 ? 0 : mappedRetained / rows));
+        }
+        System.out.println("[" + String.join(",", results) + "]");
+    }
+
+    private static long usedHeapAfterCollection(MemoryMXBean memory) throws InterruptedException {
+        for (int collection = 0; collection < COLLECTIONS; collection++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,68 @@
+package com.formedix.currencyrate.benchmark;
+
+import com.formedix.currencyrate.config.CsvProperties;
+import com.formedix.currencyrate.parser.CurrencyRateCsvParser;
+import com.formedix.currencyrate.repository.CurrencyRateSnapshot;
+import com.formedix.currencyrate.repository.CurrencyRateSnapshotFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures publishing the initial currency rates on startup, either by parsing the CSV file or by memory-mapping the
+ * persisted snapshot file, over a history scaled up by {@code historyScale}. Parsing builds the heap snapshot of the
+ * rates, while mapping serves the rates from the file and only builds the dates and aggregation indexes of its
+ * segments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StartupBenchmark {
+    @Param({"1", "10"})
+    private int historyScale;
+
+    private byte[] csv;
+    private CurrencyRateCsvParser currencyRateCsvParser;
+    private Path snapshotFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        csv = SyntheticCurrencyRates.csv(historyScale);
+        currencyRateCsvParser = new CurrencyRateCsvParser(new CsvProperties());
+        snapshotFile = Files.createTempFile("currency-rates", ".snapshot");
+        CurrencyRateSnapshotFile.write(snapshotFile, CurrencyRateSnapshot.of(SyntheticCurrencyRates.rates(historyScale)));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    @Benchmark
+    public CurrencyRateSnapshot parseCsv() {
+        return currencyRateCsvParser.parse(new ByteArrayInputStream(csv)).getSnapshot();
+    }
+
+    @Benchmark
+    public CurrencyRateSnapshot mapSnapshot() throws IOException {
+        return CurrencyRateSnapshotFile.map(snapshotFile);
+    }
+}
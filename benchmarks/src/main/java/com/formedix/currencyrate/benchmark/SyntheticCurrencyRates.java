@@ -0,0 +1,90 @@
+package com.formedix.currencyrate.benchmark;
+
+import com.formedix.currencyrate.config.CsvProperties;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.parser.CurrencyRateCsvParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Generates scaled-up currency rate histories from the default CSV file of the application.
+ * <p>
+ * A history of scale {@code n} repeats the default history {@code n} times back in time, each copy shifted before the
+ * previous one and its rates scaled by a fixed factor. The generated data only depends on the scale, so benchmark
+ * results are reproducible offline.
+ */
+final class SyntheticCurrencyRates {
+    private static final String DEFAULT_CURRENCY_RATES = "/templates/csv/default-currency-rates.csv";
+    private static final BigDecimal COPY_FACTOR = new BigDecimal("0.01");
+
+    private SyntheticCurrencyRates() {
+    }
+
+    /**
+     * Generates the CSV file of a history of the given scale.
+     *
+     * @param scale the number of times the default history is repeated
+     *
+     * @return the UTF-8 encoded CSV file
+     */
+    static byte[] csv(int scale) {
+        List<String> lines = readDefaultCsv();
+        String[] headers = lines.get(0).split(",", -1);
+        List<String[]> rows = lines.stream().skip(1).filter(line -> !line.isBlank()).map(line -> line.split(",", -1)).toList();
+        LocalDate firstDate = rows.stream().map(row -> LocalDate.parse(row[0])).min(LocalDate::compareTo).orElseThrow();
+        LocalDate lastDate = rows.stream().map(row -> LocalDate.parse(row[0])).max(LocalDate::compareTo).orElseThrow();
+        long spanDays = ChronoUnit.DAYS.between(firstDate, lastDate) + 1;
+
+        StringBuilder csv = new StringBuilder(String.join(",", headers)).append('\n');
+        for (int copy = 0; copy < scale; copy++) {
+            BigDecimal factor = BigDecimal.ONE.add(COPY_FACTOR.multiply(BigDecimal.valueOf(copy)));
+            for (String[] row : rows) {
+                csv.append(LocalDate.parse(row[0]).minusDays(spanDays * copy));
+                for (int column = 1; column < row.length; column++) {
+                    csv.append(',').append(scaleRate(row[column], factor));
+                }
+                csv.append('\n');
+            }
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the history of the given scale with the default parser.
+     *
+     * @param scale the number of times the default history is repeated
+     *
+     * @return the parsed currency rates
+     */
+    static List<CurrencyRate> rates(int scale) {
+        return new CurrencyRateCsvParser(new CsvProperties()).parse(new ByteArrayInputStream(csv(scale))).get();
+    }
+
+    private static String scaleRate(String rate, BigDecimal factor) {
+        if (rate.isEmpty() || rate.equals("N/A")) {
+            return rate;
+        }
+        BigDecimal value = new BigDecimal(rate);
+        return value.multiply(factor).setScale(value.scale(), RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static List<String> readDefaultCsv() {
+        try (InputStream inputStream = SyntheticCurrencyRates.class.getResourceAsStream(DEFAULT_CURRENCY_RATES)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Missing " + DEFAULT_CURRENCY_RATES + " on the classpath");
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
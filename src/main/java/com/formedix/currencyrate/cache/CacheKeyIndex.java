@@ -0,0 +1,137 @@
+package com.formedix.currencyrate.cache;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Interval index over the dates the keys of a cache depend on.
+ * <p>
+ * A key depends on a single date if it is a {@link LocalDate} or a list starting with one, such as
+ * {@code [date, sourceCurrency, targetCurrency]}, and on the {@code [startDate, endDate]} interval if it is a list
+ * starting with two dates, such as {@code [startDate, endDate, currency]}. The intervals are indexed by start date and
+ * then by end date, so the keys whose interval contains any of a set of dates are found by visiting only the start
+ * dates up to the last of these dates and, for each of them, only the end dates on or after the first date it can
+ * contain. Keys of any other shape are considered to depend on all dates.
+ */
+public final class CacheKeyIndex {
+    private final NavigableMap<LocalDate, NavigableMap<LocalDate, Set<Object>>> keysByStartDate = new TreeMap<>();
+    private final Set<Object> undatedKeys = new HashSet<>();
+
+    /**
+     * Adds the key to the index.
+     *
+     * @param key the cache key
+     */
+    public synchronized void add(Object key) {
+        LocalDate[] interval = interval(key);
+        if (interval == null) {
+            undatedKeys.add(key);
+            return;
+        }
+        keysByStartDate.computeIfAbsent(interval[0], startDate -> new TreeMap<>())
+                .computeIfAbsent(interval[1], endDate -> new HashSet<>())
+                .add(key);
+    }
+
+    /**
+     * Removes the key from the index.
+     *
+     * @param key the cache key
+     */
+    public synchronized void remove(Object key) {
+        LocalDate[] interval = interval(key);
+        if (interval == null) {
+            undatedKeys.remove(key);
+            return;
+        }
+        NavigableMap<LocalDate, Set<Object>> keysByEndDate = keysByStartDate.get(interval[0]);
+        Set<Object> keys = keysByEndDate == null ? null : keysByEndDate.get(interval[1]);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByEndDate.remove(interval[1]);
+            if (keysByEndDate.isEmpty()) {
+                keysByStartDate.remove(interval[0]);
+            }
+        }
+    }
+
+    /**
+     * Removes all keys from the index.
+     */
+    public synchronized void clear() {
+        keysByStartDate.clear();
+        undatedKeys.clear();
+    }
+
+    /**
+     * Returns the number of keys in the index.
+     *
+     * @return the number of keys
+     */
+    public synchronized int size() {
+        int size = undatedKeys.size();
+        for (NavigableMap<LocalDate, Set<Object>> keysByEndDate : keysByStartDate.values()) {
+            for (Set<Object> keys : keysByEndDate.values()) {
+                size += keys.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Finds the keys that depend on any of the specified dates.
+     *
+     * @param dates the dates, sorted
+     *
+     * @return the keys whose date or interval contains any of the dates
+     */
+    public synchronized Set<Object> findIntersecting(NavigableSet<LocalDate> dates) {
+        Set<Object> keys = new HashSet<>(undatedKeys);
+        if (dates.isEmpty()) {
+            return keys;
+        }
+        for (Map.Entry<LocalDate, NavigableMap<LocalDate, Set<Object>>> entry
+                : keysByStartDate.headMap(dates.last(), true).entrySet()) {
+            LocalDate firstContainedDate = dates.ceiling(entry.getKey());
+            entry.getValue().tailMap(firstContainedDate, true).values().forEach(keys::addAll);
+        }
+        return keys;
+    }
+
+    /**
+     * Checks whether the key depends on any of the specified dates, without indexing it.
+     *
+     * @param key   the cache key
+     * @param dates the dates, sorted
+     *
+     * @return {@code true} if the date or interval of the key contains any of the dates
+     */
+    public static boolean intersects(Object key, NavigableSet<LocalDate> dates) {
+        LocalDate[] interval = interval(key);
+        if (interval == null) {
+            return true;
+        }
+        LocalDate firstContainedDate = dates.ceiling(interval[0]);
+        return firstContainedDate != null && !firstContainedDate.isAfter(interval[1]);
+    }
+
+    /**
+     * Returns the {@code [startDate, endDate]} interval the key depends on, or {@code null} if it has no dates.
+     */
+    private static LocalDate[] interval(Object key) {
+        if (key instanceof LocalDate date) {
+            return new LocalDate[]{date, date};
+        }
+        if (key instanceof List<?> values && !values.isEmpty() && values.get(0) instanceof LocalDate startDate) {
+            return values.size() > 1 && values.get(1) instanceof LocalDate endDate
+                    ? new LocalDate[]{startDate, endDate}
+                    : new LocalDate[]{startDate, startDate};
+        }
+        return null;
+    }
+}
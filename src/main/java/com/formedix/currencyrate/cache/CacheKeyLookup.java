@@ -0,0 +1,21 @@
+package com.formedix.currencyrate.cache;
+
+/**
+ * Repeats the lookup that a cache entry holds the result of, from the name of its cache and its key.
+ * <p>
+ * The lookup is made through the caching proxy of the service it belongs to, so its result is put into the cache like
+ * the result of any other call.
+ */
+@FunctionalInterface
+public interface CacheKeyLookup {
+
+    /**
+     * Looks the key up again.
+     *
+     * @param cacheName the name of the cache
+     * @param key       the cache key
+     *
+     * @throws IllegalArgumentException if the key is not a key of a lookup of the cache
+     */
+    void lookUp(String cacheName, Object key);
+}
@@ -0,0 +1,104 @@
+package com.formedix.currencyrate.cache;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.function.Predicate;
+
+/**
+ * Cache entries computed against rates that are not published yet, kept aside from the caches until the rates are.
+ * <p>
+ * While a stage {@link #run(Runnable) runs} a task, the {@link IndexedCaffeineCache}s read and write the entries that
+ * depend on the changed dates from the stage instead, on the thread of the task only: the entries of the published
+ * rates are neither returned nor replaced. Entries that do not depend on the changed dates are the same for both rates,
+ * so they are still read from the caches. Once the rates are published and the entries depending on the changed dates
+ * evicted, the staged entries are stored in their place with {@link IndexedCaffeineCache#putStaged(CacheStage)}.
+ * <p>
+ * A stage of a {@link #of(Object) single key} recomputes the entry of that key through the caching proxy of its lookup,
+ * which would otherwise answer it from the cache, so its cache can refresh the entry.
+ */
+public final class CacheStage {
+    private static final ThreadLocal<CacheStage> CURRENT = new ThreadLocal<>();
+
+    private final Predicate<Object> stagedKeys;
+    private final Map<String, Map<Object, Object>> entriesByCacheName = new HashMap<>();
+
+    /**
+     * Creates an empty stage.
+     *
+     * @param changedDates the dates whose rates differ from the published ones, sorted
+     */
+    public CacheStage(NavigableSet<LocalDate> changedDates) {
+        this(changedDates.isEmpty() ? key -> false : key -> CacheKeyIndex.intersects(key, changedDates));
+    }
+
+    private CacheStage(Predicate<Object> stagedKeys) {
+        this.stagedKeys = stagedKeys;
+    }
+
+    /**
+     * Creates an empty stage of a single key.
+     *
+     * @param key the cache key
+     *
+     * @return the stage that stages the entries of the key only
+     */
+    public static CacheStage of(Object key) {
+        return new CacheStage(key::equals);
+    }
+
+    /**
+     * Creates a stage that stages nothing.
+     *
+     * @return the empty stage
+     */
+    public static CacheStage empty() {
+        return new CacheStage(key -> false);
+    }
+
+    /**
+     * Runs the task with the caches staging the entries it computes.
+     *
+     * @param task the task, run on the calling thread
+     */
+    public void run(Runnable task) {
+        CacheStage previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            task.run();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Returns the number of staged entries.
+     *
+     * @return the number of staged entries of all caches
+     */
+    public synchronized int size() {
+        return entriesByCacheName.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Returns the stage the current thread runs a task of, if it stages the key.
+     */
+    static CacheStage stagingKey(Object key) {
+        CacheStage stage = CURRENT.get();
+        return stage != null && stage.stagedKeys.test(key) ? stage : null;
+    }
+
+    synchronized Object get(String cacheName, Object key) {
+        Map<Object, Object> entries = entriesByCacheName.get(cacheName);
+        return entries == null ? null : entries.get(key);
+    }
+
+    synchronized void put(String cacheName, Object key, Object storeValue) {
+        entriesByCacheName.computeIfAbsent(cacheName, name -> new HashMap<>()).put(key, storeValue);
+    }
+
+    synchronized Map<Object, Object> entries(String cacheName) {
+        return Map.copyOf(entriesByCacheName.getOrDefault(cacheName, Map.of()));
+    }
+}
@@ -0,0 +1,174 @@
+package com.formedix.currencyrate.cache;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Caffeine cache that maintains a {@link CacheKeyIndex} of its keys, so the entries depending on changed dates are
+ * evicted without scanning the whole cache.
+ * <p>
+ * Keys are indexed and removed from the index within the atomic computation of their entry in the native cache, so
+ * the index changes in the same order as the entries of a key do. Entries evicted by Caffeine itself, because of their
+ * size or age, are removed from the index by the eviction listener of the native cache, which Caffeine runs within the
+ * atomic removal of the evicted entry: it cannot overtake a later put of the same key, so it only ever removes the key
+ * of the entry it evicts. Keys indexed by puts that race with {@link #clear()} are removed the next time they are
+ * evicted.
+ * <p>
+ * On a thread running a task of a {@link CacheStage}, the entries depending on its changed dates are read from and
+ * written to the stage instead.
+ */
+public class IndexedCaffeineCache extends CaffeineCache {
+    private final CacheKeyIndex cacheKeyIndex;
+
+    public IndexedCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                boolean allowNullValues, CacheKeyIndex cacheKeyIndex) {
+        super(name, cache, allowNullValues);
+        this.cacheKeyIndex = cacheKeyIndex;
+    }
+
+    /**
+     * Looks up the value of the key without loading it: the loader of a refreshing cache only refreshes entries, a
+     * miss is computed and put by the caller.
+     */
+    @Override
+    @Nullable
+    protected Object lookup(Object key) {
+        CacheStage stage = CacheStage.stagingKey(key);
+        return stage == null ? getNativeCache().getIfPresent(key) : stage.get(getName(), key);
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheStage stage = CacheStage.stagingKey(key);
+        if (stage != null) {
+            Object storeValue = stage.get(getName(), key);
+            if (storeValue == null) {
+                try {
+                    storeValue = toStoreValue(valueLoader.call());
+                } catch (Exception e) {
+                    throw new ValueRetrievalException(key, valueLoader, e);
+                }
+                stage.put(getName(), key, storeValue);
+            }
+            return (T) fromStoreValue(storeValue);
+        }
+        return super.get(key, () -> {
+            T value = valueLoader.call();
+            cacheKeyIndex.add(key);
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        Object storeValue = toStoreValue(value);
+        CacheStage stage = CacheStage.stagingKey(key);
+        if (stage != null) {
+            stage.put(getName(), key, storeValue);
+            return;
+        }
+        putStoreValue(key, storeValue);
+    }
+
+    private void putStoreValue(Object key, Object storeValue) {
+        getNativeCache().asMap().compute(key, (cacheKey, previousValue) -> {
+            cacheKeyIndex.add(cacheKey);
+            return storeValue;
+        });
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+        Object storeValue = toStoreValue(value);
+        CacheStage stage = CacheStage.stagingKey(key);
+        if (stage != null) {
+            Object existingValue = stage.get(getName(), key);
+            if (existingValue == null) {
+                stage.put(getName(), key, storeValue);
+            }
+            return toValueWrapper(existingValue);
+        }
+        boolean[] stored = new boolean[1];
+        Object existingValue = getNativeCache().get(key, cacheKey -> {
+            cacheKeyIndex.add(cacheKey);
+            stored[0] = true;
+            return storeValue;
+        });
+        return stored[0] ? null : toValueWrapper(existingValue);
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean[] evicted = new boolean[1];
+        getNativeCache().asMap().compute(key, (cacheKey, value) -> {
+            cacheKeyIndex.remove(cacheKey);
+            evicted[0] = value != null;
+            return null;
+        });
+        return evicted[0];
+    }
+
+    @Override
+    public void clear() {
+        cacheKeyIndex.clear();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        cacheKeyIndex.clear();
+        return super.invalidate();
+    }
+
+    /**
+     * Finds the keys of the entries that depend on any of the specified dates.
+     *
+     * @param dates the changed dates, sorted
+     *
+     * @return the keys of the entries
+     */
+    public Set<Object> findIntersecting(NavigableSet<LocalDate> dates) {
+        return cacheKeyIndex.findIntersecting(dates);
+    }
+
+    /**
+     * Stores the entries the stage holds for this cache, replacing the entries of their keys.
+     *
+     * @param stage the stage
+     */
+    public void putStaged(CacheStage stage) {
+        stage.entries(getName()).forEach(this::putStoreValue);
+    }
+
+    /**
+     * Evicts the entries whose key depends on any of the specified dates.
+     *
+     * @param dates the changed dates, sorted
+     *
+     * @return the keys of the evicted entries
+     */
+    public List<Object> evictIntersecting(NavigableSet<LocalDate> dates) {
+        List<Object> evictedKeys = new ArrayList<>();
+        for (Object key : cacheKeyIndex.findIntersecting(dates)) {
+            if (evictIfPresent(key)) {
+                evictedKeys.add(key);
+            }
+        }
+        return evictedKeys;
+    }
+}
@@ -0,0 +1,73 @@
+package com.formedix.currencyrate.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caffeine cache manager whose caches are {@link IndexedCaffeineCache}s. Every cache is built from its own Caffeine
+ * builder, so that every cache has its own policy and Caffeine's evictions are reported to the key index of that cache
+ * only.
+ * <p>
+ * With a {@link CacheKeyLookup}, the caches are loading caches whose loader repeats the lookup of a key through the
+ * caching proxy of its service, staging its result in a {@link CacheStage} of the key so the lookup is computed rather
+ * than answered by the entry it refreshes. Policies that refresh entries after write thereby recompute the entries
+ * that are read after the refresh interval, in the background, while the previous value is still served. A refresh
+ * whose lookup fails keeps the previous value, which still expires after write. Without a lookup, such policies are
+ * rejected when the cache is built.
+ */
+public class IndexedCaffeineCacheManager extends CaffeineCacheManager {
+    private final Function<String, Caffeine<Object, Object>> cacheBuilders;
+    private final CacheKeyLookup cacheKeyLookup;
+    private final Map<String, CacheKeyIndex> cacheKeyIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * @param cacheBuilders the Caffeine builder of every cache, by cache name
+     */
+    public IndexedCaffeineCacheManager(Function<String, Caffeine<Object, Object>> cacheBuilders) {
+        this(cacheBuilders, null);
+    }
+
+    /**
+     * @param cacheBuilders  the Caffeine builder of every cache, by cache name
+     * @param cacheKeyLookup the lookup that refreshes the entries of the caches, or {@code null} if they cannot be
+     *                       refreshed
+     */
+    public IndexedCaffeineCacheManager(Function<String, Caffeine<Object, Object>> cacheBuilders, CacheKeyLookup cacheKeyLookup) {
+        this.cacheBuilders = cacheBuilders;
+        this.cacheKeyLookup = cacheKeyLookup;
+    }
+
+    @Override
+    protected com.github.benmanes.caffeine.cache.Cache<Object, Object> createNativeCaffeineCache(String name) {
+        CacheKeyIndex cacheKeyIndex = cacheKeyIndexes.computeIfAbsent(name, cacheName -> new CacheKeyIndex());
+        Caffeine<Object, Object> builder = cacheBuilders.apply(name)
+                .evictionListener((key, value, cause) -> cacheKeyIndex.remove(key));
+        return cacheKeyLookup == null ? builder.build() : builder.build(key -> refresh(name, key));
+    }
+
+    /**
+     * Recomputes the value of a key by repeating its lookup.
+     *
+     * @throws IllegalStateException if the lookup did not put a value for the key
+     */
+    private Object refresh(String cacheName, Object key) {
+        CacheStage stage = CacheStage.of(key);
+        stage.run(() -> cacheKeyLookup.lookUp(cacheName, key));
+        Object storeValue = stage.get(cacheName, key);
+        if (storeValue == null) {
+            throw new IllegalStateException(String.format("The lookup of `%s` did not cache a value in `%s`", key, cacheName));
+        }
+        return storeValue;
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        return new IndexedCaffeineCache(name, cache, isAllowNullValues(),
+                cacheKeyIndexes.computeIfAbsent(name, cacheName -> new CacheKeyIndex()));
+    }
+}
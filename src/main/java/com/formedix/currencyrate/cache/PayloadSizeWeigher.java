@@ -0,0 +1,115 @@
+package com.formedix.currencyrate.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formedix.currencyrate.dto.GetCurrencyRateDto;
+import com.formedix.currencyrate.dto.RateStatisticsDto;
+import com.github.benmanes.caffeine.cache.Weigher;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Weighs cache entries by the size in bytes of the JSON payload of their value, which is what the endpoints write for
+ * them and grows with the number of rates the value holds.
+ * <p>
+ * Only a sample of the values is serialised: the first value of every class and then every
+ * {@value #SAMPLE_INTERVAL}th one, whose payload is counted while it is serialised, without buffering it. The other
+ * values are weighed by the shape of their class, that is by the number of rates they hold times the average payload
+ * size per rate of the sampled values of their class, counting the fields around the rates as one more rate.
+ */
+@Slf4j
+public class PayloadSizeWeigher implements Weigher<Object, Object> {
+    /**
+     * The weight of a value that cannot be serialised.
+     */
+    static final int UNKNOWN_WEIGHT = 1_024;
+    /**
+     * The number of weighed values of a class per sampled value.
+     */
+    static final int SAMPLE_INTERVAL = 64;
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, PayloadShape> payloadShapes = new ConcurrentHashMap<>();
+
+    public PayloadSizeWeigher(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public int weigh(Object key, Object value) {
+        PayloadShape payloadShape = payloadShapes.computeIfAbsent(value.getClass(), valueClass -> new PayloadShape());
+        int rates = ratesOf(value);
+        if (!payloadShape.isSampled()) {
+            return payloadShape.estimate(rates);
+        }
+        ByteCountingOutputStream outputStream = new ByteCountingOutputStream();
+        try {
+            objectMapper.writeValue(outputStream, value);
+        } catch (IOException e) {
+            log.warn("Unable to weigh the cached value of `{}`", key, e);
+            return UNKNOWN_WEIGHT;
+        }
+        payloadShape.record(rates, outputStream.count);
+        return (int) Math.min(Integer.MAX_VALUE, outputStream.count);
+    }
+
+    /**
+     * Returns the number of rates the payload of the value holds: the currencies of the rates or statistics of a date
+     * or range, the entries of a map or the elements of a collection, and one for any other value.
+     */
+    private static int ratesOf(Object value) {
+        if (value instanceof GetCurrencyRateDto currencyRate && currencyRate.getCurrencies() != null) {
+            return currencyRate.getCurrencies().size();
+        }
+        if (value instanceof RateStatisticsDto rateStatistics && rateStatistics.getCurrencies() != null) {
+            return rateStatistics.getCurrencies().size();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        return value instanceof Collection<?> collection ? collection.size() : 1;
+    }
+
+    /**
+     * The payload sizes of the sampled values of a class.
+     */
+    private static final class PayloadShape {
+        private long weighedValues;
+        private long sampledBytes;
+        private long sampledRates;
+
+        /**
+         * Counts a weighed value and tells whether it is sampled. Values are sampled until a sample was recorded.
+         */
+        synchronized boolean isSampled() {
+            return weighedValues++ % SAMPLE_INTERVAL == 0 || sampledRates == 0;
+        }
+
+        synchronized void record(int rates, long bytes) {
+            sampledBytes += bytes;
+            sampledRates += rates + 1L;
+        }
+
+        synchronized int estimate(int rates) {
+            return (int) Math.min(Integer.MAX_VALUE, (sampledBytes * (rates + 1L) + sampledRates - 1) / sampledRates);
+        }
+    }
+
+    private static final class ByteCountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.formedix.currencyrate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "currency-rate.aggregation")
+@Data
+public class AggregationProperties {
+    private int parallelism = 0;
+    private int parallelThreshold = 200_000;
+    private int chunkSize = 2_048;
+}
@@ -1,28 +1,55 @@
 package com.formedix.currencyrate.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formedix.currencyrate.cache.CacheKeyLookup;
+import com.formedix.currencyrate.cache.IndexedCaffeineCacheManager;
+import com.formedix.currencyrate.cache.PayloadSizeWeigher;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Arrays;
+
 @Configuration
 @EnableCaching
 @AllArgsConstructor
 public class CacheConfiguration {
+    private static final String MAXIMUM_WEIGHT = "maximumWeight";
+
     private final CacheProperties cacheProperties;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<CacheKeyLookup> cacheKeyLookup;
 
+    /**
+     * Creates the cache manager. The lookup that refreshes the entries calls the services through their caching
+     * proxies, which depend on the cache manager, so it is only resolved once an entry is refreshed.
+     */
     @Bean
     public CaffeineCacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCaffeine(caffeineCacheBuilder());
+        PayloadSizeWeigher payloadSizeWeigher = new PayloadSizeWeigher(objectMapper);
+        CaffeineCacheManager cacheManager = new IndexedCaffeineCacheManager(cacheName -> caffeineCacheBuilder(cacheName, payloadSizeWeigher),
+                (cacheName, key) -> cacheKeyLookup.getObject().lookUp(cacheName, key));
         cacheManager.setCacheNames(cacheProperties.getCacheNames());
         return cacheManager;
     }
 
-    private Caffeine<Object, Object> caffeineCacheBuilder() {
-        return Caffeine.from(cacheProperties.getSpec())
+    /**
+     * Creates the Caffeine builder of a cache from its spec. Caches bounded by {@code maximumWeight} weigh their entries
+     * by the size of their payload, so their maximum weight is a number of bytes.
+     */
+    private Caffeine<Object, Object> caffeineCacheBuilder(String cacheName, PayloadSizeWeigher payloadSizeWeigher) {
+        String spec = cacheProperties.getSpec(cacheName);
+        Caffeine<Object, Object> builder = Caffeine.from(spec)
                 .recordStats();
+        return isWeighted(spec) ? builder.weigher(payloadSizeWeigher) : builder;
+    }
+
+    private static boolean isWeighted(String spec) {
+        return Arrays.stream(spec.split(","))
+                .anyMatch(option -> option.trim().startsWith(MAXIMUM_WEIGHT));
     }
 }
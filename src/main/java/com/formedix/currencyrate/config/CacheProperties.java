@@ -4,12 +4,26 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Component
 @ConfigurationProperties(prefix = "spring.cache")
 public class CacheProperties {
     private String spec;
+    private Map<String, String> specs = new HashMap<>();
     private List<String> cacheNames;
+
+    /**
+     * Get the Caffeine spec of a cache.
+     *
+     * @param cacheName the name of the cache
+     *
+     * @return the spec configured for the cache, or the default spec if there is none
+     */
+    public String getSpec(String cacheName) {
+        return specs.getOrDefault(cacheName, spec);
+    }
 }
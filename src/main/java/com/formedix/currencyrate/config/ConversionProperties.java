@@ -0,0 +1,12 @@
+package com.formedix.currencyrate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "currency-rate.conversion")
+@Data
+public class ConversionProperties {
+    private boolean fixedPoint;
+}
@@ -1,6 +1,8 @@
 package com.formedix.currencyrate.config;
 
 import com.formedix.currencyrate.parser.CurrencyRateCsvParser;
+import com.formedix.currencyrate.repository.CurrencyRateSnapshot;
+import com.formedix.currencyrate.repository.CurrencyRateSnapshotStore;
 import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
 import jakarta.servlet.MultipartConfigElement;
 import lombok.AllArgsConstructor;
@@ -13,18 +15,40 @@ import org.springframework.core.io.ResourceLoader;
 import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Configuration
 @AllArgsConstructor
 public class CsvConfiguration {
     private final CurrencyRateCsvParser currencyRateCsvParser;
     private final CsvProperties csvProperties;
+    private final CurrencyRateSnapshotStore currencyRateSnapshotStore;
 
+    /**
+     * Creates the holder of the current currency rates. The latest persisted snapshot is memory-mapped if there is
+     * one, and its rates are served from the mapping; otherwise the default CSV file is parsed. Nothing is cached yet,
+     * so the version of the rates is published right away.
+     *
+     * @param resourceLoader the loader of the default CSV file
+     *
+     * @return the holder of the current currency rates
+     *
+     * @throws IOException if the default CSV file cannot be read
+     */
     @Bean
     @Primary
     public CurrencyRatesContextHolder currencyRatesContextHolder(ResourceLoader resourceLoader) throws IOException {
-        Resource resource = resourceLoader.getResource(csvProperties.getDefaultCurrencyRateFilePath());
-        return currencyRateCsvParser.parse(resource.getInputStream());
+        Optional<CurrencyRateSnapshot> persistedSnapshot = currencyRateSnapshotStore.load();
+        CurrencyRatesContextHolder currencyRatesContextHolder;
+        if (persistedSnapshot.isPresent()) {
+            currencyRatesContextHolder = new CurrencyRatesContextHolder();
+            currencyRatesContextHolder.set(persistedSnapshot.get().rates());
+        } else {
+            Resource resource = resourceLoader.getResource(csvProperties.getDefaultCurrencyRateFilePath());
+            currencyRatesContextHolder = currencyRateCsvParser.parse(resource.getInputStream());
+        }
+        currencyRatesContextHolder.publishVersion();
+        return currencyRatesContextHolder;
     }
 
     @Bean
@@ -1,5 +1,6 @@
 package com.formedix.currencyrate.config;
 
+import com.formedix.currencyrate.parser.CsvParserType;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -11,4 +12,8 @@ public class CsvProperties {
     private String defaultCurrencyRateFilePath;
     private int maxUploadFileSize;
     private int maxRequestSize;
+    private CsvParserType parser = CsvParserType.OPENCSV;
+    private int parallelism = 0;
+    private int parallelThreshold = 1_048_576;
+    private int chunkSize = 262_144;
 }
@@ -0,0 +1,13 @@
+package com.formedix.currencyrate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "currency-rate.serialized-responses")
+@Data
+public class SerializedResponseProperties {
+    private boolean enabled;
+    private boolean gzip = true;
+}
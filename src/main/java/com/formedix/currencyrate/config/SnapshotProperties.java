@@ -0,0 +1,14 @@
+package com.formedix.currencyrate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "snapshot")
+@Data
+public class SnapshotProperties {
+    private boolean enabled;
+    private String directory = "data";
+    private String fileName = "currency-rates.snapshot";
+}
@@ -0,0 +1,17 @@
+package com.formedix.currencyrate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "upload-job")
+@Data
+public class UploadJobProperties {
+    private int threads = 1;
+    private int queueCapacity = 10;
+    private int retainedJobs = 100;
+    private Duration retention = Duration.ofHours(1);
+}
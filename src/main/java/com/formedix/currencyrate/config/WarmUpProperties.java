@@ -0,0 +1,18 @@
+package com.formedix.currencyrate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "currency-rate.warm-up")
+@Data
+public class WarmUpProperties {
+    private boolean enabled = true;
+    private int recentDays = 30;
+    private List<Integer> rangeDays = List.of(30, 90, 365);
+    private List<String> currencies = List.of();
+    private int learnedKeys = 1_000;
+}
@@ -1,10 +1,19 @@
 package com.formedix.currencyrate.config;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class WebServerConfiguration {
@@ -15,4 +24,45 @@ public class WebServerConfiguration {
     public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> webServerFactoryCustomizer() {
         return factory -> factory.setContextPath(rootUri);
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs every request on its own virtual thread instead of Tomcat's platform thread pool, so slow uploads and long
+     * queries no longer hold scarce worker threads. Streamed responses are written on virtual threads as well.
+     * Enabled with {@code web-server.virtual-threads=true}, which requires Java 21 or later.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "web-server", name = "virtual-threads", havingValue = "true")
+    public static class VirtualThreadConfiguration implements WebMvcConfigurer, DisposableBean {
+        private final ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+
+        @Bean
+        public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+            return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+        }
+
+        @Override
+        public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+            configurer.setTaskExecutor(new TaskExecutorAdapter(virtualThreadExecutor));
+        }
+
+        @Override
+        public void destroy() {
+            virtualThreadExecutor.shutdown();
+        }
+
+        /**
+         * Creates the virtual thread executor. The default build targets Java 17, so the executor is looked up
+         * reflectively rather than called directly, and the application still builds and runs on Java 17 while the
+         * mode is off. Builds on Java 21 activate the {@code java21} profile, which the CI workflow builds as well.
+         */
+        private static ExecutorService newVirtualThreadPerTaskExecutor() {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("Virtual threads require Java 21 or later, running on Java " + Runtime.version().feature(), e);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to create the virtual thread executor", e);
+            }
+        }
+    }
+}
@@ -1,19 +1,32 @@
 package com.formedix.currencyrate.controller;
 
 import com.formedix.currencyrate.dto.AverageExchangeRateDto;
+import com.formedix.currencyrate.dto.BatchConvertCurrencyRequestDto;
 import com.formedix.currencyrate.dto.ConvertCurrencyDto;
 import com.formedix.currencyrate.dto.GetCurrencyRateDto;
 import com.formedix.currencyrate.dto.HighestExchangeRateDto;
+import com.formedix.currencyrate.dto.RateStatisticsDto;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 @RequestMapping("/currency-rates/v1")
 @Tag(name = "Currency Rate", description = "Manage currency rate transactions")
@@ -22,10 +35,14 @@ public interface CurrencyRateController {
     @GetMapping("/{date}")
     @Operation(
             summary = "Get Currency Rates by Date",
-            description = "Retrieve the reference rate data for a given date for all available currencies",
-            tags = "Currency Rate"
+            description = "Retrieve the reference rate data for a given date for all available currencies. With serialised "
+                    + "responses enabled, the body is written from its serialised copy, gzip-compressed if accepted, and "
+                    + "carries a strong ETag.",
+            tags = "Currency Rate",
+            responses = @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = GetCurrencyRateDto.class)))
     )
-    ResponseEntity<GetCurrencyRateDto> getCurrencyRatesByDate(@PathVariable("date") final LocalDate date);
+    ResponseEntity<?> getCurrencyRatesByDate(@PathVariable("date") final LocalDate date,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding);
 
     @GetMapping("/convert")
     @Operation(
@@ -39,6 +56,14 @@ public interface CurrencyRateController {
             @RequestParam("targetCurrency") final String targetCurrency,
             @RequestParam("amount") final BigDecimal amount);
 
+    @PostMapping(value = "/convert/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Convert Currencies in Batch",
+            description = "Convert many amounts between currencies on specific dates, returning the results in the order of the request",
+            tags = "Currency Rate"
+    )
+    ResponseEntity<StreamingResponseBody> convertCurrencies(@Valid @RequestBody final BatchConvertCurrencyRequestDto batchConvertCurrencyRequestDto);
+
     @GetMapping("/highest-rate")
     @Operation(
             summary = "Get Highest Exchange Rate",
@@ -60,4 +85,17 @@ public interface CurrencyRateController {
             @RequestParam("startDate") final LocalDate startDate,
             @RequestParam("endDate") final LocalDate endDate,
             @RequestParam("currency") final String currency);
-}
\ No newline at end of file
+
+    @GetMapping("/rate-statistics")
+    @Operation(
+            summary = "Get Exchange Rate Statistics",
+            description = "Retrieve the lowest and highest reference exchange rates with their dates, the average exchange rate, "
+                    + "the standard deviation and the count of rates of several currencies, or of every currency, within a "
+                    + "specified period",
+            tags = "Currency Rate"
+    )
+    ResponseEntity<RateStatisticsDto> getRateStatistics(
+            @RequestParam("startDate") final LocalDate startDate,
+            @RequestParam("endDate") final LocalDate endDate,
+            @RequestParam(value = "currencies", required = false) final List<String> currencies);
+}
@@ -1,36 +1,75 @@
 package com.formedix.currencyrate.controller;
 
-import com.formedix.currencyrate.dto.GetCurrencyRateDto;
+import com.formedix.currencyrate.dto.UploadJobDto;
+import com.formedix.currencyrate.dto.UploadMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.util.List;
+import java.time.LocalDate;
+import java.util.UUID;
 
 @RequestMapping("/csv/v1")
 @Tag(name = "CSV File Management", description = "Manage csv files")
 public interface CurrencyRateCsvController {
 
-    @PostMapping("/upload")
+    @PostMapping(value = "/upload", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
     @Operation(
             summary = "Upload Currency Rate CSV",
-            description = "Upload and store the file.",
+            description = "Upload and store the file. In REPLACE mode the file replaces all currency rates and all of them are "
+                    + "returned, in MERGE mode the rates of new or changed dates are merged into the current ones and only "
+                    + "these are returned. The rates are streamed as a JSON array, or as newline-delimited JSON if "
+                    + "application/x-ndjson is accepted.",
             tags = "CSV File Management"
     )
-    ResponseEntity<List<GetCurrencyRateDto>> uploadCsvFile(@Valid @RequestBody final MultipartFile file) throws IOException;
+    ResponseEntity<StreamingResponseBody> uploadCsvFile(@Valid @RequestBody final MultipartFile file,
+                                                        @RequestParam(value = "mode", defaultValue = "REPLACE") final UploadMode mode,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept) throws IOException;
 
-    @GetMapping("/current-upload")
+    @PostMapping("/upload-jobs")
+    @Operation(
+            summary = "Upload Currency Rate CSV asynchronously",
+            description = "Accept the file and apply it in the background. Returns the queued upload job, whose state is "
+                    + "available from its Location until it has been retained for the configured time.",
+            tags = "CSV File Management"
+    )
+    ResponseEntity<UploadJobDto> submitUploadJob(@Valid @RequestBody final MultipartFile file,
+                                                 @RequestParam(value = "mode", defaultValue = "REPLACE") final UploadMode mode);
+
+    @GetMapping("/upload-jobs/{jobId}")
+    @Operation(
+            summary = "Get an asynchronous Currency Rate CSV upload",
+            description = "Retrieves the state of an upload job and, once it succeeded, the number of applied rates.",
+            tags = "CSV File Management"
+    )
+    ResponseEntity<UploadJobDto> getUploadJob(@PathVariable("jobId") final UUID jobId);
+
+    @GetMapping(value = "/current-upload", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
     @Operation(
             summary = "Get the current Currency Rate CSV",
-            description = "Retrieves th current uploaded csv",
+            description = "Retrieves th current uploaded csv. Without parameters all rates are returned in their uploaded "
+                    + "order; with a date range, a cursor or a limit the rates are returned by date, a page at a time, and "
+                    + "the next page is linked in the Link header. The rates are streamed as a JSON array, or as "
+                    + "newline-delimited JSON if application/x-ndjson is accepted.",
             tags = "CSV File Management"
     )
-    ResponseEntity<List<GetCurrencyRateDto>> getCurrentCsvRates();
+    ResponseEntity<StreamingResponseBody> getCurrentCsvRates(
+            @RequestParam(value = "startDate", required = false) final LocalDate startDate,
+            @RequestParam(value = "endDate", required = false) final LocalDate endDate,
+            @RequestParam(value = "after", required = false) final LocalDate after,
+            @RequestParam(value = "limit", required = false) final Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept);
 }
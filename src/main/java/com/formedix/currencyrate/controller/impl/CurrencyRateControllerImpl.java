@@ -1,38 +1,86 @@
 package com.formedix.currencyrate.controller.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.formedix.currencyrate.controller.CurrencyRateController;
 import com.formedix.currencyrate.dto.AverageExchangeRateDto;
+import com.formedix.currencyrate.dto.BatchConvertCurrencyRequestDto;
 import com.formedix.currencyrate.dto.ConvertCurrencyDto;
-import com.formedix.currencyrate.dto.GetCurrencyRateDto;
 import com.formedix.currencyrate.dto.HighestExchangeRateDto;
+import com.formedix.currencyrate.dto.RateStatisticsDto;
+import com.formedix.currencyrate.repository.CurrencyRateSnapshot;
+import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
 import com.formedix.currencyrate.service.CurrencyRateService;
+import com.formedix.currencyrate.service.SerializedCurrencyRateCache;
+import com.formedix.currencyrate.service.SerializedCurrencyRateCache.SerializedCurrencyRate;
 import com.formedix.currencyrate.validator.CurrencyRateValidator;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the Currency Rate Controller.
+ * <p>
+ * The lookups only change when other currency rates are uploaded, so their responses carry the version of the dataset
+ * they were answered from as their ETag and its creation time as their Last-Modified date, and must be revalidated
+ * before they are reused. A request whose {@code If-None-Match} or {@code If-Modified-Since} still matches the version
+ * is answered with 304 Not Modified before the lookup runs, since the client can only hold the validators of a
+ * successful response: error responses carry none.
  */
 @RestController
 @AllArgsConstructor
 public class CurrencyRateControllerImpl implements CurrencyRateController {
 
     private final CurrencyRateService currencyRateService;
+    private final SerializedCurrencyRateCache serializedCurrencyRateCache;
+    private final CurrencyRatesContextHolder currencyRatesContextHolder;
+    private final ObjectMapper objectMapper;
+    private final HttpServletRequest request;
 
     /**
-     * Retrieves the reference rate data for a given date for all available currencies.
+     * Retrieves the reference rate data for a given date for all available currencies. With serialised responses
+     * enabled, the body is written from its serialised copy of the current snapshot, compressed if the client accepts
+     * gzip, and carries the version of the snapshot it is served from.
      *
-     * @param date the date for which to retrieve the currency rates
+     * @param date           the date for which to retrieve the currency rates
+     * @param acceptEncoding the content codings the client accepts
      *
      * @return the response entity containing the currency rate data
      */
     @Override
-    public ResponseEntity<GetCurrencyRateDto> getCurrencyRatesByDate(final LocalDate date) {
-        return ResponseEntity.ok(currencyRateService.getCurrencyRatesByDate(date));
+    public ResponseEntity<?> getCurrencyRatesByDate(final LocalDate date, final String acceptEncoding) {
+        if (!serializedCurrencyRateCache.isEnabled()) {
+            return versioned(() -> currencyRateService.getCurrencyRatesByDate(date));
+        }
+        CurrencyRateSnapshot snapshot = currencyRatesContextHolder.getSnapshot();
+        if (isNotModified(snapshot)) {
+            return notModified(snapshot);
+        }
+        SerializedCurrencyRate serializedCurrencyRate = serializedCurrencyRateCache.getCurrencyRatesByDate(date);
+        boolean gzipped = serializedCurrencyRate.gzippedJson() != null && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(serializedCurrencyRate.eTag())
+                .lastModified(serializedCurrencyRate.lastModified());
+        if (serializedCurrencyRate.gzippedJson() != null) {
+            response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+        }
+        return gzipped
+                ? response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(serializedCurrencyRate.gzippedJson())
+                : response.body(serializedCurrencyRate.json());
     }
 
     /**
@@ -50,7 +98,21 @@ public class CurrencyRateControllerImpl implements CurrencyRateController {
                                                               final String sourceCurrency,
                                                               final String targetCurrency,
                                                               final BigDecimal amount) {
-        return ResponseEntity.ok(currencyRateService.convertCurrency(date, sourceCurrency, targetCurrency, amount));
+        return versioned(() -> currencyRateService.convertCurrency(date, sourceCurrency, targetCurrency, amount));
+    }
+
+    /**
+     * Converts many amounts between currencies on specific dates. The currency rates are resolved before the response
+     * is committed, then the converted amounts are streamed as a JSON array in the order of the request.
+     *
+     * @param batchConvertCurrencyRequestDto the dates, currencies and amounts to convert
+     *
+     * @return the response entity streaming the converted currency amounts
+     */
+    @Override
+    public ResponseEntity<StreamingResponseBody> convertCurrencies(final BatchConvertCurrencyRequestDto batchConvertCurrencyRequestDto) {
+        Stream<ConvertCurrencyDto> convertedCurrencies = currencyRateService.convertCurrencies(batchConvertCurrencyRequestDto.getConversions());
+        return ResponseEntity.ok(JsonStreams.jsonArray(objectMapper, convertedCurrencies.iterator()));
     }
 
     /**
@@ -67,7 +129,7 @@ public class CurrencyRateControllerImpl implements CurrencyRateController {
                                                                          final LocalDate endDate,
                                                                          final String currency) {
         CurrencyRateValidator.checkIfValidDates(startDate, endDate);
-        return ResponseEntity.ok(currencyRateService.getHighestExchangeRate(startDate, endDate, currency));
+        return versioned(() -> currencyRateService.getHighestExchangeRate(startDate, endDate, currency));
     }
 
     /**
@@ -84,6 +146,79 @@ public class CurrencyRateControllerImpl implements CurrencyRateController {
                                                                          final LocalDate endDate,
                                                                          final String currency) {
         CurrencyRateValidator.checkIfValidDates(startDate, endDate);
-        return ResponseEntity.ok(currencyRateService.getAverageExchangeRate(startDate, endDate, currency));
+        return versioned(() -> currencyRateService.getAverageExchangeRate(startDate, endDate, currency));
+    }
+
+    /**
+     * Retrieves the exchange rate statistics of several currencies within a specified period.
+     *
+     * @param startDate  the start date of the period
+     * @param endDate    the end date of the period
+     * @param currencies the currency codes, or {@code null} for every currency
+     *
+     * @return the response entity containing the exchange rate statistics
+     */
+    @Override
+    public ResponseEntity<RateStatisticsDto> getRateStatistics(final LocalDate startDate,
+                                                               final LocalDate endDate,
+                                                               final List<String> currencies) {
+        CurrencyRateValidator.checkIfValidDates(startDate, endDate);
+        return versioned(() -> currencyRateService.getRateStatistics(startDate, endDate, currencies == null ? List.of() : currencies));
+    }
+
+    /**
+     * Answers a lookup with the validators of the versioned snapshot, which is read before the lookup runs, or with 304
+     * Not Modified without running the lookup if the request still matches them. Its version is only published once
+     * the cache entries of the rates it replaced are evicted, so the body of the lookup is never older than the version
+     * it is tagged with.
+     */
+    private <T> ResponseEntity<T> versioned(Supplier<T> lookup) {
+        CurrencyRateSnapshot snapshot = currencyRatesContextHolder.getVersionedSnapshot();
+        if (isNotModified(snapshot)) {
+            return notModified(snapshot);
+        }
+        T body = lookup.get();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(eTagOf(snapshot))
+                .lastModified(snapshot.createdAt())
+                .body(body);
+    }
+
+    /**
+     * Checks the conditional headers of the request against the version and creation time of the snapshot. The check
+     * is made without the response, so the validators are only set on the response that is actually answered.
+     */
+    private boolean isNotModified(CurrencyRateSnapshot snapshot) {
+        return new ServletWebRequest(request).checkNotModified(eTagOf(snapshot), snapshot.createdAt().toEpochMilli());
+    }
+
+    private static <T> ResponseEntity<T> notModified(CurrencyRateSnapshot snapshot) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(CacheControl.noCache())
+                .eTag(eTagOf(snapshot))
+                .lastModified(snapshot.createdAt())
+                .build();
+    }
+
+    private static String eTagOf(CurrencyRateSnapshot snapshot) {
+        return "\"" + Long.toHexString(snapshot.version()) + "\"";
+    }
+
+    /**
+     * Checks whether the {@code Accept-Encoding} header accepts gzip, that is whether it lists gzip without a zero
+     * quality.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.trim().split(";");
+            if (parameters[0].trim().equalsIgnoreCase("gzip")) {
+                return parameters.length == 1 || !parameters[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -1,38 +1,64 @@
 package com.formedix.currencyrate.controller.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.formedix.currencyrate.controller.CurrencyRateCsvController;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.domain.CurrencyRatePage;
+import com.formedix.currencyrate.domain.UploadJob;
 import com.formedix.currencyrate.dto.GetCurrencyRateDto;
+import com.formedix.currencyrate.dto.UploadJobDto;
+import com.formedix.currencyrate.dto.UploadMode;
 import com.formedix.currencyrate.error.ErrorCode;
 import com.formedix.currencyrate.error.exception.CsvFileException;
+import com.formedix.currencyrate.error.exception.UploadJobRejectedException;
+import com.formedix.currencyrate.mapper.CurrencyRateMapper;
+import com.formedix.currencyrate.service.CsvUploadJobService;
 import com.formedix.currencyrate.service.CurrencyRateCsvService;
 import com.formedix.currencyrate.validator.CsvValidator;
+import com.formedix.currencyrate.validator.CurrencyRateValidator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequiredArgsConstructor
 public class CurrencyRateCsvControllerImpl implements CurrencyRateCsvController {
+    private static final int DEFAULT_PAGE_SIZE = 1_000;
 
     private final CurrencyRateCsvService currencyRateCsvService;
+    private final CsvUploadJobService csvUploadJobService;
+    private final CurrencyRateMapper currencyRateMapper;
+    private final ObjectMapper objectMapper;
 
     /**
      * Uploads a CSV file containing currency rate data.
      *
-     * @param file the CSV file to upload
+     * @param file   the CSV file to upload
+     * @param mode   whether the file replaces the current currency rates or is merged into them
+     * @param accept the accepted media types, to stream newline-delimited JSON instead of a JSON array
      *
-     * @return the ResponseEntity containing the uploaded currency rates
+     * @return the ResponseEntity streaming the uploaded currency rates, or only the added and replaced ones when merged
      *
      * @throws CsvFileException if an error occurs while uploading the file
      */
     @Override
-    public ResponseEntity<List<GetCurrencyRateDto>> uploadCsvFile(MultipartFile file) {
+    public ResponseEntity<StreamingResponseBody> uploadCsvFile(MultipartFile file, UploadMode mode, String accept) {
         try {
             CsvValidator.validate(file);
-            return ResponseEntity.ok(currencyRateCsvService.updateCurrencyRates(file.getInputStream()));
+            List<CurrencyRate> currencyRates = mode == UploadMode.MERGE
+                    ? currencyRateCsvService.mergeCurrencyRates(file.getInputStream())
+                    : currencyRateCsvService.updateCurrencyRates(file.getInputStream());
+            return stream(ResponseEntity.ok(), currencyRates, accept);
         } catch (CsvFileException e) {
             throw e;
         } catch (Exception e) {
@@ -41,12 +67,85 @@ public class CurrencyRateCsvControllerImpl implements CurrencyRateCsvController
     }
 
     /**
-     * Retrieves the currently uploaded CSV file containing currency rate data.
+     * Accepts a CSV file containing currency rate data and queues it to be applied in the background.
+     *
+     * @param file the CSV file to upload
+     * @param mode whether the file replaces the current currency rates or is merged into them
+     *
+     * @return the ResponseEntity containing the queued upload job, with its Location
      *
-     * @return the ResponseEntity containing the current currency rates
+     * @throws CsvFileException if the file is not valid or cannot be queued
      */
     @Override
-    public ResponseEntity<List<GetCurrencyRateDto>> getCurrentCsvRates() {
-        return ResponseEntity.ok(currencyRateCsvService.getCurrentCurrencyRates());
+    public ResponseEntity<UploadJobDto> submitUploadJob(MultipartFile file, UploadMode mode) {
+        try {
+            CsvValidator.validate(file);
+            UploadJob uploadJob = csvUploadJobService.submit(file.getInputStream(), file.getOriginalFilename(), mode);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentRequestUri().path("/{jobId}").buildAndExpand(uploadJob.id()).toUri())
+                    .body(currencyRateMapper.toUploadJobDto(uploadJob));
+        } catch (CsvFileException | UploadJobRejectedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CsvFileException("An error occurred while uploading " + file.getOriginalFilename(), ErrorCode.CSV_UPLOAD_ERROR, e);
+        }
+    }
+
+    /**
+     * Retrieves the state of an asynchronous CSV upload.
+     *
+     * @param jobId the id of the upload job
+     *
+     * @return the ResponseEntity containing the upload job
+     */
+    @Override
+    public ResponseEntity<UploadJobDto> getUploadJob(UUID jobId) {
+        return ResponseEntity.ok(currencyRateMapper.toUploadJobDto(csvUploadJobService.getUploadJob(jobId)));
+    }
+
+    /**
+     * Retrieves the currently uploaded CSV file containing currency rate data. Without parameters all rates are
+     * returned in their uploaded order. Otherwise the rates are returned by date, at most {@code limit} of them, and
+     * the next page, if any, is linked in the {@code Link} header.
+     *
+     * @param startDate the first date of the rates, optional
+     * @param endDate   the last date of the rates, optional
+     * @param after     the date the previous page ended with, optional
+     * @param limit     the maximum number of rates of a page, optional
+     * @param accept    the accepted media types, to stream newline-delimited JSON instead of a JSON array
+     *
+     * @return the ResponseEntity streaming the current currency rates
+     */
+    @Override
+    public ResponseEntity<StreamingResponseBody> getCurrentCsvRates(LocalDate startDate, LocalDate endDate, LocalDate after, Integer limit, String accept) {
+        if (startDate == null && endDate == null && after == null && limit == null) {
+            return stream(ResponseEntity.ok(), currencyRateCsvService.getCurrentCurrencyRates(), accept);
+        }
+        if (startDate != null && endDate != null) {
+            CurrencyRateValidator.checkIfValidDates(startDate, endDate);
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        CurrencyRateValidator.checkIfValidPageSize(pageSize);
+        CurrencyRatePage page = currencyRateCsvService.getCurrentCurrencyRates(startDate, endDate, after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextAfter() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.nextAfter())
+                    .replaceQueryParam("limit", pageSize)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return stream(response, page.currencyRates(), accept);
+    }
+
+    /**
+     * Streams the currency rates as a JSON array or, if accepted, as newline-delimited JSON. Each rate is mapped to its
+     * DTO while it is written, so the response never holds a list of DTOs.
+     */
+    private ResponseEntity<StreamingResponseBody> stream(ResponseEntity.BodyBuilder response, List<CurrencyRate> currencyRates, String accept) {
+        Iterator<GetCurrencyRateDto> currencyRateDtos = currencyRates.stream().map(currencyRateMapper::toGetCurrencyRateDto).iterator();
+        return JsonStreams.acceptsNdjson(accept)
+                ? response.contentType(MediaType.APPLICATION_NDJSON).body(JsonStreams.ndjson(objectMapper, currencyRateDtos))
+                : response.contentType(MediaType.APPLICATION_JSON).body(JsonStreams.jsonArray(objectMapper, currencyRateDtos));
     }
 }
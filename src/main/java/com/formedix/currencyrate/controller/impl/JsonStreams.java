@@ -0,0 +1,68 @@
+package com.formedix.currencyrate.controller.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Writes response bodies element by element while they are iterated, so large results are never held as a whole
+ * document or as a list of DTOs. The generator is flushed every {@value #FLUSH_INTERVAL} elements.
+ */
+@UtilityClass
+class JsonStreams {
+    private static final int FLUSH_INTERVAL = 1_000;
+
+    /**
+     * Checks whether the client asked for newline-delimited JSON in its {@code Accept} header.
+     *
+     * @param accept the {@code Accept} header, may be {@code null}
+     *
+     * @return {@code true} if newline-delimited JSON is accepted
+     */
+    static boolean acceptsNdjson(String accept) {
+        return accept != null && MediaType.parseMediaTypes(accept).stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+
+    /**
+     * Streams the elements as a JSON array.
+     */
+    static StreamingResponseBody jsonArray(ObjectMapper objectMapper, Iterator<?> elements) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                writeElements(generator, elements, false);
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    /**
+     * Streams the elements as newline-delimited JSON, one element per line.
+     */
+    static StreamingResponseBody ndjson(ObjectMapper objectMapper, Iterator<?> elements) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(new SerializedString(""));
+                writeElements(generator, elements, true);
+            }
+        };
+    }
+
+    private static void writeElements(JsonGenerator generator, Iterator<?> elements, boolean newlineDelimited) throws IOException {
+        for (int count = 1; elements.hasNext(); count++) {
+            generator.writeObject(elements.next());
+            if (newlineDelimited) {
+                generator.writeRaw('\n');
+            }
+            if (count % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        }
+    }
+}
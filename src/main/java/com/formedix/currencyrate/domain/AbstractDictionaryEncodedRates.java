@@ -0,0 +1,100 @@
+package com.formedix.currencyrate.domain;
+
+import java.math.BigDecimal;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Skeletal read-only map of the rates of a date, whose rates are read by the ids of a {@link CurrencyDictionary}.
+ * <p>
+ * Implementations only provide the dictionary and the rate of a currency id; the map operations resolve currency codes
+ * through the dictionary. Callers that resolve the id of a currency beforehand, see {@link CurrencyRateLookup}, read
+ * the rate by id instead.
+ */
+public abstract class AbstractDictionaryEncodedRates extends AbstractMap<String, BigDecimal> {
+
+    /**
+     * Returns the dictionary the rates are indexed by.
+     *
+     * @return the dictionary
+     */
+    public abstract CurrencyDictionary dictionary();
+
+    /**
+     * Returns the rate of a currency id of the dictionary.
+     *
+     * @param id the currency id
+     *
+     * @return the rate, or {@code null} if the currency has no rate
+     */
+    public abstract BigDecimal rate(int id);
+
+    @Override
+    public BigDecimal get(Object currency) {
+        int id = dictionary().idOf(currency);
+        return id < 0 ? null : rate(id);
+    }
+
+    @Override
+    public boolean containsKey(Object currency) {
+        return get(currency) != null;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int id = 0; id < dictionary().size(); id++) {
+            size += rate(id) == null ? 0 : 1;
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, BigDecimal>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, BigDecimal>> iterator() {
+                return new Iterator<>() {
+                    private int id = -1;
+                    private BigDecimal rate = advance();
+
+                    @Override
+                    public boolean hasNext() {
+                        return rate != null;
+                    }
+
+                    @Override
+                    public Entry<String, BigDecimal> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, BigDecimal> entry = new SimpleImmutableEntry<>(dictionary().currency(id), rate);
+                        rate = advance();
+                        return entry;
+                    }
+
+                    /**
+                     * Moves to the next currency id with a rate and reads the rate once.
+                     */
+                    private BigDecimal advance() {
+                        for (id++; id < dictionary().size(); id++) {
+                            BigDecimal next = rate(id);
+                            if (next != null) {
+                                return next;
+                            }
+                        }
+                        return null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return AbstractDictionaryEncodedRates.this.size();
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.formedix.currencyrate.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * The rates of a source and a target currency on a date, from which any amount can be converted.
+ * <p>
+ * Both rates are kept instead of their ratio, so converting an amount is exactly as precise as converting it from the
+ * currency rates of the date. A fixed-point cross rate additionally keeps the unscaled values of both rates, so amounts
+ * are converted with {@code long} arithmetic and only fall back to {@link BigDecimal} if that would overflow.
+ *
+ * @param sourceUnscaledRate the unscaled source rate, or {@link FixedPoint#OVERFLOW} to always convert with
+ *                           {@link BigDecimal}
+ * @param targetUnscaledRate the unscaled target rate, or {@link FixedPoint#OVERFLOW} to always convert with
+ *                           {@link BigDecimal}
+ */
+public record CrossRate(LocalDate date, String sourceCurrency, String targetCurrency, BigDecimal sourceRate, BigDecimal targetRate,
+                        long sourceUnscaledRate, long targetUnscaledRate) {
+
+    /**
+     * Creates a cross rate that converts amounts with {@link BigDecimal} arithmetic.
+     */
+    public CrossRate(LocalDate date, String sourceCurrency, String targetCurrency, BigDecimal sourceRate, BigDecimal targetRate) {
+        this(date, sourceCurrency, targetCurrency, sourceRate, targetRate, FixedPoint.OVERFLOW, FixedPoint.OVERFLOW);
+    }
+
+    /**
+     * Creates a cross rate that converts amounts with fixed-point arithmetic.
+     *
+     * @return the fixed-point cross rate
+     */
+    public static CrossRate fixedPoint(LocalDate date, String sourceCurrency, String targetCurrency, BigDecimal sourceRate, BigDecimal targetRate) {
+        return new CrossRate(date, sourceCurrency, targetCurrency, sourceRate, targetRate,
+                FixedPoint.unscaled(sourceRate), FixedPoint.unscaled(targetRate));
+    }
+
+    /**
+     * Converts an amount from the source currency to the target currency. The result is the same with fixed-point and
+     * with {@link BigDecimal} arithmetic.
+     *
+     * @param amount the amount to convert
+     * @param scale  the scale of the converted amount
+     *
+     * @return the converted amount, rounded half up
+     */
+    public BigDecimal convert(BigDecimal amount, int scale) {
+        if (sourceUnscaledRate != FixedPoint.OVERFLOW && targetUnscaledRate != FixedPoint.OVERFLOW) {
+            long convertedAmount = FixedPoint.multiplyDivide(FixedPoint.unscaled(amount), amount.scale(),
+                    targetUnscaledRate, targetRate.scale(), sourceUnscaledRate, sourceRate.scale(), scale);
+            if (convertedAmount != FixedPoint.OVERFLOW) {
+                return BigDecimal.valueOf(convertedAmount, scale);
+            }
+        }
+        return amount.multiply(targetRate).divide(sourceRate, scale, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,71 @@
+package com.formedix.currencyrate.domain;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Assigns small integer ids to the currency codes of a set of currency rates, such as the columns of an uploaded CSV
+ * file.
+ * <p>
+ * Rates that share a dictionary are read by these ids, see {@link AbstractDictionaryEncodedRates}.
+ * Dictionaries are compared by identity: rates were encoded with the same ids only if they share the same dictionary
+ * instance.
+ */
+public final class CurrencyDictionary {
+    private final String[] currencies;
+    private final Map<String, Integer> ids;
+
+    private CurrencyDictionary(String[] currencies, Map<String, Integer> ids) {
+        this.currencies = currencies;
+        this.ids = ids;
+    }
+
+    /**
+     * Creates the dictionary of the currency codes, in their order. A code that occurs more than once keeps the id of
+     * its first occurrence.
+     *
+     * @param currencies the currency codes
+     *
+     * @return the dictionary
+     */
+    public static CurrencyDictionary of(String... currencies) {
+        Map<String, Integer> ids = new HashMap<>();
+        String[] distinctCurrencies = Arrays.stream(currencies)
+                .filter(currency -> ids.putIfAbsent(currency, ids.size()) == null)
+                .toArray(String[]::new);
+        return new CurrencyDictionary(distinctCurrencies, ids);
+    }
+
+    /**
+     * Resolves the id of a currency code.
+     *
+     * @param currency the currency code
+     *
+     * @return the id, or {@code -1} if the currency is not part of the dictionary
+     */
+    public int idOf(Object currency) {
+        Integer id = ids.get(currency);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the currency code of an id.
+     *
+     * @param id the id
+     *
+     * @return the currency code
+     */
+    public String currency(int id) {
+        return currencies[id];
+    }
+
+    /**
+     * Returns the number of currencies of the dictionary.
+     *
+     * @return the number of currencies, one more than the highest id
+     */
+    public int size() {
+        return currencies.length;
+    }
+}
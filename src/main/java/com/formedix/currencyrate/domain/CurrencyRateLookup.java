@@ -0,0 +1,54 @@
+package com.formedix.currencyrate.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Looks up the rate of one currency in many currency rates, resolving the currency to its dictionary id only when the
+ * dictionary of the rates changes.
+ * <p>
+ * Rates parsed from the same file share their {@link CurrencyDictionary}, so a scan over a range usually resolves the
+ * currency once and reads every other rate by index. Rates that are not {@link AbstractDictionaryEncodedRates} are
+ * looked up by code. A lookup keeps the last resolved dictionary, so it is meant to be used by a single thread, for
+ * example for the duration of a request.
+ */
+public final class CurrencyRateLookup {
+    private final String currency;
+    private CurrencyDictionary dictionary;
+    private int id;
+
+    /**
+     * Creates the lookup of a currency.
+     *
+     * @param currency the currency code
+     */
+    public CurrencyRateLookup(String currency) {
+        this.currency = currency;
+    }
+
+    /**
+     * Returns the currency code.
+     *
+     * @return the currency code
+     */
+    public String currency() {
+        return currency;
+    }
+
+    /**
+     * Retrieves the rate of the currency.
+     *
+     * @param currencyRate the currency rates of a date
+     *
+     * @return the rate, or {@code null} if the currency has no rate on the date
+     */
+    public BigDecimal rateOf(CurrencyRate currencyRate) {
+        if (currencyRate.currencies() instanceof AbstractDictionaryEncodedRates rates) {
+            if (rates.dictionary() != dictionary) {
+                dictionary = rates.dictionary();
+                id = dictionary.idOf(currency);
+            }
+            return id < 0 ? null : rates.rate(id);
+        }
+        return currencyRate.currencies().get(currency);
+    }
+}
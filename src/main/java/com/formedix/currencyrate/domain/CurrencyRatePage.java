@@ -0,0 +1,13 @@
+package com.formedix.currencyrate.domain;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A page of currency rates, ordered by date.
+ *
+ * @param currencyRates the currency rates of the page
+ * @param nextAfter     the date to continue after to get the next page, or {@code null} if this is the last page
+ */
+public record CurrencyRatePage(List<CurrencyRate> currencyRates, LocalDate nextAfter) {
+}
@@ -0,0 +1,120 @@
+package com.formedix.currencyrate.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+
+/**
+ * Exact running sum of decimals and their count, from which their average is computed.
+ * <p>
+ * The sum is kept as an unscaled {@code long} at the largest scale added so far, so adding a rate does not allocate.
+ * Only once the sum no longer fits into a {@code long} is it carried on as a {@link BigDecimal}, so the sum and the
+ * average are exact for any number of rates.
+ */
+public final class DecimalSum {
+    private long unscaledSum;
+    private int scale;
+    private BigDecimal overflowSum;
+    private long count;
+
+    /**
+     * Adds a decimal to the sum.
+     *
+     * @param value the decimal to add
+     */
+    public void add(BigDecimal value) {
+        long unscaledValue = FixedPoint.unscaled(value);
+        if (unscaledValue == FixedPoint.OVERFLOW) {
+            add(value, 1);
+        } else {
+            add(unscaledValue, value.scale(), 1);
+        }
+    }
+
+    /**
+     * Adds the unscaled sum of several decimals to the sum.
+     *
+     * @param unscaledValue the unscaled sum to add, not {@link FixedPoint#OVERFLOW}
+     * @param valueScale    the scale of the sum to add
+     * @param valueCount    the number of decimals summed up
+     */
+    public void add(long unscaledValue, int valueScale, long valueCount) {
+        if (overflowSum == null) {
+            int commonScale = Math.max(scale, valueScale);
+            long sum = FixedPoint.add(FixedPoint.rescale(unscaledSum, scale, commonScale),
+                    FixedPoint.rescale(unscaledValue, valueScale, commonScale));
+            if (sum != FixedPoint.OVERFLOW) {
+                unscaledSum = sum;
+                scale = commonScale;
+                count += valueCount;
+                return;
+            }
+        }
+        add(BigDecimal.valueOf(unscaledValue, valueScale), valueCount);
+    }
+
+    /**
+     * Adds the sum of several decimals to the sum.
+     *
+     * @param value      the sum to add
+     * @param valueCount the number of decimals summed up
+     */
+    public void add(BigDecimal value, long valueCount) {
+        if (overflowSum == null) {
+            overflowSum = BigDecimal.valueOf(unscaledSum, scale);
+        }
+        overflowSum = overflowSum.add(value);
+        count += valueCount;
+    }
+
+    /**
+     * Adds another sum to the sum.
+     *
+     * @param other the sum to add
+     */
+    public void add(DecimalSum other) {
+        if (other.overflowSum == null) {
+            add(other.unscaledSum, other.scale, other.count);
+        } else {
+            add(other.overflowSum, other.count);
+        }
+    }
+
+    /**
+     * Returns the number of decimals added.
+     *
+     * @return the count
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the decimals added.
+     *
+     * @return the exact sum
+     */
+    public BigDecimal sum() {
+        return overflowSum != null ? overflowSum : BigDecimal.valueOf(unscaledSum, scale);
+    }
+
+    /**
+     * Calculates the average of the decimals added.
+     *
+     * @param averageScale the scale of the average
+     *
+     * @return an Optional containing the average rounded half up, or an empty Optional if nothing was added
+     */
+    public Optional<BigDecimal> average(int averageScale) {
+        if (count == 0) {
+            return Optional.empty();
+        }
+        if (overflowSum == null) {
+            long average = FixedPoint.multiplyDivide(unscaledSum, scale, 1, 0, count, 0, averageScale);
+            if (average != FixedPoint.OVERFLOW) {
+                return Optional.of(BigDecimal.valueOf(average, averageScale));
+            }
+        }
+        return Optional.of(sum().divide(BigDecimal.valueOf(count), averageScale, RoundingMode.HALF_UP));
+    }
+}
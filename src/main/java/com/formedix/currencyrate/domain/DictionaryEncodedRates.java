@@ -0,0 +1,50 @@
+package com.formedix.currencyrate.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only map of the rates of a date, stored as a flat array indexed by the ids of a {@link CurrencyDictionary}.
+ * <p>
+ * Rows parsed from the same file share their dictionary, so a row only holds its rates, with {@code null} for the
+ * currencies without a rate. Looking up a code hashes it once in the dictionary; callers that resolve the id of a
+ * currency beforehand, see {@link CurrencyRateLookup}, read the rate by index.
+ */
+public final class DictionaryEncodedRates extends AbstractDictionaryEncodedRates {
+    private final CurrencyDictionary dictionary;
+    private final BigDecimal[] rates;
+    private final int size;
+
+    /**
+     * Creates the map of the rates, which must not be modified afterwards.
+     *
+     * @param dictionary the dictionary of the currencies
+     * @param rates      the rates indexed by the ids of the dictionary, {@code null} where a currency has no rate
+     */
+    public DictionaryEncodedRates(CurrencyDictionary dictionary, BigDecimal[] rates) {
+        if (rates.length != dictionary.size()) {
+            throw new IllegalArgumentException("Expected " + dictionary.size() + " rates but got " + rates.length);
+        }
+        this.dictionary = dictionary;
+        this.rates = rates;
+        int count = 0;
+        for (BigDecimal rate : rates) {
+            count += rate == null ? 0 : 1;
+        }
+        this.size = count;
+    }
+
+    @Override
+    public CurrencyDictionary dictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public BigDecimal rate(int id) {
+        return rates[id];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,159 @@
+package com.formedix.currencyrate.domain;
+
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+
+/**
+ * Exact decimal arithmetic on unscaled {@code long} values, for the operations that would otherwise allocate
+ * {@link BigDecimal}s.
+ * <p>
+ * A decimal is represented by its unscaled value and its scale, like a {@link BigDecimal} whose unscaled value fits into
+ * a {@code long}. Intermediate products are checked with {@link Math#multiplyHigh(long, long)}; whenever a result cannot
+ * be computed exactly in 64 bits, {@link #OVERFLOW} is returned instead, so callers fall back to {@link BigDecimal}.
+ */
+@UtilityClass
+public class FixedPoint {
+    /**
+     * Marks a value that cannot be represented or computed exactly. It is never a valid unscaled value.
+     */
+    public static final long OVERFLOW = Long.MIN_VALUE;
+
+    private static final int MAX_PRECISION = 18;
+    private static final int MAX_DOUBLE_PRECISION = 15;
+    private static final long[] POWERS_OF_TEN = new long[MAX_PRECISION + 1];
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[MAX_PRECISION + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        DOUBLE_POWERS_OF_TEN[0] = 1;
+        for (int exponent = 1; exponent <= MAX_PRECISION; exponent++) {
+            POWERS_OF_TEN[exponent] = POWERS_OF_TEN[exponent - 1] * 10;
+            DOUBLE_POWERS_OF_TEN[exponent] = POWERS_OF_TEN[exponent];
+        }
+    }
+
+    /**
+     * Returns the unscaled value of the decimal.
+     * <p>
+     * A decimal of at most 15 digits is recovered from its {@code double} value instead of
+     * {@link BigDecimal#unscaledValue()}, which would allocate a {@link java.math.BigInteger}. Both the {@code double}
+     * value and its product with the power of ten of the scale are correctly rounded, so together they are less than
+     * {@code 0.5} off for any unscaled value below {@code 10^15}.
+     *
+     * @param value the decimal
+     *
+     * @return the unscaled value, or {@link #OVERFLOW} if it does not fit into a {@code long}
+     */
+    public static long unscaled(BigDecimal value) {
+        int precision = value.precision();
+        if (precision > MAX_PRECISION) {
+            return OVERFLOW;
+        }
+        int scale = value.scale();
+        if (scale == 0) {
+            return value.longValue();
+        }
+        if (precision <= MAX_DOUBLE_PRECISION && scale > 0 && scale <= MAX_PRECISION) {
+            return Math.round(value.doubleValue() * DOUBLE_POWERS_OF_TEN[scale]);
+        }
+        return value.unscaledValue().longValue();
+    }
+
+    /**
+     * Computes {@code multiplicand * multiplier / divisor}, rounded half up to the given scale, like
+     * {@code multiplicand.multiply(multiplier).divide(divisor, scale, RoundingMode.HALF_UP)}.
+     *
+     * @param multiplicand      the unscaled multiplicand
+     * @param multiplicandScale the scale of the multiplicand
+     * @param multiplier        the unscaled multiplier
+     * @param multiplierScale   the scale of the multiplier
+     * @param divisor           the unscaled divisor
+     * @param divisorScale      the scale of the divisor
+     * @param scale             the scale of the result
+     *
+     * @return the unscaled result, or {@link #OVERFLOW} if any operand is {@link #OVERFLOW}, the divisor is zero or the
+     * result cannot be computed exactly in 64 bits
+     */
+    public static long multiplyDivide(long multiplicand, int multiplicandScale, long multiplier, int multiplierScale,
+                                      long divisor, int divisorScale, int scale) {
+        if (multiplicand == OVERFLOW || multiplier == OVERFLOW || divisor == OVERFLOW || divisor == 0) {
+            return OVERFLOW;
+        }
+        long exponent = (long) divisorScale - multiplicandScale - multiplierScale + scale;
+        if (Math.abs(exponent) > MAX_PRECISION) {
+            return OVERFLOW;
+        }
+        long dividend = multiply(multiplicand, multiplier);
+        if (exponent >= 0) {
+            dividend = multiply(dividend, POWERS_OF_TEN[(int) exponent]);
+        } else {
+            divisor = multiply(divisor, POWERS_OF_TEN[(int) -exponent]);
+        }
+        if (dividend == OVERFLOW || divisor == OVERFLOW) {
+            return OVERFLOW;
+        }
+        return divideHalfUp(dividend, divisor);
+    }
+
+    /**
+     * Rescales an unscaled value to a larger or equal scale, like {@code value.setScale(toScale)}.
+     *
+     * @param value     the unscaled value
+     * @param fromScale the scale of the value
+     * @param toScale   the scale of the result, not smaller than {@code fromScale}
+     *
+     * @return the unscaled result, or {@link #OVERFLOW} if the value is {@link #OVERFLOW} or the result does not fit
+     * into a {@code long}
+     */
+    public static long rescale(long value, int fromScale, int toScale) {
+        long exponent = (long) toScale - fromScale;
+        if (exponent < 0 || exponent > MAX_PRECISION) {
+            return value == 0 && exponent >= 0 ? 0 : OVERFLOW;
+        }
+        return multiply(value, POWERS_OF_TEN[(int) exponent]);
+    }
+
+    /**
+     * Adds two values, returning {@link #OVERFLOW} if either value is {@link #OVERFLOW} or the sum does not fit into a
+     * {@code long}.
+     *
+     * @param x the first unscaled value
+     * @param y the second unscaled value, of the same scale
+     *
+     * @return the unscaled sum
+     */
+    public static long add(long x, long y) {
+        if (x == OVERFLOW || y == OVERFLOW) {
+            return OVERFLOW;
+        }
+        long sum = x + y;
+        return ((x ^ sum) & (y ^ sum)) < 0 ? OVERFLOW : sum;
+    }
+
+    /**
+     * Multiplies two values, returning {@link #OVERFLOW} if the product does not fit into a {@code long}.
+     */
+    private static long multiply(long x, long y) {
+        if (x == OVERFLOW || y == OVERFLOW) {
+            return OVERFLOW;
+        }
+        long high = Math.multiplyHigh(x, y);
+        long low = x * y;
+        return high == (low >> 63) ? low : OVERFLOW;
+    }
+
+    /**
+     * Divides two values, rounding ties away from zero. Neither value is {@link #OVERFLOW}, so their absolute values
+     * cannot overflow.
+     */
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        long absoluteDivisor = Math.abs(divisor);
+        if (remainder >= absoluteDivisor - remainder) {
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+}
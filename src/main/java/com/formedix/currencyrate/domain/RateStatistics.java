@@ -0,0 +1,170 @@
+package com.formedix.currencyrate.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Running statistics of the rates of a currency: their count, lowest and highest rate with the dates they occurred,
+ * exact sum and population standard deviation.
+ * <p>
+ * Rates are added one at a time, so the statistics of a range are computed in a single pass over it. The variance is
+ * accumulated with Welford's algorithm, and two statistics of disjoint ranges can be merged, so a range can also be
+ * split into parts whose statistics are computed independently. If the lowest or highest rate occurs more than once,
+ * its earliest date is kept. Statistics whose sum and extremes are known beforehand, such as those of an indexed
+ * range, are created from them with {@link #of(DecimalSum, BigDecimal, LocalDate, BigDecimal, LocalDate, double)}
+ * instead.
+ */
+public final class RateStatistics {
+    private final DecimalSum sum = new DecimalSum();
+    private BigDecimal lowestRate;
+    private LocalDate lowestRateDate;
+    private BigDecimal highestRate;
+    private LocalDate highestRateDate;
+    private double mean;
+    private double squaredDeviations;
+
+    /**
+     * Creates the statistics of a range from its aggregates, which were computed without adding its rates one at a
+     * time.
+     *
+     * @param sum               the exact sum and count of the rates
+     * @param lowestRate        the lowest rate
+     * @param lowestRateDate    the earliest date of the lowest rate
+     * @param highestRate       the highest rate
+     * @param highestRateDate   the earliest date of the highest rate
+     * @param squaredDeviations the sum of the squared deviations of the rates from their mean
+     *
+     * @return the statistics, with no rate if the sum has a count of {@code 0}
+     */
+    public static RateStatistics of(DecimalSum sum, BigDecimal lowestRate, LocalDate lowestRateDate,
+                                    BigDecimal highestRate, LocalDate highestRateDate, double squaredDeviations) {
+        RateStatistics statistics = new RateStatistics();
+        if (sum.count() > 0) {
+            statistics.sum.add(sum);
+            statistics.updateExtremes(lowestRateDate, lowestRate, highestRateDate, highestRate);
+            statistics.mean = sum.sum().doubleValue() / sum.count();
+            statistics.squaredDeviations = squaredDeviations;
+        }
+        return statistics;
+    }
+
+    /**
+     * Adds the rate of a date.
+     *
+     * @param date the date of the rate
+     * @param rate the rate
+     */
+    public void add(LocalDate date, BigDecimal rate) {
+        sum.add(rate);
+        updateExtremes(date, rate, date, rate);
+        double value = rate.doubleValue();
+        double delta = value - mean;
+        mean += delta / sum.count();
+        squaredDeviations += delta * (value - mean);
+    }
+
+    /**
+     * Merges the statistics of another range into these statistics.
+     *
+     * @param other the statistics to merge
+     */
+    public void merge(RateStatistics other) {
+        long count = sum.count();
+        long otherCount = other.sum.count();
+        if (otherCount == 0) {
+            return;
+        }
+        sum.add(other.sum);
+        updateExtremes(other.lowestRateDate, other.lowestRate, other.highestRateDate, other.highestRate);
+        double delta = other.mean - mean;
+        long totalCount = count + otherCount;
+        mean += delta * otherCount / totalCount;
+        squaredDeviations += other.squaredDeviations + delta * delta * count * otherCount / totalCount;
+    }
+
+    /**
+     * Returns the number of rates added.
+     *
+     * @return the count
+     */
+    public long count() {
+        return sum.count();
+    }
+
+    /**
+     * Returns the lowest rate.
+     *
+     * @return the lowest rate, or {@code null} if no rate was added
+     */
+    public BigDecimal lowestRate() {
+        return lowestRate;
+    }
+
+    /**
+     * Returns the earliest date of the lowest rate.
+     *
+     * @return the date, or {@code null} if no rate was added
+     */
+    public LocalDate lowestRateDate() {
+        return lowestRateDate;
+    }
+
+    /**
+     * Returns the highest rate.
+     *
+     * @return the highest rate, or {@code null} if no rate was added
+     */
+    public BigDecimal highestRate() {
+        return highestRate;
+    }
+
+    /**
+     * Returns the earliest date of the highest rate.
+     *
+     * @return the date, or {@code null} if no rate was added
+     */
+    public LocalDate highestRateDate() {
+        return highestRateDate;
+    }
+
+    /**
+     * Calculates the exact average of the rates.
+     *
+     * @param scale the scale of the average
+     *
+     * @return an Optional containing the average rounded half up, or an empty Optional if no rate was added
+     */
+    public Optional<BigDecimal> averageRate(int scale) {
+        return sum.average(scale);
+    }
+
+    /**
+     * Calculates the population standard deviation of the rates.
+     *
+     * @param scale the scale of the standard deviation
+     *
+     * @return an Optional containing the standard deviation rounded half up, or an empty Optional if no rate was added
+     */
+    public Optional<BigDecimal> standardDeviation(int scale) {
+        if (sum.count() == 0) {
+            return Optional.empty();
+        }
+        double variance = Math.max(0, squaredDeviations / sum.count());
+        return Optional.of(BigDecimal.valueOf(Math.sqrt(variance)).setScale(scale, RoundingMode.HALF_UP));
+    }
+
+    private void updateExtremes(LocalDate lowDate, BigDecimal low, LocalDate highDate, BigDecimal high) {
+        int lowComparison = lowestRate == null ? -1 : low.compareTo(lowestRate);
+        if (lowComparison < 0 || (lowComparison == 0 && lowDate.isBefore(lowestRateDate))) {
+            lowestRate = low;
+            lowestRateDate = lowDate;
+        }
+        int highComparison = highestRate == null ? 1 : high.compareTo(highestRate);
+        if (highComparison > 0 || (highComparison == 0 && highDate.isBefore(highestRateDate))) {
+            highestRate = high;
+            highestRateDate = highDate;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.formedix.currencyrate.domain;
+
+import com.formedix.currencyrate.dto.UploadMode;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * State of an asynchronous CSV upload. Every state change creates a new instance.
+ *
+ * @param id           the job id
+ * @param mode         how the file is applied to the current currency rates
+ * @param fileName     the original name of the uploaded file
+ * @param status       the current state
+ * @param submittedAt  when the file was accepted
+ * @param completedAt  when the job succeeded or failed, {@code null} before
+ * @param rateCount    the number of currency rates that were applied, {@code null} unless succeeded
+ * @param errorMessage the reason of the failure, never {@code null} or blank if failed and {@code null} otherwise
+ */
+public record UploadJob(UUID id, UploadMode mode, String fileName, UploadJobStatus status, Instant submittedAt,
+                        Instant completedAt, Integer rateCount, String errorMessage) {
+
+    public static UploadJob queued(UploadMode mode, String fileName) {
+        return new UploadJob(UUID.randomUUID(), mode, fileName, UploadJobStatus.QUEUED, Instant.now(), null, null, null);
+    }
+
+    public UploadJob running() {
+        return new UploadJob(id, mode, fileName, UploadJobStatus.RUNNING, submittedAt, null, null, null);
+    }
+
+    public UploadJob succeeded(int rateCount) {
+        return new UploadJob(id, mode, fileName, UploadJobStatus.SUCCEEDED, submittedAt, Instant.now(), rateCount, null);
+    }
+
+    /**
+     * Creates the failed state of the job. The reason of the failure is the message of the cause, or the name of its
+     * class if it has no message.
+     *
+     * @param cause the exception the job failed with
+     *
+     * @return the failed job
+     */
+    public UploadJob failed(Exception cause) {
+        String errorMessage = cause.getMessage() == null || cause.getMessage().isBlank()
+                ? cause.getClass().getName()
+                : cause.getMessage();
+        return new UploadJob(id, mode, fileName, UploadJobStatus.FAILED, submittedAt, Instant.now(), null, errorMessage);
+    }
+}
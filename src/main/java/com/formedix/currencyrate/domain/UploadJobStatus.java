@@ -0,0 +1,26 @@
+package com.formedix.currencyrate.domain;
+
+/**
+ * The states an asynchronous CSV upload goes through.
+ */
+public enum UploadJobStatus {
+    /**
+     * The file was accepted and waits for a free upload thread.
+     */
+    QUEUED,
+
+    /**
+     * The file is being parsed and applied to the current currency rates.
+     */
+    RUNNING,
+
+    /**
+     * The currency rates of the file were applied.
+     */
+    SUCCEEDED,
+
+    /**
+     * The file could not be parsed or applied; the current currency rates are unchanged.
+     */
+    FAILED
+}
@@ -0,0 +1,22 @@
+package com.formedix.currencyrate.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchConvertCurrencyRequestDto {
+    public static final int MAX_CONVERSIONS = 10_000;
+
+    @NotEmpty
+    @Size(max = MAX_CONVERSIONS)
+    private List<@NotNull @Valid ConvertCurrencyRequestDto> conversions;
+}
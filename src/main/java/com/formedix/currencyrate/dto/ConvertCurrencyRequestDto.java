@@ -0,0 +1,24 @@
+package com.formedix.currencyrate.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConvertCurrencyRequestDto {
+    @NotNull
+    private LocalDate date;
+    @NotBlank
+    private String sourceCurrency;
+    @NotBlank
+    private String targetCurrency;
+    @NotNull
+    private BigDecimal amount;
+}
@@ -0,0 +1,18 @@
+package com.formedix.currencyrate.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class CurrencyStatisticsDto {
+    private String currency;
+    private long count;
+    private BigDecimal lowestExchangeRate;
+    private LocalDate lowestExchangeRateDate;
+    private BigDecimal highestExchangeRate;
+    private LocalDate highestExchangeRateDate;
+    private BigDecimal averageExchangeRate;
+    private BigDecimal standardDeviation;
+}
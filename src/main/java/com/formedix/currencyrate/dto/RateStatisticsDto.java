@@ -0,0 +1,13 @@
+package com.formedix.currencyrate.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class RateStatisticsDto {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<CurrencyStatisticsDto> currencies;
+}
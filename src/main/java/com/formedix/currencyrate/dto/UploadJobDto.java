@@ -0,0 +1,22 @@
+package com.formedix.currencyrate.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.formedix.currencyrate.domain.UploadJobStatus;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+public class UploadJobDto {
+    private UUID id;
+    private UploadMode mode;
+    private String fileName;
+    private UploadJobStatus status;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant submittedAt;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant completedAt;
+    private Integer rateCount;
+    private String errorMessage;
+}
@@ -0,0 +1,16 @@
+package com.formedix.currencyrate.dto;
+
+/**
+ * How an uploaded CSV file is applied to the current currency rates.
+ */
+public enum UploadMode {
+    /**
+     * Replaces all current currency rates with the rates of the file.
+     */
+    REPLACE,
+
+    /**
+     * Adds the rates of new dates and replaces the rates of changed dates, keeping all other current rates.
+     */
+    MERGE
+}
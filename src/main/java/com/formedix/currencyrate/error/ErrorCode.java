@@ -7,5 +7,7 @@ public enum ErrorCode {
     INVALID_DATE_RANGE_ERROR,
     CSV_UPLOAD_ERROR,
     INVALID_CSV_FILE_ERROR,
-    CSV_PARSING_ERROR
+    CSV_PARSING_ERROR,
+    UPLOAD_JOB_NOT_FOUND,
+    UPLOAD_JOB_REJECTED_ERROR
 }
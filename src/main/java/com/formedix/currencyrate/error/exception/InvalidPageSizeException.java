@@ -0,0 +1,9 @@
+package com.formedix.currencyrate.error.exception;
+
+import com.formedix.currencyrate.error.ErrorCode;
+
+public class InvalidPageSizeException extends FormedixException {
+    public InvalidPageSizeException(String message) {
+        super(message, ErrorCode.VALIDATION_ERROR);
+    }
+}
@@ -0,0 +1,9 @@
+package com.formedix.currencyrate.error.exception;
+
+import com.formedix.currencyrate.error.ErrorCode;
+
+public class UploadJobNotFoundException extends FormedixException {
+    public UploadJobNotFoundException(String message) {
+        super(message, ErrorCode.UPLOAD_JOB_NOT_FOUND);
+    }
+}
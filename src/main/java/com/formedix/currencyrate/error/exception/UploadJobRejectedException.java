@@ -0,0 +1,9 @@
+package com.formedix.currencyrate.error.exception;
+
+import com.formedix.currencyrate.error.ErrorCode;
+
+public class UploadJobRejectedException extends FormedixException {
+    public UploadJobRejectedException(String message, Throwable e) {
+        super(message, e, ErrorCode.UPLOAD_JOB_REJECTED_ERROR);
+    }
+}
@@ -6,9 +6,14 @@ import com.formedix.currencyrate.error.exception.CsvFileException;
 import com.formedix.currencyrate.error.exception.CsvParsingException;
 import com.formedix.currencyrate.error.exception.CurrencyRateNotFoundException;
 import com.formedix.currencyrate.error.exception.InvalidDateException;
+import com.formedix.currencyrate.error.exception.InvalidPageSizeException;
+import com.formedix.currencyrate.error.exception.UploadJobNotFoundException;
+import com.formedix.currencyrate.error.exception.UploadJobRejectedException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -55,6 +60,40 @@ public class CurrencyRateExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles the exception when validation errors occur during request body validation.
+     *
+     * @param e the exception indicating validation errors
+     *
+     * @return the response entity with error details
+     */
+    @ExceptionHandler
+    public ResponseEntity<Error> handleMethodArgumentNotValidException(MethodArgumentNotValidException e) {
+        log.warn("Validation error occurred: `{}`", e.getMessage(), e);
+        Error response = new Error()
+                .errorCode(ErrorCode.VALIDATION_ERROR)
+                .errorMessages(e.getBindingResult().getFieldErrors().stream()
+                        .map(error -> String.format("`%s` %s", error.getField(), error.getDefaultMessage()))
+                        .toList());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles the exception when the request body cannot be read.
+     *
+     * @param e the exception indicating an unreadable request body
+     *
+     * @return the response entity with error details
+     */
+    @ExceptionHandler
+    public ResponseEntity<Error> handleHttpMessageNotReadableException(HttpMessageNotReadableException e) {
+        log.warn("Validation error occurred: `{}`", e.getMessage(), e);
+        Error response = new Error()
+                .errorCode(ErrorCode.VALIDATION_ERROR)
+                .errorMessages(List.of(e.getMostSpecificCause().getMessage()));
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles the exception when validation errors occur during method mismatch validation.
      *
@@ -119,6 +158,54 @@ public class CurrencyRateExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles the exception when an invalid page size is provided.
+     *
+     * @param e the exception indicating an invalid page size
+     *
+     * @return the response entity with error details
+     */
+    @ExceptionHandler
+    public ResponseEntity<Error> handleInvalidPageSizeException(InvalidPageSizeException e) {
+        log.warn("Invalid page size error: `{}`", e.getMessage(), e);
+        Error response = new Error()
+                .errorCode(e.getErrorCode())
+                .errorMessages(List.of(e.getMessage()));
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles the exception when an upload job is not found.
+     *
+     * @param e the exception indicating upload job not found
+     *
+     * @return the response entity with error details
+     */
+    @ExceptionHandler
+    public ResponseEntity<Error> handleUploadJobNotFoundException(UploadJobNotFoundException e) {
+        log.warn("Upload job not found error: `{}`", e.getMessage(), e);
+        Error response = new Error()
+                .errorCode(e.getErrorCode())
+                .errorMessages(List.of(e.getMessage()));
+        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles the exception when an upload job cannot be queued.
+     *
+     * @param e the exception indicating the upload queue is full
+     *
+     * @return the response entity with error details
+     */
+    @ExceptionHandler
+    public ResponseEntity<Error> handleUploadJobRejectedException(UploadJobRejectedException e) {
+        log.warn("Upload job rejected: `{}`", e.getMessage(), e);
+        Error response = new Error()
+                .errorCode(e.getErrorCode())
+                .errorMessages(List.of(e.getMessage()));
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Handles generic exceptions that occur during currency rate processing.
      *
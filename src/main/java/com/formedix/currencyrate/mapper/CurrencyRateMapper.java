@@ -1,15 +1,22 @@
 package com.formedix.currencyrate.mapper;
 
 import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.domain.RateStatistics;
+import com.formedix.currencyrate.domain.UploadJob;
 import com.formedix.currencyrate.dto.AverageExchangeRateDto;
 import com.formedix.currencyrate.dto.ConvertCurrencyDto;
+import com.formedix.currencyrate.dto.CurrencyStatisticsDto;
 import com.formedix.currencyrate.dto.GetCurrencyRateDto;
 import com.formedix.currencyrate.dto.HighestExchangeRateDto;
+import com.formedix.currencyrate.dto.RateStatisticsDto;
+import com.formedix.currencyrate.dto.UploadJobDto;
 import org.mapstruct.Mapper;
 import org.mapstruct.ReportingPolicy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.WARN)
 public interface CurrencyRateMapper {
@@ -22,6 +29,15 @@ public interface CurrencyRateMapper {
      */
     GetCurrencyRateDto toGetCurrencyRateDto(CurrencyRate currencyRate);
 
+    /**
+     * Maps an UploadJob to UploadJobDto.
+     *
+     * @param uploadJob the UploadJob
+     *
+     * @return the mapped UploadJobDto
+     */
+    UploadJobDto toUploadJobDto(UploadJob uploadJob);
+
     /**
      * Maps the given data to a ConvertCurrencyDto.
      *
@@ -82,4 +98,39 @@ public interface CurrencyRateMapper {
         exchangeRateDto.setHighestExchangeRate(highestExchangeRateValue);
         return exchangeRateDto;
     }
-}
\ No newline at end of file
+
+    /**
+     * Maps the given data to a RateStatisticsDto.
+     *
+     * @param startDate      the start date of the rate period
+     * @param endDate        the end date of the rate period
+     * @param statistics     the statistics per currency, in the order of the response
+     * @param averageScale   the scale of the average exchange rates
+     * @param deviationScale the scale of the standard deviations
+     *
+     * @return the mapped RateStatisticsDto
+     */
+    default RateStatisticsDto toRateStatisticsDto(LocalDate startDate, LocalDate endDate, Map<String, RateStatistics> statistics,
+                                                  int averageScale, int deviationScale) {
+        List<CurrencyStatisticsDto> currencies = statistics.entrySet().stream()
+                .map(entry -> {
+                    RateStatistics rateStatistics = entry.getValue();
+                    CurrencyStatisticsDto currencyStatisticsDto = new CurrencyStatisticsDto();
+                    currencyStatisticsDto.setCurrency(entry.getKey());
+                    currencyStatisticsDto.setCount(rateStatistics.count());
+                    currencyStatisticsDto.setLowestExchangeRate(rateStatistics.lowestRate());
+                    currencyStatisticsDto.setLowestExchangeRateDate(rateStatistics.lowestRateDate());
+                    currencyStatisticsDto.setHighestExchangeRate(rateStatistics.highestRate());
+                    currencyStatisticsDto.setHighestExchangeRateDate(rateStatistics.highestRateDate());
+                    currencyStatisticsDto.setAverageExchangeRate(rateStatistics.averageRate(averageScale).orElse(null));
+                    currencyStatisticsDto.setStandardDeviation(rateStatistics.standardDeviation(deviationScale).orElse(null));
+                    return currencyStatisticsDto;
+                })
+                .toList();
+        RateStatisticsDto rateStatisticsDto = new RateStatisticsDto();
+        rateStatisticsDto.setStartDate(startDate);
+        rateStatisticsDto.setEndDate(endDate);
+        rateStatisticsDto.setCurrencies(currencies);
+        return rateStatisticsDto;
+    }
+}
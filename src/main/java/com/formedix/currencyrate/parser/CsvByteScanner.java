@@ -0,0 +1,235 @@
+package com.formedix.currencyrate.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Allocation-light CSV tokenizer that scans the bytes of the input directly.
+ * <p>
+ * Cells are read one at a time into a reusable scratch buffer, from which dates and rates are parsed without creating
+ * intermediate {@link String}s. Quoted cells, including escaped quotes, are supported and blank lines are skipped.
+ * The line number every row starts at is tracked, so errors can point at the offending line.
+ */
+final class CsvByteScanner {
+    /**
+     * A cell was read and the row has more cells.
+     */
+    static final int CELL = 0;
+
+    /**
+     * The last cell of the row was read.
+     */
+    static final int LAST_CELL = 1;
+
+    /**
+     * There are no more cells to read.
+     */
+    static final int END_OF_INPUT = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int END = -1;
+    private static final int ISO_DATE_LENGTH = 10;
+
+    private final InputStream inputStream;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private byte[] cell = new byte[64];
+    private int cellLength;
+    private boolean atRowStart = true;
+    private int line;
+    private int rowLine;
+
+    CsvByteScanner(InputStream inputStream) {
+        this(inputStream, 1);
+    }
+
+    /**
+     * Creates a scanner of an input that starts at the given line of a file, such as a chunk of its rows.
+     *
+     * @param inputStream the input to scan
+     * @param firstLine   the line number of the first byte of the input
+     */
+    CsvByteScanner(InputStream inputStream, int firstLine) {
+        this.inputStream = inputStream;
+        this.line = firstLine;
+        this.rowLine = firstLine;
+    }
+
+    /**
+     * Reads the next cell into the scratch buffer.
+     *
+     * @return {@link #CELL}, {@link #LAST_CELL} or {@link #END_OF_INPUT}
+     *
+     * @throws IOException if the input cannot be read
+     */
+    int next() throws IOException {
+        cellLength = 0;
+        int value = read();
+        if (atRowStart) {
+            while (value == '\r' || value == '\n') {
+                line += value == '\n' ? 1 : 0;
+                value = read();
+            }
+            if (value == END) {
+                return END_OF_INPUT;
+            }
+            atRowStart = false;
+            rowLine = line;
+        }
+        if (value == '"') {
+            value = readQuoted();
+        }
+        while (value != ',' && value != '\n' && value != END) {
+            if (value != '\r') {
+                append(value);
+            }
+            value = read();
+        }
+        if (value == ',') {
+            return CELL;
+        }
+        line += value == '\n' ? 1 : 0;
+        atRowStart = true;
+        return LAST_CELL;
+    }
+
+    /**
+     * Returns the line number the row of the current cell starts at.
+     */
+    int line() {
+        return rowLine;
+    }
+
+    /**
+     * Returns the current cell as a string.
+     */
+    String text() {
+        return new String(cell, 0, cellLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the current cell as an ISO local date ({@code yyyy-MM-dd}). Cells that are not a valid date of this exact
+     * shape are parsed again with {@link DateTimeFormatter#ISO_LOCAL_DATE}, like the opencsv parser does, so they are
+     * either accepted or rejected with the same error as with that parser.
+     *
+     * @throws DateTimeParseException if the cell is not a valid ISO local date
+     */
+    LocalDate date() {
+        int year = cellLength == ISO_DATE_LENGTH && cell[4] == '-' && cell[7] == '-' ? digits(0, 4) : -1;
+        int month = digits(5, 2);
+        int day = digits(8, 2);
+        if (year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= Month.of(month).length(Year.isLeap(year))) {
+            return LocalDate.of(year, month, day);
+        }
+        return LocalDate.parse(text(), DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    /**
+     * Parses the current cell as a decimal rate. {@code N/A} cells are recognised without being parsed.
+     *
+     * @return the parsed rate, or null if the cell is not a number
+     */
+    BigDecimal decimal() {
+        if (cellLength == 0 || isNotAvailable()) {
+            return null;
+        }
+        int index = cell[0] == '-' || cell[0] == '+' ? 1 : 0;
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        boolean overflow = false;
+        for (; index < cellLength; index++) {
+            byte value = cell[index];
+            if (value >= '0' && value <= '9') {
+                overflow |= unscaled > (Long.MAX_VALUE - 9) / 10;
+                unscaled = unscaled * 10 + (value - '0');
+                digits++;
+                scale += fraction ? 1 : 0;
+            } else if (value == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0 || (index < cellLength && !isExponent(index))) {
+            return null;
+        }
+        if (overflow || index < cellLength) {
+            return new BigDecimal(new String(cell, 0, cellLength, StandardCharsets.US_ASCII));
+        }
+        return BigDecimal.valueOf(cell[0] == '-' ? -unscaled : unscaled, scale);
+    }
+
+    private boolean isNotAvailable() {
+        return cellLength == 3 && cell[0] == 'N' && cell[1] == '/' && cell[2] == 'A';
+    }
+
+    private boolean isExponent(int index) {
+        if (cell[index] != 'e' && cell[index] != 'E') {
+            return false;
+        }
+        int start = index + 1 < cellLength && (cell[index + 1] == '-' || cell[index + 1] == '+') ? index + 2 : index + 1;
+        return start < cellLength && digits(start, cellLength - start) >= 0;
+    }
+
+    private int digits(int offset, int length) {
+        int value = 0;
+        for (int index = offset; index < offset + length; index++) {
+            if (index >= cellLength || cell[index] < '0' || cell[index] > '9' || value > (Integer.MAX_VALUE - 9) / 10) {
+                return -1;
+            }
+            value = value * 10 + (cell[index] - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Reads a quoted cell up to its closing quote.
+     *
+     * @return the byte following the closing quote
+     */
+    private int readQuoted() throws IOException {
+        int value = read();
+        while (value != END) {
+            if (value == '"') {
+                value = read();
+                if (value != '"') {
+                    return value;
+                }
+            }
+            line += value == '\n' ? 1 : 0;
+            append(value);
+            value = read();
+        }
+        return END;
+    }
+
+    private void append(int value) {
+        if (cellLength == cell.length) {
+            byte[] grown = new byte[cell.length * 2];
+            System.arraycopy(cell, 0, grown, 0, cellLength);
+            cell = grown;
+        }
+        cell[cellLength++] = (byte) value;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = Math.max(0, inputStream.read(buffer, 0, buffer.length));
+            position = 0;
+            if (limit == 0) {
+                return END;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+}
@@ -0,0 +1,67 @@
+package com.formedix.currencyrate.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A range of whole rows of a CSV file, which can be scanned independently of the other rows of the file.
+ *
+ * @param offset    the offset of the first byte of the chunk in the file
+ * @param length    the number of bytes of the chunk
+ * @param firstLine the line number the chunk starts at
+ */
+record CsvChunk(int offset, int length, int firstLine) {
+
+    /**
+     * Splits a CSV file at row boundaries. The first chunk holds the header row, the following ones hold the data rows
+     * in file order and are at least {@code chunkSize} bytes long, except for the last one.
+     * <p>
+     * Quotes are recognised the way {@link CsvByteScanner} does, so line breaks within quoted cells never end a chunk.
+     *
+     * @param csv       the bytes of the file
+     * @param chunkSize the minimum number of bytes of a data chunk
+     *
+     * @return the chunks of the file, starting with the chunk of the header row
+     */
+    static List<CsvChunk> split(byte[] csv, int chunkSize) {
+        List<CsvChunk> chunks = new ArrayList<>();
+        int chunkOffset = 0;
+        int chunkLine = 1;
+        int line = 1;
+        boolean quoted = false;
+        boolean atCellStart = true;
+        boolean blankRow = true;
+        for (int index = 0; index < csv.length; index++) {
+            byte value = csv[index];
+            if (value == '\n') {
+                line++;
+            }
+            if (quoted) {
+                if (value == '"') {
+                    boolean escaped = index + 1 < csv.length && csv[index + 1] == '"';
+                    index += escaped ? 1 : 0;
+                    quoted = escaped;
+                }
+                continue;
+            }
+            if (value == '"' && atCellStart) {
+                quoted = true;
+                blankRow = false;
+                atCellStart = false;
+                continue;
+            }
+            atCellStart = value == ',' || value == '\n';
+            blankRow &= value == '\r' || value == '\n';
+            if (value == '\n' && !blankRow && (chunks.isEmpty() || index + 1 - chunkOffset >= chunkSize)) {
+                chunks.add(new CsvChunk(chunkOffset, index + 1 - chunkOffset, chunkLine));
+                chunkOffset = index + 1;
+                chunkLine = line;
+            }
+            blankRow |= value == '\n';
+        }
+        if (chunkOffset < csv.length || chunks.isEmpty()) {
+            chunks.add(new CsvChunk(chunkOffset, csv.length - chunkOffset, chunkLine));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,16 @@
+package com.formedix.currencyrate.parser;
+
+/**
+ * The engines {@link CurrencyRateCsvParser} can parse CSV files with.
+ */
+public enum CsvParserType {
+    /**
+     * Tokenizes the file with opencsv and parses every cell from its {@link String} value.
+     */
+    OPENCSV,
+
+    /**
+     * Scans the bytes of the file and parses dates and rates straight from the read buffer.
+     */
+    BYTE_SCANNER
+}
@@ -1,6 +1,9 @@
 package com.formedix.currencyrate.parser;
 
+import com.formedix.currencyrate.config.CsvProperties;
+import com.formedix.currencyrate.domain.CurrencyDictionary;
 import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.domain.DictionaryEncodedRates;
 import com.formedix.currencyrate.error.ErrorCode;
 import com.formedix.currencyrate.error.exception.CsvParsingException;
 import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
@@ -9,8 +12,10 @@ import com.opencsv.CSVReader;
 import com.opencsv.exceptions.CsvException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -19,18 +24,36 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 @Component
 @Slf4j
-public class CurrencyRateCsvParser {
+public class CurrencyRateCsvParser implements DisposableBean {
+    private static final String DATE_PARSING_ERROR_MESSAGE = "Unable to parse CSV date at line %d with error message: `%s`";
+
+    private final CsvProperties csvProperties;
+    private final int parallelism;
+    private ForkJoinPool parsingPool;
+    private boolean destroyed;
+
+    public CurrencyRateCsvParser(CsvProperties csvProperties) {
+        this.csvProperties = csvProperties;
+        this.parallelism = csvProperties.getParallelism() > 0
+                ? csvProperties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+    }
+
     /**
-     * Parses the provided CSV file input stream into a {@link CurrencyRatesContextHolder} object.
+     * Parses the provided CSV file input stream into a {@link CurrencyRatesContextHolder} object, using the engine
+     * configured in {@link CsvProperties#getParser()}.
+     * The file is read row by row, so only the parsed currency rates are kept in memory, unless it may be parsed in
+     * parallel chunks, in which case it is read as a whole.
      *
      * @param inputStream the input stream of the CSV file
      *
@@ -39,56 +62,252 @@ public class CurrencyRateCsvParser {
      * @throws CsvParsingException if an error occurs while parsing the CSV file
      */
     public CurrencyRatesContextHolder parse(InputStream inputStream) throws CsvParsingException {
-        try (CSVReader reader = new CSVReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-            List<String[]> rows = reader.readAll();
-            CsvValidator.validateHeaders(rows);
-            return createCurrencyRates(rows);
+        try {
+            return csvProperties.getParser() == CsvParserType.BYTE_SCANNER
+                    ? parseWithByteScanner(inputStream)
+                    : parseWithOpenCsv(inputStream);
         } catch (IOException | CsvException e) {
             throw new CsvParsingException("Error occurred while parsing the CSV file", e, ErrorCode.CSV_PARSING_ERROR);
         }
     }
 
+    private CurrencyRatesContextHolder parseWithOpenCsv(InputStream inputStream) throws IOException, CsvException {
+        try (CSVReader reader = new CSVReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String[] headers = reader.readNext();
+            CsvValidator.validateHeader(headers);
+            return createCurrencyRates(headers, reader);
+        }
+    }
+
     /**
-     * Creates a {@link CurrencyRatesContextHolder} object from the rows of the CSV file.
+     * Creates a {@link CurrencyRatesContextHolder} object from the remaining rows of the CSV file.
      *
-     * @param rows the rows of the CSV file
+     * @param headers the headers of the CSV file
+     * @param reader  the reader positioned at the first data row
      *
      * @return the created {@link CurrencyRatesContextHolder} object
      */
-    private CurrencyRatesContextHolder createCurrencyRates(List<String[]> rows) {
+    private CurrencyRatesContextHolder createCurrencyRates(String[] headers, CSVReader reader) throws IOException, CsvException {
         CurrencyRatesContextHolder currencyRatesContextHolder = new CurrencyRatesContextHolder();
+        CurrencyDictionary dictionary = createDictionary(headers);
+        int[] currencyIds = currencyIds(dictionary, headers);
         List<CurrencyRate> rateList = new ArrayList<>();
-        List<String[]> dataRows = rows.stream().skip(1).toList();
-        String[] headers = rows.get(0);
-        dataRows.forEach(row -> {
+        String[] row;
+        while ((row = reader.readNext()) != null) {
             try {
                 LocalDate date = parseDate(row[0]);
-                Map<String, BigDecimal> currencies = generateCurrencyRateMap(headers, row);
+                Map<String, BigDecimal> currencies = generateCurrencyRateMap(dictionary, currencyIds, row);
                 CurrencyRate currencyRate = new CurrencyRate(date, currencies);
                 rateList.add(currencyRate);
             } catch (DateTimeParseException e) {
-                String errorMessage = "Unable to parse CSV date with error message: `%s`";
-                log.warn(String.format(errorMessage, e.getMessage()));
-                throw new CsvParsingException(String.format(errorMessage, e.getMessage()), ErrorCode.CSV_PARSING_ERROR);
+                throw dateParsingException(e, reader.getLinesRead());
+            }
+        }
+        currencyRatesContextHolder.set(rateList);
+        return currencyRatesContextHolder;
+    }
+
+    /**
+     * Parses the CSV file with a {@link CsvByteScanner}, which parses the dates and rates straight from the bytes of
+     * the file and puts every rate in the rates of its row without intermediate objects. If the parser may use more than
+     * one thread, the file is read once into a single array, and files of at least
+     * {@link CsvProperties#getParallelThreshold()} bytes are parsed in parallel chunks of that array.
+     *
+     * @param inputStream the input stream of the CSV file
+     *
+     * @return the created {@link CurrencyRatesContextHolder} object
+     */
+    private CurrencyRatesContextHolder parseWithByteScanner(InputStream inputStream) throws IOException {
+        if (parallelism > 1) {
+            byte[] csv = inputStream.readAllBytes();
+            if (csv.length >= csvProperties.getParallelThreshold()) {
+                return parseInParallel(csv);
             }
-        });
+            inputStream = new ByteArrayInputStream(csv);
+        }
+        CsvByteScanner scanner = new CsvByteScanner(inputStream);
+        String[] headers = readHeaders(scanner);
+        CsvValidator.validateHeader(headers);
+        CurrencyDictionary dictionary = createDictionary(headers);
+        List<CurrencyRate> rateList = readRates(scanner, headers.length, dictionary, currencyIds(dictionary, headers));
+        CurrencyRatesContextHolder currencyRatesContextHolder = new CurrencyRatesContextHolder();
         currencyRatesContextHolder.set(rateList);
         return currencyRatesContextHolder;
     }
 
     /**
-     * Generates a map of currency rates from the given headers and row.
+     * Parses a CSV file in parallel. The file is split at row boundaries into chunks of at least
+     * {@link CsvProperties#getChunkSize()} bytes, which are scanned in place concurrently on the parsing pool with the
+     * header and the currency dictionary of the file. The rates of the chunks are concatenated in file order, so the result is
+     * identical to parsing the file sequentially, and a date that cannot be parsed is reported with its line number.
+     *
+     * @param csv the bytes of the CSV file
+     *
+     * @return the created {@link CurrencyRatesContextHolder} object
+     */
+    private CurrencyRatesContextHolder parseInParallel(byte[] csv) throws IOException {
+        List<CsvChunk> chunks = CsvChunk.split(csv, csvProperties.getChunkSize());
+        String[] headers = readHeaders(createScanner(csv, chunks.get(0)));
+        CsvValidator.validateHeader(headers);
+        CurrencyDictionary dictionary = createDictionary(headers);
+        int[] currencyIds = currencyIds(dictionary, headers);
+        ForkJoinPool pool = parsingPool();
+        List<ForkJoinTask<List<CurrencyRate>>> tasks = new ArrayList<>(chunks.size() - 1);
+        for (CsvChunk chunk : chunks.subList(1, chunks.size())) {
+            tasks.add(pool.submit(() -> readRates(createScanner(csv, chunk), headers.length, dictionary, currencyIds)));
+        }
+        List<CurrencyRate> rateList = new ArrayList<>();
+        try {
+            for (ForkJoinTask<List<CurrencyRate>> task : tasks) {
+                rateList.addAll(task.join());
+            }
+        } finally {
+            tasks.forEach(task -> task.cancel(false));
+        }
+        CurrencyRatesContextHolder currencyRatesContextHolder = new CurrencyRatesContextHolder();
+        currencyRatesContextHolder.set(rateList);
+        return currencyRatesContextHolder;
+    }
+
+    private CsvByteScanner createScanner(byte[] csv, CsvChunk chunk) {
+        return new CsvByteScanner(new ByteArrayInputStream(csv, chunk.offset(), chunk.length()), chunk.firstLine());
+    }
+
+    /**
+     * Reads the remaining data rows of a scanner.
+     *
+     * @param scanner     the scanner positioned at the first data row
+     * @param columnCount the number of columns of the header
+     * @param dictionary  the dictionary of the file
+     * @param currencyIds the currency ids indexed by column
+     *
+     * @return the currency rates of the rows in file order
+     */
+    private List<CurrencyRate> readRates(CsvByteScanner scanner, int columnCount, CurrencyDictionary dictionary,
+                                         int[] currencyIds) throws IOException {
+        List<CurrencyRate> rateList = new ArrayList<>();
+        int status;
+        while ((status = scanner.next()) != CsvByteScanner.END_OF_INPUT) {
+            LocalDate date;
+            try {
+                date = scanner.date();
+            } catch (DateTimeParseException e) {
+                throw dateParsingException(e, scanner.line());
+            }
+            BigDecimal[] rates = new BigDecimal[dictionary.size()];
+            for (int column = 1; status == CsvByteScanner.CELL; column++) {
+                status = scanner.next();
+                BigDecimal rate = column < columnCount ? scanner.decimal() : null;
+                if (rate != null) {
+                    rates[currencyIds[column]] = rate;
+                }
+            }
+            rateList.add(new CurrencyRate(date, new DictionaryEncodedRates(dictionary, rates)));
+        }
+        return rateList;
+    }
+
+    /**
+     * Reads the header row of the CSV file.
+     *
+     * @param scanner the scanner positioned at the start of the file
+     *
+     * @return the headers, or null if the file has no rows
+     */
+    private String[] readHeaders(CsvByteScanner scanner) throws IOException {
+        List<String> headers = new ArrayList<>();
+        int status = scanner.next();
+        if (status == CsvByteScanner.END_OF_INPUT) {
+            return null;
+        }
+        headers.add(scanner.text());
+        while (status == CsvByteScanner.CELL) {
+            status = scanner.next();
+            headers.add(scanner.text());
+        }
+        return headers.toArray(String[]::new);
+    }
+
+    private CsvParsingException dateParsingException(DateTimeParseException e, long line) {
+        String errorMessage = String.format(DATE_PARSING_ERROR_MESSAGE, line, e.getMessage());
+        log.warn(errorMessage);
+        return new CsvParsingException(errorMessage, ErrorCode.CSV_PARSING_ERROR);
+    }
+
+    /**
+     * Creates the currency dictionary of a file from the currency columns of its headers.
      *
      * @param headers the headers of the CSV file
-     * @param row     the row containing currency rates
      *
-     * @return the generated map of currency rates
+     * @return the dictionary shared by the rows of the file
+     */
+    private CurrencyDictionary createDictionary(String[] headers) {
+        return CurrencyDictionary.of(Arrays.copyOfRange(headers, 1, headers.length));
+    }
+
+    /**
+     * Resolves the currency id of every column of the headers, so the rates of a row are stored by index.
+     *
+     * @param dictionary the dictionary of the file
+     * @param headers    the headers of the CSV file
+     *
+     * @return the currency ids indexed by column, {@code -1} for the date column
      */
-    private Map<String, BigDecimal> generateCurrencyRateMap(String[] headers, String[] row) {
-        return IntStream.range(1, row.length)
-                .mapToObj(i -> new AbstractMap.SimpleEntry<>(getCurrency(i, headers), parseRate(row[i])))
-                .filter(entry -> entry.getKey() != null && entry.getValue() != null)
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    private int[] currencyIds(CurrencyDictionary dictionary, String[] headers) {
+        int[] currencyIds = new int[headers.length];
+        for (int column = 0; column < headers.length; column++) {
+            currencyIds[column] = column == 0 ? -1 : dictionary.idOf(headers[column]);
+        }
+        return currencyIds;
+    }
+
+    /**
+     * Generates the currency rates of a row, indexed by the currency ids of its columns.
+     *
+     * @param dictionary  the dictionary of the file
+     * @param currencyIds the currency ids indexed by column
+     * @param row         the row containing currency rates
+     *
+     * @return the generated currency rates
+     */
+    private Map<String, BigDecimal> generateCurrencyRateMap(CurrencyDictionary dictionary, int[] currencyIds, String[] row) {
+        BigDecimal[] rates = new BigDecimal[dictionary.size()];
+        for (int column = 1; column < row.length && column < currencyIds.length; column++) {
+            BigDecimal rate = parseRate(row[column]);
+            if (rate != null) {
+                rates[currencyIds[column]] = rate;
+            }
+        }
+        return new DictionaryEncodedRates(dictionary, rates);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        destroyed = true;
+        if (parsingPool != null) {
+            parsingPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the parsing pool, which is created by the first file that is parsed in parallel.
+     */
+    private synchronized ForkJoinPool parsingPool() {
+        if (destroyed) {
+            throw new IllegalStateException("The CSV parser has been shut down");
+        }
+        if (parsingPool == null) {
+            parsingPool = createPool(parallelism);
+        }
+        return parsingPool;
+    }
+
+    private static ForkJoinPool createPool(int parallelism) {
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("csv-parsing-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
     }
 
     /**
@@ -115,17 +334,4 @@ public class CurrencyRateCsvParser {
     private BigDecimal parseRate(String rateValue) {
         return NumberUtils.isCreatable(rateValue) ? new BigDecimal(rateValue) : null;
     }
-
-    /**
-     * Gets the currency at the specified index in the headers array.
-     * If the index is out of bounds or the currency is null, returns an empty string.
-     *
-     * @param index   the index of the currency in the headers array
-     * @param headers the headers array
-     *
-     * @return the currency at the specified index, or an empty string if not found
-     */
-    private String getCurrency(int index, String[] headers) {
-        return (index >= 0 && index < headers.length) ? headers[index] : null;
-    }
-}
\ No newline at end of file
+}
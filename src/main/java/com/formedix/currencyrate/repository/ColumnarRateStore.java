@@ -0,0 +1,186 @@
+package com.formedix.currencyrate.repository;
+
+import com.formedix.currencyrate.domain.AbstractDictionaryEncodedRates;
+import com.formedix.currencyrate.domain.CurrencyDictionary;
+import com.formedix.currencyrate.domain.CurrencyRate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented store of the rates of a {@link SnapshotSegment}, which is the only copy of the rates the segment
+ * keeps.
+ * <p>
+ * Every currency is stored as a compact {@link RateColumn} indexed by the position of the rate in the date-sorted
+ * segment, and indexed by a sparse {@link RateAggregationIndex}, built together with the store. The currencies of a
+ * row are read through {@link #rates(int)}, a map view that decodes the rates of the row on access, so the rows the
+ * store was built from are not retained. The columns of a store mapped from a {@link CurrencyRateSnapshotFile} read
+ * their rates from the file, so only the aggregation indexes of such a store are kept in the heap. The views are not cached, as they would take more heap than the rates they
+ * view; scans within the repository read the columns directly instead.
+ */
+final class ColumnarRateStore {
+    private final CurrencyDictionary dictionary;
+    private final RateColumn[] columns;
+    private final RateAggregationIndex[] indexes;
+
+    ColumnarRateStore(CurrencyDictionary dictionary, RateColumn[] columns) {
+        this.dictionary = dictionary;
+        this.columns = columns;
+        this.indexes = Arrays.stream(columns).map(RateAggregationIndex::new).toArray(RateAggregationIndex[]::new);
+    }
+
+    /**
+     * Creates the store of the rates of the given rows.
+     *
+     * @param sortedRates the rows, sorted by date
+     *
+     * @return the store, whose currencies are the columns in the order they first occur in the rows
+     */
+    static ColumnarRateStore of(CurrencyRate[] sortedRates) {
+        Map<String, Integer> columnsByCurrency = new LinkedHashMap<>();
+        List<BigDecimal[]> columnRates = new ArrayList<>();
+        Map<CurrencyDictionary, int[]> columnsByDictionary = new IdentityHashMap<>();
+        for (int row = 0; row < sortedRates.length; row++) {
+            if (sortedRates[row].currencies() instanceof AbstractDictionaryEncodedRates rates) {
+                int[] columnsOfIds = columnsByDictionary.computeIfAbsent(rates.dictionary(), dictionary -> {
+                    int[] unresolved = new int[dictionary.size()];
+                    Arrays.fill(unresolved, -1);
+                    return unresolved;
+                });
+                for (int id = 0; id < columnsOfIds.length; id++) {
+                    BigDecimal rate = rates.rate(id);
+                    if (rate != null) {
+                        if (columnsOfIds[id] < 0) {
+                            columnsOfIds[id] = columnOrAdd(rates.dictionary().currency(id), columnsByCurrency, columnRates, sortedRates.length);
+                        }
+                        columnRates.get(columnsOfIds[id])[row] = rate;
+                    }
+                }
+            } else {
+                for (Map.Entry<String, BigDecimal> entry : sortedRates[row].currencies().entrySet()) {
+                    if (entry.getValue() != null) {
+                        columnRates.get(columnOrAdd(entry.getKey(), columnsByCurrency, columnRates, sortedRates.length))[row] = entry.getValue();
+                    }
+                }
+            }
+        }
+        return new ColumnarRateStore(CurrencyDictionary.of(columnsByCurrency.keySet().toArray(String[]::new)),
+                columnRates.stream().map(RateColumn::new).toArray(RateColumn[]::new));
+    }
+
+    /**
+     * Resolves the column of a currency, adding an empty column if the currency is seen for the first time. Rates
+     * encoded by a dictionary are resolved once per currency id of their dictionary.
+     */
+    private static int columnOrAdd(String currency, Map<String, Integer> columnsByCurrency, List<BigDecimal[]> columnRates, int size) {
+        return columnsByCurrency.computeIfAbsent(currency, key -> {
+            columnRates.add(new BigDecimal[size]);
+            return columnRates.size() - 1;
+        });
+    }
+
+    /**
+     * Returns the column of the specified currency.
+     *
+     * @param currency the currency code
+     *
+     * @return the column index, or {@code -1} if no rate of the currency is stored
+     */
+    int columnOf(String currency) {
+        return dictionary.idOf(currency);
+    }
+
+    /**
+     * Returns the number of columns, one per currency with a rate in the store.
+     *
+     * @return the number of columns
+     */
+    int columnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Returns the currency of the specified column.
+     *
+     * @param column the column index
+     *
+     * @return the currency code
+     */
+    String currencyOf(int column) {
+        return dictionary.currency(column);
+    }
+
+    /**
+     * Returns the rates of the specified column.
+     *
+     * @param column the column index
+     *
+     * @return the rates of the column
+     */
+    RateColumn column(int column) {
+        return columns[column];
+    }
+
+    /**
+     * Returns the range aggregation index of the specified column.
+     *
+     * @param column the column index
+     *
+     * @return the range aggregation index
+     */
+    RateAggregationIndex index(int column) {
+        return indexes[column];
+    }
+
+    /**
+     * Returns the rates of a row, by currency.
+     *
+     * @param row the position of the row
+     *
+     * @return a read-only view of the rates of the row, whose currency ids are the columns of the store
+     */
+    Map<String, BigDecimal> rates(int row) {
+        return new RowRates(row);
+    }
+
+    /**
+     * Read-only view of the rates of a row, decoded from the columns of the store on access.
+     */
+    private final class RowRates extends AbstractDictionaryEncodedRates {
+        private final int row;
+
+        private RowRates(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public CurrencyDictionary dictionary() {
+            return dictionary;
+        }
+
+        @Override
+        public BigDecimal rate(int id) {
+            return columns[id].rate(row);
+        }
+
+        @Override
+        public boolean containsKey(Object currency) {
+            int id = dictionary.idOf(currency);
+            return id >= 0 && columns[id].isPresent(row);
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (RateColumn column : columns) {
+                size += column.isPresent(row) ? 1 : 0;
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.formedix.currencyrate.repository;
+
+import com.formedix.currencyrate.domain.CurrencyRate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Outcome of merging currency rates into a {@link CurrencyRateSnapshot}.
+ *
+ * @param snapshot    the merged snapshot
+ * @param mergedRates the rates whose date was added or whose values changed, ordered by date
+ */
+public record CurrencyRateMerge(CurrencyRateSnapshot snapshot, List<CurrencyRate> mergedRates) {
+
+    /**
+     * Returns the dates that were added or changed by the merge.
+     *
+     * @return the sorted set of changed dates
+     */
+    public NavigableSet<LocalDate> changedDates() {
+        NavigableSet<LocalDate> changedDates = new TreeSet<>();
+        mergedRates.forEach(rate -> changedDates.add(rate.date()));
+        return changedDates;
+    }
+}
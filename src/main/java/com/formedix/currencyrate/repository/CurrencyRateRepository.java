@@ -15,5 +15,7 @@ public interface CurrencyRateRepository<T> {
 
     List<T> update(List<T> currencyRates);
 
+    List<T> merge(List<T> currencyRates);
+
     List<T> findAll();
 }
@@ -0,0 +1,234 @@
+package com.formedix.currencyrate.repository;
+
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.domain.DecimalSum;
+import com.formedix.currencyrate.domain.FixedPoint;
+import com.formedix.currencyrate.domain.RateStatistics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Read-only view of a contiguous, date-ordered range of a {@link CurrencyRateSnapshot}.
+ * <p>
+ * The range spans one or more consecutive segments of the snapshot. Besides the list view, the slice answers range
+ * aggregations from the aggregation indexes of these segments, without visiting the rates within the range.
+ */
+public final class CurrencyRateSlice extends AbstractList<CurrencyRate> implements RandomAccess {
+    private final SnapshotSegment[] segments;
+    private final int[] fromIndexes;
+    private final int[] toIndexes;
+    private final int[] offsets;
+
+    /**
+     * Creates the slice of the ranges {@code [fromIndexes[i], toIndexes[i])} of the given segments, in this order.
+     */
+    CurrencyRateSlice(SnapshotSegment[] segments, int[] fromIndexes, int[] toIndexes) {
+        this.segments = segments;
+        this.fromIndexes = fromIndexes;
+        this.toIndexes = toIndexes;
+        this.offsets = new int[segments.length + 1];
+        for (int part = 0; part < segments.length; part++) {
+            offsets[part + 1] = offsets[part] + toIndexes[part] - fromIndexes[part];
+        }
+    }
+
+    @Override
+    public CurrencyRate get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        int part = Arrays.binarySearch(offsets, index);
+        part = part >= 0 ? nonEmptyPartAt(part) : -part - 2;
+        return segments[part].get(fromIndexes[part] + index - offsets[part]);
+    }
+
+    @Override
+    public int size() {
+        return offsets[segments.length];
+    }
+
+    /**
+     * Finds the highest rate of the specified currency within the slice.
+     *
+     * @param currency the currency code
+     *
+     * @return an Optional containing the highest rate, or an empty Optional if the currency has no rate in the slice
+     */
+    public Optional<BigDecimal> findHighestRate(String currency) {
+        return findExtremeRate(currency, true);
+    }
+
+    /**
+     * Finds the lowest rate of the specified currency within the slice.
+     *
+     * @param currency the currency code
+     *
+     * @return an Optional containing the lowest rate, or an empty Optional if the currency has no rate in the slice
+     */
+    public Optional<BigDecimal> findLowestRate(String currency) {
+        return findExtremeRate(currency, false);
+    }
+
+    /**
+     * Sums the rates of the specified currency within the slice exactly. The sum of a segment is taken from its exact
+     * prefix sums, unless they overflow a {@code long}, in which case the rates of the segment within the range are
+     * added one by one.
+     *
+     * @param currency the currency code
+     *
+     * @return the sum and count of the rates, with a count of {@code 0} if the currency has no rate in the slice
+     */
+    public DecimalSum sumRates(String currency) {
+        DecimalSum sum = new DecimalSum();
+        for (int part = 0; part < segments.length; part++) {
+            ColumnarRateStore columnarRateStore = segments[part].columnarRateStore();
+            int column = columnarRateStore.columnOf(currency);
+            if (column >= 0) {
+                RateAggregationIndex index = columnarRateStore.index(column);
+                int count = index.count(fromIndexes[part], toIndexes[part]);
+                long unscaledSum = index.unscaledSum(fromIndexes[part], toIndexes[part]);
+                if (count == 0) {
+                    continue;
+                }
+                if (unscaledSum == FixedPoint.OVERFLOW) {
+                    addRates(sum, part, columnarRateStore.column(column));
+                } else {
+                    sum.add(unscaledSum, index.scale(), count);
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Computes the statistics of the rates of the specified currency within the slice. The count, sum and extremes are
+     * taken from the aggregation indexes; only the variance requires a pass over the rates, which reads their primitive
+     * columns without creating any {@link BigDecimal}.
+     *
+     * @param currency the currency code
+     *
+     * @return the statistics, with a count of {@code 0} if the currency has no rate in the slice
+     */
+    public RateStatistics statistics(String currency) {
+        DecimalSum sum = sumRates(currency);
+        if (sum.count() == 0) {
+            return new RateStatistics();
+        }
+        RatePosition lowest = findExtremePosition(currency, false);
+        RatePosition highest = findExtremePosition(currency, true);
+        double mean = sum.sum().doubleValue() / sum.count();
+        double squaredDeviations = 0;
+        for (int part = 0; part < segments.length; part++) {
+            ColumnarRateStore columnarRateStore = segments[part].columnarRateStore();
+            int column = columnarRateStore.columnOf(currency);
+            if (column >= 0) {
+                RateColumn rates = columnarRateStore.column(column);
+                for (int row = fromIndexes[part]; row < toIndexes[part]; row++) {
+                    if (rates.isPresent(row)) {
+                        double deviation = rates.doubleRate(row) - mean;
+                        squaredDeviations += deviation * deviation;
+                    }
+                }
+            }
+        }
+        return RateStatistics.of(sum, lowest.rate(), lowest.date(), highest.rate(), highest.date(), squaredDeviations);
+    }
+
+    /**
+     * Finds the currencies with at least one rate within the slice.
+     *
+     * @return the currency codes in alphabetical order
+     */
+    public SortedSet<String> findCurrencies() {
+        SortedSet<String> currencies = new TreeSet<>();
+        for (int part = 0; part < segments.length; part++) {
+            ColumnarRateStore columnarRateStore = segments[part].columnarRateStore();
+            for (int column = 0; column < columnarRateStore.columnCount(); column++) {
+                if (columnarRateStore.index(column).count(fromIndexes[part], toIndexes[part]) > 0) {
+                    currencies.add(columnarRateStore.currencyOf(column));
+                }
+            }
+        }
+        return currencies;
+    }
+
+    /**
+     * Adds the rates of a column within the range of a part one by one.
+     */
+    private void addRates(DecimalSum sum, int part, RateColumn column) {
+        for (int row = fromIndexes[part]; row < toIndexes[part]; row++) {
+            if (column.isPresent(row)) {
+                sum.add(column.rate(row));
+            }
+        }
+    }
+
+    /**
+     * Finds the highest or lowest rate of the currency across the segments of the slice, the earliest one if it occurs
+     * more than once.
+     */
+    private Optional<BigDecimal> findExtremeRate(String currency, boolean highest) {
+        RatePosition position = findExtremePosition(currency, highest);
+        return position == null ? Optional.empty() : Optional.of(position.rate());
+    }
+
+    /**
+     * Finds the position of the highest or lowest rate of the currency across the segments of the slice, the earliest
+     * one if it occurs more than once.
+     *
+     * @return the position, or {@code null} if the currency has no rate in the slice
+     */
+    private RatePosition findExtremePosition(String currency, boolean highest) {
+        RatePosition extremePosition = null;
+        for (int part = 0; part < segments.length; part++) {
+            ColumnarRateStore columnarRateStore = segments[part].columnarRateStore();
+            int column = columnarRateStore.columnOf(currency);
+            if (column < 0) {
+                continue;
+            }
+            RateAggregationIndex index = columnarRateStore.index(column);
+            int row = highest
+                    ? index.highestIndex(fromIndexes[part], toIndexes[part])
+                    : index.lowestIndex(fromIndexes[part], toIndexes[part]);
+            if (row < 0) {
+                continue;
+            }
+            RatePosition position = new RatePosition(segments[part], columnarRateStore.column(column), row);
+            int comparison = extremePosition == null ? 0 : position.rate().compareTo(extremePosition.rate());
+            if (extremePosition == null || (highest ? comparison > 0 : comparison < 0)) {
+                extremePosition = position;
+            }
+        }
+        return extremePosition;
+    }
+
+    /**
+     * Skips the empty parts starting at the given offset, so the index resolves to the part that holds it.
+     */
+    private int nonEmptyPartAt(int part) {
+        while (offsets[part + 1] == offsets[part]) {
+            part++;
+        }
+        return part;
+    }
+
+    /**
+     * The position of a rate within a segment of the slice.
+     */
+    private record RatePosition(SnapshotSegment segment, RateColumn column, int row) {
+        BigDecimal rate() {
+            return column.rate(row);
+        }
+
+        LocalDate date() {
+            return segment.date(row);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.formedix.currencyrate.repository;
+
+import com.formedix.currencyrate.domain.CurrencyRate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable, date-indexed view over a set of currency rates.
+ * <p>
+ * A snapshot is built once per upload and published through {@link CurrencyRatesContextHolder}. The rates are sorted
+ * by date into one {@link SnapshotSegment} per year, so that single-date lookups resolve through the epoch-day keyed
+ * array of their segment and date ranges are sliced from the sorted rows without copying them. Every segment keeps its
+ * rates per currency in a {@link ColumnarRateStore}, the only copy of the rates the snapshot keeps, whose aggregation
+ * indexes are built with the segment so that they are always published together with the rates they were computed
+ * from. The rows of {@link #rates()} and of the slices are views of these stores, created on access; the original
+ * order of the rates is kept as the sorted position of every rate.
+ * <p>
+ * Merging rates into a snapshot creates a new snapshot that rebuilds only the segments of the changed years and shares
+ * the others with the previous snapshot, so the cost of a merge is proportional to the years it touches.
+ * <p>
+ * Every snapshot gets a new {@link #version()}, so anything derived from its rates can be tied to the snapshot it was
+ * derived from.
+ */
+public final class CurrencyRateSnapshot {
+    private static final AtomicLong VERSIONS = new AtomicLong(System.currentTimeMillis());
+    private static final CurrencyRateSnapshot EMPTY = new CurrencyRateSnapshot(new CurrencyRate[0]);
+
+    private final long version = VERSIONS.incrementAndGet();
+    private final Instant createdAt = Instant.now();
+    private final List<CurrencyRate> rates;
+    private final SnapshotSegment[] segments;
+    private final int[] years;
+
+    private CurrencyRateSnapshot(CurrencyRate[] rates) {
+        Integer[] sortedOrder = new Integer[rates.length];
+        Arrays.setAll(sortedOrder, index -> index);
+        Arrays.sort(sortedOrder, Comparator.comparing(index -> rates[index].date()));
+        CurrencyRate[] sortedRates = new CurrencyRate[rates.length];
+        int[] sortedIndexes = new int[rates.length];
+        for (int sortedIndex = 0; sortedIndex < rates.length; sortedIndex++) {
+            sortedRates[sortedIndex] = rates[sortedOrder[sortedIndex]];
+            sortedIndexes[sortedOrder[sortedIndex]] = sortedIndex;
+        }
+        this.segments = SnapshotSegment.split(sortedRates).toArray(SnapshotSegment[]::new);
+        this.years = Arrays.stream(segments).mapToInt(SnapshotSegment::year).toArray();
+        this.rates = new SnapshotRates(between(LocalDate.MIN, LocalDate.MAX), sortedIndexes, this);
+    }
+
+    private CurrencyRateSnapshot(SnapshotSegment[] segments, int[] sortedIndexes) {
+        this.segments = segments;
+        this.years = Arrays.stream(segments).mapToInt(SnapshotSegment::year).toArray();
+        this.rates = sortedIndexes == null
+                ? new MergedRates(between(LocalDate.MIN, LocalDate.MAX), this)
+                : new SnapshotRates(between(LocalDate.MIN, LocalDate.MAX), sortedIndexes, this);
+    }
+
+    /**
+     * Creates a snapshot of the given currency rates. Rates that were obtained from {@link #rates()} are not indexed
+     * again, their snapshot is returned instead.
+     *
+     * @param rates the currency rates to index
+     *
+     * @return the snapshot of the currency rates
+     */
+    public static CurrencyRateSnapshot of(List<CurrencyRate> rates) {
+        if (rates instanceof SnapshotRates snapshotRates) {
+            return snapshotRates.snapshot;
+        }
+        if (rates instanceof MergedRates mergedRates) {
+            return mergedRates.snapshot;
+        }
+        return rates == null || rates.isEmpty() ? EMPTY : new CurrencyRateSnapshot(rates.toArray(CurrencyRate[]::new));
+    }
+
+    /**
+     * Creates a snapshot of the given segments, such as those mapped from a {@link CurrencyRateSnapshotFile}.
+     *
+     * @param segments      the segments, ordered by year
+     * @param sortedIndexes the sorted position of every rate in the order the rates were provided, or {@code null} to
+     *                      order them by date, newest first, like a merged snapshot
+     *
+     * @return the snapshot of the segments
+     */
+    static CurrencyRateSnapshot of(SnapshotSegment[] segments, int[] sortedIndexes) {
+        return segments.length == 0 ? EMPTY : new CurrencyRateSnapshot(segments, sortedIndexes);
+    }
+
+    /**
+     * Returns the snapshot without any currency rates.
+     *
+     * @return the empty snapshot
+     */
+    public static CurrencyRateSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the version of the snapshot. Versions increase with every snapshot that is created and continue from the
+     * startup time in milliseconds, so they also keep increasing across restarts.
+     *
+     * @return the version of the snapshot
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Returns the time the snapshot was created.
+     *
+     * @return the creation time of the snapshot
+     */
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    /**
+     * Returns the currency rates in the order they were provided. The rates of a merged snapshot are ordered by date,
+     * newest first, like the reference rate files.
+     *
+     * @return the unmodifiable list of currency rates
+     */
+    public List<CurrencyRate> rates() {
+        return rates;
+    }
+
+    /**
+     * Finds the currency rate of the specified date. If the same date occurs more than once, the first occurrence wins.
+     *
+     * @param date the date to search for
+     *
+     * @return an Optional containing the currency rate if found, or an empty Optional if not found
+     */
+    public Optional<CurrencyRate> findByDate(LocalDate date) {
+        int segment = Arrays.binarySearch(years, date.getYear());
+        if (segment < 0) {
+            return Optional.empty();
+        }
+        int index = segments[segment].indexOf(date.toEpochDay());
+        return index == SnapshotSegment.NOT_FOUND ? Optional.empty() : Optional.of(segments[segment].get(index));
+    }
+
+    /**
+     * Slices the currency rates between the specified start and end dates (inclusive), ordered by date.
+     *
+     * @param startDate the start date of the range
+     * @param endDate   the end date of the range
+     *
+     * @return a read-only view of the currency rates within the range
+     */
+    public CurrencyRateSlice between(LocalDate startDate, LocalDate endDate) {
+        int first = lowerBound(startDate.getYear());
+        int last = lowerBound(endDate.getYear() + 1);
+        if (startDate.isAfter(endDate) || first >= last) {
+            return new CurrencyRateSlice(new SnapshotSegment[0], new int[0], new int[0]);
+        }
+        int parts = last - first;
+        SnapshotSegment[] sliceSegments = Arrays.copyOfRange(segments, first, last);
+        int[] fromIndexes = new int[parts];
+        int[] toIndexes = new int[parts];
+        for (int part = 0; part < parts; part++) {
+            toIndexes[part] = sliceSegments[part].size();
+        }
+        fromIndexes[0] = sliceSegments[0].lowerBound(startDate.toEpochDay());
+        toIndexes[parts - 1] = Math.max(sliceSegments[parts - 1].lowerBound(endDate.toEpochDay() + 1),
+                parts == 1 ? fromIndexes[0] : 0);
+        return new CurrencyRateSlice(sliceSegments, fromIndexes, toIndexes);
+    }
+
+    /**
+     * Merges the given currency rates into a new snapshot. Rates of new dates are added and rates of existing dates
+     * replace the previous ones if their values differ; all other rates are kept. Only the segments of the years of
+     * the added or replaced rates are rebuilt, the others are shared with this snapshot. If the same date occurs more
+     * than once in the given rates, the first occurrence wins.
+     *
+     * @param mergedRates the currency rates to merge
+     *
+     * @return the merged snapshot and the rates that were added or replaced, or this snapshot if nothing changed
+     */
+    public CurrencyRateMerge merge(List<CurrencyRate> mergedRates) {
+        Set<LocalDate> dates = new HashSet<>();
+        Map<LocalDate, CurrencyRate> changedRates = new HashMap<>();
+        for (CurrencyRate rate : mergedRates) {
+            if (dates.add(rate.date()) && findByDate(rate.date()).filter(rate::equals).isEmpty()) {
+                changedRates.put(rate.date(), rate);
+            }
+        }
+        if (changedRates.isEmpty()) {
+            return new CurrencyRateMerge(this, List.of());
+        }
+        Map<Integer, Map<LocalDate, CurrencyRate>> changedRatesByYear = new TreeMap<>();
+        changedRates.values().forEach(rate -> changedRatesByYear
+                .computeIfAbsent(rate.date().getYear(), year -> new LinkedHashMap<>())
+                .put(rate.date(), rate));
+
+        Map<Integer, SnapshotSegment> mergedSegments = new TreeMap<>();
+        Arrays.stream(segments).forEach(segment -> mergedSegments.put(segment.year(), segment));
+        changedRatesByYear.forEach((year, rates) -> mergedSegments.put(year, mergedSegments.containsKey(year)
+                ? mergedSegments.get(year).merge(rates)
+                : SnapshotSegment.split(rates.values().toArray(CurrencyRate[]::new)).get(0)));
+
+        List<CurrencyRate> sortedChangedRates = changedRates.values().stream()
+                .sorted(Comparator.comparing(CurrencyRate::date))
+                .toList();
+        return new CurrencyRateMerge(new CurrencyRateSnapshot(mergedSegments.values().toArray(SnapshotSegment[]::new), null),
+                sortedChangedRates);
+    }
+
+    /**
+     * Compares this snapshot with a previous one. Segments that are shared between both snapshots are skipped, so
+     * comparing a merged snapshot with the snapshot it was merged into only visits the changed years.
+     *
+     * @param previous the previous snapshot
+     *
+     * @return the dates whose currency rates were added, changed or removed since the previous snapshot
+     */
+    public NavigableSet<LocalDate> changedDates(CurrencyRateSnapshot previous) {
+        NavigableSet<LocalDate> changedDates = new TreeSet<>();
+        addChangedDates(this, previous, changedDates);
+        addChangedDates(previous, this, changedDates);
+        return changedDates;
+    }
+
+    /**
+     * Adds the dates of the snapshot whose rates are missing or different in the other snapshot.
+     */
+    private static void addChangedDates(CurrencyRateSnapshot snapshot, CurrencyRateSnapshot other, Set<LocalDate> changedDates) {
+        for (SnapshotSegment segment : snapshot.segments) {
+            int otherSegment = Arrays.binarySearch(other.years, segment.year());
+            if (otherSegment >= 0 && other.segments[otherSegment] == segment) {
+                continue;
+            }
+            for (int row = 0; row < segment.size(); row++) {
+                LocalDate date = segment.date(row);
+                boolean firstOccurrence = row == 0 || !segment.date(row - 1).equals(date);
+                if (firstOccurrence && other.findByDate(date).filter(segment.get(row)::equals).isEmpty()) {
+                    changedDates.add(date);
+                }
+            }
+        }
+    }
+
+    SnapshotSegment[] segments() {
+        return segments;
+    }
+
+    /**
+     * Returns the sorted position of every rate in the order the rates were provided.
+     *
+     * @return the sorted positions, or {@code null} if the rates are ordered by date, newest first
+     */
+    int[] sortedIndexes() {
+        return rates instanceof SnapshotRates snapshotRates ? snapshotRates.sortedIndexes : null;
+    }
+
+    private int lowerBound(int year) {
+        int index = Arrays.binarySearch(years, year);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Read-only list of the rates of a snapshot, in the order they were provided. The list is a view of the segments of
+     * the snapshot, which maps every position to the position of its rate among the sorted rates.
+     */
+    private static final class SnapshotRates extends AbstractList<CurrencyRate> implements RandomAccess {
+        private final CurrencyRateSlice sortedRates;
+        private final int[] sortedIndexes;
+        private final CurrencyRateSnapshot snapshot;
+
+        private SnapshotRates(CurrencyRateSlice sortedRates, int[] sortedIndexes, CurrencyRateSnapshot snapshot) {
+            this.sortedRates = sortedRates;
+            this.sortedIndexes = sortedIndexes;
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public CurrencyRate get(int index) {
+            return sortedRates.get(sortedIndexes[index]);
+        }
+
+        @Override
+        public int size() {
+            return sortedIndexes.length;
+        }
+    }
+
+    /**
+     * Read-only list of the rates of a merged snapshot, newest first. The list is a view of the segments of the
+     * snapshot, so merging does not copy the rates that did not change.
+     */
+    private static final class MergedRates extends AbstractList<CurrencyRate> implements RandomAccess {
+        private final CurrencyRateSlice sortedRates;
+        private final CurrencyRateSnapshot snapshot;
+
+        private MergedRates(CurrencyRateSlice sortedRates, CurrencyRateSnapshot snapshot) {
+            this.sortedRates = sortedRates;
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public CurrencyRate get(int index) {
+            return sortedRates.get(sortedRates.size() - 1 - index);
+        }
+
+        @Override
+        public int size() {
+            return sortedRates.size();
+        }
+    }
+}
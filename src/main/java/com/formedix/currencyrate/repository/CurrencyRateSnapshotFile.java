@@ -0,0 +1,171 @@
+package com.formedix.currencyrate.repository;
+
+import com.formedix.currencyrate.domain.CurrencyDictionary;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary file format of a {@link CurrencyRateSnapshot}, designed to be memory-mapped and served from.
+ * <p>
+ * The file is laid out like the snapshot itself. It starts with a header holding a magic number, the format version,
+ * the number of segments and rates, and whether the rates keep the order they were provided in, in which case the
+ * sorted position of every rate follows. Every segment then holds the number of its rows and currencies, the epoch
+ * days of its rows, and for every currency its length-prefixed UTF-8 code followed by its {@link RateColumn}, in the
+ * layout the column is mapped from. All values are little-endian and every section is aligned to eight bytes.
+ * <p>
+ * Mapping a file reads its header and the dates of its rows into the heap, and builds the aggregation indexes of its
+ * columns; the rates themselves stay in the mapping, which the columns of the mapped snapshot read on access, so they
+ * take no heap and are paged in and out by the operating system. Files of another version are not mapped.
+ */
+public final class CurrencyRateSnapshotFile {
+    private static final int MAGIC = 0x46584352;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+    private static final int ORDERED = 1;
+    private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private CurrencyRateSnapshotFile() {
+    }
+
+    /**
+     * Writes the currency rates of the snapshot to the specified file, replacing its content.
+     *
+     * @param file     the file to write
+     * @param snapshot the snapshot to write
+     *
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if a rate does not fit in a {@code long} unscaled value and a {@code byte} scale
+     */
+    public static void write(Path file, CurrencyRateSnapshot snapshot) throws IOException {
+        SnapshotSegment[] segments = snapshot.segments();
+        int[] sortedIndexes = snapshot.sortedIndexes();
+        long size = HEADER_SIZE + (sortedIndexes == null ? 0 : padded((long) sortedIndexes.length * Integer.BYTES));
+        for (SnapshotSegment segment : segments) {
+            ColumnarRateStore columnarRateStore = segment.columnarRateStore();
+            size += 2 * Integer.BYTES + padded((long) segment.size() * Integer.BYTES);
+            for (int column = 0; column < columnarRateStore.columnCount(); column++) {
+                size += padded(Short.BYTES + code(columnarRateStore, column).length) + columnarRateStore.column(column).encodedSize();
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size)).order(BYTE_ORDER);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(segments.length).putInt(snapshot.rates().size())
+                .putInt(sortedIndexes == null ? 0 : ORDERED).putInt(0);
+        if (sortedIndexes != null) {
+            buffer.asIntBuffer().put(sortedIndexes);
+            skip(buffer, sortedIndexes.length * Integer.BYTES);
+        }
+        for (SnapshotSegment segment : segments) {
+            ColumnarRateStore columnarRateStore = segment.columnarRateStore();
+            buffer.putInt(segment.size()).putInt(columnarRateStore.columnCount());
+            for (int row = 0; row < segment.size(); row++) {
+                buffer.putInt(buffer.position() + row * Integer.BYTES, Math.toIntExact(segment.epochDay(row)));
+            }
+            skip(buffer, segment.size() * Integer.BYTES);
+            for (int column = 0; column < columnarRateStore.columnCount(); column++) {
+                byte[] code = code(columnarRateStore, column);
+                int codeOffset = buffer.position();
+                buffer.putShort((short) code.length).put(code);
+                buffer.position(codeOffset);
+                skip(buffer, Short.BYTES + code.length);
+                columnarRateStore.column(column).writeTo(buffer);
+            }
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Memory-maps the snapshot of the specified file. The mapped snapshot stays valid after the file is replaced or
+     * deleted.
+     *
+     * @param file the file to map
+     *
+     * @return the mapped snapshot, whose rates are read from the mapping
+     *
+     * @throws IOException if the file cannot be read or is not a currency rate snapshot file
+     */
+    public static CurrencyRateSnapshot map(Path file) throws IOException {
+        MappedByteBuffer mapping;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer buffer = mapping.order(BYTE_ORDER);
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException(String.format("`%s` is not a currency rate snapshot file", file));
+        }
+        try {
+            int segmentCount = buffer.getInt();
+            int rowCount = buffer.getInt();
+            boolean ordered = buffer.getInt() == ORDERED;
+            buffer.getInt();
+            int[] sortedIndexes = null;
+            if (ordered) {
+                sortedIndexes = new int[rowCount];
+                buffer.asIntBuffer().get(sortedIndexes);
+                skip(buffer, rowCount * Integer.BYTES);
+            }
+            SnapshotSegment[] segments = new SnapshotSegment[segmentCount];
+            for (int segment = 0; segment < segmentCount; segment++) {
+                segments[segment] = mapSegment(buffer);
+            }
+            return CurrencyRateSnapshot.of(segments, sortedIndexes);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException(String.format("Currency rate snapshot file `%s` is truncated or corrupt", file), e);
+        }
+    }
+
+    /**
+     * Maps the segment at the position of the buffer and advances its position past the segment.
+     */
+    private static SnapshotSegment mapSegment(ByteBuffer buffer) {
+        int rowCount = buffer.getInt();
+        int columnCount = buffer.getInt();
+        long[] epochDays = new long[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            epochDays[row] = buffer.getInt(buffer.position() + row * Integer.BYTES);
+        }
+        skip(buffer, rowCount * Integer.BYTES);
+        String[] currencies = new String[columnCount];
+        RateColumn[] columns = new RateColumn[columnCount];
+        for (int column = 0; column < columnCount; column++) {
+            int codeOffset = buffer.position();
+            byte[] code = new byte[buffer.getShort()];
+            buffer.get(code);
+            currencies[column] = new String(code, StandardCharsets.UTF_8);
+            buffer.position(codeOffset);
+            skip(buffer, Short.BYTES + code.length);
+            columns[column] = RateColumn.map(buffer, rowCount);
+        }
+        return new SnapshotSegment(epochDays, new ColumnarRateStore(CurrencyDictionary.of(currencies), columns));
+    }
+
+    private static byte[] code(ColumnarRateStore columnarRateStore, int column) {
+        return columnarRateStore.currencyOf(column).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Advances the position of the buffer past a section of the given length, padded to a multiple of eight bytes.
+     */
+    private static void skip(ByteBuffer buffer, int length) {
+        buffer.position(Math.toIntExact(buffer.position() + padded(length)));
+    }
+
+    private static long padded(long length) {
+        return (length + Long.BYTES - 1) & -Long.BYTES;
+    }
+}
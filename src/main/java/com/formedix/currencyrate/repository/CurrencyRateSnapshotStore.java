@@ -0,0 +1,76 @@
+package com.formedix.currencyrate.repository;
+
+import com.formedix.currencyrate.config.SnapshotProperties;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Persists the latest accepted currency rates as a {@link CurrencyRateSnapshotFile}, so that they survive a restart.
+ * <p>
+ * A new snapshot is written next to the current one and then atomically moved over it, so a crash never leaves a
+ * partially written snapshot behind. Rates mapped from the previous snapshot stay readable after it is replaced.
+ * <p>
+ * Persistence is disabled by default. A relative {@link SnapshotProperties#getDirectory() directory} is resolved
+ * against the working directory of the process, which is logged with the resolved file once persistence is used.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class CurrencyRateSnapshotStore {
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    private final SnapshotProperties snapshotProperties;
+
+    /**
+     * Memory-maps the latest persisted snapshot of the currency rates.
+     *
+     * @return an Optional containing the persisted snapshot, whose rates are read from the mapping, or an empty
+     * Optional if persistence is disabled or no readable snapshot exists
+     */
+    public Optional<CurrencyRateSnapshot> load() {
+        Path file = snapshotFile();
+        if (!snapshotProperties.isEnabled() || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            CurrencyRateSnapshot snapshot = CurrencyRateSnapshotFile.map(file);
+            log.info("Mapped {} currency rates from snapshot `{}`", snapshot.rates().size(), file.toAbsolutePath());
+            return Optional.of(snapshot);
+        } catch (IOException e) {
+            log.warn("Unable to load currency rate snapshot `{}`: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Persists the snapshot of the currency rates as the latest snapshot. Rates that cannot be persisted are logged and
+     * otherwise ignored, the currency rates in memory are not affected.
+     *
+     * @param snapshot the snapshot to persist
+     */
+    public void save(CurrencyRateSnapshot snapshot) {
+        if (!snapshotProperties.isEnabled()) {
+            return;
+        }
+        Path file = snapshotFile();
+        Path temporaryFile = file.resolveSibling(file.getFileName() + TEMPORARY_FILE_SUFFIX);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            CurrencyRateSnapshotFile.write(temporaryFile, snapshot);
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Unable to persist currency rate snapshot `{}`: {}", file.toAbsolutePath(), e.getMessage());
+        }
+    }
+
+    private Path snapshotFile() {
+        return Path.of(snapshotProperties.getDirectory(), snapshotProperties.getFileName());
+    }
+}
@@ -8,11 +8,24 @@ import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Holds the current currency rates in memory.
+ * <p>
+ * The version of the current rates is the {@link CurrencyRateSnapshot#version() version} of their snapshot, so it
+ * changes whenever other rates are published and can never be observed out of step with them. Uploads are applied one
+ * at a time, so the version increases with every upload that changed the rates.
+ * <p>
+ * Responses are validated against the {@link #getVersionedSnapshot() versioned snapshot} instead, which only follows
+ * the current snapshot once the cache entries of the rates it changed have been evicted, see {@link #publishVersion()}.
+ * A response served from a cache entry of the previous rates thereby never carries the version of the new ones.
+ * <p>
+ * Rates can also be looked up before they are published, by {@link #runAgainst(CurrencyRateSnapshot, Runnable) running}
+ * the lookups against their snapshot, which is then the current snapshot of the running thread only.
  */
 @Component
 public class CurrencyRatesContextHolder {
 
-    private final AtomicReference<List<CurrencyRate>> rates = new AtomicReference<>();
+    private final AtomicReference<CurrencyRateSnapshot> snapshot = new AtomicReference<>(CurrencyRateSnapshot.empty());
+    private volatile CurrencyRateSnapshot versionedSnapshot = CurrencyRateSnapshot.empty();
+    private final ThreadLocal<CurrencyRateSnapshot> candidateSnapshot = new ThreadLocal<>();
 
     /**
      * Get the current currency rates.
@@ -20,15 +33,78 @@ public class CurrencyRatesContextHolder {
      * @return the current currency rates
      */
     public List<CurrencyRate> get() {
-        return this.rates.get();
+        return getSnapshot().rates();
     }
 
     /**
-     * Set the currency rates.
+     * Get the current date-indexed snapshot of the currency rates.
+     *
+     * @return the current snapshot
+     */
+    public CurrencyRateSnapshot getSnapshot() {
+        CurrencyRateSnapshot candidate = this.candidateSnapshot.get();
+        return candidate != null ? candidate : this.snapshot.get();
+    }
+
+    /**
+     * Runs a task on the calling thread with the snapshot as its current snapshot, without publishing it.
+     *
+     * @param candidate the snapshot to look the rates up in
+     * @param task      the task
+     */
+    public void runAgainst(CurrencyRateSnapshot candidate, Runnable task) {
+        CurrencyRateSnapshot previous = this.candidateSnapshot.get();
+        this.candidateSnapshot.set(candidate);
+        try {
+            task.run();
+        } finally {
+            this.candidateSnapshot.set(previous);
+        }
+    }
+
+    /**
+     * Get the snapshot whose version the responses carry. It is the current snapshot as of the last
+     * {@link #publishVersion()}, so it may lag behind the current snapshot while an upload evicts its cache entries.
+     *
+     * @return the versioned snapshot
+     */
+    public CurrencyRateSnapshot getVersionedSnapshot() {
+        return this.versionedSnapshot;
+    }
+
+    /**
+     * Publish the version of the current snapshot to the responses, once nothing cached still depends on the rates it
+     * replaced.
+     */
+    public void publishVersion() {
+        this.versionedSnapshot = this.snapshot.get();
+    }
+
+    /**
+     * Set the currency rates. The rates are indexed before they are published, so readers either see the previous
+     * or the new snapshot as a whole.
      *
      * @param rates the currency rates to set
      */
     public void set(List<CurrencyRate> rates) {
-        this.rates.set(rates);
+        this.snapshot.set(CurrencyRateSnapshot.of(rates));
+    }
+
+    /**
+     * Merge the currency rates into the current snapshot and publish the merged snapshot. If another update is
+     * published concurrently, the rates are merged again into the newer snapshot, so no update is lost.
+     *
+     * @param rates the currency rates to merge
+     *
+     * @return the outcome of the merge
+     */
+    public CurrencyRateMerge merge(List<CurrencyRate> rates) {
+        while (true) {
+            CurrencyRateSnapshot current = this.snapshot.get();
+            CurrencyRateMerge merge = current.merge(rates);
+            if (merge.snapshot() == current || this.snapshot.compareAndSet(current, merge.snapshot())) {
+                return merge;
+            }
+        }
     }
 }
@@ -2,6 +2,7 @@ package com.formedix.currencyrate.repository;
 
 import com.formedix.currencyrate.domain.CurrencyRate;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -11,9 +12,12 @@ import java.util.Optional;
 
 /**
  * Holds the current currency rates in memory repository.
+ * <p>
+ * Every lookup scans the current rates, see {@link IndexedCurrencyRateRepositoryImpl} for the default implementation.
  */
 @Repository
 @AllArgsConstructor
+@ConditionalOnProperty(prefix = "currency-rate", name = "repository", havingValue = "scan")
 public class InMemoryCurrencyRateRepositoryImpl implements CurrencyRateRepository<CurrencyRate> {
     private final CurrencyRatesContextHolder currencyRatesContextHolder;
 
@@ -42,7 +46,7 @@ public class InMemoryCurrencyRateRepositoryImpl implements CurrencyRateRepositor
     @Override
     public List<CurrencyRate> findBetweenDates(LocalDate startDate, LocalDate endDate) {
         return currencyRatesContextHolder.get().stream()
-                .filter(rate -> !rate.date().isBefore(startDate) && rate.date().isBefore(endDate.plusDays(1)))
+                .filter(rate -> !rate.date().isBefore(startDate) && !rate.date().isAfter(endDate))
                 .toList();
     }
 
@@ -59,6 +63,19 @@ public class InMemoryCurrencyRateRepositoryImpl implements CurrencyRateRepositor
         return currencyRatesContextHolder.get();
     }
 
+    /**
+     * Merges the currency rates into the current ones: rates of new dates are added and rates of existing dates are
+     * replaced, all other rates are kept.
+     *
+     * @param mergedCurrencyRates the currency rates to merge
+     *
+     * @return the currency rates that were added or replaced, ordered by date
+     */
+    @Override
+    public List<CurrencyRate> merge(List<CurrencyRate> mergedCurrencyRates) {
+        return currencyRatesContextHolder.merge(mergedCurrencyRates).mergedRates();
+    }
+
     /**
      * Retrieves the current currency rates.
      *
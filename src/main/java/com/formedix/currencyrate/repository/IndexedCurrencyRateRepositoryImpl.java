@@ -0,0 +1,84 @@
+package com.formedix.currencyrate.repository;
+
+import com.formedix.currencyrate.domain.CurrencyRate;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Holds the current currency rates in a date-indexed memory repository.
+ * <p>
+ * Lookups are served by the {@link CurrencyRateSnapshot} currently published in the {@link CurrencyRatesContextHolder}:
+ * single dates are resolved in constant time and date ranges are returned as views of the date-sorted rates.
+ */
+@Repository
+@AllArgsConstructor
+@ConditionalOnProperty(prefix = "currency-rate", name = "repository", havingValue = "indexed", matchIfMissing = true)
+public class IndexedCurrencyRateRepositoryImpl implements CurrencyRateRepository<CurrencyRate> {
+    private final CurrencyRatesContextHolder currencyRatesContextHolder;
+
+    /**
+     * Finds a currency rate by the specified date.
+     *
+     * @param date the date to search for
+     *
+     * @return an Optional containing the currency rate if found, or an empty Optional if not found
+     */
+    @Override
+    public Optional<CurrencyRate> findByDate(LocalDate date) {
+        return currencyRatesContextHolder.getSnapshot().findByDate(date);
+    }
+
+    /**
+     * Finds currency rates between the specified start and end dates (inclusive), ordered by date.
+     *
+     * @param startDate the start date of the range
+     * @param endDate   the end date of the range
+     *
+     * @return a read-only view of the currency rates within the specified date range
+     */
+    @Override
+    public List<CurrencyRate> findBetweenDates(LocalDate startDate, LocalDate endDate) {
+        return currencyRatesContextHolder.getSnapshot().between(startDate, endDate);
+    }
+
+    /**
+     * Replaces the currency rates and publishes their new snapshot.
+     *
+     * @param updatedCurrencyRates the updated currency rates
+     *
+     * @return the updated currency rates
+     */
+    @Override
+    public List<CurrencyRate> update(List<CurrencyRate> updatedCurrencyRates) {
+        currencyRatesContextHolder.set(updatedCurrencyRates);
+        return currencyRatesContextHolder.get();
+    }
+
+    /**
+     * Merges the currency rates into the current ones: rates of new dates are added and rates of existing dates are
+     * replaced, all other rates are kept.
+     *
+     * @param mergedCurrencyRates the currency rates to merge
+     *
+     * @return the currency rates that were added or replaced, ordered by date
+     */
+    @Override
+    public List<CurrencyRate> merge(List<CurrencyRate> mergedCurrencyRates) {
+        return currencyRatesContextHolder.merge(mergedCurrencyRates).mergedRates();
+    }
+
+    /**
+     * Retrieves the current currency rates.
+     *
+     * @return the current currency rates
+     */
+    @Override
+    public List<CurrencyRate> findAll() {
+        return currencyRatesContextHolder.get();
+    }
+}
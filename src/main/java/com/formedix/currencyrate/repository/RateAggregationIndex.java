@@ -0,0 +1,224 @@
+package com.formedix.currencyrate.repository;
+
+import com.formedix.currencyrate.domain.FixedPoint;
+
+/**
+ * Range aggregation index over a single {@link RateColumn} of a {@link ColumnarRateStore}.
+ * <p>
+ * The index is sparse: the column is divided into blocks of {@link #BLOCK_SIZE} positions, and only the blocks are
+ * indexed, by exact prefix sums and valid-count prefixes of the blocks, and two segment trees of the positions of the
+ * highest and lowest rate of every block, which compare the rates of the column exactly. A range is answered from the
+ * blocks it covers entirely, the last block of the column included, and the at most {@code 2 * (BLOCK_SIZE - 1)}
+ * positions at its ends are read from the column. Sums and counts take constant time and extremes logarithmic time,
+ * while the index takes less than a byte per rate. Positions are expressed as half-open ranges
+ * {@code [fromIndex, toIndex)} of the date-sorted segment.
+ * <p>
+ * The prefix sums add the rates of the column as unscaled values of its largest scale. If a rate or a prefix sum does
+ * not fit into a {@code long}, the column has no exact sums.
+ */
+final class RateAggregationIndex {
+    static final int BLOCK_SIZE = 64;
+    private static final int NONE = -1;
+
+    private final RateColumn column;
+    private final int blockCount;
+    private final long[] unscaledBlockPrefixSums;
+    private final int scale;
+    private final int[] blockPrefixCounts;
+    private final int[] highestTree;
+    private final int[] lowestTree;
+
+    RateAggregationIndex(RateColumn column) {
+        this.column = column;
+        this.scale = column.scale();
+        this.blockCount = (column.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        this.unscaledBlockPrefixSums = unscaledBlockPrefixSums(column, scale, blockCount);
+        this.blockPrefixCounts = new int[blockCount + 1];
+        this.highestTree = new int[2 * blockCount];
+        this.lowestTree = new int[2 * blockCount];
+        for (int block = 0; block < blockCount; block++) {
+            int fromIndex = block * BLOCK_SIZE;
+            int toIndex = Math.min(fromIndex + BLOCK_SIZE, column.size());
+            blockPrefixCounts[block + 1] = blockPrefixCounts[block] + countRows(fromIndex, toIndex);
+            highestTree[blockCount + block] = highestRow(NONE, fromIndex, toIndex);
+            lowestTree[blockCount + block] = lowestRow(NONE, fromIndex, toIndex);
+        }
+        for (int node = blockCount - 1; node > 0; node--) {
+            highestTree[node] = higher(highestTree[2 * node], highestTree[2 * node + 1]);
+            lowestTree[node] = lower(lowestTree[2 * node], lowestTree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Counts the rates present within the range.
+     */
+    int count(int fromIndex, int toIndex) {
+        int fromBlock = firstFullBlock(fromIndex);
+        int toBlock = lastFullBlock(toIndex);
+        if (fromBlock >= toBlock) {
+            return countRows(fromIndex, toIndex);
+        }
+        return blockPrefixCounts[toBlock] - blockPrefixCounts[fromBlock]
+                + countRows(fromIndex, fromBlock * BLOCK_SIZE) + countRows(toBlock * BLOCK_SIZE, toIndex);
+    }
+
+    /**
+     * Sums the unscaled rates present within the range exactly.
+     *
+     * @return the unscaled sum of the scale of the index, or {@link FixedPoint#OVERFLOW} if the column has no exact sums
+     * or the sum of the range does not fit into a {@code long}
+     */
+    long unscaledSum(int fromIndex, int toIndex) {
+        if (unscaledBlockPrefixSums == null) {
+            return FixedPoint.OVERFLOW;
+        }
+        int fromBlock = firstFullBlock(fromIndex);
+        int toBlock = lastFullBlock(toIndex);
+        if (fromBlock >= toBlock) {
+            return sumRows(0, fromIndex, toIndex);
+        }
+        long to = unscaledBlockPrefixSums[toBlock];
+        long from = unscaledBlockPrefixSums[fromBlock];
+        long sum = to - from;
+        if (((to ^ from) & (to ^ sum)) < 0) {
+            return FixedPoint.OVERFLOW;
+        }
+        return sumRows(sumRows(sum, fromIndex, fromBlock * BLOCK_SIZE), toBlock * BLOCK_SIZE, toIndex);
+    }
+
+    /**
+     * Returns the scale of the unscaled sums.
+     */
+    int scale() {
+        return scale;
+    }
+
+    /**
+     * Finds the position of the highest rate within the range, the earliest one if the highest rate occurs more than
+     * once.
+     *
+     * @return the position of the highest rate, or {@code -1} if no rate is present within the range
+     */
+    int highestIndex(int fromIndex, int toIndex) {
+        int fromBlock = firstFullBlock(fromIndex);
+        int toBlock = lastFullBlock(toIndex);
+        if (fromBlock >= toBlock) {
+            return highestRow(NONE, fromIndex, toIndex);
+        }
+        int highest = highestRow(NONE, fromIndex, fromBlock * BLOCK_SIZE);
+        for (int low = fromBlock + blockCount, high = toBlock + blockCount; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                highest = higher(highest, highestTree[low++]);
+            }
+            if ((high & 1) == 1) {
+                highest = higher(highest, highestTree[--high]);
+            }
+        }
+        return highestRow(highest, toBlock * BLOCK_SIZE, toIndex);
+    }
+
+    /**
+     * Finds the position of the lowest rate within the range, the earliest one if the lowest rate occurs more than
+     * once.
+     *
+     * @return the position of the lowest rate, or {@code -1} if no rate is present within the range
+     */
+    int lowestIndex(int fromIndex, int toIndex) {
+        int fromBlock = firstFullBlock(fromIndex);
+        int toBlock = lastFullBlock(toIndex);
+        if (fromBlock >= toBlock) {
+            return lowestRow(NONE, fromIndex, toIndex);
+        }
+        int lowest = lowestRow(NONE, fromIndex, fromBlock * BLOCK_SIZE);
+        for (int low = fromBlock + blockCount, high = toBlock + blockCount; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                lowest = lower(lowest, lowestTree[low++]);
+            }
+            if ((high & 1) == 1) {
+                lowest = lower(lowest, lowestTree[--high]);
+            }
+        }
+        return lowestRow(lowest, toBlock * BLOCK_SIZE, toIndex);
+    }
+
+    /**
+     * Builds the exact prefix sums of the unscaled rates of the blocks.
+     *
+     * @return the prefix sums, or {@code null} if they overflow
+     */
+    private static long[] unscaledBlockPrefixSums(RateColumn column, int scale, int blockCount) {
+        long[] prefixes = new long[blockCount + 1];
+        long sum = 0;
+        for (int row = 0; row < column.size(); row++) {
+            if (column.isPresent(row)) {
+                sum = FixedPoint.add(sum, column.unscaledRate(row, scale));
+                if (sum == FixedPoint.OVERFLOW) {
+                    return null;
+                }
+            }
+            if ((row + 1) % BLOCK_SIZE == 0 || row + 1 == column.size()) {
+                prefixes[row / BLOCK_SIZE + 1] = sum;
+            }
+        }
+        return prefixes;
+    }
+
+    private static int firstFullBlock(int fromIndex) {
+        return (fromIndex + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    /**
+     * Returns the block ending at or before the end of a range, which is the last block of the column, however short,
+     * if the range ends with the column.
+     */
+    private int lastFullBlock(int toIndex) {
+        return toIndex == column.size() ? blockCount : toIndex / BLOCK_SIZE;
+    }
+
+    private int countRows(int fromIndex, int toIndex) {
+        int count = 0;
+        for (int row = fromIndex; row < toIndex; row++) {
+            count += column.isPresent(row) ? 1 : 0;
+        }
+        return count;
+    }
+
+    private long sumRows(long sum, int fromIndex, int toIndex) {
+        for (int row = fromIndex; row < toIndex && sum != FixedPoint.OVERFLOW; row++) {
+            if (column.isPresent(row)) {
+                sum = FixedPoint.add(sum, column.unscaledRate(row, scale));
+            }
+        }
+        return sum;
+    }
+
+    private int highestRow(int highest, int fromIndex, int toIndex) {
+        for (int row = fromIndex; row < toIndex; row++) {
+            highest = column.isPresent(row) ? higher(highest, row) : highest;
+        }
+        return highest;
+    }
+
+    private int lowestRow(int lowest, int fromIndex, int toIndex) {
+        for (int row = fromIndex; row < toIndex; row++) {
+            lowest = column.isPresent(row) ? lower(lowest, row) : lowest;
+        }
+        return lowest;
+    }
+
+    private int higher(int left, int right) {
+        if (left == NONE || right == NONE) {
+            return left == NONE ? right : left;
+        }
+        int comparison = column.compare(left, right);
+        return comparison > 0 || (comparison == 0 && left < right) ? left : right;
+    }
+
+    private int lower(int left, int right) {
+        if (left == NONE || right == NONE) {
+            return left == NONE ? right : left;
+        }
+        int comparison = column.compare(left, right);
+        return comparison < 0 || (comparison == 0 && left < right) ? left : right;
+    }
+}
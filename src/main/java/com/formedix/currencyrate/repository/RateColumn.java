@@ -0,0 +1,318 @@
+package com.formedix.currencyrate.repository;
+
+import com.formedix.currencyrate.domain.FixedPoint;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * The rates of a single currency of a {@link ColumnarRateStore}, indexed by the position of their row.
+ * <p>
+ * Every rate is stored as its unscaled value and its scale, so it is read back as a {@link BigDecimal} equal to the one
+ * it was stored from, including its scale. The column is stored as compactly as its rates allow. If every unscaled
+ * value fits into an {@code int} together with the offset of its scale from the smallest scale of the column, the rates
+ * are packed into an {@code int} array, with the offset in the lowest {@link #SCALE_BITS} bits, or no bits at all if
+ * the rates share the same scale; so most currencies take four bytes per rate. Other columns keep their unscaled values
+ * in a {@code long} array and, unless their rates share the same scale, their scales in a {@code byte} array.
+ * Positions without a rate, such as the {@code N/A} cells of the CSV file, hold the {@link #ABSENT} value. Rates whose
+ * unscaled value does not fit into a {@code long}, or whose scale does not fit into a {@code byte}, hold the
+ * {@link #OVERSIZED} value and are kept as they are, in a sparse array sorted by position.
+ * <p>
+ * The arrays are accessed through NIO buffers, which either wrap heap arrays or are regions of a memory-mapped
+ * {@link CurrencyRateSnapshotFile}, which the column is {@link #writeTo(ByteBuffer) written to} and
+ * {@link #map(ByteBuffer, int) mapped from} in the same layout: a header of four {@code int}s holding the
+ * {@link #PACKED}, {@link #UNPACKED} or {@link #UNPACKED_WITH_SCALES} storage, the number of scale bits, the smallest
+ * and the largest scale, followed by the packed or unscaled values and, if any, the scales, padded to a multiple of
+ * eight bytes. Columns with oversized rates cannot be written.
+ */
+final class RateColumn {
+    private static final long ABSENT = Long.MIN_VALUE;
+    private static final long OVERSIZED = Long.MIN_VALUE + 1;
+    private static final int ABSENT_INT = Integer.MIN_VALUE;
+    private static final int OVERSIZED_INT = Integer.MIN_VALUE + 1;
+    private static final int SCALE_BITS = 4;
+    private static final int PACKED = 0;
+    private static final int UNPACKED = 1;
+    private static final int UNPACKED_WITH_SCALES = 2;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+    private static final int[] NO_ROWS = {};
+    private static final BigDecimal[] NO_RATES = {};
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final int size;
+    private final IntBuffer packedRates;
+    private final int scaleBits;
+    private final LongBuffer longRates;
+    private final ByteBuffer scales;
+    private final int smallestScale;
+    private final int[] oversizedRows;
+    private final BigDecimal[] oversizedRates;
+    private final int scale;
+
+    /**
+     * Creates the column of the rates.
+     *
+     * @param rates the rates indexed by position, {@code null} where no rate is present
+     */
+    RateColumn(BigDecimal[] rates) {
+        long[] unscaledRates = new long[rates.length];
+        byte[] rateScales = new byte[rates.length];
+        long lowestUnscaledRate = 0;
+        long highestUnscaledRate = 0;
+        int lowestScale = Integer.MAX_VALUE;
+        int highestScale = Integer.MIN_VALUE;
+        int largestScale = 0;
+        int oversizedCount = 0;
+        for (int row = 0; row < rates.length; row++) {
+            BigDecimal rate = rates[row];
+            if (rate == null) {
+                unscaledRates[row] = ABSENT;
+                continue;
+            }
+            largestScale = Math.max(largestScale, rate.scale());
+            long unscaledRate = FixedPoint.unscaled(rate);
+            if (unscaledRate <= OVERSIZED || rate.scale() < Byte.MIN_VALUE || rate.scale() > Byte.MAX_VALUE) {
+                unscaledRates[row] = OVERSIZED;
+                oversizedCount++;
+                continue;
+            }
+            unscaledRates[row] = unscaledRate;
+            rateScales[row] = (byte) rate.scale();
+            lowestUnscaledRate = Math.min(lowestUnscaledRate, unscaledRate);
+            highestUnscaledRate = Math.max(highestUnscaledRate, unscaledRate);
+            lowestScale = Math.min(lowestScale, rate.scale());
+            highestScale = Math.max(highestScale, rate.scale());
+        }
+        boolean sameScale = lowestScale >= highestScale;
+        int bits = sameScale ? 0 : SCALE_BITS;
+        boolean packed = (sameScale || highestScale - lowestScale < 1 << SCALE_BITS)
+                && lowestUnscaledRate > (Integer.MIN_VALUE >> bits) + 1
+                && highestUnscaledRate <= Integer.MAX_VALUE >> bits;
+        this.size = rates.length;
+        this.smallestScale = sameScale && lowestScale == Integer.MAX_VALUE ? 0 : lowestScale;
+        this.scaleBits = bits;
+        this.packedRates = packed ? IntBuffer.wrap(pack(unscaledRates, rateScales, smallestScale, bits)) : null;
+        this.longRates = packed ? null : LongBuffer.wrap(unscaledRates);
+        this.scales = packed || sameScale ? null : ByteBuffer.wrap(rateScales);
+        this.oversizedRows = new int[oversizedCount];
+        this.oversizedRates = new BigDecimal[oversizedCount];
+        for (int row = 0, oversized = 0; oversized < oversizedCount; row++) {
+            if (unscaledRates[row] == OVERSIZED) {
+                oversizedRows[oversized] = row;
+                oversizedRates[oversized++] = rates[row];
+            }
+        }
+        this.scale = largestScale;
+    }
+
+    private RateColumn(int size, IntBuffer packedRates, int scaleBits, LongBuffer longRates, ByteBuffer scales,
+                       int smallestScale, int scale) {
+        this.size = size;
+        this.packedRates = packedRates;
+        this.scaleBits = scaleBits;
+        this.longRates = longRates;
+        this.scales = scales;
+        this.smallestScale = smallestScale;
+        this.oversizedRows = NO_ROWS;
+        this.oversizedRates = NO_RATES;
+        this.scale = scale;
+    }
+
+    /**
+     * Maps the column written at the position of the buffer, reading its values from the buffer on access, and
+     * advances the position of the buffer past the column.
+     *
+     * @param buffer the buffer, positioned at the column
+     * @param size   the number of positions of the column
+     *
+     * @return the mapped column
+     *
+     * @throws IllegalArgumentException if the buffer does not hold a column at its position
+     */
+    static RateColumn map(ByteBuffer buffer, int size) {
+        int storage = buffer.getInt();
+        int scaleBits = buffer.getInt();
+        int smallestScale = buffer.getInt();
+        int scale = buffer.getInt();
+        if (storage == PACKED && (scaleBits == 0 || scaleBits == SCALE_BITS)) {
+            return new RateColumn(size, slice(buffer, size * Integer.BYTES).asIntBuffer(), scaleBits, null, null,
+                    smallestScale, scale);
+        }
+        if (storage == UNPACKED || storage == UNPACKED_WITH_SCALES) {
+            LongBuffer longRates = slice(buffer, size * Long.BYTES).asLongBuffer();
+            ByteBuffer scales = storage == UNPACKED ? null : slice(buffer, size);
+            return new RateColumn(size, null, 0, longRates, scales, smallestScale, scale);
+        }
+        throw new IllegalArgumentException("Unknown rate column storage " + storage);
+    }
+
+    /**
+     * Returns the number of bytes the column takes when {@link #writeTo(ByteBuffer) written}.
+     */
+    int encodedSize() {
+        if (packedRates != null) {
+            return HEADER_SIZE + padded(size * Integer.BYTES);
+        }
+        return HEADER_SIZE + size * Long.BYTES + (scales == null ? 0 : padded(size));
+    }
+
+    /**
+     * Writes the column at the position of the buffer and advances its position past the column.
+     *
+     * @param buffer the buffer, in the byte order the column is mapped with
+     *
+     * @throws IllegalArgumentException if the column holds an oversized rate
+     */
+    void writeTo(ByteBuffer buffer) {
+        if (oversizedRates.length > 0) {
+            throw new IllegalArgumentException(String.format("Rate `%s` cannot be stored in a snapshot file", oversizedRates[0]));
+        }
+        int storage = packedRates != null ? PACKED : scales == null ? UNPACKED : UNPACKED_WITH_SCALES;
+        buffer.putInt(storage).putInt(scaleBits).putInt(smallestScale).putInt(scale);
+        if (packedRates != null) {
+            slice(buffer, size * Integer.BYTES).asIntBuffer().put(packedRates.duplicate().clear());
+            return;
+        }
+        slice(buffer, size * Long.BYTES).asLongBuffer().put(longRates.duplicate().clear());
+        if (scales != null) {
+            slice(buffer, size).put(scales.duplicate().clear());
+        }
+    }
+
+    /**
+     * Returns the number of positions of the column.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the largest scale of the rates of the column, or {@code 0} if all of them have a smaller scale.
+     */
+    int scale() {
+        return scale;
+    }
+
+    /**
+     * Tells whether a rate is present at the position.
+     */
+    boolean isPresent(int row) {
+        return unscaledRateAt(row) != ABSENT;
+    }
+
+    /**
+     * Returns the rate at the position.
+     *
+     * @return the rate, or {@code null} if no rate is present
+     */
+    BigDecimal rate(int row) {
+        long unscaledRate = unscaledRateAt(row);
+        if (unscaledRate == ABSENT) {
+            return null;
+        }
+        return unscaledRate == OVERSIZED ? oversizedRate(row) : BigDecimal.valueOf(unscaledRate, scaleAt(row));
+    }
+
+    /**
+     * Returns the rate at the position, which must hold a rate, as the nearest {@code double}. Rates of the usual scales
+     * are divided by their power of ten exactly, without creating their {@link BigDecimal}.
+     */
+    double doubleRate(int row) {
+        long unscaledRate = unscaledRateAt(row);
+        int rateScale = scaleAt(row);
+        return unscaledRate != OVERSIZED && rateScale >= 0 && rateScale < POWERS_OF_TEN.length
+                ? unscaledRate / POWERS_OF_TEN[rateScale]
+                : rate(row).doubleValue();
+    }
+
+    /**
+     * Returns the rate at the position as an unscaled value of the given scale, which must not be smaller than its own.
+     *
+     * @return the unscaled rate, or {@link FixedPoint#OVERFLOW} if it does not fit into a {@code long}
+     */
+    long unscaledRate(int row, int toScale) {
+        long unscaledRate = unscaledRateAt(row);
+        return unscaledRate == OVERSIZED ? FixedPoint.OVERFLOW : FixedPoint.rescale(unscaledRate, scaleAt(row), toScale);
+    }
+
+    /**
+     * Compares the numeric values of the rates at two positions, which must both hold a rate. Rates of different scales
+     * are compared at the larger scale, or as {@link BigDecimal}s if that does not fit into a {@code long}.
+     *
+     * @return a negative number, zero or a positive number if the first rate is lower than, equal to or higher than
+     * the second one
+     */
+    int compare(int row, int otherRow) {
+        long unscaledRate = unscaledRateAt(row);
+        long otherUnscaledRate = unscaledRateAt(otherRow);
+        if (unscaledRate != OVERSIZED && otherUnscaledRate != OVERSIZED) {
+            int rateScale = scaleAt(row);
+            int otherScale = scaleAt(otherRow);
+            if (rateScale == otherScale) {
+                return Long.compare(unscaledRate, otherUnscaledRate);
+            }
+            int largerScale = Math.max(rateScale, otherScale);
+            unscaledRate = FixedPoint.rescale(unscaledRate, rateScale, largerScale);
+            otherUnscaledRate = FixedPoint.rescale(otherUnscaledRate, otherScale, largerScale);
+            if (unscaledRate != FixedPoint.OVERFLOW && otherUnscaledRate != FixedPoint.OVERFLOW) {
+                return Long.compare(unscaledRate, otherUnscaledRate);
+            }
+        }
+        return rate(row).compareTo(rate(otherRow));
+    }
+
+    /**
+     * Returns the stored unscaled value at the position, which is {@link #ABSENT} or {@link #OVERSIZED} for the
+     * positions without a rate or with an oversized one.
+     */
+    private long unscaledRateAt(int row) {
+        if (packedRates == null) {
+            return longRates.get(row);
+        }
+        int packedRate = packedRates.get(row);
+        return packedRate > OVERSIZED_INT ? packedRate >> scaleBits : ABSENT + (packedRate - ABSENT_INT);
+    }
+
+    private int scaleAt(int row) {
+        if (packedRates != null) {
+            return smallestScale + (packedRates.get(row) & ((1 << scaleBits) - 1));
+        }
+        return scales == null ? smallestScale : scales.get(row);
+    }
+
+    private BigDecimal oversizedRate(int row) {
+        return oversizedRates[Arrays.binarySearch(oversizedRows, row)];
+    }
+
+    /**
+     * Slices the next bytes of the buffer, padded to a multiple of eight bytes, in the byte order of the buffer.
+     */
+    private static ByteBuffer slice(ByteBuffer buffer, int length) {
+        ByteBuffer slice = buffer.slice(buffer.position(), length).order(buffer.order());
+        buffer.position(buffer.position() + padded(length));
+        return slice;
+    }
+
+    private static int padded(int length) {
+        return (length + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    /**
+     * Packs the unscaled values with the offsets of their scales from the smallest scale into {@code int}s, keeping
+     * the {@link #ABSENT} and {@link #OVERSIZED} values apart.
+     */
+    private static int[] pack(long[] unscaledRates, byte[] scales, int smallestScale, int scaleBits) {
+        int[] packedRates = new int[unscaledRates.length];
+        for (int row = 0; row < unscaledRates.length; row++) {
+            long unscaledRate = unscaledRates[row];
+            packedRates[row] = unscaledRate == ABSENT ? ABSENT_INT
+                    : unscaledRate == OVERSIZED ? OVERSIZED_INT
+                    : (int) unscaledRate << scaleBits | (scales[row] - smallestScale);
+        }
+        return packedRates;
+    }
+}
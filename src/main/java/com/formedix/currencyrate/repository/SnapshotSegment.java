@@ -0,0 +1,165 @@
+package com.formedix.currencyrate.repository;
+
+import com.formedix.currencyrate.domain.CurrencyRate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The date-sorted rates of a single calendar year of a {@link CurrencyRateSnapshot}, with their epoch-day keyed index.
+ * <p>
+ * The rates are kept only in the {@link ColumnarRateStore} of the segment; the rows of the segment are views of the
+ * store, created on access, so the rates the segment was built from are not retained.
+ * <p>
+ * Segments are immutable and shared between snapshots: merging rates into a snapshot rebuilds only the segments of the
+ * years that changed and reuses all the others.
+ */
+final class SnapshotSegment {
+    static final int NOT_FOUND = -1;
+    private static final int MAX_DAYS_PER_RATE = 8;
+
+    private final int year;
+    private final long[] epochDays;
+    private final int[] dayIndex;
+    private final ColumnarRateStore columnarRateStore;
+
+    /**
+     * Creates the segment of the given rates, which must be sorted by date and belong to the same year.
+     */
+    private SnapshotSegment(CurrencyRate[] sortedRates) {
+        this(Arrays.stream(sortedRates).mapToLong(rate -> rate.date().toEpochDay()).toArray(), ColumnarRateStore.of(sortedRates));
+    }
+
+    /**
+     * Creates the segment of the rates of the given days, which must be sorted and belong to the same year.
+     *
+     * @param epochDays         the epoch days of the rows of the store
+     * @param columnarRateStore the rates of the days
+     */
+    SnapshotSegment(long[] epochDays, ColumnarRateStore columnarRateStore) {
+        this.year = LocalDate.ofEpochDay(epochDays[0]).getYear();
+        this.epochDays = epochDays;
+        this.dayIndex = createDayIndex(epochDays);
+        this.columnarRateStore = columnarRateStore;
+    }
+
+    /**
+     * Splits the rates into segments per year. The rates are sorted by date first; rates of the same date keep their
+     * relative order, so the first occurrence of a date still wins.
+     *
+     * @param rates the rates to split, which are sorted in place
+     *
+     * @return the segments, ordered by year
+     */
+    static List<SnapshotSegment> split(CurrencyRate[] rates) {
+        Arrays.sort(rates, Comparator.comparing(CurrencyRate::date));
+        List<SnapshotSegment> segments = new ArrayList<>();
+        int from = 0;
+        for (int to = 1; to <= rates.length; to++) {
+            if (to == rates.length || rates[to].date().getYear() != rates[from].date().getYear()) {
+                segments.add(new SnapshotSegment(Arrays.copyOfRange(rates, from, to)));
+                from = to;
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Creates a copy of the segment in which the rates of the given dates are replaced or added. The rates must belong
+     * to the year of the segment.
+     *
+     * @param changedRates the rates to merge, keyed by their date
+     *
+     * @return the merged segment
+     */
+    SnapshotSegment merge(Map<LocalDate, CurrencyRate> changedRates) {
+        List<CurrencyRate> rates = new ArrayList<>(size() + changedRates.size());
+        for (int row = 0; row < size(); row++) {
+            if (!changedRates.containsKey(LocalDate.ofEpochDay(epochDays[row]))) {
+                rates.add(get(row));
+            }
+        }
+        rates.addAll(changedRates.values());
+        CurrencyRate[] merged = rates.toArray(CurrencyRate[]::new);
+        Arrays.sort(merged, Comparator.comparing(CurrencyRate::date));
+        return new SnapshotSegment(merged);
+    }
+
+    int year() {
+        return year;
+    }
+
+    int size() {
+        return epochDays.length;
+    }
+
+    CurrencyRate get(int index) {
+        return new CurrencyRate(LocalDate.ofEpochDay(epochDays[index]), columnarRateStore.rates(index));
+    }
+
+    long epochDay(int index) {
+        return epochDays[index];
+    }
+
+    LocalDate date(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    ColumnarRateStore columnarRateStore() {
+        return columnarRateStore;
+    }
+
+    /**
+     * Finds the position of the first rate of the specified day.
+     *
+     * @return the position of the rate, or {@code -1} if the day has no rate
+     */
+    int indexOf(long epochDay) {
+        if (dayIndex != null) {
+            long offset = epochDay - epochDays[0];
+            return offset < 0 || offset >= dayIndex.length ? NOT_FOUND : dayIndex[(int) offset];
+        }
+        int index = lowerBound(epochDay);
+        return index < epochDays.length && epochDays[index] == epochDay ? index : NOT_FOUND;
+    }
+
+    /**
+     * Finds the position of the first rate on or after the specified day.
+     *
+     * @return the position of the rate, or the size of the segment if all rates are before the day
+     */
+    int lowerBound(long epochDay) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Creates the epoch-day keyed index of the sorted rates. Sparse segments, whose span is much larger than their
+     * number of rates, are not indexed and fall back to a binary search instead.
+     */
+    private static int[] createDayIndex(long[] epochDays) {
+        long span = epochDays[epochDays.length - 1] - epochDays[0] + 1;
+        if (span > (long) epochDays.length * MAX_DAYS_PER_RATE) {
+            return null;
+        }
+        int[] index = new int[(int) span];
+        Arrays.fill(index, NOT_FOUND);
+        for (int i = epochDays.length - 1; i >= 0; i--) {
+            index[(int) (epochDays[i] - epochDays[0])] = i;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,188 @@
+package com.formedix.currencyrate.service;
+
+import com.formedix.currencyrate.cache.CacheKeyLookup;
+import com.formedix.currencyrate.cache.CacheStage;
+import com.formedix.currencyrate.config.WarmUpProperties;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.error.exception.FormedixException;
+import com.formedix.currencyrate.repository.CurrencyRateSlice;
+import com.formedix.currencyrate.repository.CurrencyRateSnapshot;
+import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Warms the caches of the currency rate lookups up after startup and before every upload is published, so the first
+ * requests for common lookups are served from the caches instead of being computed all at once.
+ * <p>
+ * A warm-up looks up the rates of the most recent {@link WarmUpProperties#getRecentDays()} dates, and the highest and
+ * average rates of the configured currencies, or of every currency of the most recent date, over the last
+ * {@link WarmUpProperties#getRangeDays()} days. Before an upload is published, it also repeats the lookups whose cache
+ * entries the upload is going to evict: they were requested recently enough to be cached, so they are learned from the
+ * recent traffic.
+ * <p>
+ * The lookups go through the caching proxies of the services. The startup warm-up runs on a dedicated thread, and until
+ * it has completed, this indicator reports the application out of service, which takes it out of the readiness group.
+ * The warm-up of an upload runs on the thread of the upload, against the snapshot of the uploaded rates, and stages the
+ * entries it computes in a {@link CacheStage}, which replaces the evicted entries once the rates are published. The
+ * application thereby stays ready while the new rates are warmed up, and never serves them from cold caches.
+ */
+@Slf4j
+@Component
+public class CacheWarmer implements HealthIndicator, DisposableBean {
+    private final CurrencyRateService currencyRateService;
+    private final CacheKeyLookup cacheKeyLookup;
+    private final CurrencyRatesContextHolder currencyRatesContextHolder;
+    private final CurrencyRateCacheInvalidator currencyRateCacheInvalidator;
+    private final WarmUpProperties warmUpProperties;
+    private final Timer warmUpTimer;
+    private final ExecutorService warmUpExecutor;
+    private volatile boolean warmedUpOnStartup;
+
+    public CacheWarmer(CurrencyRateService currencyRateService, CacheKeyLookup cacheKeyLookup,
+                       CurrencyRatesContextHolder currencyRatesContextHolder,
+                       CurrencyRateCacheInvalidator currencyRateCacheInvalidator, WarmUpProperties warmUpProperties,
+                       MeterRegistry meterRegistry) {
+        this.currencyRateService = currencyRateService;
+        this.cacheKeyLookup = cacheKeyLookup;
+        this.currencyRatesContextHolder = currencyRatesContextHolder;
+        this.currencyRateCacheInvalidator = currencyRateCacheInvalidator;
+        this.warmUpProperties = warmUpProperties;
+        this.warmUpTimer = Timer.builder("currency.rates.cache.warm-up")
+                .description("Time taken to warm the caches up after startup or before an upload is published")
+                .register(meterRegistry);
+        this.warmUpExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "cache-warm-up"));
+        this.warmedUpOnStartup = !warmUpProperties.isEnabled();
+    }
+
+    /**
+     * Warms the caches up once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        warmUp();
+    }
+
+    /**
+     * Warms the caches up with the current rates in the background.
+     *
+     * @return the warm-up, which completes once the caches are warm
+     */
+    public CompletableFuture<Void> warmUp() {
+        if (!warmUpProperties.isEnabled()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                warmUpTimer.record(() -> warmUpLookups(Map.of()));
+                log.info("Warmed the caches up");
+            } finally {
+                warmedUpOnStartup = true;
+            }
+        }, warmUpExecutor);
+    }
+
+    /**
+     * Warms the caches up against rates that are about to replace the current ones, before they are published. The
+     * entries depending on the changed dates are staged rather than cached, so the current rates keep being served
+     * from their own entries until the staged ones are stored in their place.
+     *
+     * @param candidate    the snapshot of the rates to publish
+     * @param changedDates the dates whose rates the candidate adds, changes or removes
+     *
+     * @return the staged entries, empty if the warm-up is disabled or no date changed
+     */
+    public CacheStage warmUp(CurrencyRateSnapshot candidate, NavigableSet<LocalDate> changedDates) {
+        CacheStage stage = new CacheStage(changedDates);
+        if (!warmUpProperties.isEnabled() || changedDates.isEmpty()) {
+            return stage;
+        }
+        Map<String, List<Object>> staleKeys = currencyRateCacheInvalidator.findIntersecting(changedDates);
+        stage.run(() -> currencyRatesContextHolder.runAgainst(candidate, () -> warmUpTimer.record(() -> warmUpLookups(staleKeys))));
+        log.info("Warmed up {} cache entries of the uploaded rates", stage.size());
+        return stage;
+    }
+
+    @Override
+    public Health health() {
+        return (warmedUpOnStartup ? Health.up() : Health.outOfService())
+                .withDetail("warmedUpOnStartup", warmedUpOnStartup)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        warmUpExecutor.shutdownNow();
+    }
+
+    /**
+     * Looks up the recent lookups, then the lookups of the learned keys, up to
+     * {@link WarmUpProperties#getLearnedKeys()} of them.
+     */
+    private void warmUpLookups(Map<String, List<Object>> learnedKeys) {
+        warmUpRecentLookups();
+        int remainingKeys = warmUpProperties.getLearnedKeys();
+        for (Map.Entry<String, List<Object>> cacheKeys : learnedKeys.entrySet()) {
+            for (Object key : cacheKeys.getValue()) {
+                if (remainingKeys-- <= 0) {
+                    return;
+                }
+                lookUp(() -> cacheKeyLookup.lookUp(cacheKeys.getKey(), key));
+            }
+        }
+    }
+
+    /**
+     * Looks up the rates of the most recent dates and the highest and average rates over the configured ranges.
+     */
+    private void warmUpRecentLookups() {
+        CurrencyRateSlice currencyRates = currencyRatesContextHolder.getSnapshot().between(LocalDate.MIN, LocalDate.MAX);
+        if (currencyRates.isEmpty()) {
+            return;
+        }
+        for (int index = Math.max(0, currencyRates.size() - warmUpProperties.getRecentDays()); index < currencyRates.size(); index++) {
+            LocalDate date = currencyRates.get(index).date();
+            lookUp(() -> currencyRateService.getCurrencyRatesByDate(date));
+        }
+        CurrencyRate latestRate = currencyRates.get(currencyRates.size() - 1);
+        Collection<String> currencies = warmUpProperties.getCurrencies().isEmpty()
+                ? List.copyOf(latestRate.currencies().keySet())
+                : warmUpProperties.getCurrencies();
+        for (int days : warmUpProperties.getRangeDays()) {
+            LocalDate endDate = latestRate.date();
+            LocalDate startDate = endDate.minusDays(days - 1L);
+            for (String currency : currencies) {
+                lookUp(() -> currencyRateService.getHighestExchangeRate(startDate, endDate, currency));
+                lookUp(() -> currencyRateService.getAverageExchangeRate(startDate, endDate, currency));
+            }
+        }
+    }
+
+    /**
+     * Runs a lookup, ignoring lookups that are not available in the current rates and keys of caches that are not
+     * lookups of the services.
+     */
+    private static void lookUp(Runnable lookup) {
+        try {
+            lookup.run();
+        } catch (FormedixException | IllegalArgumentException e) {
+            log.debug("Skipped warming up an unavailable lookup: `{}`", e.getMessage());
+        }
+    }
+}
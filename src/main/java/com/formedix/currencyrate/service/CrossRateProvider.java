@@ -0,0 +1,72 @@
+package com.formedix.currencyrate.service;
+
+import com.formedix.currencyrate.config.ConversionProperties;
+import com.formedix.currencyrate.domain.CrossRate;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.error.exception.CurrencyRateNotFoundException;
+import com.formedix.currencyrate.repository.CurrencyRateRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static com.formedix.currencyrate.service.CurrencyRateService.CURRENCY_NOT_FOUND_FOR_DATE_ERROR_MESSAGE;
+import static com.formedix.currencyrate.service.CurrencyRateService.CURRENCY_NOT_FOUND_FOR_TARGET_AND_SOURCE_CURRENCY_ERROR_MESSAGE;
+
+/**
+ * Resolves the cross rates used to convert amounts between currencies.
+ * <p>
+ * Cross rates are cached per date and currency pair, independently of the converted amounts, so every conversion of a
+ * pair on a date is served by the same cache entry. The cache lives in its own bean so that
+ * {@link CurrencyRateService} calls it through the caching proxy. With {@code currency-rate.conversion.fixed-point}
+ * enabled, the cross rates convert amounts with fixed-point arithmetic.
+ */
+@Component
+@AllArgsConstructor
+public class CrossRateProvider {
+    private final CurrencyRateRepository<CurrencyRate> currencyRatesCurrencyRateRepository;
+    private final ConversionProperties conversionProperties;
+
+    /**
+     * Retrieves the cross rate of a currency pair on a specific date.
+     *
+     * @param date           the date of the cross rate
+     * @param sourceCurrency the source currency
+     * @param targetCurrency the target currency
+     *
+     * @return the cross rate of the currency pair
+     *
+     * @throws CurrencyRateNotFoundException if currency rates are not available for the specified date or currencies
+     */
+    @Cacheable(value = "crossRates", key = "{ #date, #sourceCurrency, #targetCurrency }")
+    public CrossRate getCrossRate(LocalDate date, String sourceCurrency, String targetCurrency) {
+        CurrencyRate currencyRate = currencyRatesCurrencyRateRepository.findByDate(date)
+                .orElseThrow(() -> new CurrencyRateNotFoundException(String.format(CURRENCY_NOT_FOUND_FOR_DATE_ERROR_MESSAGE, date)));
+        return getCrossRate(currencyRate, sourceCurrency, targetCurrency);
+    }
+
+    /**
+     * Derives the cross rate of a currency pair from the currency rates of a date, without caching it.
+     *
+     * @param currencyRate   the currency rates of the date
+     * @param sourceCurrency the source currency
+     * @param targetCurrency the target currency
+     *
+     * @return the cross rate of the currency pair
+     *
+     * @throws CurrencyRateNotFoundException if the source or target currency has no rate
+     */
+    public CrossRate getCrossRate(CurrencyRate currencyRate, String sourceCurrency, String targetCurrency) {
+        BigDecimal sourceRateValue = currencyRate.currencies().get(sourceCurrency);
+        BigDecimal targetRateValue = currencyRate.currencies().get(targetCurrency);
+
+        if (sourceRateValue == null || targetRateValue == null) {
+            throw new CurrencyRateNotFoundException(String.format(CURRENCY_NOT_FOUND_FOR_TARGET_AND_SOURCE_CURRENCY_ERROR_MESSAGE, sourceCurrency, targetCurrency));
+        }
+        return conversionProperties.isFixedPoint()
+                ? CrossRate.fixedPoint(currencyRate.date(), sourceCurrency, targetCurrency, sourceRateValue, targetRateValue)
+                : new CrossRate(currencyRate.date(), sourceCurrency, targetCurrency, sourceRateValue, targetRateValue);
+    }
+}
@@ -0,0 +1,150 @@
+package com.formedix.currencyrate.service;
+
+import com.formedix.currencyrate.config.UploadJobProperties;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.domain.UploadJob;
+import com.formedix.currencyrate.dto.UploadMode;
+import com.formedix.currencyrate.error.exception.UploadJobNotFoundException;
+import com.formedix.currencyrate.error.exception.UploadJobRejectedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies uploaded CSV files in the background, so large uploads do not hold the request thread.
+ * <p>
+ * An accepted file is copied to a temporary file and queued on a bounded executor; uploads that do not fit into the
+ * queue are rejected instead of piling up. Jobs are parsed and applied by {@link CurrencyRateCsvService}, so clients
+ * poll their state by job id. Queued and running jobs are kept until they finish; finished jobs are kept for a limited
+ * time only.
+ */
+@Slf4j
+@Service
+public class CsvUploadJobService implements DisposableBean {
+    private final CurrencyRateCsvService currencyRateCsvService;
+    private final ThreadPoolExecutor uploadJobExecutor;
+    private final Map<UUID, UploadJob> activeJobs = new ConcurrentHashMap<>();
+    private final Cache<UUID, UploadJob> finishedJobs;
+
+    public CsvUploadJobService(CurrencyRateCsvService currencyRateCsvService, UploadJobProperties uploadJobProperties) {
+        this.currencyRateCsvService = currencyRateCsvService;
+        this.uploadJobExecutor = createExecutor(uploadJobProperties);
+        this.finishedJobs = Caffeine.newBuilder()
+                .maximumSize(uploadJobProperties.getRetainedJobs())
+                .expireAfterWrite(uploadJobProperties.getRetention())
+                .build();
+    }
+
+    /**
+     * Queues the CSV file to be applied to the current currency rates.
+     *
+     * @param inputStream the input stream of the CSV file
+     * @param fileName    the original name of the file
+     * @param mode        whether the file replaces the current currency rates or is merged into them
+     *
+     * @return the queued job
+     *
+     * @throws IOException                if the file cannot be copied
+     * @throws UploadJobRejectedException if too many uploads are queued already
+     */
+    public UploadJob submit(InputStream inputStream, String fileName, UploadMode mode) throws IOException {
+        Path csvFile = Files.createTempFile("currency-rates-upload-", ".csv");
+        try {
+            Files.copy(inputStream, csvFile, StandardCopyOption.REPLACE_EXISTING);
+            UploadJob uploadJob = UploadJob.queued(mode, fileName);
+            activeJobs.put(uploadJob.id(), uploadJob);
+            try {
+                uploadJobExecutor.execute(() -> run(uploadJob, csvFile));
+            } catch (RejectedExecutionException e) {
+                activeJobs.remove(uploadJob.id());
+                throw new UploadJobRejectedException("Too many uploads are queued, retry " + fileName + " later", e);
+            }
+            return uploadJob;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(csvFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves the current state of an upload job.
+     *
+     * @param id the job id
+     *
+     * @return the upload job
+     *
+     * @throws UploadJobNotFoundException if the job does not exist or is no longer retained
+     */
+    public UploadJob getUploadJob(UUID id) {
+        return Optional.ofNullable(activeJobs.get(id))
+                .or(() -> Optional.ofNullable(finishedJobs.getIfPresent(id)))
+                .orElseThrow(() -> new UploadJobNotFoundException("Upload job " + id + " not found"));
+    }
+
+    @Override
+    public void destroy() {
+        uploadJobExecutor.shutdownNow();
+    }
+
+    private void run(UploadJob uploadJob, Path csvFile) {
+        activeJobs.put(uploadJob.id(), uploadJob.running());
+        try (InputStream inputStream = Files.newInputStream(csvFile)) {
+            List<CurrencyRate> currencyRates = uploadJob.mode() == UploadMode.MERGE
+                    ? currencyRateCsvService.mergeCurrencyRates(inputStream)
+                    : currencyRateCsvService.updateCurrencyRates(inputStream);
+            finish(uploadJob.succeeded(currencyRates.size()));
+        } catch (Exception e) {
+            log.warn("Upload job `{}` of `{}` failed: `{}`", uploadJob.id(), uploadJob.fileName(), e.getMessage(), e);
+            finish(uploadJob.failed(e));
+        } finally {
+            deleteQuietly(csvFile);
+        }
+    }
+
+    /**
+     * Moves a finished job to the retained jobs. It is retained before it is removed from the active jobs, so polling
+     * it never misses it in between.
+     */
+    private void finish(UploadJob uploadJob) {
+        finishedJobs.put(uploadJob.id(), uploadJob);
+        activeJobs.remove(uploadJob.id());
+    }
+
+    private static void deleteQuietly(Path csvFile) {
+        try {
+            Files.deleteIfExists(csvFile);
+        } catch (IOException e) {
+            log.warn("Unable to delete the uploaded file `{}`", csvFile, e);
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor(UploadJobProperties uploadJobProperties) {
+        BlockingQueue<Runnable> queue = uploadJobProperties.getQueueCapacity() > 0
+                ? new ArrayBlockingQueue<>(uploadJobProperties.getQueueCapacity())
+                : new SynchronousQueue<>();
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(uploadJobProperties.getThreads(), uploadJobProperties.getThreads(),
+                0, TimeUnit.MILLISECONDS, queue,
+                runnable -> new Thread(runnable, "upload-job-" + threadNumber.incrementAndGet()));
+    }
+}
@@ -0,0 +1,113 @@
+package com.formedix.currencyrate.service;
+
+import com.formedix.currencyrate.cache.CacheKeyIndex;
+import com.formedix.currencyrate.cache.CacheStage;
+import com.formedix.currencyrate.cache.IndexedCaffeineCache;
+import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+
+/**
+ * Evicts the cached currency rate lookups that depend on changed dates, so the other cache entries stay warm.
+ * <p>
+ * Entries keyed by a date, such as those of the {@code currencyRates} and {@code crossRates} caches, are evicted if
+ * their date changed, entries keyed by a {@code [startDate, endDate]} range, such as those of the
+ * {@code highestExchangeRate} and {@code averageExchangeRate} caches, if their range contains a changed date. The
+ * entries are looked up in the {@link CacheKeyIndex} of {@link IndexedCaffeineCache}s; other caches are searched key
+ * by key. Only {@link IndexedCaffeineCache}s stage the entries looked up before the new rates are published, see
+ * {@link CacheStage}.
+ */
+@Component
+@AllArgsConstructor
+public class CurrencyRateCacheInvalidator {
+    private final CacheManager cacheManager;
+
+    /**
+     * Finds the keys of the cache entries that depend on any of the changed dates, without evicting them.
+     *
+     * @param changedDates the dates whose currency rates are added, changed or removed
+     *
+     * @return the keys of the entries by cache name, which were requested recently enough to still be cached
+     */
+    public Map<String, List<Object>> findIntersecting(NavigableSet<LocalDate> changedDates) {
+        Map<String, List<Object>> keys = new HashMap<>();
+        if (changedDates.isEmpty()) {
+            return keys;
+        }
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            Collection<?> cacheKeys = cache == null ? null : nativeKeys(cache);
+            if (cache instanceof IndexedCaffeineCache indexedCache) {
+                keys.put(cacheName, List.copyOf(indexedCache.findIntersecting(changedDates)));
+            } else if (cacheKeys != null) {
+                keys.put(cacheName, List.copyOf(cacheKeys.stream()
+                        .filter(key -> CacheKeyIndex.intersects(key, changedDates))
+                        .toList()));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Evicts the cache entries that depend on any of the changed dates, and stores the entries staged for the new rates
+     * in their place.
+     *
+     * @param changedDates  the dates whose currency rates were added, changed or removed
+     * @param warmedEntries the entries looked up against the new rates before they were published
+     *
+     * @return the keys of the evicted entries by cache name
+     */
+    public Map<String, List<Object>> evict(NavigableSet<LocalDate> changedDates, CacheStage warmedEntries) {
+        Map<String, List<Object>> evictedKeys = new HashMap<>();
+        if (changedDates.isEmpty()) {
+            return evictedKeys;
+        }
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                evictedKeys.put(cacheName, evict(cache, changedDates));
+            }
+            if (cache instanceof IndexedCaffeineCache indexedCache) {
+                indexedCache.putStaged(warmedEntries);
+            }
+        }
+        return evictedKeys;
+    }
+
+    /**
+     * Evicts the entries of the cache that depend on any of the changed dates. Caches without an index or a native map
+     * cannot be searched and are cleared instead, without reporting their keys.
+     */
+    private static List<Object> evict(Cache cache, NavigableSet<LocalDate> changedDates) {
+        if (cache instanceof IndexedCaffeineCache indexedCache) {
+            return indexedCache.evictIntersecting(changedDates);
+        }
+        List<Object> evictedKeys = new ArrayList<>();
+        Collection<?> keys = nativeKeys(cache);
+        if (keys != null) {
+            keys.removeIf(key -> CacheKeyIndex.intersects(key, changedDates) && evictedKeys.add(key));
+        } else {
+            cache.clear();
+        }
+        return evictedKeys;
+    }
+
+    /**
+     * Returns the live key set of the native map of the cache, or {@code null} if it has none.
+     */
+    private static Collection<?> nativeKeys(Cache cache) {
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeineCache) {
+            return caffeineCache.asMap().keySet();
+        }
+        return cache.getNativeCache() instanceof Map<?, ?> map ? map.keySet() : null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.formedix.currencyrate.service;
+
+import com.formedix.currencyrate.cache.CacheKeyLookup;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repeats the currency rate lookups from their cache keys, through the caching proxies of the services.
+ * <p>
+ * The keys of the {@code currencyRates} cache are dates, those of the {@code crossRates} cache
+ * {@code [date, sourceCurrency, targetCurrency]} lists, those of the {@code highestExchangeRate} and
+ * {@code averageExchangeRate} caches {@code [startDate, endDate, currency]} lists and those of the
+ * {@code rateStatistics} cache {@code [startDate, endDate, currencies]} lists, as built by the key expressions of their
+ * {@code @Cacheable} lookups.
+ */
+@Component
+@AllArgsConstructor
+public class CurrencyRateCacheKeyLookup implements CacheKeyLookup {
+    private final CurrencyRateService currencyRateService;
+    private final CrossRateProvider crossRateProvider;
+
+    @Override
+    public void lookUp(String cacheName, Object key) {
+        if (key instanceof LocalDate date && "currencyRates".equals(cacheName)) {
+            currencyRateService.getCurrencyRatesByDate(date);
+            return;
+        }
+        if (key instanceof List<?> parts && parts.size() == 3 && parts.get(0) instanceof LocalDate date) {
+            switch (cacheName) {
+                case "crossRates" -> crossRateProvider.getCrossRate(date, (String) parts.get(1), (String) parts.get(2));
+                case "highestExchangeRate" -> currencyRateService.getHighestExchangeRate(date, (LocalDate) parts.get(1), (String) parts.get(2));
+                case "averageExchangeRate" -> currencyRateService.getAverageExchangeRate(date, (LocalDate) parts.get(1), (String) parts.get(2));
+                case "rateStatistics" -> currencyRateService.getRateStatistics(date, (LocalDate) parts.get(1),
+                        ((List<?>) parts.get(2)).stream().map(String.class::cast).toList());
+                default -> throw unknownKey(cacheName, key);
+            }
+            return;
+        }
+        throw unknownKey(cacheName, key);
+    }
+
+    private static IllegalArgumentException unknownKey(String cacheName, Object key) {
+        return new IllegalArgumentException(String.format("`%s` is not a key of a lookup of cache `%s`", key, cacheName));
+    }
+}
@@ -1,44 +1,206 @@
 package com.formedix.currencyrate.service;
 
+import com.formedix.currencyrate.cache.CacheStage;
 import com.formedix.currencyrate.domain.CurrencyRate;
-import com.formedix.currencyrate.dto.GetCurrencyRateDto;
-import com.formedix.currencyrate.mapper.CurrencyRateMapper;
+import com.formedix.currencyrate.domain.CurrencyRatePage;
+import com.formedix.currencyrate.dto.UploadMode;
 import com.formedix.currencyrate.parser.CurrencyRateCsvParser;
+import com.formedix.currencyrate.repository.CurrencyRateMerge;
 import com.formedix.currencyrate.repository.CurrencyRateRepository;
-import lombok.AllArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
+import com.formedix.currencyrate.repository.CurrencyRateSlice;
+import com.formedix.currencyrate.repository.CurrencyRateSnapshot;
+import com.formedix.currencyrate.repository.CurrencyRateSnapshotStore;
+import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
 import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Applies uploaded CSV files to the current currency rates. Uploads are applied one at a time, so the dates each upload
+ * changed are computed against the rates it actually replaced.
+ * <p>
+ * Every upload records, tagged by its mode, how long parsing the file and swapping in the new rates took, how long
+ * persisting them took and how many rows the file had.
+ */
 @Service
-@AllArgsConstructor
 public class CurrencyRateCsvService {
-    private final CurrencyRateMapper currencyRateMapper;
+    private static final String MODE_TAG = "mode";
+
     private final CurrencyRateCsvParser currencyRateCsvParser;
     private final CurrencyRateRepository<CurrencyRate> currencyRatesCurrencyRateRepository;
+    private final CurrencyRateSnapshotStore currencyRateSnapshotStore;
+    private final CurrencyRateCacheInvalidator currencyRateCacheInvalidator;
+    private final CurrencyRatesContextHolder currencyRatesContextHolder;
+    private final CacheWarmer cacheWarmer;
+    private final Lock updateLock = new ReentrantLock();
+    private final UploadMetrics replaceMetrics;
+    private final UploadMetrics mergeMetrics;
+
+    public CurrencyRateCsvService(CurrencyRateCsvParser currencyRateCsvParser,
+                                  CurrencyRateRepository<CurrencyRate> currencyRatesCurrencyRateRepository,
+                                  CurrencyRateSnapshotStore currencyRateSnapshotStore,
+                                  CurrencyRateCacheInvalidator currencyRateCacheInvalidator,
+                                  CurrencyRatesContextHolder currencyRatesContextHolder,
+                                  CacheWarmer cacheWarmer,
+                                  MeterRegistry meterRegistry) {
+        this.currencyRateCsvParser = currencyRateCsvParser;
+        this.currencyRatesCurrencyRateRepository = currencyRatesCurrencyRateRepository;
+        this.currencyRateSnapshotStore = currencyRateSnapshotStore;
+        this.currencyRateCacheInvalidator = currencyRateCacheInvalidator;
+        this.currencyRatesContextHolder = currencyRatesContextHolder;
+        this.cacheWarmer = cacheWarmer;
+        this.replaceMetrics = UploadMetrics.of(meterRegistry, UploadMode.REPLACE);
+        this.mergeMetrics = UploadMetrics.of(meterRegistry, UploadMode.MERGE);
+    }
 
     /**
-     * Updates the currency rates with the data parsed from the provided CSV file.
+     * Updates the currency rates with the data parsed from the provided CSV file. The parsed rates are indexed and the
+     * caches warmed up against them before they are published, so the new rates, their aggregation indexes and their
+     * warm cache entries replace the previous ones at once. Only the cache entries that depend on dates whose rates
+     * were added, changed or removed are replaced, and only then is the version of the new rates published to the
+     * responses. The accepted rates are then persisted, so they are restored on the next startup.
      *
      * @param inputStream the input stream of the CSV file
      *
      * @return the updated currency rates
      */
-    @CacheEvict(allEntries = true, value = {"currencyRates", "convertCurrency", "highestExchangeRate", "averageExchangeRate"})
-    public List<GetCurrencyRateDto> updateCurrencyRates(InputStream inputStream) {
-        return currencyRatesCurrencyRateRepository.update(currencyRateCsvParser.parse(inputStream).get())
-                .stream().map(currencyRateMapper::toGetCurrencyRateDto).toList();
+    public List<CurrencyRate> updateCurrencyRates(InputStream inputStream) {
+        List<CurrencyRate> parsedRates = replaceMetrics.parse().record(() -> currencyRateCsvParser.parse(inputStream).get());
+        replaceMetrics.rows().record(parsedRates.size());
+        List<CurrencyRate> currencyRates;
+        updateLock.lock();
+        try {
+            CurrencyRateSnapshot candidate = CurrencyRateSnapshot.of(parsedRates);
+            NavigableSet<LocalDate> changedDates = candidate.changedDates(CurrencyRateSnapshot.of(currencyRatesCurrencyRateRepository.findAll()));
+            CacheStage warmedEntries = cacheWarmer.warmUp(candidate, changedDates);
+            Timer.Sample swap = Timer.start();
+            currencyRates = currencyRatesCurrencyRateRepository.update(candidate.rates());
+            currencyRateCacheInvalidator.evict(changedDates, warmedEntries);
+            currencyRatesContextHolder.publishVersion();
+            swap.stop(replaceMetrics.swap());
+            replaceMetrics.persist().record(() -> currencyRateSnapshotStore.save(candidate));
+        } finally {
+            updateLock.unlock();
+        }
+        return currencyRates;
+    }
+
+    /**
+     * Merges the currency rates parsed from the provided CSV file into the current ones. Rates of new dates are added
+     * and rates of changed dates are replaced, while all other rates, and the cache entries that do not depend on the
+     * changed dates, are kept. The caches are warmed up against the merged rates before they are published, and once
+     * the entries of the changed dates are replaced, the version of the merged rates is published to the responses.
+     * The merged rates are then persisted, so they are restored on the next startup.
+     *
+     * @param inputStream the input stream of the CSV file
+     *
+     * @return the currency rates that were added or replaced, ordered by date
+     */
+    public List<CurrencyRate> mergeCurrencyRates(InputStream inputStream) {
+        List<CurrencyRate> parsedRates = mergeMetrics.parse().record(() -> currencyRateCsvParser.parse(inputStream).get());
+        mergeMetrics.rows().record(parsedRates.size());
+        CurrencyRateMerge merge;
+        updateLock.lock();
+        try {
+            merge = CurrencyRateSnapshot.of(currencyRatesCurrencyRateRepository.findAll()).merge(parsedRates);
+            if (!merge.mergedRates().isEmpty()) {
+                NavigableSet<LocalDate> changedDates = merge.changedDates();
+                CacheStage warmedEntries = cacheWarmer.warmUp(merge.snapshot(), changedDates);
+                Timer.Sample swap = Timer.start();
+                currencyRatesCurrencyRateRepository.update(merge.snapshot().rates());
+                currencyRateCacheInvalidator.evict(changedDates, warmedEntries);
+                currencyRatesContextHolder.publishVersion();
+                swap.stop(mergeMetrics.swap());
+                mergeMetrics.persist().record(() -> currencyRateSnapshotStore.save(merge.snapshot()));
+            }
+        } finally {
+            updateLock.unlock();
+        }
+        return merge.mergedRates();
     }
 
     /**
-     * Retrieves the current currency rates.
+     * Retrieves the current currency rates, in the order they were uploaded. The rates are returned as a read-only view
+     * of the current snapshot, without copying them.
      *
      * @return the current currency rates
      */
-    public List<GetCurrencyRateDto> getCurrentCurrencyRates() {
-        return currencyRatesCurrencyRateRepository.findAll()
-                .stream().map(currencyRateMapper::toGetCurrencyRateDto).toList();
+    public List<CurrencyRate> getCurrentCurrencyRates() {
+        return currencyRatesCurrencyRateRepository.findAll();
+    }
+
+    /**
+     * Retrieves a page of the current currency rates, ordered by date. Pages are continued by date rather than by
+     * offset, so a page stays consistent with the previous one even if rates were merged in between.
+     *
+     * @param startDate the first date of the rates, or {@code null} to start with the oldest rate
+     * @param endDate   the last date of the rates, or {@code null} to end with the newest rate
+     * @param after     the date the previous page ended with, or {@code null} for the first page
+     * @param limit     the maximum number of rates of the page; a page is extended by the further rates of its last
+     *                  date, if that date occurs more than once
+     *
+     * @return the page of currency rates and the date to continue after, if more rates follow
+     */
+    public CurrencyRatePage getCurrentCurrencyRates(LocalDate startDate, LocalDate endDate, LocalDate after, int limit) {
+        if (LocalDate.MAX.equals(after)) {
+            return new CurrencyRatePage(List.of(), null);
+        }
+        LocalDate from = startDate == null ? LocalDate.MIN : startDate;
+        if (after != null && !after.isBefore(from)) {
+            from = after.plusDays(1);
+        }
+        List<CurrencyRate> currencyRates = currencyRatesCurrencyRateRepository.findBetweenDates(from, endDate == null ? LocalDate.MAX : endDate);
+        if (!(currencyRates instanceof CurrencyRateSlice)) {
+            currencyRates = currencyRates.stream().sorted(Comparator.comparing(CurrencyRate::date)).toList();
+        }
+        int end = Math.min(limit, currencyRates.size());
+        while (end > 0 && end < currencyRates.size() && currencyRates.get(end).date().equals(currencyRates.get(end - 1).date())) {
+            end++;
+        }
+        return end == currencyRates.size()
+                ? new CurrencyRatePage(currencyRates, null)
+                : new CurrencyRatePage(currencyRates.subList(0, end), currencyRates.get(end - 1).date());
+    }
+
+    /**
+     * The meters of the uploads of one mode.
+     *
+     * @param parse   the time taken to parse the uploaded files
+     * @param swap    the time taken to publish the parsed rates and evict the cache entries they changed
+     * @param persist the time taken to persist the published rates
+     * @param rows    the number of rows of the uploaded files
+     */
+    private record UploadMetrics(Timer parse, Timer swap, Timer persist, DistributionSummary rows) {
+
+        private static UploadMetrics of(MeterRegistry meterRegistry, UploadMode mode) {
+            String modeTag = mode.name().toLowerCase(Locale.ROOT);
+            return new UploadMetrics(
+                    uploadTimer(meterRegistry, "currency.rates.upload.parse", "Time taken to parse an uploaded CSV file", modeTag),
+                    uploadTimer(meterRegistry, "currency.rates.upload.swap", "Time taken to publish the rates of an upload", modeTag),
+                    uploadTimer(meterRegistry, "currency.rates.upload.persist", "Time taken to persist the rates of an upload", modeTag),
+                    DistributionSummary.builder("currency.rates.upload.rows")
+                            .description("Number of rows of an uploaded CSV file")
+                            .baseUnit("rows")
+                            .tag(MODE_TAG, modeTag)
+                            .register(meterRegistry));
+        }
+
+        private static Timer uploadTimer(MeterRegistry meterRegistry, String name, String description, String modeTag) {
+            return Timer.builder(name)
+                    .description(description)
+                    .tag(MODE_TAG, modeTag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
     }
-}
\ No newline at end of file
+}
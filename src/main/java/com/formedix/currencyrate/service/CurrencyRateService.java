@@ -1,25 +1,35 @@
 package com.formedix.currencyrate.service;
 
+import com.formedix.currencyrate.domain.CrossRate;
 import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.domain.CurrencyRateLookup;
+import com.formedix.currencyrate.domain.DecimalSum;
+import com.formedix.currencyrate.domain.RateStatistics;
 import com.formedix.currencyrate.dto.AverageExchangeRateDto;
 import com.formedix.currencyrate.dto.ConvertCurrencyDto;
+import com.formedix.currencyrate.dto.ConvertCurrencyRequestDto;
 import com.formedix.currencyrate.dto.GetCurrencyRateDto;
 import com.formedix.currencyrate.dto.HighestExchangeRateDto;
+import com.formedix.currencyrate.dto.RateStatisticsDto;
 import com.formedix.currencyrate.error.exception.CurrencyRateNotFoundException;
 import com.formedix.currencyrate.mapper.CurrencyRateMapper;
 import com.formedix.currencyrate.repository.CurrencyRateRepository;
+import com.formedix.currencyrate.repository.CurrencyRateSlice;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -27,11 +37,15 @@ import java.util.stream.Collectors;
 public class CurrencyRateService {
     public static final String CURRENCY_NOT_FOUND_FOR_DATE_ERROR_MESSAGE = "Currency rates are not available for the specified date `%s`";
     public static final String CURRENCY_NOT_FOUND_FOR_DATE_AND_CURRENCY_ERROR_MESSAGE = "No currency rates available from `%s` to `%s` for the specified currency `%s`";
+    public static final String CURRENCY_NOT_FOUND_FOR_DATES_ERROR_MESSAGE = "No currency rates available from `%s` to `%s`";
     public static final String CURRENCY_NOT_FOUND_FOR_TARGET_AND_SOURCE_CURRENCY_ERROR_MESSAGE = "Currency rates are not available for the specified source currency `%s` and target currency `%s`";
     private static final int DECIMAL_SCALE = 2;
+    private static final int DEVIATION_SCALE = 6;
 
     private final CurrencyRateMapper currencyRateMapper;
     private final CurrencyRateRepository<CurrencyRate> currencyRatesCurrencyRateRepository;
+    private final CrossRateProvider crossRateProvider;
+    private final RateStatisticsAggregator rateStatisticsAggregator;
 
     /**
      * Retrieves the currency rates for a specific date.
@@ -50,7 +64,8 @@ public class CurrencyRateService {
     }
 
     /**
-     * Converts an amount from one currency to another for a specific date.
+     * Converts an amount from one currency to another for a specific date. The cross rate of the currencies is cached
+     * per date and currency pair, the amount is converted outside the cache.
      *
      * @param date           the date for which to perform the currency conversion
      * @param sourceCurrency the source currency
@@ -61,20 +76,34 @@ public class CurrencyRateService {
      *
      * @throws CurrencyRateNotFoundException if currency rates are not available for the specified date or currencies
      */
-    @Cacheable(value = "convertCurrency", key = "{ #date, #sourceCurrency, #targetCurrency, #amount }")
     public ConvertCurrencyDto convertCurrency(LocalDate date, String sourceCurrency, String targetCurrency, BigDecimal amount) {
-        CurrencyRate sourceRate = currencyRatesCurrencyRateRepository.findByDate(date)
-                .orElseThrow(() -> new CurrencyRateNotFoundException(String.format(CURRENCY_NOT_FOUND_FOR_DATE_ERROR_MESSAGE, date)));
-
-        BigDecimal sourceRateValue = sourceRate.currencies().get(sourceCurrency);
-        BigDecimal targetRateValue = sourceRate.currencies().get(targetCurrency);
+        return convert(date, crossRateProvider.getCrossRate(date, sourceCurrency, targetCurrency), amount);
+    }
 
-        if (sourceRateValue == null || targetRateValue == null) {
-            throw new CurrencyRateNotFoundException(String.format(CURRENCY_NOT_FOUND_FOR_TARGET_AND_SOURCE_CURRENCY_ERROR_MESSAGE, sourceCurrency, targetCurrency));
+    /**
+     * Converts many amounts between currencies, in the order they are requested.
+     * <p>
+     * The currency rates of every distinct date are looked up once and the cross rate of every conversion is resolved
+     * before the first amount is converted, so a batch either fails as a whole or converts every amount. The amounts are only
+     * converted while the returned stream is consumed, from the currency rates that were current when this method was
+     * called.
+     *
+     * @param conversions the dates, currencies and amounts to convert
+     *
+     * @return the stream of the converted amounts, in the order of the conversions
+     *
+     * @throws CurrencyRateNotFoundException if currency rates are not available for one of the dates or currencies
+     */
+    public Stream<ConvertCurrencyDto> convertCurrencies(List<ConvertCurrencyRequestDto> conversions) {
+        Map<LocalDate, CurrencyRate> currencyRatesByDate = new HashMap<>();
+        List<ResolvedConversion> resolvedConversions = new ArrayList<>(conversions.size());
+        for (ConvertCurrencyRequestDto conversion : conversions) {
+            CurrencyRate currencyRate = currencyRatesByDate.computeIfAbsent(conversion.getDate(), this::findCurrencyRate);
+            resolvedConversions.add(new ResolvedConversion(conversion,
+                    crossRateProvider.getCrossRate(currencyRate, conversion.getSourceCurrency(), conversion.getTargetCurrency())));
         }
-
-        BigDecimal convertedAmount = amount.multiply(targetRateValue).divide(sourceRateValue, DECIMAL_SCALE, RoundingMode.HALF_UP);
-        return currencyRateMapper.toConvertCurrencyDto(date, sourceCurrency, targetCurrency, convertedAmount, sourceRateValue, targetRateValue);
+        return resolvedConversions.stream()
+                .map(resolved -> convert(resolved.conversion().getDate(), resolved.crossRate(), resolved.conversion().getAmount()));
     }
 
     /**
@@ -92,12 +121,10 @@ public class CurrencyRateService {
     public HighestExchangeRateDto getHighestExchangeRate(LocalDate startDate, LocalDate endDate, String currency) {
         List<CurrencyRate> currencyRates = currencyRatesCurrencyRateRepository.findBetweenDates(startDate, endDate);
 
-        CurrencyRate highestRate = currencyRates.stream()
-                .filter(rate -> rate.currencies().containsKey(currency))
-                .max(Comparator.comparing(rate -> rate.currencies().get(currency)))
+        BigDecimal highestRateValue = findHighestRate(currencyRates, currency)
                 .orElseThrow(() -> new CurrencyRateNotFoundException(String.format(CURRENCY_NOT_FOUND_FOR_DATE_AND_CURRENCY_ERROR_MESSAGE, startDate, endDate, currency)));
 
-        return currencyRateMapper.toHighestExchangeRateDto(startDate, endDate, currency, highestRate.currencies().get(currency));
+        return currencyRateMapper.toHighestExchangeRateDto(startDate, endDate, currency, highestRateValue);
     }
 
     /**
@@ -115,16 +142,126 @@ public class CurrencyRateService {
     public AverageExchangeRateDto getAverageExchangeRate(LocalDate startDate, LocalDate endDate, String currency) {
         List<CurrencyRate> currencyRates = currencyRatesCurrencyRateRepository.findBetweenDates(startDate, endDate);
 
-        BigDecimal averageRateValue = currencyRates.stream()
-                .map(rate -> rate.currencies().get(currency))
-                .filter(Objects::nonNull)
-                .collect(Collectors.collectingAndThen(
-                        Collectors.averagingDouble(BigDecimal::doubleValue), BigDecimal::valueOf))
-                .setScale(DECIMAL_SCALE, RoundingMode.HALF_UP);
+        BigDecimal averageRateValue = sumRates(currencyRates, currency).average(DECIMAL_SCALE).orElse(BigDecimal.ZERO);
 
         if (averageRateValue.compareTo(BigDecimal.ZERO) <= 0) {
             throw new CurrencyRateNotFoundException(String.format(CURRENCY_NOT_FOUND_FOR_DATE_AND_CURRENCY_ERROR_MESSAGE, startDate, endDate, currency));
         }
         return currencyRateMapper.toAverageExchangeRateDto(startDate, endDate, currency, averageRateValue);
     }
+
+    /**
+     * Retrieves the statistics of several currencies within a specified date range: the count of their rates, their
+     * lowest and highest rate with the earliest dates they occurred, their average rate and the population standard
+     * deviation of their rates.
+     * <p>
+     * The statistics of every currency are computed together in a single pass over the range, instead of searching
+     * the range once per currency and statistic; large ranges are aggregated in parallel by the
+     * {@link RateStatisticsAggregator}. Averages are rounded like those of
+     * {@link #getAverageExchangeRate(LocalDate, LocalDate, String)}, standard deviations to six decimals.
+     *
+     * @param startDate  the start date of the range
+     * @param endDate    the end date of the range
+     * @param currencies the currencies for which to compute the statistics, or an empty list for every currency with a
+     *                   rate within the range
+     *
+     * @return the DTO containing the statistics of the requested currencies in the order of the request, or of every
+     * currency in alphabetical order
+     *
+     * @throws CurrencyRateNotFoundException if currency rates are not available for the specified date range or one of
+     *                                       the currencies
+     */
+    @Cacheable(value = "rateStatistics", key = "{ #startDate, #endDate, #currencies }")
+    public RateStatisticsDto getRateStatistics(LocalDate startDate, LocalDate endDate, List<String> currencies) {
+        List<CurrencyRate> currencyRates = currencyRatesCurrencyRateRepository.findBetweenDates(startDate, endDate);
+
+        Map<String, RateStatistics> statistics = rateStatisticsAggregator.aggregate(currencyRates, currencies);
+
+        if (statistics.isEmpty()) {
+            throw new CurrencyRateNotFoundException(String.format(CURRENCY_NOT_FOUND_FOR_DATES_ERROR_MESSAGE, startDate, endDate));
+        }
+        statistics.forEach((currency, rateStatistics) -> {
+            if (rateStatistics.count() == 0) {
+                throw new CurrencyRateNotFoundException(String.format(CURRENCY_NOT_FOUND_FOR_DATE_AND_CURRENCY_ERROR_MESSAGE, startDate, endDate, currency));
+            }
+        });
+        return currencyRateMapper.toRateStatisticsDto(startDate, endDate, statistics, DECIMAL_SCALE, DEVIATION_SCALE);
+    }
+
+    /**
+     * Finds the currency rates of a date.
+     *
+     * @param date the date of the currency rates
+     *
+     * @return the currency rates of the date
+     *
+     * @throws CurrencyRateNotFoundException if currency rates are not available for the specified date
+     */
+    private CurrencyRate findCurrencyRate(LocalDate date) {
+        return currencyRatesCurrencyRateRepository.findByDate(date)
+                .orElseThrow(() -> new CurrencyRateNotFoundException(String.format(CURRENCY_NOT_FOUND_FOR_DATE_ERROR_MESSAGE, date)));
+    }
+
+    /**
+     * Converts an amount with the cross rate of its currencies.
+     *
+     * @param date      the date of the conversion
+     * @param crossRate the cross rate of the source and target currencies
+     * @param amount    the amount to convert
+     *
+     * @return the DTO containing the converted amount
+     */
+    private ConvertCurrencyDto convert(LocalDate date, CrossRate crossRate, BigDecimal amount) {
+        BigDecimal convertedAmount = crossRate.convert(amount, DECIMAL_SCALE);
+        return currencyRateMapper.toConvertCurrencyDto(date, crossRate.sourceCurrency(), crossRate.targetCurrency(), convertedAmount,
+                crossRate.sourceRate(), crossRate.targetRate());
+    }
+
+    /**
+     * Finds the highest rate of a currency, reading the columnar rates when the repository returned a snapshot slice.
+     *
+     * @param currencyRates the currency rates to search
+     * @param currency      the currency code
+     *
+     * @return an Optional containing the highest rate, or an empty Optional if the currency has no rate
+     */
+    private Optional<BigDecimal> findHighestRate(List<CurrencyRate> currencyRates, String currency) {
+        if (currencyRates instanceof CurrencyRateSlice slice) {
+            return slice.findHighestRate(currency);
+        }
+        CurrencyRateLookup lookup = new CurrencyRateLookup(currency);
+        return currencyRates.stream()
+                .map(lookup::rateOf)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder());
+    }
+
+    /**
+     * Sums the rates of a currency exactly, reading the columnar rates when the repository returned a snapshot slice.
+     *
+     * @param currencyRates the currency rates to sum
+     * @param currency      the currency code
+     *
+     * @return the sum and count of the rates, with a count of {@code 0} if the currency has no rate
+     */
+    private DecimalSum sumRates(List<CurrencyRate> currencyRates, String currency) {
+        if (currencyRates instanceof CurrencyRateSlice slice) {
+            return slice.sumRates(currency);
+        }
+        CurrencyRateLookup lookup = new CurrencyRateLookup(currency);
+        DecimalSum sum = new DecimalSum();
+        for (CurrencyRate currencyRate : currencyRates) {
+            BigDecimal rate = lookup.rateOf(currencyRate);
+            if (rate != null) {
+                sum.add(rate);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * A requested conversion with the cross rate it is converted with.
+     */
+    private record ResolvedConversion(ConvertCurrencyRequestDto conversion, CrossRate crossRate) {
+    }
 }
@@ -0,0 +1,253 @@
+package com.formedix.currencyrate.service;
+
+import com.formedix.currencyrate.config.AggregationProperties;
+import com.formedix.currencyrate.domain.AbstractDictionaryEncodedRates;
+import com.formedix.currencyrate.domain.CurrencyDictionary;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.domain.CurrencyRateLookup;
+import com.formedix.currencyrate.domain.RateStatistics;
+import com.formedix.currencyrate.repository.CurrencyRateSlice;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregates the statistics of currencies over a range of currency rates.
+ * <p>
+ * Ranges sliced from a snapshot are aggregated per currency from the aggregation indexes of the slice, which answer the
+ * count, sum and extremes without visiting the rates; only the variance takes a pass over the primitive rate columns.
+ * Large slices compute the statistics of their currencies concurrently on the aggregation pool.
+ * <p>
+ * Other small ranges are aggregated in a single pass on the calling thread. Ranges with at least
+ * {@link AggregationProperties#getParallelThreshold()} rates are split into chunks of
+ * {@link AggregationProperties#getChunkSize()} dates, which are aggregated on a dedicated fork-join pool and merged, so
+ * large analytical queries scale with the available processors without taking threads from the common pool or from
+ * the requests served meanwhile. The pool is created by the first range that is aggregated in parallel.
+ */
+@Component
+public class RateStatisticsAggregator implements DisposableBean {
+    private final AggregationProperties aggregationProperties;
+    private ForkJoinPool aggregationPool;
+    private boolean destroyed;
+
+    public RateStatisticsAggregator(AggregationProperties aggregationProperties) {
+        this.aggregationProperties = aggregationProperties;
+    }
+
+    /**
+     * Aggregates the statistics of the currencies over the currency rates.
+     *
+     * @param currencyRates the currency rates of the range
+     * @param currencies    the requested currencies, or an empty list for every currency with a rate
+     *
+     * @return the statistics per distinct requested currency in the order of the request, or of every currency in
+     * alphabetical order
+     */
+    public Map<String, RateStatistics> aggregate(List<CurrencyRate> currencyRates, List<String> currencies) {
+        String[] distinctCurrencies = currencies.isEmpty() ? null : new LinkedHashSet<>(currencies).toArray(String[]::new);
+        if (currencyRates instanceof CurrencyRateSlice slice) {
+            return aggregate(slice, distinctCurrencies == null ? slice.findCurrencies().toArray(String[]::new) : distinctCurrencies);
+        }
+        Map<String, RateStatistics> statistics = isParallel(currencyRates, distinctCurrencies)
+                ? aggregationPool().invoke(new AggregationTask(currencyRates, distinctCurrencies, 0, currencyRates.size()))
+                : aggregate(currencyRates, distinctCurrencies, 0, currencyRates.size());
+        return distinctCurrencies == null ? new TreeMap<>(statistics) : statistics;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        destroyed = true;
+        if (aggregationPool != null) {
+            aggregationPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Aggregates the currencies of a slice from its aggregation indexes, concurrently if the slice is large enough.
+     *
+     * @return the statistics of the currencies in their order
+     */
+    private Map<String, RateStatistics> aggregate(CurrencyRateSlice slice, String[] currencies) {
+        Map<String, RateStatistics> statistics = new LinkedHashMap<>();
+        if (isParallel(slice, currencies)) {
+            ForkJoinPool pool = aggregationPool();
+            List<ForkJoinTask<RateStatistics>> tasks = Arrays.stream(currencies)
+                    .map(currency -> pool.submit(() -> slice.statistics(currency)))
+                    .toList();
+            for (int index = 0; index < currencies.length; index++) {
+                statistics.put(currencies[index], tasks.get(index).join());
+            }
+        } else {
+            for (String currency : currencies) {
+                statistics.put(currency, slice.statistics(currency));
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Checks whether the range holds enough rates to be aggregated in parallel, estimating the rates of every currency
+     * from the first date of the range.
+     */
+    private boolean isParallel(List<CurrencyRate> currencyRates, String[] currencies) {
+        if (currencyRates.size() <= aggregationProperties.getChunkSize()) {
+            return false;
+        }
+        long ratesPerDate = currencies == null ? currencyRates.get(0).currencies().size() : currencies.length;
+        return currencyRates.size() * ratesPerDate >= aggregationProperties.getParallelThreshold();
+    }
+
+    /**
+     * Checks whether a slice holds enough rates of the currencies for their statistics to be computed concurrently.
+     */
+    private boolean isParallel(CurrencyRateSlice slice, String[] currencies) {
+        return currencies.length > 1 && (long) slice.size() * currencies.length >= aggregationProperties.getParallelThreshold();
+    }
+
+    /**
+     * Aggregates the dates {@code [fromIndex, toIndex)} of the currency rates in a single pass.
+     *
+     * @return the statistics of the requested currencies in the order of the request, or of every currency with a rate
+     * in the range in no particular order
+     */
+    private static Map<String, RateStatistics> aggregate(List<CurrencyRate> currencyRates, String[] currencies,
+                                                         int fromIndex, int toIndex) {
+        List<CurrencyRate> range = currencyRates.subList(fromIndex, toIndex);
+        if (currencies == null) {
+            return aggregateEveryCurrency(range);
+        }
+        CurrencyRateLookup[] lookups = new CurrencyRateLookup[currencies.length];
+        RateStatistics[] statistics = new RateStatistics[currencies.length];
+        for (int index = 0; index < currencies.length; index++) {
+            lookups[index] = new CurrencyRateLookup(currencies[index]);
+            statistics[index] = new RateStatistics();
+        }
+        for (CurrencyRate currencyRate : range) {
+            for (int index = 0; index < currencies.length; index++) {
+                BigDecimal rate = lookups[index].rateOf(currencyRate);
+                if (rate != null) {
+                    statistics[index].add(currencyRate.date(), rate);
+                }
+            }
+        }
+        Map<String, RateStatistics> statisticsByCurrency = new LinkedHashMap<>();
+        for (int index = 0; index < currencies.length; index++) {
+            statisticsByCurrency.put(currencies[index], statistics[index]);
+        }
+        return statisticsByCurrency;
+    }
+
+    /**
+     * Aggregates every currency of the range. Dictionary-encoded rates are aggregated into arrays indexed by their
+     * currency ids, one per dictionary, which are keyed by currency code only once the range is aggregated.
+     */
+    private static Map<String, RateStatistics> aggregateEveryCurrency(List<CurrencyRate> range) {
+        Map<String, RateStatistics> statistics = new HashMap<>();
+        Map<CurrencyDictionary, RateStatistics[]> statisticsByDictionary = new IdentityHashMap<>();
+        CurrencyDictionary dictionary = null;
+        RateStatistics[] dictionaryStatistics = null;
+        for (CurrencyRate currencyRate : range) {
+            if (currencyRate.currencies() instanceof AbstractDictionaryEncodedRates rates) {
+                if (rates.dictionary() != dictionary) {
+                    dictionary = rates.dictionary();
+                    dictionaryStatistics = statisticsByDictionary.computeIfAbsent(dictionary, key -> new RateStatistics[key.size()]);
+                }
+                for (int id = 0; id < dictionaryStatistics.length; id++) {
+                    BigDecimal rate = rates.rate(id);
+                    if (rate != null) {
+                        if (dictionaryStatistics[id] == null) {
+                            dictionaryStatistics[id] = new RateStatistics();
+                        }
+                        dictionaryStatistics[id].add(currencyRate.date(), rate);
+                    }
+                }
+            } else {
+                for (Map.Entry<String, BigDecimal> rate : currencyRate.currencies().entrySet()) {
+                    if (rate.getValue() != null) {
+                        statistics.computeIfAbsent(rate.getKey(), currency -> new RateStatistics()).add(currencyRate.date(), rate.getValue());
+                    }
+                }
+            }
+        }
+        statisticsByDictionary.forEach((currencyDictionary, currencyStatistics) -> {
+            for (int id = 0; id < currencyStatistics.length; id++) {
+                if (currencyStatistics[id] != null) {
+                    statistics.merge(currencyDictionary.currency(id), currencyStatistics[id], RateStatisticsAggregator::merge);
+                }
+            }
+        });
+        return statistics;
+    }
+
+    private static RateStatistics merge(RateStatistics left, RateStatistics right) {
+        left.merge(right);
+        return left;
+    }
+
+    /**
+     * Returns the aggregation pool, which is created by the first range that is aggregated in parallel.
+     */
+    private synchronized ForkJoinPool aggregationPool() {
+        if (destroyed) {
+            throw new IllegalStateException("The rate statistics aggregator has been shut down");
+        }
+        if (aggregationPool == null) {
+            aggregationPool = createPool(aggregationProperties);
+        }
+        return aggregationPool;
+    }
+
+    private static ForkJoinPool createPool(AggregationProperties aggregationProperties) {
+        int parallelism = aggregationProperties.getParallelism() > 0
+                ? aggregationProperties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("rate-aggregation-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Aggregates a range of dates, splitting it in halves until it fits into a chunk.
+     */
+    private final class AggregationTask extends RecursiveTask<Map<String, RateStatistics>> {
+        private final List<CurrencyRate> currencyRates;
+        private final String[] currencies;
+        private final int fromIndex;
+        private final int toIndex;
+
+        private AggregationTask(List<CurrencyRate> currencyRates, String[] currencies, int fromIndex, int toIndex) {
+            this.currencyRates = currencyRates;
+            this.currencies = currencies;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        @Override
+        protected Map<String, RateStatistics> compute() {
+            if (toIndex - fromIndex <= aggregationProperties.getChunkSize()) {
+                return aggregate(currencyRates, currencies, fromIndex, toIndex);
+            }
+            int middleIndex = (fromIndex + toIndex) >>> 1;
+            AggregationTask right = new AggregationTask(currencyRates, currencies, middleIndex, toIndex);
+            right.fork();
+            Map<String, RateStatistics> statistics = new AggregationTask(currencyRates, currencies, fromIndex, middleIndex).compute();
+            right.join().forEach((currency, rightStatistics) -> statistics.merge(currency, rightStatistics, RateStatisticsAggregator::merge));
+            return statistics;
+        }
+    }
+}
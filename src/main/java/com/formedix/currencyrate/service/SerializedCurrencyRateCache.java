@@ -0,0 +1,133 @@
+package com.formedix.currencyrate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formedix.currencyrate.config.SerializedResponseProperties;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.error.exception.CurrencyRateNotFoundException;
+import com.formedix.currencyrate.mapper.CurrencyRateMapper;
+import com.formedix.currencyrate.repository.CurrencyRateSnapshot;
+import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static com.formedix.currencyrate.service.CurrencyRateService.CURRENCY_NOT_FOUND_FOR_DATE_ERROR_MESSAGE;
+
+/**
+ * Keeps the serialised response bodies of the currency rates of a date per snapshot.
+ * <p>
+ * The body of a date is serialised the first time it is requested and reused until another snapshot is published, so
+ * repeated lookups of a date are a hash lookup instead of mapping and serialising its rates again. If enabled, a
+ * gzip-compressed copy of the body is kept as well. The bodies of a snapshot are dropped as a whole once a newer
+ * snapshot is requested, so they never outlive the rates they were serialised from.
+ */
+@Component
+@RequiredArgsConstructor
+public class SerializedCurrencyRateCache {
+    private final CurrencyRatesContextHolder currencyRatesContextHolder;
+    private final CurrencyRateMapper currencyRateMapper;
+    private final ObjectMapper objectMapper;
+    private final SerializedResponseProperties serializedResponseProperties;
+    private final AtomicReference<SnapshotBodies> snapshotBodies =
+            new AtomicReference<>(new SnapshotBodies(CurrencyRateSnapshot.empty(), new ConcurrentHashMap<>()));
+
+    /**
+     * Checks whether the currency rates of a date are served from their serialised bodies.
+     *
+     * @return {@code true} if serialised responses are enabled
+     */
+    public boolean isEnabled() {
+        return serializedResponseProperties.isEnabled();
+    }
+
+    /**
+     * Retrieves the serialised currency rates of a date from the current snapshot.
+     *
+     * @param date the date for which to retrieve the currency rates
+     *
+     * @return the serialised currency rates for the specified date
+     *
+     * @throws CurrencyRateNotFoundException if currency rates are not available for the specified date
+     */
+    public SerializedCurrencyRate getCurrencyRatesByDate(LocalDate date) {
+        SnapshotBodies current = bodiesOf(currencyRatesContextHolder.getSnapshot());
+        SerializedCurrencyRate serializedCurrencyRate = current.bodies().get(date);
+        if (serializedCurrencyRate != null) {
+            return serializedCurrencyRate;
+        }
+        CurrencyRate currencyRate = current.snapshot().findByDate(date)
+                .orElseThrow(() -> new CurrencyRateNotFoundException(String.format(CURRENCY_NOT_FOUND_FOR_DATE_ERROR_MESSAGE, date)));
+        return current.bodies().computeIfAbsent(date, key -> serialize(current.snapshot(), currencyRate));
+    }
+
+    /**
+     * Returns the bodies of the snapshot, replacing those of an older snapshot. Requests that still see an older
+     * snapshot than the one whose bodies are kept serialise into bodies of their own, which are not kept.
+     */
+    private SnapshotBodies bodiesOf(CurrencyRateSnapshot snapshot) {
+        SnapshotBodies current = snapshotBodies.get();
+        if (current.snapshot() == snapshot) {
+            return current;
+        }
+        SnapshotBodies next = new SnapshotBodies(snapshot, new ConcurrentHashMap<>());
+        if (snapshot.version() > current.snapshot().version() && snapshotBodies.compareAndSet(current, next)) {
+            return next;
+        }
+        SnapshotBodies latest = snapshotBodies.get();
+        return latest.snapshot() == snapshot ? latest : next;
+    }
+
+    private SerializedCurrencyRate serialize(CurrencyRateSnapshot snapshot, CurrencyRate currencyRate) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(currencyRateMapper.toGetCurrencyRateDto(currencyRate));
+            return new SerializedCurrencyRate(snapshot.version(), snapshot.createdAt(), json,
+                    serializedResponseProperties.isGzip() ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialise the currency rates of " + currencyRate.date(), e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 2);
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed)) {
+            outputStream.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * The serialised currency rates of a date.
+     *
+     * @param version      the version of the snapshot the rates were serialised from
+     * @param lastModified the creation time of the snapshot the rates were serialised from
+     * @param json         the JSON body
+     * @param gzippedJson  the gzip-compressed JSON body, or {@code null} if compression is disabled
+     */
+    public record SerializedCurrencyRate(long version, Instant lastModified, byte[] json, byte[] gzippedJson) {
+
+        /**
+         * Returns the strong ETag of the body, the version of its snapshot. The compressed copy is an encoding of the
+         * same body and shares its ETag; responses vary by {@code Accept-Encoding}.
+         *
+         * @return the quoted ETag
+         */
+        public String eTag() {
+            return "\"" + Long.toHexString(version) + "\"";
+        }
+    }
+
+    private record SnapshotBodies(CurrencyRateSnapshot snapshot, Map<LocalDate, SerializedCurrencyRate> bodies) {
+    }
+}
@@ -5,12 +5,9 @@ import com.formedix.currencyrate.error.exception.CsvFileException;
 import com.formedix.currencyrate.error.exception.CsvParsingException;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
-
 @UtilityClass
 public class CsvValidator {
 
@@ -28,7 +25,7 @@ public class CsvValidator {
             if (!StringUtils.equals(TEXT_CSV, file.getContentType())) {
                 throw new CsvFileException("Invalid file or file format. Only CSV files are allowed.", ErrorCode.INVALID_CSV_FILE_ERROR);
             }
-            if (ArrayUtils.isEmpty(file.getBytes())) {
+            if (file.isEmpty()) {
                 throw new CsvFileException("Empty csv file is not allowed.", ErrorCode.INVALID_CSV_FILE_ERROR);
             }
         } catch (Exception e) {
@@ -38,18 +35,17 @@ public class CsvValidator {
     }
 
     /**
-     * Validates the headers of the CSV file.
+     * Validates the header row of the CSV file.
      *
-     * @param rows the rows of the CSV file
+     * @param headers the first row of the CSV file, or null if the file has no rows
      *
-     * @throws CsvParsingException if the CSV file does not have at least 2 columns
+     * @throws CsvParsingException if the CSV file is empty or does not have at least 2 columns
      */
-    public static void validateHeaders(List<String[]> rows) throws CsvParsingException {
-        if (rows.isEmpty()) {
+    public static void validateHeader(String[] headers) throws CsvParsingException {
+        if (headers == null) {
             throw new CsvParsingException("CSV file is empty", ErrorCode.CSV_PARSING_ERROR);
         }
-        String[] headers = rows.get(0);
-        if (headers != null && headers.length < 2) {
+        if (headers.length < 2) {
             throw new CsvParsingException("CSV file must have at least 2 columns", ErrorCode.CSV_PARSING_ERROR);
         }
     }
@@ -1,12 +1,14 @@
 package com.formedix.currencyrate.validator;
 
 import com.formedix.currencyrate.error.exception.InvalidDateException;
+import com.formedix.currencyrate.error.exception.InvalidPageSizeException;
 import lombok.experimental.UtilityClass;
 
 import java.time.LocalDate;
 
 @UtilityClass
 public class CurrencyRateValidator {
+    public static final int MAX_PAGE_SIZE = 10_000;
 
     /**
      * Checks if the provided start date and end date are valid.
@@ -21,4 +23,17 @@ public class CurrencyRateValidator {
             throw new InvalidDateException(String.format("Invalid date range: Start date `%s` should not be greater than End date `%s`", startDate, endDate));
         }
     }
+
+    /**
+     * Checks if the provided page size is valid.
+     *
+     * @param limit the maximum number of rows of a page
+     *
+     * @throws InvalidPageSizeException if the page size is not between 1 and {@value #MAX_PAGE_SIZE}
+     */
+    public static void checkIfValidPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidPageSizeException(String.format("Invalid page size: `%d` should be between 1 and %d", limit, MAX_PAGE_SIZE));
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package com.formedix.currencyrate.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheKeyIndexTest {
+    private static final LocalDate DATE = LocalDate.of(2023, 5, 19);
+
+    private final CacheKeyIndex cacheKeyIndex = new CacheKeyIndex();
+
+    @Test
+    @DisplayName("Should find the date keys and range keys that contain any of the dates")
+    void shouldFindKeysContainingDates() {
+        // Given
+        List<Object> crossRate = List.of(DATE, "USD", "GBP");
+        List<Object> containingRange = List.of(DATE.minusYears(1), DATE.plusDays(1), "USD");
+        List<Object> rangeEndingOnDate = List.of(DATE.minusDays(3), DATE, "USD");
+        List<Object> rangeBetweenDates = List.of(DATE.minusDays(9), DATE.minusDays(6), "USD");
+        List<Object> rangeAfterDates = List.of(DATE.plusDays(1), DATE.plusYears(1), "USD");
+        List.of(DATE, DATE.minusDays(1), crossRate, containingRange, rangeEndingOnDate, rangeBetweenDates, rangeAfterDates)
+                .forEach(cacheKeyIndex::add);
+
+        // When
+        Set<Object> result = cacheKeyIndex.findIntersecting(new TreeSet<>(List.of(DATE.minusDays(10), DATE)));
+
+        // Then
+        assertThat(result).containsExactlyInAnyOrder(DATE, crossRate, containingRange, rangeEndingOnDate);
+        assertThat(cacheKeyIndex.size()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should not find removed keys and find undated keys for any dates")
+    void shouldNotFindRemovedKeysAndAlwaysFindUndatedKeys() {
+        // Given
+        List<Object> range = List.of(DATE.minusDays(1), DATE.plusDays(1), "USD");
+        cacheKeyIndex.add(DATE);
+        cacheKeyIndex.add(range);
+        cacheKeyIndex.add("undated");
+
+        // When
+        cacheKeyIndex.remove(range);
+        cacheKeyIndex.remove(DATE.plusDays(1));
+        Set<Object> result = cacheKeyIndex.findIntersecting(new TreeSet<>(List.of(DATE)));
+
+        // Then
+        assertThat(result).containsExactlyInAnyOrder(DATE, "undated");
+        assertThat(cacheKeyIndex.findIntersecting(new TreeSet<>())).containsExactly("undated");
+    }
+
+    @Test
+    @DisplayName("Should check whether a key intersects the dates without indexing it")
+    void shouldCheckIntersectionWithoutIndexing() {
+        // Given
+        TreeSet<LocalDate> dates = new TreeSet<>(List.of(DATE));
+
+        // When & Then
+        assertThat(CacheKeyIndex.intersects(List.of(DATE.minusDays(1), DATE, "USD"), dates)).isTrue();
+        assertThat(CacheKeyIndex.intersects(List.of(DATE.plusDays(1), DATE.plusDays(2), "USD"), dates)).isFalse();
+        assertThat(CacheKeyIndex.intersects(DATE.minusDays(1), dates)).isFalse();
+        assertThat(CacheKeyIndex.intersects("undated", dates)).isTrue();
+        assertThat(cacheKeyIndex.size()).isZero();
+    }
+}
@@ -0,0 +1,134 @@
+package com.formedix.currencyrate.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndexedCaffeineCacheManagerTest {
+    private static final LocalDate HOT_DATE = LocalDate.of(2023, 5, 19);
+    private static final LocalDate COLD_DATE = LocalDate.of(2023, 5, 18);
+
+    @Test
+    @DisplayName("Should expire the entries after write however often they are read")
+    void shouldExpireReadEntriesAfterWrite() {
+        // Given
+        AtomicLong nanos = new AtomicLong();
+        IndexedCaffeineCacheManager cacheManager = new IndexedCaffeineCacheManager(cacheName -> Caffeine.newBuilder()
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .expireAfterWrite(Duration.ofMinutes(10)));
+        cacheManager.setCacheNames(List.of("currencyRates"));
+        Cache cache = cacheManager.getCache("currencyRates");
+        cache.put(HOT_DATE, "uploaded");
+        cache.put(COLD_DATE, "cold");
+
+        // When
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        Cache.ValueWrapper readValue = cache.get(HOT_DATE);
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        String valueAfterExpiry = cache.get(HOT_DATE, () -> "uploaded again");
+
+        // Then
+        assertThat(readValue).extracting(Cache.ValueWrapper::get).isEqualTo("uploaded");
+        assertThat(valueAfterExpiry).isEqualTo("uploaded again");
+        assertThat(cache.get(COLD_DATE)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should refresh the entries read after the refresh interval by repeating their lookup")
+    void shouldRefreshReadEntriesByRepeatingLookup() {
+        // Given
+        AtomicLong nanos = new AtomicLong();
+        AtomicLong lookups = new AtomicLong();
+        IndexedCaffeineCacheManager[] cacheManager = new IndexedCaffeineCacheManager[1];
+        cacheManager[0] = new IndexedCaffeineCacheManager(cacheName -> Caffeine.newBuilder()
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .refreshAfterWrite(Duration.ofMinutes(5)),
+                (cacheName, key) -> cacheManager[0].getCache(cacheName).get(key, () -> "looked up " + lookups.incrementAndGet()));
+        cacheManager[0].setCacheNames(List.of("currencyRates"));
+        Cache cache = cacheManager[0].getCache("currencyRates");
+        cache.put(HOT_DATE, "uploaded");
+        cache.put(COLD_DATE, "cold");
+
+        // When
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        Cache.ValueWrapper refreshedValue = cache.get(HOT_DATE);
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        // Then
+        assertThat(refreshedValue).extracting(Cache.ValueWrapper::get).isEqualTo("looked up 1");
+        assertThat(cache.get(HOT_DATE)).extracting(Cache.ValueWrapper::get).isEqualTo("looked up 2");
+        assertThat(cache.get(COLD_DATE)).isNull();
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should keep the previous value when the lookup of a refresh fails")
+    void shouldKeepPreviousValueWhenRefreshFails() {
+        // Given
+        AtomicLong nanos = new AtomicLong();
+        IndexedCaffeineCacheManager cacheManager = new IndexedCaffeineCacheManager(cacheName -> Caffeine.newBuilder()
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .refreshAfterWrite(Duration.ofMinutes(5)),
+                (cacheName, key) -> {
+                    throw new IllegalArgumentException("Unknown key");
+                });
+        cacheManager.setCacheNames(List.of("currencyRates"));
+        Cache cache = cacheManager.getCache("currencyRates");
+        cache.put(HOT_DATE, "uploaded");
+
+        // When
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        cache.get(HOT_DATE);
+        Cache.ValueWrapper readValue = cache.get(HOT_DATE);
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        // Then
+        assertThat(readValue).extracting(Cache.ValueWrapper::get).isEqualTo("uploaded");
+        assertThat(cache.get(HOT_DATE)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a policy that refreshes the entries after write without a lookup")
+    void shouldRejectRefreshAfterWriteWithoutLookup() {
+        // Given
+        IndexedCaffeineCacheManager cacheManager = new IndexedCaffeineCacheManager(cacheName -> Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .refreshAfterWrite(Duration.ofMinutes(5)));
+
+        // When & Then
+        assertThatThrownBy(() -> cacheManager.setCacheNames(List.of("currencyRates")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should report a miss without loading the value")
+    void shouldReportMissWithoutLoading() {
+        // Given
+        IndexedCaffeineCacheManager cacheManager = new IndexedCaffeineCacheManager(cacheName -> Caffeine.newBuilder().recordStats());
+        cacheManager.setCacheNames(List.of("currencyRates"));
+        Cache cache = cacheManager.getCache("currencyRates");
+
+        // When
+        Cache.ValueWrapper value = cache.get(HOT_DATE);
+
+        // Then
+        assertThat(value).isNull();
+        com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache = (com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache();
+        assertThat(nativeCache.stats().missCount()).isEqualTo(1);
+        assertThat(nativeCache.stats().loadCount()).isZero();
+    }
+}
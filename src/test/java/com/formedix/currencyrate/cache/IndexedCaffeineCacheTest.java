@@ -0,0 +1,120 @@
+package com.formedix.currencyrate.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexedCaffeineCacheTest {
+    private static final LocalDate DATE = LocalDate.of(2023, 5, 19);
+    private static final int MAXIMUM_SIZE = 10;
+
+    private CacheKeyIndex cacheKeyIndex;
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache;
+    private IndexedCaffeineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        createCache(MAXIMUM_SIZE);
+    }
+
+    @Test
+    @DisplayName("Should index exactly the cached keys while Caffeine evicts entries by size")
+    void shouldIndexExactlyCachedKeysWhileEvictingBySize() {
+        // When
+        for (int day = 0; day < 300; day++) {
+            LocalDate date = DATE.minusDays(day);
+            switch (day % 3) {
+                case 0 -> cache.put(date, "put");
+                case 1 -> cache.putIfAbsent(date, "putIfAbsent");
+                default -> cache.get(date, () -> "loaded");
+            }
+        }
+        nativeCache.cleanUp();
+
+        // Then
+        assertThat(nativeCache.estimatedSize()).isEqualTo(MAXIMUM_SIZE);
+        assertThat(cacheKeyIndex.size()).isEqualTo(MAXIMUM_SIZE);
+        assertThat(cacheKeyIndex.findIntersecting(new TreeSet<>())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not index the keys of entries that Caffeine evicts as soon as they are stored")
+    void shouldNotIndexKeysOfEntriesEvictedWhenStored() {
+        // Given
+        createCache(0);
+
+        // When
+        cache.put(DATE, "put");
+        cache.putIfAbsent(DATE.minusDays(1), "putIfAbsent");
+        cache.get(DATE.minusDays(2), () -> "loaded");
+        nativeCache.cleanUp();
+
+        // Then
+        assertThat(nativeCache.estimatedSize()).isZero();
+        assertThat(cacheKeyIndex.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should remove evicted keys and keys without an entry from the index")
+    void shouldRemoveEvictedAndOrphanedKeysFromIndex() {
+        // Given
+        cache.put(DATE, "cached");
+        cacheKeyIndex.add(List.of(DATE, "USD", "GBP"));
+
+        // When
+        List<Object> evictedKeys = cache.evictIntersecting(new TreeSet<>(List.of(DATE)));
+
+        // Then
+        assertThat(evictedKeys).containsExactly(DATE);
+        assertThat(cache.get(DATE)).isNull();
+        assertThat(cacheKeyIndex.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should stage the entries of the changed dates on the staging thread only")
+    void shouldStageEntriesOfChangedDates() {
+        // Given
+        cache.put(DATE, "published");
+        cache.put(DATE.minusDays(1), "unchanged");
+        CacheStage stage = new CacheStage(new TreeSet<>(List.of(DATE, DATE.minusDays(2))));
+
+        // When
+        stage.run(() -> {
+            assertThat(cache.get(DATE)).isNull();
+            assertThat(cache.get(DATE.minusDays(1)).get()).isEqualTo("unchanged");
+            cache.put(DATE, "staged");
+            cache.get(DATE.minusDays(2), () -> "loaded");
+            assertThat(cache.get(DATE).get()).isEqualTo("staged");
+        });
+
+        // Then
+        assertThat(cache.get(DATE).get()).isEqualTo("published");
+        assertThat(cache.get(DATE.minusDays(2))).isNull();
+        assertThat(stage.size()).isEqualTo(2);
+
+        // When
+        cache.putStaged(stage);
+
+        // Then
+        assertThat(cache.get(DATE).get()).isEqualTo("staged");
+        assertThat(cache.get(DATE.minusDays(2)).get()).isEqualTo("loaded");
+        assertThat(cacheKeyIndex.size()).isEqualTo(3);
+    }
+
+    private void createCache(long maximumSize) {
+        cacheKeyIndex = new CacheKeyIndex();
+        nativeCache = Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .maximumSize(maximumSize)
+                .evictionListener((key, value, cause) -> cacheKeyIndex.remove(key))
+                .build();
+        cache = new IndexedCaffeineCache("currencyRates", nativeCache, true, cacheKeyIndex);
+    }
+}
@@ -0,0 +1,82 @@
+package com.formedix.currencyrate.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.formedix.currencyrate.dto.GetCurrencyRateDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PayloadSizeWeigherTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    @DisplayName("Should weigh an entry by the size in bytes of the JSON payload of its value")
+    void shouldWeighEntryByPayloadSize() throws Exception {
+        // Given
+        Map<String, BigDecimal> rates = new TreeMap<>(Map.of("USD", new BigDecimal("1.0808"), "JPY", new BigDecimal("149.55")));
+        int payloadSize = objectMapper.writeValueAsString(rates).getBytes(StandardCharsets.UTF_8).length;
+
+        // When
+        int weight = new PayloadSizeWeigher(objectMapper).weigh("2023-05-19", rates);
+
+        // Then
+        assertThat(weight).isEqualTo(payloadSize);
+    }
+
+    @Test
+    @DisplayName("Should weigh the values between two samples by their number of rates without serialising them")
+    void shouldEstimateValuesBetweenSamples() throws Exception {
+        // Given
+        ObjectMapper countingObjectMapper = spy(objectMapper);
+        PayloadSizeWeigher payloadSizeWeigher = new PayloadSizeWeigher(countingObjectMapper);
+        GetCurrencyRateDto sampledRate = currencyRate(10);
+        int sampledWeight = payloadSizeWeigher.weigh(LocalDate.of(2023, 5, 19), sampledRate);
+
+        // When
+        int sameShapeWeight = payloadSizeWeigher.weigh(LocalDate.of(2023, 5, 18), currencyRate(10));
+        int largerShapeWeight = payloadSizeWeigher.weigh(LocalDate.of(2023, 5, 17), currencyRate(21));
+
+        // Then
+        assertThat(sampledWeight).isEqualTo(objectMapper.writeValueAsBytes(sampledRate).length);
+        assertThat(sameShapeWeight).isEqualTo(sampledWeight);
+        assertThat(largerShapeWeight).isEqualTo(2 * sampledWeight);
+        verify(countingObjectMapper, times(1)).writeValue(any(OutputStream.class), any());
+    }
+
+    @Test
+    @DisplayName("Should weigh a value that cannot be serialised with the unknown weight")
+    void shouldWeighUnserialisableValueWithUnknownWeight() {
+        // Given
+        Object value = new Object();
+
+        // When
+        int weight = new PayloadSizeWeigher(objectMapper).weigh("key", value);
+
+        // Then
+        assertThat(weight).isEqualTo(PayloadSizeWeigher.UNKNOWN_WEIGHT);
+    }
+
+    private static GetCurrencyRateDto currencyRate(int currencies) {
+        Map<String, BigDecimal> rates = new TreeMap<>();
+        for (int currency = 0; currency < currencies; currency++) {
+            rates.put("C" + (char) ('A' + currency / 26) + (char) ('A' + currency % 26), new BigDecimal("1.0808"));
+        }
+        GetCurrencyRateDto currencyRate = new GetCurrencyRateDto();
+        currencyRate.setDate(LocalDate.of(2023, 5, 19));
+        currencyRate.setCurrencies(rates);
+        return currencyRate;
+    }
+}
@@ -0,0 +1,50 @@
+package com.formedix.currencyrate.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class WebServerConfigurationTest {
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    @DisplayName("Should run the requests of Tomcat on virtual threads")
+    @SuppressWarnings("unchecked")
+    void shouldRunRequestsOnVirtualThreads() throws Exception {
+        // Given
+        WebServerConfiguration.VirtualThreadConfiguration configuration = new WebServerConfiguration.VirtualThreadConfiguration();
+        ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+        ArgumentCaptor<Executor> executor = ArgumentCaptor.forClass(Executor.class);
+
+        // When
+        ((TomcatProtocolHandlerCustomizer<ProtocolHandler>) configuration.virtualThreadProtocolHandlerCustomizer()).customize(protocolHandler);
+
+        // Then
+        verify(protocolHandler).setExecutor(executor.capture());
+        CompletableFuture<String> threadClass = CompletableFuture.supplyAsync(() -> Thread.currentThread().getClass().getName(), executor.getValue());
+        assertThat(threadClass.get()).isEqualTo("java.lang.VirtualThread");
+        configuration.destroy();
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    @DisplayName("Should refuse the virtual thread mode before Java 21")
+    void shouldRefuseVirtualThreadsBeforeJava21() {
+        // When & Then
+        assertThatThrownBy(WebServerConfiguration.VirtualThreadConfiguration::new)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Virtual threads require Java 21 or later");
+    }
+}
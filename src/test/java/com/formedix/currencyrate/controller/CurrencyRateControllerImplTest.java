@@ -1,10 +1,16 @@
 package com.formedix.currencyrate.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formedix.currencyrate.domain.CurrencyRate;
 import com.formedix.currencyrate.dto.AverageExchangeRateDto;
+import com.formedix.currencyrate.dto.BatchConvertCurrencyRequestDto;
 import com.formedix.currencyrate.dto.ConvertCurrencyDto;
+import com.formedix.currencyrate.dto.ConvertCurrencyRequestDto;
 import com.formedix.currencyrate.dto.GetCurrencyRateDto;
 import com.formedix.currencyrate.dto.HighestExchangeRateDto;
+import com.formedix.currencyrate.dto.RateStatisticsDto;
+import com.formedix.currencyrate.error.exception.CurrencyRateNotFoundException;
+import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
 import com.formedix.currencyrate.service.CurrencyRateService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,19 +20,33 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
-@SpringBootTest
+@SpringBootTest(properties = "currency-rate.warm-up.enabled=false")
 @AutoConfigureMockMvc
 class CurrencyRateControllerImplTest {
 
@@ -39,6 +59,9 @@ class CurrencyRateControllerImplTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CurrencyRatesContextHolder currencyRatesContextHolder;
+
     @BeforeEach
     void setUp() {
         // Set up some default mock responses
@@ -95,6 +118,63 @@ class CurrencyRateControllerImplTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Should stream converted Currencies in request order when requested with a valid batch")
+    void shouldConvertCurrencies() throws Exception {
+        // Given
+        ConvertCurrencyDto first = new ConvertCurrencyDto();
+        first.setConvertedAmount(BigDecimal.valueOf(80));
+        ConvertCurrencyDto second = new ConvertCurrencyDto();
+        second.setConvertedAmount(BigDecimal.valueOf(120));
+        when(currencyRateService.convertCurrencies(anyList())).thenReturn(Stream.of(first, second));
+        BatchConvertCurrencyRequestDto batch = new BatchConvertCurrencyRequestDto(List.of(
+                new ConvertCurrencyRequestDto(LocalDate.now(), "USD", "GBP", BigDecimal.valueOf(100)),
+                new ConvertCurrencyRequestDto(LocalDate.now(), "GBP", "USD", BigDecimal.valueOf(90))));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/currency-rates/v1/convert/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String content = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readValue(content, ConvertCurrencyDto[].class))
+                .extracting(ConvertCurrencyDto::getConvertedAmount)
+                .containsExactly(BigDecimal.valueOf(80), BigDecimal.valueOf(120));
+    }
+
+    @Test
+    @DisplayName("Should not convert Currencies when requested with an invalid batch")
+    void shouldNotConvertCurrenciesWithInvalidBatch() throws Exception {
+        // Given
+        BatchConvertCurrencyRequestDto batch = new BatchConvertCurrencyRequestDto(List.of(
+                new ConvertCurrencyRequestDto(LocalDate.now(), "USD", "", null)));
+
+        // When
+        String content = mockMvc.perform(post("/currency-rates/v1/convert/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                // Then
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(content).get("errorMessages")).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should not convert Currencies when requested with an empty batch")
+    void shouldNotConvertCurrenciesWithEmptyBatch() throws Exception {
+        // When
+        mockMvc.perform(post("/currency-rates/v1/convert/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"conversions\":[]}"))
+                // Then
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should return Highest Exchange Rate when requested with valid parameters")
     void shouldReturnHighestExchangeRate() throws Exception {
@@ -142,4 +222,138 @@ class CurrencyRateControllerImplTest {
                 .andExpect(status().isBadRequest());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Should return Exchange Rate Statistics of every currency when requested without currencies")
+    void shouldReturnRateStatisticsOfEveryCurrency() throws Exception {
+        // Given
+        LocalDate startDate = LocalDate.now().minusDays(1);
+        LocalDate endDate = LocalDate.now();
+        when(currencyRateService.getRateStatistics(startDate, endDate, List.of())).thenReturn(new RateStatisticsDto());
+
+        // When
+        mockMvc.perform(get("/currency-rates/v1/rate-statistics")
+                        .param("startDate", startDate.toString())
+                        .param("endDate", endDate.toString()))
+                // Then
+                .andExpect(status().isOk());
+        verify(currencyRateService).getRateStatistics(startDate, endDate, List.of());
+    }
+
+    @Test
+    @DisplayName("Should return Exchange Rate Statistics of the requested currencies")
+    void shouldReturnRateStatisticsOfRequestedCurrencies() throws Exception {
+        // Given
+        LocalDate startDate = LocalDate.now().minusDays(1);
+        LocalDate endDate = LocalDate.now();
+        when(currencyRateService.getRateStatistics(startDate, endDate, List.of("USD", "GBP"))).thenReturn(new RateStatisticsDto());
+
+        // When
+        mockMvc.perform(get("/currency-rates/v1/rate-statistics")
+                        .param("startDate", startDate.toString())
+                        .param("endDate", endDate.toString())
+                        .param("currencies", "USD,GBP"))
+                // Then
+                .andExpect(status().isOk());
+        verify(currencyRateService).getRateStatistics(startDate, endDate, List.of("USD", "GBP"));
+    }
+
+    @Test
+    @DisplayName("Should not return Exchange Rate Statistics when the start date is after the end date")
+    void shouldNotReturnRateStatisticsOfInvalidRange() throws Exception {
+        // When
+        mockMvc.perform(get("/currency-rates/v1/rate-statistics")
+                        .param("startDate", LocalDate.now().toString())
+                        .param("endDate", LocalDate.now().minusDays(1).toString()))
+                // Then
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should answer Not Modified without looking the rates up when the dataset version still matches")
+    void shouldReturnNotModifiedWhenDatasetVersionMatches() throws Exception {
+        // Given
+        String eTag = mockMvc.perform(get("/currency-rates/v1/{date}", LocalDate.now().toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/currency-rates/v1/{date}", LocalDate.now().toString()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        assertThat(eTag).isEqualTo("\"" + Long.toHexString(currencyRatesContextHolder.getSnapshot().version()) + "\"");
+        verify(currencyRateService, times(1)).getCurrencyRatesByDate(any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Should answer Not Found without any ETag for an unknown date")
+    void shouldReturnNotFoundWithoutETagForUnknownDate() throws Exception {
+        // Given
+        when(currencyRateService.getCurrencyRatesByDate(any(LocalDate.class)))
+                .thenThrow(new CurrencyRateNotFoundException("Currency rates not found"));
+
+        // When & Then
+        mockMvc.perform(get("/currency-rates/v1/{date}", LocalDate.now().toString()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("Should keep the previous dataset version until the version of the new currency rates is published")
+    void shouldKeepDatasetVersionUntilPublished() throws Exception {
+        // Given
+        List<CurrencyRate> previousRates = currencyRatesContextHolder.get();
+        String eTag = currencyRateETag();
+        currencyRatesContextHolder.set(List.of(new CurrencyRate(LocalDate.now(), Map.of("USD", BigDecimal.ONE))));
+
+        try {
+            // When
+            String unpublishedETag = currencyRateETag();
+            currencyRatesContextHolder.publishVersion();
+            String publishedETag = currencyRateETag();
+
+            // Then
+            assertThat(unpublishedETag).isEqualTo(eTag);
+            assertThat(publishedETag).isNotEqualTo(eTag)
+                    .isEqualTo("\"" + Long.toHexString(currencyRatesContextHolder.getSnapshot().version()) + "\"");
+        } finally {
+            currencyRatesContextHolder.set(previousRates);
+            currencyRatesContextHolder.publishVersion();
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer with the new dataset once other currency rates are published")
+    void shouldReturnNewDatasetVersionAfterUpdate() throws Exception {
+        // Given
+        List<CurrencyRate> previousRates = currencyRatesContextHolder.get();
+        String eTag = mockMvc.perform(get("/currency-rates/v1/average-rate")
+                        .param("startDate", LocalDate.now().minusDays(1).toString())
+                        .param("endDate", LocalDate.now().toString())
+                        .param("currency", "USD"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        currencyRatesContextHolder.set(List.of(new CurrencyRate(LocalDate.now(), Map.of("USD", BigDecimal.ONE))));
+        currencyRatesContextHolder.publishVersion();
+
+        try {
+            // When
+            String newETag = mockMvc.perform(get("/currency-rates/v1/average-rate")
+                            .param("startDate", LocalDate.now().minusDays(1).toString())
+                            .param("endDate", LocalDate.now().toString())
+                            .param("currency", "USD")
+                            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            // Then
+            assertThat(newETag).isNotEqualTo(eTag);
+        } finally {
+            currencyRatesContextHolder.set(previousRates);
+            currencyRatesContextHolder.publishVersion();
+        }
+    }
+
+    private String currencyRateETag() throws Exception {
+        return mockMvc.perform(get("/currency-rates/v1/{date}", LocalDate.now().toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -1,48 +1,199 @@
 package com.formedix.currencyrate.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formedix.currencyrate.config.JacksonConfiguration;
 import com.formedix.currencyrate.controller.impl.CurrencyRateCsvControllerImpl;
-import com.formedix.currencyrate.dto.GetCurrencyRateDto;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.domain.CurrencyRatePage;
+import com.formedix.currencyrate.domain.UploadJob;
+import com.formedix.currencyrate.dto.UploadMode;
+import com.formedix.currencyrate.error.handler.CurrencyRateExceptionHandler;
+import com.formedix.currencyrate.mapper.CurrencyRateMapper;
+import com.formedix.currencyrate.service.CsvUploadJobService;
 import com.formedix.currencyrate.service.CurrencyRateCsvService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
 import org.mockito.Mock;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.util.Collections;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
 class CurrencyRateCsvControllerImplTest {
 
+    private final ObjectMapper objectMapper = new JacksonConfiguration().buildObjectMapper();
+
     private MockMvc mockMvc;
 
     @Mock
     private CurrencyRateCsvService currencyRateCsvService;
 
+    @Mock
+    private CsvUploadJobService csvUploadJobService;
+
     @BeforeEach
     void setUp() {
-        CurrencyRateCsvControllerImpl controller = new CurrencyRateCsvControllerImpl(currencyRateCsvService);
-        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        CurrencyRateCsvControllerImpl controller = new CurrencyRateCsvControllerImpl(currencyRateCsvService, csvUploadJobService,
+                Mappers.getMapper(CurrencyRateMapper.class), objectMapper);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).setControllerAdvice(new CurrencyRateExceptionHandler()).build();
     }
 
     @Test
     @DisplayName("Should retrieve current CSV rates")
     void shouldRetrieveCurrentCsvRates() throws Exception {
         // Given
-        List<GetCurrencyRateDto> currencyRates = Collections.singletonList(new GetCurrencyRateDto());
-        when(currencyRateCsvService.getCurrentCurrencyRates()).thenReturn(currencyRates);
+        when(currencyRateCsvService.getCurrentCurrencyRates()).thenReturn(List.of(currencyRate(LocalDate.of(2023, 1, 1))));
+
+        // When
+        MockHttpServletResponse response = performStreaming(MockMvcRequestBuilders.get("/csv/v1/current-upload"));
+
+        // Then
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(response.getContentAsString()).isEqualTo("[{\"date\":\"2023-01-01\",\"currencies\":{\"USD\":1}}]");
+    }
+
+    @Test
+    @DisplayName("Should page current CSV rates and link the next page")
+    void shouldPageCurrentCsvRates() throws Exception {
+        // Given
+        CurrencyRatePage page = new CurrencyRatePage(List.of(currencyRate(LocalDate.of(2023, 1, 2))), LocalDate.of(2023, 1, 2));
+        when(currencyRateCsvService.getCurrentCurrencyRates(LocalDate.of(2023, 1, 1), null, null, 1)).thenReturn(page);
+
+        // When
+        MockHttpServletResponse response = performStreaming(MockMvcRequestBuilders.get("/csv/v1/current-upload?startDate=2023-01-01&limit=1"));
+
+        // Then
+        assertThat(response.getHeader(HttpHeaders.LINK))
+                .isEqualTo("<http://localhost/csv/v1/current-upload?startDate=2023-01-01&after=2023-01-02&limit=1>; rel=\"next\"");
+        assertThat(response.getContentAsString()).isEqualTo("[{\"date\":\"2023-01-02\",\"currencies\":{\"USD\":1}}]");
+    }
+
+    @Test
+    @DisplayName("Should stream current CSV rates as newline-delimited JSON when accepted")
+    void shouldStreamCurrentCsvRatesAsNdjson() throws Exception {
+        // Given
+        when(currencyRateCsvService.getCurrentCurrencyRates())
+                .thenReturn(List.of(currencyRate(LocalDate.of(2023, 1, 2)), currencyRate(LocalDate.of(2023, 1, 1))));
+
+        // When
+        MockHttpServletResponse response = performStreaming(MockMvcRequestBuilders.get("/csv/v1/current-upload")
+                .accept(MediaType.APPLICATION_NDJSON));
+
+        // Then
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+        assertThat(response.getContentAsString()).isEqualTo("""
+                {"date":"2023-01-02","currencies":{"USD":1}}
+                {"date":"2023-01-01","currencies":{"USD":1}}
+                """);
+    }
+
+    @Test
+    @DisplayName("Should reject a page size out of range")
+    void shouldRejectInvalidPageSize() throws Exception {
+        // When & Then
+        mockMvc.perform(MockMvcRequestBuilders.get("/csv/v1/current-upload").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        verify(currencyRateCsvService, never()).getCurrentCurrencyRates(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should replace the current rates when uploading without a mode")
+    void shouldReplaceCurrentRatesByDefault() throws Exception {
+        // Given
+        when(currencyRateCsvService.updateCurrencyRates(any())).thenReturn(List.of(currencyRate(LocalDate.of(2023, 1, 1))));
+
+        // When & Then
+        performStreaming(MockMvcRequestBuilders.multipart("/csv/v1/upload").file(csvFile()));
+        verify(currencyRateCsvService).updateCurrencyRates(any());
+        verify(currencyRateCsvService, never()).mergeCurrencyRates(any());
+    }
+
+    @Test
+    @DisplayName("Should merge into the current rates when uploading in merge mode")
+    void shouldMergeIntoCurrentRatesInMergeMode() throws Exception {
+        // Given
+        when(currencyRateCsvService.mergeCurrencyRates(any())).thenReturn(List.of(currencyRate(LocalDate.of(2023, 1, 1))));
 
         // When & Then
-        mockMvc.perform(MockMvcRequestBuilders.get("/csv/v1/current-upload"))
-                .andExpect(status().isOk());
+        performStreaming(MockMvcRequestBuilders.multipart("/csv/v1/upload").file(csvFile()).param("mode", "MERGE"));
+        verify(currencyRateCsvService).mergeCurrencyRates(any());
+        verify(currencyRateCsvService, never()).updateCurrencyRates(any());
+    }
+
+    @Test
+    @DisplayName("Should accept an asynchronous upload and return the queued job with its location")
+    void shouldAcceptAsynchronousUpload() throws Exception {
+        // Given
+        UploadJob uploadJob = UploadJob.queued(UploadMode.MERGE, "currency-rates.csv");
+        when(csvUploadJobService.submit(any(), eq("currency-rates.csv"), eq(UploadMode.MERGE))).thenReturn(uploadJob);
+
+        // When
+        String location = mockMvc.perform(MockMvcRequestBuilders.multipart("/csv/v1/upload-jobs").file(csvFile()).param("mode", "MERGE"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader("Location");
+
+        // Then
+        assertThat(location).isEqualTo("http://localhost/csv/v1/upload-jobs/" + uploadJob.id());
+    }
+
+    @Test
+    @DisplayName("Should retrieve the state of an upload job")
+    void shouldRetrieveUploadJob() throws Exception {
+        // Given
+        UploadJob uploadJob = UploadJob.queued(UploadMode.REPLACE, "currency-rates.csv").running().succeeded(42);
+        when(csvUploadJobService.getUploadJob(uploadJob.id())).thenReturn(uploadJob);
+
+        // When
+        String response = mockMvc.perform(MockMvcRequestBuilders.get("/csv/v1/upload-jobs/" + uploadJob.id()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertThat(response).contains("\"status\":\"SUCCEEDED\"", "\"rateCount\":42");
+    }
+
+    private MockHttpServletResponse performStreaming(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
     }
 
+    private CurrencyRate currencyRate(LocalDate date) {
+        return new CurrencyRate(date, Map.of("USD", BigDecimal.ONE));
+    }
+
+    private MockMultipartFile csvFile() {
+        return new MockMultipartFile("file", "currency-rates.csv", "text/csv",
+                "Date,USD\n2023-01-01,1.2345".getBytes(StandardCharsets.UTF_8));
+    }
 }
\ No newline at end of file
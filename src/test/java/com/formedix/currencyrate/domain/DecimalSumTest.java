@@ -0,0 +1,75 @@
+package com.formedix.currencyrate.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DecimalSumTest {
+    private static final int SAMPLES = 10_000;
+
+    @Test
+    @DisplayName("Should sum and average random decimals exactly like BigDecimal arithmetic")
+    void shouldSumRandomDecimalsLikeBigDecimal() {
+        // Given
+        Random random = new Random(20230519L);
+        DecimalSum sum = new DecimalSum();
+        BigDecimal expectedSum = BigDecimal.ZERO;
+
+        for (int sample = 1; sample <= SAMPLES; sample++) {
+            // When
+            BigDecimal value = BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), random.nextInt(12) - 2);
+            sum.add(value);
+            expectedSum = expectedSum.add(value);
+
+            // Then
+            assertThat(sum.sum()).isEqualByComparingTo(expectedSum);
+            assertThat(sum.count()).isEqualTo(sample);
+            assertThat(sum.average(4)).hasValue(expectedSum.divide(BigDecimal.valueOf(sample), 4, RoundingMode.HALF_UP));
+        }
+    }
+
+    @Test
+    @DisplayName("Should average rates exactly where a double average would round differently")
+    void shouldAverageRatesExactly() {
+        // Given
+        DecimalSum sum = new DecimalSum();
+
+        // When
+        sum.add(new BigDecimal("1.015"));
+        sum.add(new BigDecimal("2.675"));
+
+        // Then
+        assertThat(sum.sum()).isEqualTo(new BigDecimal("3.690"));
+        assertThat(sum.average(2)).hasValue(new BigDecimal("1.85"));
+        assertThat(BigDecimal.valueOf((1.015 + 2.675) / 2).setScale(2, RoundingMode.HALF_UP)).isEqualTo(new BigDecimal("1.84"));
+    }
+
+    @Test
+    @DisplayName("Should combine unscaled sums of different scales and carry on once the sum overflows")
+    void shouldCombineUnscaledSums() {
+        // Given
+        DecimalSum sum = new DecimalSum();
+
+        // When
+        sum.add(12_345, 2, 3);
+        sum.add(5, 4, 1);
+        sum.add(Long.MAX_VALUE, 0, 1);
+        sum.add(new BigDecimal("0.5"), 1);
+
+        // Then
+        assertThat(sum.count()).isEqualTo(6);
+        assertThat(sum.sum()).isEqualByComparingTo(new BigDecimal("123.4505").add(BigDecimal.valueOf(Long.MAX_VALUE)).add(new BigDecimal("0.5")));
+    }
+
+    @Test
+    @DisplayName("Should not average an empty sum")
+    void shouldNotAverageEmptySum() {
+        // When & Then
+        assertThat(new DecimalSum().average(2)).isEmpty();
+    }
+}
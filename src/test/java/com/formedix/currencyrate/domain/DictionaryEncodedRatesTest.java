@@ -0,0 +1,69 @@
+package com.formedix.currencyrate.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DictionaryEncodedRatesTest {
+    private static final LocalDate DATE = LocalDate.of(2023, 5, 19);
+    private static final CurrencyDictionary DICTIONARY = CurrencyDictionary.of("USD", "JPY", "USD", "GBP");
+
+    @Test
+    @DisplayName("Should assign ids in order and keep the first id of a repeated currency")
+    void shouldAssignIdsInOrder() {
+        // When & Then
+        assertThat(DICTIONARY.size()).isEqualTo(3);
+        assertThat(DICTIONARY.idOf("USD")).isZero();
+        assertThat(DICTIONARY.idOf("GBP")).isEqualTo(2);
+        assertThat(DICTIONARY.idOf("CHF")).isEqualTo(-1);
+        assertThat(DICTIONARY.currency(1)).isEqualTo("JPY");
+    }
+
+    @Test
+    @DisplayName("Should behave like a map of the currencies that have a rate")
+    void shouldBehaveLikeMapOfPresentRates() {
+        // When
+        DictionaryEncodedRates rates = new DictionaryEncodedRates(DICTIONARY, new BigDecimal[]{new BigDecimal("1.0808"), null, new BigDecimal("0.8684")});
+
+        // Then
+        Map<String, BigDecimal> expected = Map.of("USD", new BigDecimal("1.0808"), "GBP", new BigDecimal("0.8684"));
+        assertThat(rates).isEqualTo(expected).hasSameHashCodeAs(expected).hasSize(2);
+        assertThat(new HashMap<>(rates)).isEqualTo(expected);
+        assertThat(rates.get("JPY")).isNull();
+        assertThat(rates.get("CHF")).isNull();
+        assertThat(rates.containsKey("JPY")).isFalse();
+        assertThat(rates.rate(2)).isEqualTo(new BigDecimal("0.8684"));
+    }
+
+    @Test
+    @DisplayName("Should reject rates that do not match the dictionary")
+    void shouldRejectRatesNotMatchingDictionary() {
+        // When & Then
+        assertThatThrownBy(() -> new DictionaryEncodedRates(DICTIONARY, new BigDecimal[2]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should look up a currency by id across dictionaries and by code in other maps")
+    void shouldLookUpCurrencyAcrossDictionaries() {
+        // Given
+        CurrencyRateLookup lookup = new CurrencyRateLookup("GBP");
+        CurrencyDictionary otherDictionary = CurrencyDictionary.of("GBP");
+
+        // When & Then
+        assertThat(lookup.rateOf(new CurrencyRate(DATE, new DictionaryEncodedRates(DICTIONARY, new BigDecimal[]{null, null, BigDecimal.ONE}))))
+                .isEqualTo(BigDecimal.ONE);
+        assertThat(lookup.rateOf(new CurrencyRate(DATE, new DictionaryEncodedRates(otherDictionary, new BigDecimal[]{BigDecimal.TEN}))))
+                .isEqualTo(BigDecimal.TEN);
+        assertThat(lookup.rateOf(new CurrencyRate(DATE, Map.of("GBP", BigDecimal.ZERO)))).isEqualTo(BigDecimal.ZERO);
+        assertThat(new CurrencyRateLookup("CHF").rateOf(new CurrencyRate(DATE, new DictionaryEncodedRates(otherDictionary, new BigDecimal[1]))))
+                .isNull();
+    }
+}
@@ -0,0 +1,110 @@
+package com.formedix.currencyrate.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FixedPointTest {
+    private static final LocalDate DATE = LocalDate.of(2023, 1, 1);
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    @DisplayName("Should convert random amounts exactly like BigDecimal arithmetic")
+    void shouldConvertRandomAmountsLikeBigDecimal() {
+        // Given
+        Random random = new Random(20230519L);
+
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            BigDecimal amount = randomDecimal(random, 1 + random.nextInt(19), random.nextInt(8) - 2);
+            BigDecimal sourceRate = randomDecimal(random, 1 + random.nextInt(12), random.nextInt(10)).abs().add(BigDecimal.ONE.movePointLeft(6));
+            BigDecimal targetRate = randomDecimal(random, 1 + random.nextInt(12), random.nextInt(10)).abs();
+            int scale = random.nextInt(6);
+
+            // When
+            BigDecimal converted = CrossRate.fixedPoint(DATE, "USD", "GBP", sourceRate, targetRate).convert(amount, scale);
+
+            // Then
+            assertThat(converted)
+                    .as("%s * %s / %s at scale %d", amount, targetRate, sourceRate, scale)
+                    .isEqualTo(amount.multiply(targetRate).divide(sourceRate, scale, RoundingMode.HALF_UP));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0.005, 1, 1, 2",
+            "-0.005, 1, 1, 2",
+            "0.015, 1, -1, 2",
+            "1, 3, 1, 2",
+            "2, 3, 1, 2",
+            "-2, 3, 1, 2",
+            "1, -3, 1, 2",
+            "9223372036854775807, 1, 1, 0",
+            "-9223372036854775807, 1, 1, 0",
+            "9223372036854775807, 1.0808, 0.8684, 2",
+            "92233720368547758.07, 12345.6789, 0.0001, 2",
+            "0.000000000000000001, 1, 3, 20",
+            "1E+10, 1.0808, 0.8684, 2",
+            "100, 1E-25, 1, 2",
+            "0, 1.0808, 0.8684, 2"
+    })
+    @DisplayName("Should convert edge cases exactly like BigDecimal arithmetic, falling back to it on overflow")
+    void shouldConvertEdgeCasesLikeBigDecimal(BigDecimal amount, BigDecimal sourceRate, BigDecimal targetRate, int scale) {
+        // When
+        BigDecimal converted = CrossRate.fixedPoint(DATE, "USD", "GBP", sourceRate, targetRate).convert(amount, scale);
+
+        // Then
+        assertThat(converted).isEqualTo(amount.multiply(targetRate).divide(sourceRate, scale, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    @DisplayName("Should return the unscaled value of random decimals like BigDecimal does")
+    void shouldReturnUnscaledValueOfRandomDecimals() {
+        // Given
+        Random random = new Random(20230519L);
+
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            BigDecimal value = randomDecimal(random, 1 + random.nextInt(18), random.nextInt(22) - 2);
+
+            // When
+            long unscaled = FixedPoint.unscaled(value);
+
+            // Then
+            assertThat(unscaled).as("%s", value).isEqualTo(value.unscaledValue().longValueExact());
+        }
+    }
+
+    @Test
+    @DisplayName("Should report overflow instead of a truncated result")
+    void shouldReportOverflow() {
+        // When & Then
+        assertThat(FixedPoint.multiplyDivide(Long.MAX_VALUE, 0, 2, 0, 1, 0, 0)).isEqualTo(FixedPoint.OVERFLOW);
+        assertThat(FixedPoint.multiplyDivide(1, 0, 1, 0, 0, 0, 2)).isEqualTo(FixedPoint.OVERFLOW);
+        assertThat(FixedPoint.unscaled(new BigDecimal("12345678901234567890.1"))).isEqualTo(FixedPoint.OVERFLOW);
+    }
+
+    @Test
+    @DisplayName("Should fail like BigDecimal arithmetic when the source rate is zero")
+    void shouldFailOnZeroSourceRate() {
+        // Given
+        CrossRate crossRate = CrossRate.fixedPoint(DATE, "USD", "GBP", BigDecimal.ZERO, BigDecimal.ONE);
+
+        // When & Then
+        assertThatThrownBy(() -> crossRate.convert(BigDecimal.TEN, 2)).isInstanceOf(ArithmeticException.class);
+    }
+
+    private static BigDecimal randomDecimal(Random random, int digits, int scale) {
+        BigInteger unscaled = new BigInteger(random.nextInt(64), random).mod(BigInteger.TEN.pow(digits));
+        return new BigDecimal(random.nextBoolean() ? unscaled : unscaled.negate(), scale);
+    }
+}
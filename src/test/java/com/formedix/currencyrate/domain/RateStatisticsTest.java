@@ -0,0 +1,82 @@
+package com.formedix.currencyrate.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateStatisticsTest {
+    private static final LocalDate START_DATE = LocalDate.of(2000, 1, 1);
+    private static final int SIZE = 1_000;
+
+    @Test
+    @DisplayName("Should merge the statistics of split ranges into the statistics of the whole range")
+    void shouldMergeSplitRanges() {
+        // Given
+        Random random = new Random(42);
+        BigDecimal[] rates = new BigDecimal[SIZE];
+        for (int day = 0; day < SIZE; day++) {
+            rates[day] = BigDecimal.valueOf(random.nextInt(2_000_000), 4);
+        }
+        RateStatistics whole = statistics(rates, 0, SIZE);
+
+        for (int split : new int[]{0, 1, 333, SIZE - 1, SIZE}) {
+            // When
+            RateStatistics merged = statistics(rates, 0, split);
+            merged.merge(statistics(rates, split, SIZE));
+
+            // Then
+            assertThat(merged.count()).isEqualTo(whole.count());
+            assertThat(merged.lowestRate()).isEqualTo(whole.lowestRate());
+            assertThat(merged.lowestRateDate()).isEqualTo(whole.lowestRateDate());
+            assertThat(merged.highestRate()).isEqualTo(whole.highestRate());
+            assertThat(merged.highestRateDate()).isEqualTo(whole.highestRateDate());
+            assertThat(merged.averageRate(8)).isEqualTo(whole.averageRate(8));
+            assertThat(merged.standardDeviation(8)).isEqualTo(whole.standardDeviation(8));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the earliest date of the lowest and highest rate regardless of the order rates are merged in")
+    void shouldKeepEarliestDateOfExtremes() {
+        // Given
+        RateStatistics later = new RateStatistics();
+        later.add(START_DATE.plusDays(2), new BigDecimal("1.0"));
+        RateStatistics earlier = new RateStatistics();
+        earlier.add(START_DATE, new BigDecimal("1.00"));
+
+        // When
+        later.merge(earlier);
+
+        // Then
+        assertThat(later.lowestRateDate()).isEqualTo(START_DATE);
+        assertThat(later.highestRateDate()).isEqualTo(START_DATE);
+        assertThat(later.standardDeviation(2)).hasValue(new BigDecimal("0.00"));
+    }
+
+    @Test
+    @DisplayName("Should not compute statistics without rates")
+    void shouldNotComputeStatisticsWithoutRates() {
+        // When
+        RateStatistics empty = new RateStatistics();
+        empty.merge(new RateStatistics());
+
+        // Then
+        assertThat(empty.count()).isZero();
+        assertThat(empty.lowestRate()).isNull();
+        assertThat(empty.averageRate(2)).isEmpty();
+        assertThat(empty.standardDeviation(2)).isEmpty();
+    }
+
+    private static RateStatistics statistics(BigDecimal[] rates, int fromIndex, int toIndex) {
+        RateStatistics statistics = new RateStatistics();
+        for (int day = fromIndex; day < toIndex; day++) {
+            statistics.add(START_DATE.plusDays(day), rates[day]);
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,121 @@
+package com.formedix.currencyrate.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvByteScannerTest {
+
+    @Test
+    @DisplayName("Should tokenize rows and cells, skipping blank lines and carriage returns")
+    void shouldTokenizeRowsAndCells() throws IOException {
+        // Given
+        CsvByteScanner scanner = createScanner("Date,USD,\r\n\r\n2023-05-19,\"1,5\",N/A\n");
+
+        // When & Then
+        assertThat(scanner.next()).isEqualTo(CsvByteScanner.CELL);
+        assertThat(scanner.text()).isEqualTo("Date");
+        assertThat(scanner.next()).isEqualTo(CsvByteScanner.CELL);
+        assertThat(scanner.text()).isEqualTo("USD");
+        assertThat(scanner.next()).isEqualTo(CsvByteScanner.LAST_CELL);
+        assertThat(scanner.text()).isEmpty();
+        assertThat(scanner.next()).isEqualTo(CsvByteScanner.CELL);
+        assertThat(scanner.date()).isEqualTo(LocalDate.of(2023, 5, 19));
+        assertThat(scanner.next()).isEqualTo(CsvByteScanner.CELL);
+        assertThat(scanner.text()).isEqualTo("1,5");
+        assertThat(scanner.next()).isEqualTo(CsvByteScanner.LAST_CELL);
+        assertThat(scanner.decimal()).isNull();
+        assertThat(scanner.next()).isEqualTo(CsvByteScanner.END_OF_INPUT);
+    }
+
+    @Test
+    @DisplayName("Should read an empty last cell when the input ends after a separator")
+    void shouldReadEmptyLastCellAtEndOfInput() throws IOException {
+        // Given
+        CsvByteScanner scanner = createScanner("a,\"say \"\"hi\"\"\",");
+
+        // When & Then
+        assertThat(scanner.next()).isEqualTo(CsvByteScanner.CELL);
+        assertThat(scanner.next()).isEqualTo(CsvByteScanner.CELL);
+        assertThat(scanner.text()).isEqualTo("say \"hi\"");
+        assertThat(scanner.next()).isEqualTo(CsvByteScanner.LAST_CELL);
+        assertThat(scanner.text()).isEmpty();
+        assertThat(scanner.next()).isEqualTo(CsvByteScanner.END_OF_INPUT);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1.0808", "149.550", "-0.5", "+2", "16129", ".5", "7.", "1E+3", "2.5e-2", "123456789012345678901234.5"})
+    @DisplayName("Should parse decimal rates exactly like BigDecimal does")
+    void shouldParseDecimalRatesLikeBigDecimal(String rate) throws IOException {
+        // Given
+        CsvByteScanner scanner = createScanner(rate);
+
+        // When
+        scanner.next();
+
+        // Then
+        assertThat(scanner.decimal()).isEqualTo(new BigDecimal(rate));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"N/A", "-", "1.2.3", "abc", "1e", "1x"})
+    @DisplayName("Should not parse cells that are not numbers")
+    void shouldNotParseCellsThatAreNotNumbers(String rate) throws IOException {
+        // Given
+        CsvByteScanner scanner = createScanner(rate);
+
+        // When
+        scanner.next();
+
+        // Then
+        assertThat(scanner.decimal()).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"19/05/2023", "2023-5-19", "2023-02-30", "2023-05-19T00"})
+    @DisplayName("Should throw DateTimeParseException for cells that are not ISO local dates")
+    void shouldThrowDateTimeParseExceptionForInvalidDates(String date) throws IOException {
+        // Given
+        CsvByteScanner scanner = createScanner(date);
+
+        // When
+        scanner.next();
+
+        // Then
+        assertThatThrownBy(scanner::date)
+                .isInstanceOf(DateTimeParseException.class)
+                .hasMessageStartingWith("Text '" + date + "' could not be parsed");
+    }
+
+    @Test
+    @DisplayName("Should track the line every row starts at, counting blank lines and line breaks in quoted cells")
+    void shouldTrackLineOfEveryRow() throws IOException {
+        // Given
+        CsvByteScanner scanner = new CsvByteScanner(new ByteArrayInputStream(
+                "a,\"multi\nline\"\r\n\r\nb,c\n".getBytes(StandardCharsets.UTF_8)), 7);
+
+        // When & Then
+        assertThat(scanner.next()).isEqualTo(CsvByteScanner.CELL);
+        assertThat(scanner.line()).isEqualTo(7);
+        assertThat(scanner.next()).isEqualTo(CsvByteScanner.LAST_CELL);
+        assertThat(scanner.text()).isEqualTo("multi\nline");
+        assertThat(scanner.next()).isEqualTo(CsvByteScanner.CELL);
+        assertThat(scanner.text()).isEqualTo("b");
+        assertThat(scanner.line()).isEqualTo(10);
+    }
+
+    private CsvByteScanner createScanner(String csvData) {
+        return new CsvByteScanner(new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8)));
+    }
+}
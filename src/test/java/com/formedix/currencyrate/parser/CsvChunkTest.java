@@ -0,0 +1,44 @@
+package com.formedix.currencyrate.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvChunkTest {
+
+    @Test
+    @DisplayName("Should split the header row from the data rows and cut data chunks at row boundaries")
+    void shouldSplitAtRowBoundaries() {
+        // Given
+        String csvData = "\nDate,USD\n2023-05-19,1.0808\n2023-05-18,1.0813\n2023-05-17,1.0829";
+
+        // When
+        List<CsvChunk> chunks = CsvChunk.split(csvData.getBytes(StandardCharsets.UTF_8), 20);
+
+        // Then
+        assertThat(chunks).containsExactly(
+                new CsvChunk(0, 10, 1),
+                new CsvChunk(10, 36, 3),
+                new CsvChunk(46, 17, 5));
+    }
+
+    @Test
+    @DisplayName("Should not cut a chunk at a line break within a quoted cell")
+    void shouldNotSplitQuotedCells() {
+        // Given
+        String csvData = "Date,Note\n2023-05-19,\"a \"\"quoted\"\"\nnote\"\n2023-05-18,b\n";
+
+        // When
+        List<CsvChunk> chunks = CsvChunk.split(csvData.getBytes(StandardCharsets.UTF_8), 1);
+
+        // Then
+        assertThat(chunks).containsExactly(
+                new CsvChunk(0, 10, 1),
+                new CsvChunk(10, 31, 2),
+                new CsvChunk(41, 13, 4));
+    }
+}
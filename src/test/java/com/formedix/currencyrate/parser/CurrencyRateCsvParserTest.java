@@ -1,36 +1,40 @@
 package com.formedix.currencyrate.parser;
 
+import com.formedix.currencyrate.config.CsvProperties;
+import com.formedix.currencyrate.domain.AbstractDictionaryEncodedRates;
 import com.formedix.currencyrate.domain.CurrencyRate;
 import com.formedix.currencyrate.error.exception.CsvParsingException;
 import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 @ExtendWith(MockitoExtension.class)
 class CurrencyRateCsvParserTest {
+    private static final String DEFAULT_CURRENCY_RATES = "/templates/csv/default-currency-rates.csv";
 
-    private CurrencyRateCsvParser currencyRateCsvParser;
-
-    @BeforeEach
-    void setUp() {
-        currencyRateCsvParser = new CurrencyRateCsvParser();
-    }
-
-    @Test
+    @ParameterizedTest
+    @EnumSource(CsvParserType.class)
     @DisplayName("Should parse CSV input stream into CurrencyRatesContextHolder successfully when valid data is provided")
-    void shouldParseCSVIntoCurrencyRatesContextHolder() {
+    void shouldParseCSVIntoCurrencyRatesContextHolder(CsvParserType parserType) {
         // Given
+        CurrencyRateCsvParser currencyRateCsvParser = createParser(parserType);
         String csvData = "date,USD,EUR,GBP,JPY,CAD\n" +
                 "2023-01-01,1.2345,1.2345,1.2345,1.2345,1.2345";
         InputStream inputStream = new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8));
@@ -46,10 +50,12 @@ class CurrencyRateCsvParserTest {
         assertThat(firstCurrencyRate.currencies().get("USD")).isEqualByComparingTo("1.2345");
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(CsvParserType.class)
     @DisplayName("Should throw CsvParsingException when invalid CSV data is provided")
-    void shouldThrowCsvParsingException() {
+    void shouldThrowCsvParsingException(CsvParserType parserType) {
         // Given
+        CurrencyRateCsvParser currencyRateCsvParser = createParser(parserType);
         String csvData = "date\n" +
                 "2023-01-01,1.2345,1.2345,1.2345,1.2345,1.2345";
         InputStream inputStream = new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8));
@@ -60,10 +66,12 @@ class CurrencyRateCsvParserTest {
                 .hasMessage("CSV file must have at least 2 columns");
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(CsvParserType.class)
     @DisplayName("Should throw CsvParsingException when CSV data is empty")
-    void shouldThrowCsvParsingExceptionWhenCsvIsEmpty() {
+    void shouldThrowCsvParsingExceptionWhenCsvIsEmpty(CsvParserType parserType) {
         // Given
+        CurrencyRateCsvParser currencyRateCsvParser = createParser(parserType);
         String csvData = "";
         InputStream inputStream = new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8));
 
@@ -72,4 +80,157 @@ class CurrencyRateCsvParserTest {
                 .isInstanceOf(CsvParsingException.class)
                 .hasMessage("CSV file is empty");
     }
+
+    @ParameterizedTest
+    @EnumSource(CsvParserType.class)
+    @DisplayName("Should parse every data row of the CSV input stream in file order")
+    void shouldParseEveryDataRowInFileOrder(CsvParserType parserType) {
+        // Given
+        CurrencyRateCsvParser currencyRateCsvParser = createParser(parserType);
+        String csvData = "Date,USD,JPY,\n" +
+                "2023-05-19,1.0808,N/A,\n" +
+                "2023-05-18,1.0813,149.08,\n";
+        InputStream inputStream = new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8));
+
+        // When
+        List<CurrencyRate> currencyRates = currencyRateCsvParser.parse(inputStream).get();
+
+        // Then
+        assertThat(currencyRates).extracting(rate -> rate.date().toString()).containsExactly("2023-05-19", "2023-05-18");
+        assertThat(currencyRates.get(0).currencies()).containsOnlyKeys("USD");
+        assertThat(currencyRates.get(1).currencies().get("JPY")).isEqualByComparingTo("149.08");
+    }
+
+    @ParameterizedTest
+    @EnumSource(CsvParserType.class)
+    @DisplayName("Should encode the rates of every row by the currency dictionary of the file")
+    void shouldEncodeRatesByCurrencyDictionaryOfFile(CsvParserType parserType) {
+        // Given
+        CurrencyRateCsvParser currencyRateCsvParser = createParser(parserType);
+        String csvData = "Date,USD,JPY,CYP,\n" +
+                "2023-05-19,1.0808,149.55,N/A,\n" +
+                "2023-05-18,1.0815,N/A,0.5767,\n";
+        InputStream inputStream = new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8));
+
+        // When
+        List<CurrencyRate> currencyRates = currencyRateCsvParser.parse(inputStream).get();
+
+        // Then
+        assertThat(currencyRates).allSatisfy(currencyRate -> assertThat(currencyRate.currencies()).isInstanceOf(AbstractDictionaryEncodedRates.class));
+        AbstractDictionaryEncodedRates first = (AbstractDictionaryEncodedRates) currencyRates.get(0).currencies();
+        AbstractDictionaryEncodedRates second = (AbstractDictionaryEncodedRates) currencyRates.get(1).currencies();
+        assertThat(first.dictionary()).isSameAs(second.dictionary());
+        assertThat(first).isEqualTo(Map.of("USD", new BigDecimal("1.0808"), "JPY", new BigDecimal("149.55")));
+        assertThat(second).isEqualTo(Map.of("USD", new BigDecimal("1.0815"), "CYP", new BigDecimal("0.5767")));
+        assertThat(second.rate(first.dictionary().idOf("CYP"))).isEqualTo(new BigDecimal("0.5767"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(CsvParserType.class)
+    @DisplayName("Should throw CsvParsingException when a data row has an invalid date")
+    void shouldThrowCsvParsingExceptionForInvalidDate(CsvParserType parserType) {
+        // Given
+        CurrencyRateCsvParser currencyRateCsvParser = createParser(parserType);
+        String csvData = "Date,USD\n" +
+                "2023-05-19,1.0808\n" +
+                "19/05/2023,1.0813\n";
+        InputStream inputStream = new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8));
+
+        // When & Then
+        assertThatThrownBy(() -> currencyRateCsvParser.parse(inputStream))
+                .isInstanceOf(CsvParsingException.class)
+                .hasMessageStartingWith("Unable to parse CSV date at line 3");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"19/05/2023", "2023-5-19", "2023-02-30", "2023-13-01", "2023-05-19T00", ""})
+    @DisplayName("Should report an invalid date with the same message whichever parser is configured")
+    void shouldReportInvalidDateWithSameMessageForEveryParser(String date) {
+        // Given
+        String csvData = "Date,USD\n" +
+                "2023-05-19,1.0808\n" +
+                date + ",1.0813\n";
+
+        // When
+        Throwable opencsvError = catchThrowable(() -> createParser(CsvParserType.OPENCSV)
+                .parse(new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8))));
+        Throwable byteScannerError = catchThrowable(() -> createParser(CsvParserType.BYTE_SCANNER)
+                .parse(new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8))));
+
+        // Then
+        assertThat(opencsvError).isInstanceOf(CsvParsingException.class).hasMessageStartingWith("Unable to parse CSV date at line 3");
+        assertThat(byteScannerError).isInstanceOf(CsvParsingException.class).hasMessage(opencsvError.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should parse the default currency rates in parallel chunks identically to a sequential parse")
+    void shouldParseDefaultCurrencyRatesInParallelChunks() throws IOException {
+        // Given
+        List<CurrencyRate> expected;
+        try (InputStream inputStream = getClass().getResourceAsStream(DEFAULT_CURRENCY_RATES)) {
+            expected = createParser(CsvParserType.BYTE_SCANNER).parse(inputStream).get();
+        }
+
+        // When
+        List<CurrencyRate> result;
+        try (InputStream inputStream = getClass().getResourceAsStream(DEFAULT_CURRENCY_RATES)) {
+            result = createParallelParser(16_384).parse(inputStream).get();
+        }
+
+        // Then
+        assertThat(result).hasSizeGreaterThan(6000).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Should report the line of the first invalid date when parsing in parallel chunks")
+    void shouldReportLineOfInvalidDateWhenParsingInParallelChunks() {
+        // Given
+        CurrencyRateCsvParser currencyRateCsvParser = createParallelParser(1);
+        String csvData = "Date,USD\n" +
+                "2023-05-19,1.0808\n" +
+                "\n" +
+                "2023-05-18,1.0813\n" +
+                "18/05/2023,1.0813\n" +
+                "17/05/2023,1.0829\n";
+        InputStream inputStream = new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8));
+
+        // When & Then
+        assertThatThrownBy(() -> currencyRateCsvParser.parse(inputStream))
+                .isInstanceOf(CsvParsingException.class)
+                .hasMessageStartingWith("Unable to parse CSV date at line 5");
+    }
+
+    @Test
+    @DisplayName("Should parse the default currency rates identically with every engine")
+    void shouldParseDefaultCurrencyRatesIdenticallyWithEveryEngine() throws IOException {
+        // Given
+        List<CurrencyRate> expected;
+        try (InputStream inputStream = getClass().getResourceAsStream(DEFAULT_CURRENCY_RATES)) {
+            expected = createParser(CsvParserType.OPENCSV).parse(inputStream).get();
+        }
+
+        // When
+        List<CurrencyRate> result;
+        try (InputStream inputStream = getClass().getResourceAsStream(DEFAULT_CURRENCY_RATES)) {
+            result = createParser(CsvParserType.BYTE_SCANNER).parse(inputStream).get();
+        }
+
+        // Then
+        assertThat(result).hasSizeGreaterThan(6000).isEqualTo(expected);
+    }
+
+    private CurrencyRateCsvParser createParser(CsvParserType parserType) {
+        CsvProperties csvProperties = new CsvProperties();
+        csvProperties.setParser(parserType);
+        return new CurrencyRateCsvParser(csvProperties);
+    }
+
+    private CurrencyRateCsvParser createParallelParser(int chunkSize) {
+        CsvProperties csvProperties = new CsvProperties();
+        csvProperties.setParser(CsvParserType.BYTE_SCANNER);
+        csvProperties.setParallelism(4);
+        csvProperties.setParallelThreshold(0);
+        csvProperties.setChunkSize(chunkSize);
+        return new CurrencyRateCsvParser(csvProperties);
+    }
 }
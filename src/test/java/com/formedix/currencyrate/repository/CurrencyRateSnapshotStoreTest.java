@@ -0,0 +1,143 @@
+package com.formedix.currencyrate.repository;
+
+import com.formedix.currencyrate.config.SnapshotProperties;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CurrencyRateSnapshotStoreTest {
+    @TempDir
+    private Path directory;
+
+    private SnapshotProperties snapshotProperties;
+    private CurrencyRateSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        snapshotProperties = new SnapshotProperties();
+        snapshotProperties.setEnabled(true);
+        snapshotProperties.setDirectory(directory.toString());
+        store = new CurrencyRateSnapshotStore(snapshotProperties);
+    }
+
+    @Test
+    @DisplayName("Should load the saved currency rates in their original order with their exact values")
+    void shouldLoadSavedCurrencyRates() {
+        // Given
+        List<CurrencyRate> rates = List.of(
+                new CurrencyRate(LocalDate.of(2023, 5, 19), Map.of("USD", new BigDecimal("1.0808"), "JPY", new BigDecimal("149.55"))),
+                new CurrencyRate(LocalDate.of(2023, 5, 18), Map.of("USD", new BigDecimal("1.0810"), "IDR", new BigDecimal("16089.38"))),
+                new CurrencyRate(LocalDate.of(1999, 1, 4), Map.of("USD", new BigDecimal("-0.5E+3"))));
+
+        // When
+        store.save(CurrencyRateSnapshot.of(rates));
+        Optional<List<CurrencyRate>> result = store.load().map(CurrencyRateSnapshot::rates);
+
+        // Then
+        assertThat(result).hasValue(rates);
+        assertThat(result.get().get(1).currencies().get("USD")).isEqualTo(new BigDecimal("1.0810"));
+        assertThat(result.get().get(1).currencies()).containsOnlyKeys("USD", "IDR");
+        assertThat(result.get().get(2).currencies().get("JPY")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep serving mapped currency rates after a newer snapshot replaces them")
+    void shouldKeepMappedRatesReadableAfterReplacement() {
+        // Given
+        CurrencyRate previousRate = new CurrencyRate(LocalDate.of(2023, 1, 1), Map.of("USD", new BigDecimal("1.2345")));
+        store.save(CurrencyRateSnapshot.of(List.of(previousRate)));
+        List<CurrencyRate> previousRates = store.load().orElseThrow().rates();
+
+        // When
+        store.save(CurrencyRateSnapshot.of(List.of(new CurrencyRate(LocalDate.of(2023, 1, 2), Map.of("GBP", new BigDecimal("0.88"))))));
+
+        // Then
+        assertThat(previousRates).containsExactly(previousRate);
+        assertThat(store.load().orElseThrow().rates().get(0).currencies()).containsOnlyKeys("GBP");
+    }
+
+    @Test
+    @DisplayName("Should not load anything when no snapshot was saved or the snapshot is not readable")
+    void shouldNotLoadMissingOrCorruptSnapshot() throws IOException {
+        // Given
+        assertThat(store.load()).isEmpty();
+        Files.writeString(directory.resolve(snapshotProperties.getFileName()), "Date,USD\n2023-01-01,1.2345");
+
+        // When
+        Optional<CurrencyRateSnapshot> result = store.load();
+
+        // Then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not persist currency rates when snapshots are disabled")
+    void shouldNotPersistWhenDisabled() {
+        // Given
+        snapshotProperties.setEnabled(false);
+
+        // When
+        store.save(CurrencyRateSnapshot.of(List.of(new CurrencyRate(LocalDate.of(2023, 1, 1), Map.of("USD", new BigDecimal("1.2345"))))));
+
+        // Then
+        assertThat(directory.resolve(snapshotProperties.getFileName())).doesNotExist();
+        assertThat(store.load()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not persist rates whose precision exceeds the snapshot format")
+    void shouldNotPersistRatesExceedingSnapshotFormat() {
+        // When
+        store.save(CurrencyRateSnapshot.of(List.of(new CurrencyRate(LocalDate.of(2023, 1, 1), Map.of("USD", new BigDecimal("123456789012345678901234567890.5"))))));
+
+        // Then
+        assertThat(store.load()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should serve the rates and aggregations of a mapped merged snapshot like the saved snapshot")
+    void shouldServeMappedSnapshotLikeSavedSnapshot() {
+        // Given
+        List<CurrencyRate> rates = new ArrayList<>();
+        for (int day = 0; day < 800; day++) {
+            Map<String, BigDecimal> currencies = new HashMap<>();
+            currencies.put("USD", BigDecimal.valueOf(10_000 + day % 97, day % 3 == 0 ? 2 : 4));
+            currencies.put("JPY", BigDecimal.valueOf(14_955 + day, 2));
+            if (day % 5 > 0) {
+                currencies.put("IDR", BigDecimal.valueOf(1_608_938_000_000L + day, 5));
+            }
+            rates.add(new CurrencyRate(LocalDate.of(2021, 3, 1).plusDays(day), currencies));
+        }
+        CurrencyRateSnapshot snapshot = CurrencyRateSnapshot.of(rates.subList(0, 400))
+                .merge(rates.subList(400, 800)).snapshot();
+
+        // When
+        store.save(snapshot);
+        CurrencyRateSnapshot result = store.load().orElseThrow();
+
+        // Then
+        assertThat(result.rates()).isEqualTo(snapshot.rates());
+        CurrencyRateSlice slice = result.between(LocalDate.of(2021, 6, 1), LocalDate.of(2023, 2, 1));
+        CurrencyRateSlice expectedSlice = snapshot.between(LocalDate.of(2021, 6, 1), LocalDate.of(2023, 2, 1));
+        for (String currency : List.of("USD", "JPY", "IDR")) {
+            assertThat(slice.sumRates(currency).sum()).isEqualTo(expectedSlice.sumRates(currency).sum());
+            assertThat(slice.findHighestRate(currency)).isEqualTo(expectedSlice.findHighestRate(currency));
+            assertThat(slice.findLowestRate(currency)).isEqualTo(expectedSlice.findLowestRate(currency));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.formedix.currencyrate.repository;
+
+import com.formedix.currencyrate.domain.CurrencyRate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndexedCurrencyRateRepositoryImplTest {
+
+    private IndexedCurrencyRateRepositoryImpl repository;
+
+    @BeforeEach
+    public void setUp() {
+        CurrencyRatesContextHolder currencyRatesContextHolder = new CurrencyRatesContextHolder();
+        currencyRatesContextHolder.set(generateCurrencyRatesData());
+        repository = new IndexedCurrencyRateRepositoryImpl(currencyRatesContextHolder);
+    }
+
+    @Test
+    @DisplayName("Given currency rate exists for the specified date, when findByDate is called, then it should return the currency rate")
+    void givenCurrencyRateExistsForSpecifiedDate_whenFindByDate_thenReturnCurrencyRate() {
+        // When
+        Optional<CurrencyRate> result = repository.findByDate(LocalDate.of(2022, 1, 2));
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(result.get().currencies()).containsKey("PH");
+    }
+
+    @Test
+    @DisplayName("Given no currency rate exists for the specified date, when findByDate is called, then it should return an empty optional")
+    void givenNoCurrencyRateExistsForSpecifiedDate_whenFindByDate_thenReturnEmptyOptional() {
+        // When & Then
+        assertThat(repository.findByDate(LocalDate.of(2023, 1, 3))).isEmpty();
+        assertThat(repository.findByDate(LocalDate.of(2020, 1, 1))).isEmpty();
+        assertThat(repository.findByDate(LocalDate.of(2024, 1, 1))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given the same date occurs twice, when findByDate is called, then it should return the first occurrence")
+    void givenDuplicateDates_whenFindByDate_thenReturnFirstOccurrence() {
+        // Given
+        LocalDate date = LocalDate.of(2023, 1, 1);
+        repository.update(List.of(
+                new CurrencyRate(date, Map.of("USD", BigDecimal.ONE)),
+                new CurrencyRate(date, Map.of("USD", BigDecimal.TEN))));
+
+        // When
+        Optional<CurrencyRate> result = repository.findByDate(date);
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(result.get().currencies()).containsEntry("USD", BigDecimal.ONE);
+    }
+
+    @Test
+    @DisplayName("Given sparse currency rates, when findByDate is called, then it should return the currency rate")
+    void givenSparseCurrencyRates_whenFindByDate_thenReturnCurrencyRate() {
+        // Given
+        repository.update(List.of(
+                new CurrencyRate(LocalDate.of(1900, 1, 1), Map.of("USD", BigDecimal.ONE)),
+                new CurrencyRate(LocalDate.of(2100, 1, 1), Map.of("USD", BigDecimal.TEN))));
+
+        // When & Then
+        assertThat(repository.findByDate(LocalDate.of(2100, 1, 1))).isPresent();
+        assertThat(repository.findByDate(LocalDate.of(2000, 1, 1))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given currency rates exist within the specified date range, when findBetweenDates is called, then it should return the currency rates ordered by date")
+    void givenCurrencyRatesExistWithinDateRange_whenFindBetweenDates_thenReturnCurrencyRatesWithinRange() {
+        // When
+        List<CurrencyRate> result = repository.findBetweenDates(LocalDate.of(2022, 1, 1), LocalDate.of(2023, 1, 4));
+
+        // Then
+        assertThat(result).extracting(CurrencyRate::date)
+                .containsExactly(LocalDate.of(2022, 1, 2), LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 4));
+    }
+
+    @Test
+    @DisplayName("Given no currency rates exist within the specified date range, when findBetweenDates is called, then it should return an empty list")
+    void givenNoCurrencyRatesExistWithinDateRange_whenFindBetweenDates_thenReturnEmptyList() {
+        // When & Then
+        assertThat(repository.findBetweenDates(LocalDate.of(2023, 1, 5), LocalDate.of(2023, 1, 6))).isEmpty();
+        assertThat(repository.findBetweenDates(LocalDate.of(2023, 1, 6), LocalDate.of(2023, 1, 5))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given currency rates within the specified date range, when findBetweenDates is called, then it should return a read-only view")
+    void givenCurrencyRatesWithinDateRange_whenFindBetweenDates_thenReturnReadOnlyView() {
+        // When
+        List<CurrencyRate> result = repository.findBetweenDates(LocalDate.of(2021, 1, 1), LocalDate.of(2023, 1, 4));
+
+        // Then
+        assertThat(result).isInstanceOf(CurrencyRateSlice.class).hasSize(4);
+        assertThatThrownBy(() -> result.add(result.get(0))).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Given currency rates are updated, when update is called, then it should publish the updated rates")
+    void givenCurrencyRatesAreUpdated_whenUpdate_thenCurrencyRatesShouldBeUpdatedAndReturnUpdatedRates() {
+        // Given
+        List<CurrencyRate> updatedCurrencyRates = List.of(new CurrencyRate(LocalDate.of(2024, 1, 1), Map.of("SG", BigDecimal.ONE)));
+
+        // When
+        List<CurrencyRate> result = repository.update(updatedCurrencyRates);
+
+        // Then
+        assertThat(result).isEqualTo(updatedCurrencyRates);
+        assertThat(repository.findAll()).isEqualTo(updatedCurrencyRates);
+        assertThat(repository.findByDate(LocalDate.of(2024, 1, 1))).isPresent();
+        assertThat(repository.findByDate(LocalDate.of(2023, 1, 1))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given new and changed dates, when merge is called, then it should add and replace only their rates and return them")
+    void givenNewAndChangedDates_whenMerge_thenAddAndReplaceOnlyTheirRates() {
+        // Given
+        List<CurrencyRate> mergedCurrencyRates = List.of(
+                new CurrencyRate(LocalDate.of(2023, 1, 5), Map.of("CNY", BigDecimal.ONE)),
+                new CurrencyRate(LocalDate.of(2023, 1, 4), Map.of("CNY", BigDecimal.TEN)),
+                new CurrencyRate(LocalDate.of(2022, 1, 2), Map.of("PH", BigDecimal.ONE)));
+
+        // When
+        List<CurrencyRate> result = repository.merge(mergedCurrencyRates);
+
+        // Then
+        assertThat(result).extracting(CurrencyRate::date).containsExactly(LocalDate.of(2022, 1, 2), LocalDate.of(2023, 1, 5));
+        assertThat(repository.findAll()).extracting(CurrencyRate::date).containsExactly(LocalDate.of(2023, 1, 5),
+                LocalDate.of(2023, 1, 4), LocalDate.of(2023, 1, 1), LocalDate.of(2022, 1, 2), LocalDate.of(2021, 1, 1));
+        assertThat(repository.findByDate(LocalDate.of(2022, 1, 2))).hasValueSatisfying(rate ->
+                assertThat(rate.currencies()).containsEntry("PH", BigDecimal.ONE));
+        assertThat(repository.findByDate(LocalDate.of(2021, 1, 1))).isPresent();
+    }
+
+    @Test
+    @DisplayName("Given merged currency rates spanning several years, when findBetweenDates is called, then it should aggregate across the years")
+    void givenMergedCurrencyRatesSpanningYears_whenFindBetweenDates_thenAggregateAcrossYears() {
+        // Given
+        repository.merge(List.of(
+                new CurrencyRate(LocalDate.of(2021, 6, 1), Map.of("USD", new BigDecimal("3"))),
+                new CurrencyRate(LocalDate.of(2022, 6, 1), Map.of("USD", new BigDecimal("5")))));
+
+        // When
+        CurrencyRateSlice result = (CurrencyRateSlice) repository.findBetweenDates(LocalDate.of(2021, 3, 1), LocalDate.of(2023, 1, 4));
+
+        // Then
+        assertThat(result).extracting(CurrencyRate::date).containsExactly(LocalDate.of(2021, 6, 1), LocalDate.of(2022, 1, 2),
+                LocalDate.of(2022, 6, 1), LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 4));
+        assertThat(result.findHighestRate("USD")).hasValue(new BigDecimal("5"));
+        assertThat(result.findLowestRate("USD")).hasValue(new BigDecimal("3"));
+        assertThat(result.sumRates("USD").average(2)).hasValue(new BigDecimal("4.00"));
+        assertThat(result.findHighestRate("CNY")).hasValue(BigDecimal.TEN);
+    }
+
+    @Test
+    @DisplayName("Given currency rates whose exact sum overflows a long, when sumRates is called, then it should sum them exactly")
+    void givenCurrencyRatesOverflowingLong_whenSumRates_thenSumExactly() {
+        // Given
+        List<CurrencyRate> currencyRates = List.of(
+                new CurrencyRate(LocalDate.of(2023, 1, 1), Map.of("USD", new BigDecimal("4611686018427387.903"))),
+                new CurrencyRate(LocalDate.of(2023, 1, 2), Map.of("USD", new BigDecimal("4611686018427387.901"))),
+                new CurrencyRate(LocalDate.of(2023, 1, 3), Map.of("USD", new BigDecimal("0.0001"))),
+                new CurrencyRate(LocalDate.of(2023, 1, 4), Map.of("USD", new BigDecimal("4611686018427387.907"))));
+        repository.update(currencyRates);
+        BigDecimal expectedSum = currencyRates.stream()
+                .map(currencyRate -> currencyRate.currencies().get("USD"))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        // When
+        CurrencyRateSlice result = (CurrencyRateSlice) repository.findBetweenDates(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 4));
+
+        // Then
+        assertThat(result.sumRates("USD").sum()).isEqualByComparingTo(expectedSum);
+        assertThat(result.sumRates("USD").count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Given unchanged currency rates, when merge is called, then it should keep the current rates and return nothing")
+    void givenUnchangedCurrencyRates_whenMerge_thenKeepCurrentRates() {
+        // Given
+        List<CurrencyRate> currentCurrencyRates = repository.findAll();
+
+        // When
+        List<CurrencyRate> result = repository.merge(generateCurrencyRatesData());
+
+        // Then
+        assertThat(result).isEmpty();
+        assertThat(repository.findAll()).isSameAs(currentCurrencyRates);
+    }
+
+    @Test
+    @DisplayName("Given currency rates exist, when findAll is called, then it should return all currency rates in their original order")
+    void givenCurrencyRatesExist_whenFindAll_thenReturnAllCurrencyRates() {
+        // When
+        List<CurrencyRate> result = repository.findAll();
+
+        // Then
+        assertThat(result).isEqualTo(generateCurrencyRatesData());
+    }
+
+    @Test
+    @DisplayName("Given no currency rates exist, when findAll is called, then it should return an empty list")
+    void givenNoCurrencyRatesExist_whenFindAll_thenReturnEmptyList() {
+        // Given
+        repository.update(new ArrayList<>());
+
+        // When & Then
+        assertThat(repository.findAll()).isEmpty();
+        assertThat(repository.findByDate(LocalDate.of(2023, 1, 1))).isEmpty();
+    }
+
+    private List<CurrencyRate> generateCurrencyRatesData() {
+        List<CurrencyRate> currencyRates = new ArrayList<>();
+        currencyRates.add(new CurrencyRate(LocalDate.of(2023, 1, 4), Map.of("CNY", BigDecimal.TEN)));
+        currencyRates.add(new CurrencyRate(LocalDate.of(2023, 1, 1), Map.of("UK", BigDecimal.TEN)));
+        currencyRates.add(new CurrencyRate(LocalDate.of(2022, 1, 2), Map.of("PH", BigDecimal.ZERO)));
+        currencyRates.add(new CurrencyRate(LocalDate.of(2021, 1, 1), Map.of("USD", BigDecimal.ONE)));
+        return currencyRates;
+    }
+}
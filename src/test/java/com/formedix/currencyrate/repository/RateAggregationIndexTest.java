@@ -0,0 +1,112 @@
+package com.formedix.currencyrate.repository;
+
+import com.formedix.currencyrate.domain.FixedPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateAggregationIndexTest {
+    private static final int SIZE = 257;
+
+    private BigDecimal[] rates;
+    private RateAggregationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        rates = new BigDecimal[SIZE];
+        for (int row = 0; row < SIZE; row++) {
+            if (random.nextInt(5) > 0) {
+                rates[row] = BigDecimal.valueOf(random.nextInt(100_000), 2 + random.nextInt(3));
+            }
+        }
+        index = new RateAggregationIndex(new RateColumn(rates));
+    }
+
+    @Test
+    @DisplayName("Should answer count, highest and lowest of every range like a scan of the range does")
+    void shouldAnswerEveryRangeLikeAScan() {
+        for (int fromIndex = 0; fromIndex <= SIZE; fromIndex++) {
+            for (int toIndex = fromIndex; toIndex <= SIZE; toIndex++) {
+                int count = 0;
+                int highest = -1;
+                int lowest = -1;
+                for (int row = fromIndex; row < toIndex; row++) {
+                    if (rates[row] != null) {
+                        count++;
+                        highest = highest < 0 || rates[row].compareTo(rates[highest]) > 0 ? row : highest;
+                        lowest = lowest < 0 || rates[row].compareTo(rates[lowest]) < 0 ? row : lowest;
+                    }
+                }
+
+                assertThat(index.count(fromIndex, toIndex)).isEqualTo(count);
+                assertThat(index.highestIndex(fromIndex, toIndex)).isEqualTo(highest);
+                assertThat(index.lowestIndex(fromIndex, toIndex)).isEqualTo(lowest);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should sum the rates of every range exactly at the largest scale of the column")
+    void shouldSumRatesOfEveryRangeExactly() {
+        // Then
+        assertThat(index.scale()).isEqualTo(4);
+        for (int fromIndex = 0; fromIndex <= SIZE; fromIndex++) {
+            for (int toIndex = fromIndex; toIndex <= SIZE; toIndex++) {
+                BigDecimal sum = BigDecimal.ZERO;
+                for (int row = fromIndex; row < toIndex; row++) {
+                    sum = rates[row] == null ? sum : sum.add(rates[row]);
+                }
+                assertThat(index.unscaledSum(fromIndex, toIndex)).isEqualTo(sum.setScale(4).unscaledValue().longValueExact());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should not sum rates whose prefix sums overflow but still compare them")
+    void shouldNotSumOverflowingRates() {
+        // Given
+        BigDecimal[] overflowingRates = {BigDecimal.valueOf(Long.MAX_VALUE), BigDecimal.ONE, new BigDecimal("123456789012345678901.5")};
+
+        // When
+        RateAggregationIndex overflowingIndex = new RateAggregationIndex(new RateColumn(overflowingRates));
+
+        // Then
+        assertThat(overflowingIndex.unscaledSum(0, 1)).isEqualTo(FixedPoint.OVERFLOW);
+        assertThat(overflowingIndex.count(0, 3)).isEqualTo(3);
+        assertThat(overflowingIndex.highestIndex(0, 3)).isEqualTo(2);
+        assertThat(overflowingIndex.lowestIndex(0, 3)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should return the earliest position when the highest or lowest rate occurs more than once")
+    void shouldReturnEarliestPositionOfEqualRates() {
+        // Given
+        BigDecimal[] equalRates = {new BigDecimal("1"), new BigDecimal("3"), new BigDecimal("3.00"), new BigDecimal("1.0"), new BigDecimal("2")};
+
+        // When
+        RateAggregationIndex equalIndex = new RateAggregationIndex(new RateColumn(equalRates));
+
+        // Then
+        assertThat(equalIndex.highestIndex(0, 5)).isEqualTo(1);
+        assertThat(equalIndex.lowestIndex(0, 5)).isZero();
+        assertThat(equalIndex.lowestIndex(1, 5)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should not find any rate within an empty column")
+    void shouldNotFindAnyRateWithinEmptyColumn() {
+        // When
+        RateAggregationIndex emptyIndex = new RateAggregationIndex(new RateColumn(new BigDecimal[0]));
+
+        // Then
+        assertThat(emptyIndex.count(0, 0)).isZero();
+        assertThat(emptyIndex.highestIndex(0, 0)).isEqualTo(-1);
+        assertThat(emptyIndex.lowestIndex(0, 0)).isEqualTo(-1);
+    }
+}
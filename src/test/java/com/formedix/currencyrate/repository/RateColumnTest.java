@@ -0,0 +1,72 @@
+package com.formedix.currencyrate.repository;
+
+import com.formedix.currencyrate.domain.FixedPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateColumnTest {
+
+    @Test
+    @DisplayName("Should read every rate back with its value and scale")
+    void shouldReadRatesBackExactly() {
+        // Given
+        BigDecimal[] rates = {new BigDecimal("1.0808"), null, new BigDecimal("1.50"), new BigDecimal("1E+3"),
+                new BigDecimal("123456789012345678901.5"), new BigDecimal("1E-200")};
+
+        // When
+        RateColumn column = new RateColumn(rates);
+
+        // Then
+        for (int row = 0; row < rates.length; row++) {
+            assertThat(column.rate(row)).isEqualTo(rates[row]);
+            assertThat(column.isPresent(row)).isEqualTo(rates[row] != null);
+        }
+        assertThat(column.scale()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should compare and rescale rates of different scales exactly")
+    void shouldCompareRatesOfDifferentScales() {
+        // Given
+        RateColumn column = new RateColumn(new BigDecimal[]{new BigDecimal("1.5"), new BigDecimal("1.50"),
+                new BigDecimal("1.4999999999999999"), new BigDecimal("123456789012345678901.5")});
+
+        // Then
+        assertThat(column.compare(0, 1)).isZero();
+        assertThat(column.compare(0, 2)).isPositive();
+        assertThat(column.compare(2, 1)).isNegative();
+        assertThat(column.compare(3, 0)).isPositive();
+        assertThat(column.unscaledRate(0, 4)).isEqualTo(15_000);
+        assertThat(column.unscaledRate(3, 4)).isEqualTo(FixedPoint.OVERFLOW);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1.0808;1.08;1.0;;157.92", "1.5;1.25;;-7.125", "1E+3;2E+1;;1E+2", "2147483647.5;-0.1;;1",
+            "123456789;1.000000000000000001;;2", "0.0001;;0.01"})
+    @DisplayName("Should read back the rates of packed and unpacked columns with their value and scale")
+    void shouldReadRatesOfEveryStorageBack(String rateList) {
+        // Given
+        BigDecimal[] rates = Arrays.stream(rateList.split(";", -1))
+                .map(rate -> rate.isEmpty() ? null : new BigDecimal(rate))
+                .toArray(BigDecimal[]::new);
+
+        // When
+        RateColumn column = new RateColumn(rates);
+
+        // Then
+        for (int row = 0; row < rates.length; row++) {
+            assertThat(column.rate(row)).isEqualTo(rates[row]);
+            assertThat(column.isPresent(row)).isEqualTo(rates[row] != null);
+            if (rates[row] != null) {
+                assertThat(column.doubleRate(row)).isEqualTo(rates[row].doubleValue());
+            }
+        }
+    }
+}
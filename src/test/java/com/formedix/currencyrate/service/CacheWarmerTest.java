@@ -0,0 +1,148 @@
+package com.formedix.currencyrate.service;
+
+import com.formedix.currencyrate.cache.CacheStage;
+import com.formedix.currencyrate.config.WarmUpProperties;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.error.exception.CurrencyRateNotFoundException;
+import com.formedix.currencyrate.repository.CurrencyRateSnapshot;
+import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmerTest {
+    private static final LocalDate LATEST_DATE = LocalDate.of(2023, 5, 19);
+
+    @Mock
+    private CurrencyRateService currencyRateService;
+    @Mock
+    private CrossRateProvider crossRateProvider;
+    @Mock
+    private CurrencyRateCacheInvalidator currencyRateCacheInvalidator;
+    private final WarmUpProperties warmUpProperties = new WarmUpProperties();
+    private CurrencyRatesContextHolder currencyRatesContextHolder;
+    private CacheWarmer cacheWarmer;
+
+    @BeforeEach
+    void setUp() {
+        currencyRatesContextHolder = new CurrencyRatesContextHolder();
+        currencyRatesContextHolder.set(List.of(
+                new CurrencyRate(LATEST_DATE, Map.of("USD", new BigDecimal("1.0808"), "GBP", new BigDecimal("0.8680"))),
+                new CurrencyRate(LATEST_DATE.minusDays(1), Map.of("USD", new BigDecimal("1.0813"))),
+                new CurrencyRate(LATEST_DATE.minusDays(2), Map.of("USD", new BigDecimal("1.0829")))));
+        warmUpProperties.setRecentDays(2);
+        warmUpProperties.setRangeDays(List.of(30));
+        cacheWarmer = new CacheWarmer(currencyRateService, new CurrencyRateCacheKeyLookup(currencyRateService, crossRateProvider), currencyRatesContextHolder,
+                currencyRateCacheInvalidator, warmUpProperties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheWarmer.destroy();
+    }
+
+    @Test
+    @DisplayName("Should look up the most recent dates and the ranges of every currency of the latest date on startup")
+    void shouldWarmUpRecentLookups() {
+        // Given
+        assertThat(cacheWarmer.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        // When
+        cacheWarmer.warmUp().join();
+
+        // Then
+        verify(currencyRateService).getCurrencyRatesByDate(LATEST_DATE);
+        verify(currencyRateService).getCurrencyRatesByDate(LATEST_DATE.minusDays(1));
+        verify(currencyRateService, never()).getCurrencyRatesByDate(LATEST_DATE.minusDays(2));
+        for (String currency : List.of("USD", "GBP")) {
+            verify(currencyRateService).getHighestExchangeRate(LATEST_DATE.minusDays(29), LATEST_DATE, currency);
+            verify(currencyRateService).getAverageExchangeRate(LATEST_DATE.minusDays(29), LATEST_DATE, currency);
+        }
+        assertThat(cacheWarmer.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    @DisplayName("Should look up the keys to evict again against the uploaded rates and skip lookups that are not available")
+    void shouldWarmUpKeysToEvictAgainstUploadedRates() {
+        // Given
+        LocalDate startDate = LATEST_DATE.minusYears(1);
+        CurrencyRateSnapshot candidate = CurrencyRateSnapshot.of(List.of(
+                new CurrencyRate(LATEST_DATE, Map.of("USD", new BigDecimal("1.0900")))));
+        NavigableSet<LocalDate> changedDates = new TreeSet<>(List.of(LATEST_DATE));
+        List<CurrencyRateSnapshot> lookedUpSnapshots = new ArrayList<>();
+        when(currencyRateService.getCurrencyRatesByDate(any())).thenAnswer(invocation -> {
+            lookedUpSnapshots.add(currencyRatesContextHolder.getSnapshot());
+            throw new CurrencyRateNotFoundException("Currency rates are not available");
+        });
+        when(currencyRateCacheInvalidator.findIntersecting(changedDates)).thenReturn(Map.of(
+                "crossRates", List.of(List.of(LATEST_DATE, "USD", "GBP")),
+                "averageExchangeRate", List.of(List.of(startDate, LATEST_DATE, "USD")),
+                "rateStatistics", List.of(List.of(startDate, LATEST_DATE, List.of("USD", "GBP")))));
+
+        // When
+        cacheWarmer.warmUp(candidate, changedDates);
+
+        // Then
+        verify(crossRateProvider).getCrossRate(LATEST_DATE, "USD", "GBP");
+        verify(currencyRateService).getAverageExchangeRate(startDate, LATEST_DATE, "USD");
+        verify(currencyRateService).getRateStatistics(startDate, LATEST_DATE, List.of("USD", "GBP"));
+        assertThat(lookedUpSnapshots).containsOnly(candidate);
+        assertThat(currencyRatesContextHolder.getSnapshot()).isNotSameAs(candidate);
+    }
+
+    @Test
+    @DisplayName("Should report out of service until the startup warm-up completed only")
+    void shouldReportOutOfServiceUntilStartupWarmUpCompleted() {
+        // Given
+        CurrencyRateSnapshot candidate = CurrencyRateSnapshot.of(List.of(
+                new CurrencyRate(LATEST_DATE, Map.of("USD", new BigDecimal("1.0900")))));
+        cacheWarmer.warmUp().join();
+
+        // When
+        cacheWarmer.warmUp(candidate, new TreeSet<>(List.of(LATEST_DATE)));
+
+        // Then
+        assertThat(cacheWarmer.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    @DisplayName("Should neither look anything up nor report out of service when the warm-up is disabled")
+    void shouldNotWarmUpWhenDisabled() {
+        // Given
+        warmUpProperties.setEnabled(false);
+        CacheWarmer disabledCacheWarmer = new CacheWarmer(currencyRateService, new CurrencyRateCacheKeyLookup(currencyRateService, crossRateProvider), new CurrencyRatesContextHolder(),
+                currencyRateCacheInvalidator, warmUpProperties, new SimpleMeterRegistry());
+
+        // When
+        disabledCacheWarmer.warmUp().join();
+        CacheStage stage = disabledCacheWarmer.warmUp(CurrencyRateSnapshot.empty(), new TreeSet<>(List.of(LATEST_DATE)));
+
+        // Then
+        verifyNoInteractions(currencyRateService, crossRateProvider, currencyRateCacheInvalidator);
+        assertThat(stage.size()).isZero();
+        assertThat(disabledCacheWarmer.health().getStatus()).isEqualTo(Status.UP);
+        disabledCacheWarmer.destroy();
+    }
+}
@@ -0,0 +1,109 @@
+package com.formedix.currencyrate.service;
+
+import com.formedix.currencyrate.config.AggregationProperties;
+import com.formedix.currencyrate.config.ConversionProperties;
+import com.formedix.currencyrate.domain.CrossRate;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.error.exception.CurrencyRateNotFoundException;
+import com.formedix.currencyrate.mapper.CurrencyRateMapper;
+import com.formedix.currencyrate.repository.CurrencyRateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.formedix.currencyrate.service.CurrencyRateService.CURRENCY_NOT_FOUND_FOR_TARGET_AND_SOURCE_CURRENCY_ERROR_MESSAGE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig
+class CrossRateProviderTest {
+    private static final LocalDate DATE = LocalDate.of(2023, 1, 1);
+
+    @MockBean
+    private CurrencyRateRepository<CurrencyRate> currencyRateRepository;
+
+    @Autowired
+    private CrossRateProvider crossRateProvider;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private CurrencyRateService currencyRateService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache("crossRates").clear();
+        currencyRateService = new CurrencyRateService(Mappers.getMapper(CurrencyRateMapper.class), currencyRateRepository, crossRateProvider,
+                new RateStatisticsAggregator(new AggregationProperties()));
+        when(currencyRateRepository.findByDate(DATE)).thenReturn(Optional.of(new CurrencyRate(DATE,
+                Map.of("USD", new BigDecimal("1.0808"), "GBP", new BigDecimal("0.8684")))));
+    }
+
+    @Test
+    @DisplayName("Should serve conversions of any amount from the cross rate cached for the date and currency pair")
+    void shouldCacheCrossRateIndependentlyOfAmount() {
+        // When
+        BigDecimal first = currencyRateService.convertCurrency(DATE, "USD", "GBP", new BigDecimal("100")).getConvertedAmount();
+        BigDecimal second = currencyRateService.convertCurrency(DATE, "USD", "GBP", new BigDecimal("250.50")).getConvertedAmount();
+        currencyRateService.convertCurrency(DATE, "GBP", "USD", new BigDecimal("100"));
+
+        // Then
+        assertThat(first).isEqualByComparingTo("80.35");
+        assertThat(second).isEqualByComparingTo("201.27");
+        verify(currencyRateRepository, times(2)).findByDate(DATE);
+    }
+
+    @Test
+    @DisplayName("Should keep both rates of the cross rate, so conversions are as exact as converting from the rates")
+    void shouldKeepBothRatesOfCrossRate() {
+        // When
+        CrossRate crossRate = crossRateProvider.getCrossRate(DATE, "USD", "GBP");
+
+        // Then
+        assertThat(crossRate.sourceRate()).isEqualTo(new BigDecimal("1.0808"));
+        assertThat(crossRate.targetRate()).isEqualTo(new BigDecimal("0.8684"));
+        assertThat(crossRate.convert(new BigDecimal("1080.8"), 4)).isEqualByComparingTo("868.4");
+    }
+
+    @Test
+    @DisplayName("Should not cache a missing currency pair")
+    void shouldNotCacheMissingCurrencyPair() {
+        // When
+        for (int attempt = 0; attempt < 2; attempt++) {
+            assertThatThrownBy(() -> crossRateProvider.getCrossRate(DATE, "USD", "EUR"))
+                    .isInstanceOf(CurrencyRateNotFoundException.class)
+                    .hasMessage(String.format(CURRENCY_NOT_FOUND_FOR_TARGET_AND_SOURCE_CURRENCY_ERROR_MESSAGE, "USD", "EUR"));
+        }
+
+        // Then
+        verify(currencyRateRepository, times(2)).findByDate(DATE);
+    }
+
+    @Configuration
+    @EnableCaching
+    @Import({CrossRateProvider.class, ConversionProperties.class})
+    static class CacheTestConfiguration {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("crossRates");
+        }
+    }
+}
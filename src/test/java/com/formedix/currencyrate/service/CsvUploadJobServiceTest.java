@@ -0,0 +1,185 @@
+package com.formedix.currencyrate.service;
+
+import com.formedix.currencyrate.config.UploadJobProperties;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.domain.UploadJob;
+import com.formedix.currencyrate.domain.UploadJobStatus;
+import com.formedix.currencyrate.dto.UploadMode;
+import com.formedix.currencyrate.error.ErrorCode;
+import com.formedix.currencyrate.error.exception.CsvParsingException;
+import com.formedix.currencyrate.error.exception.UploadJobNotFoundException;
+import com.formedix.currencyrate.error.exception.UploadJobRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CsvUploadJobServiceTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Mock
+    private CurrencyRateCsvService currencyRateCsvService;
+    private UploadJobProperties uploadJobProperties;
+    private CsvUploadJobService csvUploadJobService;
+
+    @BeforeEach
+    void setUp() {
+        uploadJobProperties = new UploadJobProperties();
+        csvUploadJobService = new CsvUploadJobService(currencyRateCsvService, uploadJobProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        csvUploadJobService.destroy();
+    }
+
+    @Test
+    @DisplayName("Should apply a queued upload in the background and report the number of applied rates")
+    void shouldApplyQueuedUpload() throws Exception {
+        // Given
+        when(currencyRateCsvService.mergeCurrencyRates(any())).thenReturn(List.of(currencyRate(), currencyRate()));
+
+        // When
+        UploadJob uploadJob = csvUploadJobService.submit(csvFile(), "currency-rates.csv", UploadMode.MERGE);
+
+        // Then
+        assertThat(uploadJob.status()).isEqualTo(UploadJobStatus.QUEUED);
+        UploadJob completedJob = awaitCompletion(uploadJob.id());
+        assertThat(completedJob.status()).isEqualTo(UploadJobStatus.SUCCEEDED);
+        assertThat(completedJob.rateCount()).isEqualTo(2);
+        assertThat(completedJob.completedAt()).isNotNull();
+        verify(currencyRateCsvService).mergeCurrencyRates(any());
+    }
+
+    @Test
+    @DisplayName("Should report the reason of a failed upload")
+    void shouldReportFailedUpload() throws Exception {
+        // Given
+        when(currencyRateCsvService.updateCurrencyRates(any())).thenThrow(new CsvParsingException("Invalid date", ErrorCode.CSV_PARSING_ERROR));
+
+        // When
+        UploadJob uploadJob = csvUploadJobService.submit(csvFile(), "currency-rates.csv", UploadMode.REPLACE);
+
+        // Then
+        UploadJob completedJob = awaitCompletion(uploadJob.id());
+        assertThat(completedJob.status()).isEqualTo(UploadJobStatus.FAILED);
+        assertThat(completedJob.errorMessage()).isEqualTo("Invalid date");
+        assertThat(completedJob.rateCount()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should report the exception class of a failed upload whose exception has no message")
+    void shouldReportExceptionClassOfFailedUploadWithoutMessage() throws Exception {
+        // Given
+        when(currencyRateCsvService.updateCurrencyRates(any())).thenThrow(new NullPointerException());
+
+        // When
+        UploadJob uploadJob = csvUploadJobService.submit(csvFile(), "currency-rates.csv", UploadMode.REPLACE);
+
+        // Then
+        UploadJob completedJob = awaitCompletion(uploadJob.id());
+        assertThat(completedJob.status()).isEqualTo(UploadJobStatus.FAILED);
+        assertThat(completedJob.errorMessage()).isEqualTo(NullPointerException.class.getName());
+    }
+
+    @Test
+    @DisplayName("Should reject uploads that do not fit into the queue")
+    void shouldRejectUploadsExceedingQueue() throws Exception {
+        // Given
+        csvUploadJobService.destroy();
+        uploadJobProperties.setQueueCapacity(0);
+        csvUploadJobService = new CsvUploadJobService(currencyRateCsvService, uploadJobProperties);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(currencyRateCsvService.updateCurrencyRates(any())).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            return List.of();
+        });
+        csvUploadJobService.submit(csvFile(), "first.csv", UploadMode.REPLACE);
+        assertThat(running.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+
+        // When & Then
+        assertThatThrownBy(() -> csvUploadJobService.submit(csvFile(), "second.csv", UploadMode.REPLACE))
+                .isInstanceOf(UploadJobRejectedException.class);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should keep the queued and running jobs beyond the number of retained jobs")
+    void shouldKeepActiveJobsBeyondRetainedJobs() throws Exception {
+        // Given
+        csvUploadJobService.destroy();
+        uploadJobProperties.setRetainedJobs(1);
+        csvUploadJobService = new CsvUploadJobService(currencyRateCsvService, uploadJobProperties);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(currencyRateCsvService.updateCurrencyRates(any())).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            return List.of(currencyRate());
+        });
+        UploadJob runningJob = csvUploadJobService.submit(csvFile(), "first.csv", UploadMode.REPLACE);
+        assertThat(running.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+
+        // When
+        UploadJob firstQueuedJob = csvUploadJobService.submit(csvFile(), "second.csv", UploadMode.REPLACE);
+        UploadJob secondQueuedJob = csvUploadJobService.submit(csvFile(), "third.csv", UploadMode.REPLACE);
+
+        // Then
+        assertThat(csvUploadJobService.getUploadJob(runningJob.id()).status()).isEqualTo(UploadJobStatus.RUNNING);
+        assertThat(csvUploadJobService.getUploadJob(firstQueuedJob.id()).status()).isEqualTo(UploadJobStatus.QUEUED);
+        assertThat(csvUploadJobService.getUploadJob(secondQueuedJob.id()).status()).isEqualTo(UploadJobStatus.QUEUED);
+        release.countDown();
+        verify(currencyRateCsvService, timeout(TIMEOUT.toMillis()).times(3)).updateCurrencyRates(any());
+    }
+
+    @Test
+    @DisplayName("Should not find an unknown upload job")
+    void shouldNotFindUnknownUploadJob() {
+        // When & Then
+        assertThatThrownBy(() -> csvUploadJobService.getUploadJob(UUID.randomUUID()))
+                .isInstanceOf(UploadJobNotFoundException.class);
+    }
+
+    private UploadJob awaitCompletion(UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        UploadJob uploadJob = csvUploadJobService.getUploadJob(id);
+        while (uploadJob.completedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            uploadJob = csvUploadJobService.getUploadJob(id);
+        }
+        return uploadJob;
+    }
+
+    private static CurrencyRate currencyRate() {
+        return new CurrencyRate(LocalDate.of(2023, 1, 1), Map.of("USD", BigDecimal.ONE));
+    }
+
+    private static InputStream csvFile() {
+        return new ByteArrayInputStream("Date,USD\n2023-01-01,1.2345".getBytes(StandardCharsets.UTF_8));
+    }
+}
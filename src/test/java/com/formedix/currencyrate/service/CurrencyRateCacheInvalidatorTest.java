@@ -0,0 +1,113 @@
+package com.formedix.currencyrate.service;
+
+import com.formedix.currencyrate.cache.CacheStage;
+import com.formedix.currencyrate.cache.IndexedCaffeineCacheManager;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CurrencyRateCacheInvalidatorTest {
+    private static final LocalDate CHANGED_DATE = LocalDate.of(2023, 5, 19);
+    private static final LocalDate UNCHANGED_DATE = LocalDate.of(2023, 5, 18);
+
+    static Stream<CacheManager> cacheManagers() {
+        IndexedCaffeineCacheManager indexedCacheManager = new IndexedCaffeineCacheManager(cacheName -> Caffeine.newBuilder());
+        indexedCacheManager.setCacheNames(List.of("currencyRates", "crossRates", "highestExchangeRate", "averageExchangeRate"));
+        return Stream.of(indexedCacheManager,
+                new ConcurrentMapCacheManager("currencyRates", "crossRates", "highestExchangeRate", "averageExchangeRate"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("cacheManagers")
+    @DisplayName("Should evict only the entries of the changed dates")
+    void shouldEvictEntriesOfChangedDates(CacheManager cacheManager) {
+        // Given
+        cacheManager.getCache("currencyRates").put(CHANGED_DATE, "changed");
+        cacheManager.getCache("currencyRates").put(UNCHANGED_DATE, "unchanged");
+        cacheManager.getCache("crossRates").put(List.of(CHANGED_DATE, "USD", "GBP"), "changed");
+        cacheManager.getCache("crossRates").put(List.of(UNCHANGED_DATE, "USD", "GBP"), "unchanged");
+
+        // When
+        Map<String, List<Object>> evictedKeys = new CurrencyRateCacheInvalidator(cacheManager).evict(new TreeSet<>(List.of(CHANGED_DATE)), CacheStage.empty());
+
+        // Then
+        assertThat(evictedKeys).containsEntry("currencyRates", List.of(CHANGED_DATE))
+                .containsEntry("crossRates", List.of(List.of(CHANGED_DATE, "USD", "GBP")));
+        assertThat(cacheManager.getCache("currencyRates").get(CHANGED_DATE)).isNull();
+        assertThat(cacheManager.getCache("currencyRates").get(UNCHANGED_DATE)).isNotNull();
+        assertThat(cacheManager.getCache("crossRates").get(List.of(CHANGED_DATE, "USD", "GBP"))).isNull();
+        assertThat(cacheManager.getCache("crossRates").get(List.of(UNCHANGED_DATE, "USD", "GBP"))).isNotNull();
+    }
+
+    @ParameterizedTest
+    @MethodSource("cacheManagers")
+    @DisplayName("Should evict only the range entries whose range contains a changed date")
+    void shouldEvictRangeEntriesContainingChangedDates(CacheManager cacheManager) {
+        // Given
+        List<Object> containing = List.of(CHANGED_DATE.minusYears(1), CHANGED_DATE, "USD");
+        List<Object> before = List.of(CHANGED_DATE.minusYears(1), UNCHANGED_DATE, "USD");
+        List<Object> after = List.of(CHANGED_DATE.plusDays(1), CHANGED_DATE.plusYears(1), "USD");
+        for (String cacheName : List.of("highestExchangeRate", "averageExchangeRate")) {
+            cacheManager.getCache(cacheName).put(containing, "containing");
+            cacheManager.getCache(cacheName).put(before, "before");
+            cacheManager.getCache(cacheName).put(after, "after");
+        }
+
+        // When
+        new CurrencyRateCacheInvalidator(cacheManager).evict(new TreeSet<>(List.of(CHANGED_DATE)), CacheStage.empty());
+
+        // Then
+        for (String cacheName : List.of("highestExchangeRate", "averageExchangeRate")) {
+            assertThat(cacheManager.getCache(cacheName).get(containing)).isNull();
+            assertThat(cacheManager.getCache(cacheName).get(before)).isNotNull();
+            assertThat(cacheManager.getCache(cacheName).get(after)).isNotNull();
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("cacheManagers")
+    @DisplayName("Should find the entries of the changed dates without evicting them")
+    void shouldFindEntriesOfChangedDates(CacheManager cacheManager) {
+        // Given
+        cacheManager.getCache("currencyRates").put(CHANGED_DATE, "changed");
+        cacheManager.getCache("currencyRates").put(UNCHANGED_DATE, "unchanged");
+
+        // When
+        Map<String, List<Object>> keys = new CurrencyRateCacheInvalidator(cacheManager).findIntersecting(new TreeSet<>(List.of(CHANGED_DATE)));
+
+        // Then
+        assertThat(keys).containsEntry("currencyRates", List.of(CHANGED_DATE));
+        assertThat(cacheManager.getCache("currencyRates").get(CHANGED_DATE)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should store the staged entries in place of the evicted ones")
+    void shouldStoreStagedEntries() {
+        // Given
+        IndexedCaffeineCacheManager cacheManager = new IndexedCaffeineCacheManager(cacheName -> Caffeine.newBuilder());
+        cacheManager.setCacheNames(List.of("currencyRates"));
+        Cache cache = cacheManager.getCache("currencyRates");
+        cache.put(CHANGED_DATE, "changed");
+        CacheStage stage = new CacheStage(new TreeSet<>(List.of(CHANGED_DATE)));
+        stage.run(() -> cache.put(CHANGED_DATE, "staged"));
+
+        // When
+        new CurrencyRateCacheInvalidator(cacheManager).evict(new TreeSet<>(List.of(CHANGED_DATE)), stage);
+
+        // Then
+        assertThat(cache.get(CHANGED_DATE, String.class)).isEqualTo("staged");
+    }
+}
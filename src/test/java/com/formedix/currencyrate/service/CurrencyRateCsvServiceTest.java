@@ -1,16 +1,19 @@
 package com.formedix.currencyrate.service;
 
+import com.formedix.currencyrate.cache.CacheStage;
 import com.formedix.currencyrate.domain.CurrencyRate;
-import com.formedix.currencyrate.dto.GetCurrencyRateDto;
-import com.formedix.currencyrate.mapper.CurrencyRateMapper;
+import com.formedix.currencyrate.domain.CurrencyRatePage;
 import com.formedix.currencyrate.parser.CurrencyRateCsvParser;
 import com.formedix.currencyrate.repository.CurrencyRateRepository;
+import com.formedix.currencyrate.repository.CurrencyRateSnapshotStore;
 import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mapstruct.factory.Mappers;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -22,24 +25,40 @@ import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class CurrencyRateCsvServiceTest {
-    private final CurrencyRateMapper currencyRateMapper = Mappers.getMapper(CurrencyRateMapper.class);
     @Mock
     private CurrencyRateCsvParser currencyRateCsvParser;
     @Mock
     private CurrencyRateRepository<CurrencyRate> currencyRateRepository;
+    @Mock
+    private CurrencyRateSnapshotStore currencyRateSnapshotStore;
+    @Mock
+    private CurrencyRateCacheInvalidator currencyRateCacheInvalidator;
+    @Mock
+    private CurrencyRatesContextHolder currencyRatesContextHolder;
+    @Mock
+    private CacheWarmer cacheWarmer;
+    private MeterRegistry meterRegistry;
     private CurrencyRateCsvService currencyRateCsvService;
 
     @BeforeEach
     void setUp() {
-        currencyRateCsvService = new CurrencyRateCsvService(currencyRateMapper, currencyRateCsvParser, currencyRateRepository);
+        meterRegistry = new SimpleMeterRegistry();
+        currencyRateCsvService = new CurrencyRateCsvService(currencyRateCsvParser, currencyRateRepository, currencyRateSnapshotStore, currencyRateCacheInvalidator, currencyRatesContextHolder, cacheWarmer, meterRegistry);
     }
 
     @Test
@@ -51,15 +70,124 @@ class CurrencyRateCsvServiceTest {
         CurrencyRatesContextHolder contextHolder = new CurrencyRatesContextHolder();
         contextHolder.set(List.of(currencyRate));
 
+        CacheStage warmedEntries = CacheStage.empty();
+        TreeSet<LocalDate> changedDates = new TreeSet<>(List.of(currencyRate.date()));
+
         when(currencyRateCsvParser.parse(inputStream)).thenReturn(contextHolder);
+        when(cacheWarmer.warmUp(contextHolder.getSnapshot(), changedDates)).thenReturn(warmedEntries);
         when(currencyRateRepository.update(List.of(currencyRate))).thenReturn(List.of(currencyRate));
 
         // When
-        List<GetCurrencyRateDto> result = currencyRateCsvService.updateCurrencyRates(inputStream);
+        List<CurrencyRate> result = currencyRateCsvService.updateCurrencyRates(inputStream);
+
+        // Then
+        InOrder swapOrder = inOrder(cacheWarmer, currencyRateRepository, currencyRateCacheInvalidator, currencyRatesContextHolder);
+        swapOrder.verify(cacheWarmer, times(1)).warmUp(contextHolder.getSnapshot(), changedDates);
+        swapOrder.verify(currencyRateRepository, times(1)).update(List.of(currencyRate));
+        swapOrder.verify(currencyRateCacheInvalidator, times(1)).evict(changedDates, warmedEntries);
+        swapOrder.verify(currencyRatesContextHolder, times(1)).publishVersion();
+        verify(currencyRateSnapshotStore, times(1)).save(contextHolder.getSnapshot());
+        assertThat(result.get(0).currencies()).isEqualTo(currencyRate.currencies());
+    }
+
+    @Test
+    @DisplayName("Should evict only the cache entries of the dates added, changed or removed by an update")
+    void updateCurrencyRatesEvictsChangedDates() {
+        // Given
+        InputStream inputStream = createInputStream();
+        CurrencyRate unchangedRate = new CurrencyRate(LocalDate.of(2023, 1, 2), Map.of("USD", BigDecimal.ONE));
+        CurrencyRate previousRate = new CurrencyRate(LocalDate.of(2023, 1, 3), Map.of("USD", BigDecimal.ONE));
+        CurrencyRate changedRate = new CurrencyRate(LocalDate.of(2023, 1, 3), Map.of("USD", BigDecimal.TEN));
+        CurrencyRate removedRate = new CurrencyRate(LocalDate.of(2022, 1, 3), Map.of("USD", BigDecimal.ONE));
+        CurrencyRate addedRate = new CurrencyRate(LocalDate.of(2024, 1, 3), Map.of("USD", BigDecimal.ONE));
+        List<CurrencyRate> updatedRates = List.of(addedRate, changedRate, unchangedRate);
+        CurrencyRatesContextHolder contextHolder = new CurrencyRatesContextHolder();
+        contextHolder.set(updatedRates);
+
+        when(currencyRateCsvParser.parse(inputStream)).thenReturn(contextHolder);
+        when(currencyRateRepository.findAll()).thenReturn(List.of(previousRate, unchangedRate, removedRate));
+        when(currencyRateRepository.update(updatedRates)).thenReturn(updatedRates);
+
+        // When
+        currencyRateCsvService.updateCurrencyRates(inputStream);
 
         // Then
-        verify(currencyRateRepository, times(1)).update(List.of(currencyRate));
-        assertThat(result.get(0).getCurrencies()).isEqualTo(currencyRate.currencies());
+        verify(currencyRateCacheInvalidator, times(1)).evict(eq(new TreeSet<>(List.of(removedRate.date(), changedRate.date(), addedRate.date()))), any());
+    }
+
+    @Test
+    @DisplayName("Should merge currency rates and replace only the cache entries of the merged dates by warmed ones")
+    void mergeCurrencyRates() {
+        // Given
+        InputStream inputStream = createInputStream();
+        CurrencyRate currencyRate = createCurrencyRate();
+        CurrencyRate unchangedRate = new CurrencyRate(currencyRate.date().minusDays(1), Map.of("USD", BigDecimal.ONE));
+        CurrencyRatesContextHolder contextHolder = new CurrencyRatesContextHolder();
+        contextHolder.set(List.of(currencyRate));
+        CacheStage warmedEntries = CacheStage.empty();
+        TreeSet<LocalDate> changedDates = new TreeSet<>(List.of(currencyRate.date()));
+
+        when(currencyRateCsvParser.parse(inputStream)).thenReturn(contextHolder);
+        when(currencyRateRepository.findAll()).thenReturn(List.of(unchangedRate));
+        when(cacheWarmer.warmUp(any(), eq(changedDates))).thenReturn(warmedEntries);
+
+        // When
+        List<CurrencyRate> result = currencyRateCsvService.mergeCurrencyRates(inputStream);
+
+        // Then
+        InOrder swapOrder = inOrder(cacheWarmer, currencyRateRepository, currencyRateCacheInvalidator, currencyRatesContextHolder);
+        swapOrder.verify(cacheWarmer, times(1)).warmUp(any(), eq(changedDates));
+        swapOrder.verify(currencyRateRepository, times(1)).update(List.of(currencyRate, unchangedRate));
+        swapOrder.verify(currencyRateCacheInvalidator, times(1)).evict(changedDates, warmedEntries);
+        swapOrder.verify(currencyRatesContextHolder, times(1)).publishVersion();
+        verify(currencyRateSnapshotStore, times(1)).save(argThat(snapshot -> snapshot.rates().equals(List.of(currencyRate, unchangedRate))));
+        assertThat(result).singleElement().extracting(CurrencyRate::currencies).isEqualTo(currencyRate.currencies());
+    }
+
+    @Test
+    @DisplayName("Should neither evict nor persist anything when the merged currency rates did not change")
+    void mergeUnchangedCurrencyRates() {
+        // Given
+        InputStream inputStream = createInputStream();
+        CurrencyRatesContextHolder contextHolder = new CurrencyRatesContextHolder();
+        contextHolder.set(List.of(createCurrencyRate()));
+
+        when(currencyRateCsvParser.parse(inputStream)).thenReturn(contextHolder);
+        when(currencyRateRepository.findAll()).thenReturn(List.of(createCurrencyRate()));
+
+        // When
+        List<CurrencyRate> result = currencyRateCsvService.mergeCurrencyRates(inputStream);
+
+        // Then
+        verify(currencyRateRepository, never()).update(any());
+        verifyNoInteractions(currencyRateCacheInvalidator, currencyRatesContextHolder, currencyRateSnapshotStore, cacheWarmer);
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should record the parse and swap durations and the row count of every upload by mode")
+    void recordUploadMetrics() {
+        // Given
+        InputStream inputStream = createInputStream();
+        CurrencyRate currencyRate = createCurrencyRate();
+        CurrencyRatesContextHolder contextHolder = new CurrencyRatesContextHolder();
+        contextHolder.set(List.of(currencyRate));
+
+        when(currencyRateCsvParser.parse(inputStream)).thenReturn(contextHolder);
+        when(currencyRateRepository.findAll()).thenReturn(List.of(currencyRate));
+        when(currencyRateRepository.update(List.of(currencyRate))).thenReturn(List.of(currencyRate));
+
+        // When
+        currencyRateCsvService.updateCurrencyRates(inputStream);
+        currencyRateCsvService.mergeCurrencyRates(inputStream);
+
+        // Then
+        assertThat(meterRegistry.get("currency.rates.upload.parse").tag("mode", "replace").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("currency.rates.upload.swap").tag("mode", "replace").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("currency.rates.upload.persist").tag("mode", "replace").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("currency.rates.upload.rows").tag("mode", "replace").summary().totalAmount()).isEqualTo(1);
+        assertThat(meterRegistry.get("currency.rates.upload.parse").tag("mode", "merge").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("currency.rates.upload.persist").tag("mode", "merge").timer().count()).isZero();
     }
 
     @Test
@@ -71,11 +199,51 @@ class CurrencyRateCsvServiceTest {
         when(currencyRateRepository.findAll()).thenReturn(List.of(currencyRate));
 
         // When
-        List<GetCurrencyRateDto> result = currencyRateCsvService.getCurrentCurrencyRates();
+        List<CurrencyRate> result = currencyRateCsvService.getCurrentCurrencyRates();
 
         // Then
         verify(currencyRateRepository, times(1)).findAll();
-        assertThat(result.get(0).getCurrencies()).isEqualTo(currencyRate.currencies());
+        assertThat(result.get(0).currencies()).isEqualTo(currencyRate.currencies());
+    }
+
+    @Test
+    @DisplayName("Should page current currency rates by date and continue after the last date of a page")
+    void getCurrentCurrencyRatesPage() {
+        // Given
+        CurrencyRate first = new CurrencyRate(LocalDate.of(2023, 1, 1), Map.of("USD", BigDecimal.ONE));
+        CurrencyRate second = new CurrencyRate(LocalDate.of(2023, 1, 2), Map.of("USD", BigDecimal.ONE));
+        CurrencyRate third = new CurrencyRate(LocalDate.of(2023, 1, 3), Map.of("USD", BigDecimal.ONE));
+
+        when(currencyRateRepository.findBetweenDates(LocalDate.MIN, LocalDate.MAX)).thenReturn(List.of(third, first, second));
+        when(currencyRateRepository.findBetweenDates(LocalDate.of(2023, 1, 3), LocalDate.MAX)).thenReturn(List.of(third));
+
+        // When
+        CurrencyRatePage firstPage = currencyRateCsvService.getCurrentCurrencyRates(null, null, null, 2);
+        CurrencyRatePage lastPage = currencyRateCsvService.getCurrentCurrencyRates(null, null, firstPage.nextAfter(), 2);
+
+        // Then
+        assertThat(firstPage.currencyRates()).containsExactly(first, second);
+        assertThat(firstPage.nextAfter()).isEqualTo(second.date());
+        assertThat(lastPage.currencyRates()).containsExactly(third);
+        assertThat(lastPage.nextAfter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not split the rates of a date across pages")
+    void getCurrentCurrencyRatesPageKeepsDatesTogether() {
+        // Given
+        CurrencyRate first = new CurrencyRate(LocalDate.of(2023, 1, 1), Map.of("USD", BigDecimal.ONE));
+        CurrencyRate duplicate = new CurrencyRate(LocalDate.of(2023, 1, 1), Map.of("USD", BigDecimal.TEN));
+        CurrencyRate second = new CurrencyRate(LocalDate.of(2023, 1, 2), Map.of("USD", BigDecimal.ONE));
+
+        when(currencyRateRepository.findBetweenDates(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 2))).thenReturn(List.of(first, duplicate, second));
+
+        // When
+        CurrencyRatePage page = currencyRateCsvService.getCurrentCurrencyRates(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 2), null, 1);
+
+        // Then
+        assertThat(page.currencyRates()).containsExactly(first, duplicate);
+        assertThat(page.nextAfter()).isEqualTo(first.date());
     }
 
     private InputStream createInputStream() {
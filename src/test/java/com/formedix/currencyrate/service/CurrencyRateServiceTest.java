@@ -1,13 +1,20 @@
 package com.formedix.currencyrate.service;
 
+import com.formedix.currencyrate.config.AggregationProperties;
+import com.formedix.currencyrate.config.ConversionProperties;
 import com.formedix.currencyrate.domain.CurrencyRate;
 import com.formedix.currencyrate.dto.AverageExchangeRateDto;
 import com.formedix.currencyrate.dto.ConvertCurrencyDto;
+import com.formedix.currencyrate.dto.ConvertCurrencyRequestDto;
+import com.formedix.currencyrate.dto.CurrencyStatisticsDto;
 import com.formedix.currencyrate.dto.GetCurrencyRateDto;
 import com.formedix.currencyrate.dto.HighestExchangeRateDto;
+import com.formedix.currencyrate.dto.RateStatisticsDto;
 import com.formedix.currencyrate.error.exception.CurrencyRateNotFoundException;
 import com.formedix.currencyrate.mapper.CurrencyRateMapper;
 import com.formedix.currencyrate.repository.CurrencyRateRepository;
+import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
+import com.formedix.currencyrate.repository.IndexedCurrencyRateRepositoryImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -32,10 +39,14 @@ import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static com.formedix.currencyrate.service.CurrencyRateService.CURRENCY_NOT_FOUND_FOR_DATE_AND_CURRENCY_ERROR_MESSAGE;
+import static com.formedix.currencyrate.service.CurrencyRateService.CURRENCY_NOT_FOUND_FOR_DATES_ERROR_MESSAGE;
 import static com.formedix.currencyrate.service.CurrencyRateService.CURRENCY_NOT_FOUND_FOR_DATE_ERROR_MESSAGE;
 import static com.formedix.currencyrate.service.CurrencyRateService.CURRENCY_NOT_FOUND_FOR_TARGET_AND_SOURCE_CURRENCY_ERROR_MESSAGE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -50,7 +61,8 @@ class CurrencyRateServiceTest {
 
     @BeforeEach
     public void setUp() {
-        currencyRateService = new CurrencyRateService(currencyRateMapper, currencyRateRepository);
+        currencyRateService = new CurrencyRateService(currencyRateMapper, currencyRateRepository, new CrossRateProvider(currencyRateRepository, new ConversionProperties()),
+                new RateStatisticsAggregator(new AggregationProperties()));
     }
 
     @Test
@@ -156,6 +168,57 @@ class CurrencyRateServiceTest {
         verify(currencyRateRepository, times(1)).findByDate(date);
     }
 
+    @Test
+    @DisplayName("Should convert a batch in request order while looking up the rates of every distinct date once")
+    void givenRatesAvailable_whenConvertCurrencies_thenReturnConvertedAmountsInOrder() {
+        // Given
+        LocalDate firstDate = LocalDate.of(2023, 1, 1);
+        LocalDate secondDate = LocalDate.of(2023, 1, 2);
+        when(currencyRateRepository.findByDate(firstDate)).thenReturn(Optional.of(createCurrencyRate(firstDate,
+                createCurrency("USD", BigDecimal.valueOf(1.1)), createCurrency("GBP", BigDecimal.valueOf(0.88)))));
+        when(currencyRateRepository.findByDate(secondDate)).thenReturn(Optional.of(createCurrencyRate(secondDate,
+                createCurrency("USD", BigDecimal.valueOf(1.2)), createCurrency("GBP", BigDecimal.valueOf(0.9)))));
+        List<ConvertCurrencyRequestDto> conversions = List.of(
+                new ConvertCurrencyRequestDto(firstDate, "USD", "GBP", BigDecimal.valueOf(100)),
+                new ConvertCurrencyRequestDto(secondDate, "GBP", "USD", BigDecimal.valueOf(90)),
+                new ConvertCurrencyRequestDto(firstDate, "GBP", "USD", BigDecimal.valueOf(88)));
+
+        CrossRateProvider crossRateProvider = spy(new CrossRateProvider(currencyRateRepository, new ConversionProperties()));
+        currencyRateService = new CurrencyRateService(currencyRateMapper, currencyRateRepository, crossRateProvider,
+                new RateStatisticsAggregator(new AggregationProperties()));
+
+        // When
+        List<ConvertCurrencyDto> result = currencyRateService.convertCurrencies(conversions).toList();
+
+        // Then
+        assertThat(result).extracting(ConvertCurrencyDto::getDate).containsExactly(firstDate, secondDate, firstDate);
+        assertThat(result).extracting(ConvertCurrencyDto::getConvertedAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(BigDecimal.valueOf(80), BigDecimal.valueOf(120), BigDecimal.valueOf(110));
+
+        // Verify
+        verify(currencyRateRepository, times(1)).findByDate(firstDate);
+        verify(currencyRateRepository, times(1)).findByDate(secondDate);
+        verify(crossRateProvider, times(conversions.size())).getCrossRate(any(CurrencyRate.class), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject the whole batch before converting when one of its currencies has no rate")
+    void givenOneCurrencyNotAvailable_whenConvertCurrencies_thenThrowNotFoundException() {
+        // Given
+        LocalDate date = LocalDate.of(2023, 1, 1);
+        when(currencyRateRepository.findByDate(date)).thenReturn(Optional.of(createCurrencyRate(date,
+                createCurrency("USD", BigDecimal.valueOf(1.1)), createCurrency("GBP", BigDecimal.valueOf(0.88)))));
+        List<ConvertCurrencyRequestDto> conversions = List.of(
+                new ConvertCurrencyRequestDto(date, "USD", "GBP", BigDecimal.valueOf(100)),
+                new ConvertCurrencyRequestDto(date, "USD", "EUR", BigDecimal.valueOf(100)));
+
+        // Then
+        assertThatThrownBy(() -> currencyRateService.convertCurrencies(conversions))
+                .isInstanceOf(CurrencyRateNotFoundException.class)
+                .hasMessage(String.format(CURRENCY_NOT_FOUND_FOR_TARGET_AND_SOURCE_CURRENCY_ERROR_MESSAGE, "USD", "EUR"));
+    }
+
     @ParameterizedTest
     @MethodSource("provideCurrencyRateCombinationsForHighestRate")
     @DisplayName("Should get the highest exchange rate successfully when rates are available for the specified date range and currency")
@@ -216,6 +279,57 @@ class CurrencyRateServiceTest {
         verify(currencyRateRepository, times(1)).findBetweenDates(startDate, endDate);
     }
 
+    @ParameterizedTest
+    @MethodSource("provideCurrencyRateCombinationsForHighestRate")
+    @DisplayName("Should get the highest exchange rate from the columnar rates when the repository is indexed")
+    void givenIndexedRepository_whenGetHighestExchangeRate_thenReturnHighestExchangeRateDto(
+            LocalDate startDate, LocalDate endDate, String currency,
+            List<CurrencyRate> currencyRateList, BigDecimal expectedHighestRate) {
+        // Given
+        CurrencyRateService indexedCurrencyRateService = createIndexedCurrencyRateService(currencyRateList);
+
+        // When
+        HighestExchangeRateDto result = indexedCurrencyRateService.getHighestExchangeRate(startDate, endDate, currency);
+
+        // Then
+        assertThat(result.getHighestExchangeRate()).isEqualTo(expectedHighestRate);
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideCurrencyRateCombinationsForAverageRate")
+    @DisplayName("Should get the average exchange rate from the columnar rates when the repository is indexed")
+    void givenIndexedRepository_whenGetAverageExchangeRate_thenReturnAverageExchangeRateDto(
+            LocalDate startDate, LocalDate endDate, String currency,
+            List<CurrencyRate> currencyRateList, BigDecimal expectedAverageRate) {
+        // Given
+        CurrencyRateService indexedCurrencyRateService = createIndexedCurrencyRateService(currencyRateList);
+
+        // When
+        AverageExchangeRateDto result = indexedCurrencyRateService.getAverageExchangeRate(startDate, endDate, currency);
+
+        // Then
+        assertThat(result.getAverageExchangeRate()).isEqualTo(expectedAverageRate);
+    }
+
+    @Test
+    @DisplayName("Should throw CurrencyRateNotFoundException when the indexed repository has no rate for the currency in the range")
+    void givenIndexedRepositoryWithoutRatesInRange_whenGetHighestAndAverageExchangeRate_thenThrowCurrencyRateNotFoundException() {
+        // Given
+        LocalDate startDate = LocalDate.of(2023, 2, 1);
+        LocalDate endDate = LocalDate.of(2023, 2, 5);
+        CurrencyRateService indexedCurrencyRateService = createIndexedCurrencyRateService(List.of(
+                createCurrencyRate(LocalDate.of(2023, 1, 1), createCurrency("USD", BigDecimal.ONE)),
+                createCurrencyRate(LocalDate.of(2023, 2, 2), createCurrency("EUR", BigDecimal.ONE))));
+
+        // When & Then
+        assertThatThrownBy(() -> indexedCurrencyRateService.getHighestExchangeRate(startDate, endDate, "USD"))
+                .isInstanceOf(CurrencyRateNotFoundException.class)
+                .hasMessage(String.format(CURRENCY_NOT_FOUND_FOR_DATE_AND_CURRENCY_ERROR_MESSAGE, startDate, endDate, "USD"));
+        assertThatThrownBy(() -> indexedCurrencyRateService.getAverageExchangeRate(startDate, endDate, "ABC"))
+                .isInstanceOf(CurrencyRateNotFoundException.class)
+                .hasMessage(String.format(CURRENCY_NOT_FOUND_FOR_DATE_AND_CURRENCY_ERROR_MESSAGE, startDate, endDate, "ABC"));
+    }
+
     @Test
     @DisplayName("Should throw CurrencyRateNotFoundException when no rates are available for the specified currency")
     void givenNoRatesAvailableForSpecifiedCurrency_whenGetAverageExchangeRate_thenThrowCurrencyRateNotFoundException() {
@@ -233,12 +347,96 @@ class CurrencyRateServiceTest {
                 .hasMessage(String.format(CURRENCY_NOT_FOUND_FOR_DATE_AND_CURRENCY_ERROR_MESSAGE, startDate, endDate, currency));
     }
 
+    @Test
+    @DisplayName("Should get the statistics of the requested currencies in a single pass over the range")
+    void givenRequestedCurrencies_whenGetRateStatistics_thenReturnStatisticsInRequestOrder() {
+        // Given
+        LocalDate startDate = LocalDate.of(2023, 1, 1);
+        LocalDate endDate = LocalDate.of(2023, 1, 4);
+        when(currencyRateRepository.findBetweenDates(startDate, endDate)).thenReturn(List.of(
+                createCurrencyRate(LocalDate.of(2023, 1, 1), createCurrency("USD", new BigDecimal("1.10")), createCurrency("GBP", new BigDecimal("0.90"))),
+                createCurrencyRate(LocalDate.of(2023, 1, 2), createCurrency("USD", new BigDecimal("1.30")), createCurrency("GBP", new BigDecimal("0.80"))),
+                createCurrencyRate(LocalDate.of(2023, 1, 3), createCurrency("USD", new BigDecimal("1.10"))),
+                createCurrencyRate(LocalDate.of(2023, 1, 4), createCurrency("USD", new BigDecimal("1.30")), createCurrency("GBP", new BigDecimal("0.70")))));
+
+        // When
+        RateStatisticsDto result = currencyRateService.getRateStatistics(startDate, endDate, List.of("USD", "GBP", "USD"));
+
+        // Then
+        assertThat(result.getStartDate()).isEqualTo(startDate);
+        assertThat(result.getEndDate()).isEqualTo(endDate);
+        assertThat(result.getCurrencies()).extracting(CurrencyStatisticsDto::getCurrency).containsExactly("USD", "GBP");
+        CurrencyStatisticsDto usd = result.getCurrencies().get(0);
+        assertThat(usd.getCount()).isEqualTo(4);
+        assertThat(usd.getLowestExchangeRate()).isEqualTo(new BigDecimal("1.10"));
+        assertThat(usd.getLowestExchangeRateDate()).isEqualTo(LocalDate.of(2023, 1, 1));
+        assertThat(usd.getHighestExchangeRate()).isEqualTo(new BigDecimal("1.30"));
+        assertThat(usd.getHighestExchangeRateDate()).isEqualTo(LocalDate.of(2023, 1, 2));
+        assertThat(usd.getAverageExchangeRate()).isEqualTo(new BigDecimal("1.20"));
+        assertThat(usd.getStandardDeviation()).isEqualTo(new BigDecimal("0.100000"));
+        CurrencyStatisticsDto gbp = result.getCurrencies().get(1);
+        assertThat(gbp.getCount()).isEqualTo(3);
+        assertThat(gbp.getLowestExchangeRateDate()).isEqualTo(LocalDate.of(2023, 1, 4));
+        assertThat(gbp.getHighestExchangeRateDate()).isEqualTo(LocalDate.of(2023, 1, 1));
+        assertThat(gbp.getAverageExchangeRate()).isEqualTo(new BigDecimal("0.80"));
+        assertThat(gbp.getStandardDeviation()).isEqualTo(new BigDecimal("0.081650"));
+        verify(currencyRateRepository, times(1)).findBetweenDates(startDate, endDate);
+    }
+
+    @Test
+    @DisplayName("Should get the statistics of every currency in alphabetical order when no currency is requested")
+    void givenNoRequestedCurrencies_whenGetRateStatistics_thenReturnStatisticsOfEveryCurrency() {
+        // Given
+        LocalDate startDate = LocalDate.of(2023, 1, 1);
+        LocalDate endDate = LocalDate.of(2023, 1, 5);
+        CurrencyRateService indexedCurrencyRateService = createIndexedCurrencyRateService(createAverageRateCurrencyRates());
+
+        // When
+        RateStatisticsDto result = indexedCurrencyRateService.getRateStatistics(startDate, endDate, List.of());
+
+        // Then
+        assertThat(result.getCurrencies()).extracting(CurrencyStatisticsDto::getCurrency).containsExactly("CAD", "EUR", "GBP", "JPY", "USD");
+        assertThat(result.getCurrencies()).extracting(CurrencyStatisticsDto::getAverageExchangeRate).containsExactly(
+                BigDecimal.valueOf(16.65), BigDecimal.valueOf(7.65), BigDecimal.valueOf(10.65), BigDecimal.valueOf(13.65), BigDecimal.valueOf(4.65));
+        assertThat(result.getCurrencies()).extracting(CurrencyStatisticsDto::getCount).containsOnly(5L);
+    }
+
+    @Test
+    @DisplayName("Should throw CurrencyRateNotFoundException when a requested currency or the whole range has no rate")
+    void givenMissingRates_whenGetRateStatistics_thenThrowCurrencyRateNotFoundException() {
+        // Given
+        LocalDate startDate = LocalDate.of(2023, 1, 1);
+        LocalDate endDate = LocalDate.of(2023, 1, 5);
+        CurrencyRateService indexedCurrencyRateService = createIndexedCurrencyRateService(List.of(
+                createCurrencyRate(LocalDate.of(2023, 1, 2), createCurrency("USD", BigDecimal.ONE))));
+
+        // When & Then
+        assertThatThrownBy(() -> indexedCurrencyRateService.getRateStatistics(startDate, endDate, List.of("USD", "ABC")))
+                .isInstanceOf(CurrencyRateNotFoundException.class)
+                .hasMessage(String.format(CURRENCY_NOT_FOUND_FOR_DATE_AND_CURRENCY_ERROR_MESSAGE, startDate, endDate, "ABC"));
+        assertThatThrownBy(() -> indexedCurrencyRateService.getRateStatistics(startDate.minusYears(1), endDate.minusYears(1), List.of()))
+                .isInstanceOf(CurrencyRateNotFoundException.class)
+                .hasMessage(String.format(CURRENCY_NOT_FOUND_FOR_DATES_ERROR_MESSAGE, startDate.minusYears(1), endDate.minusYears(1)));
+    }
+
     private static Stream<Arguments> provideCurrencyRateCombinationsForAverageRate() {
         LocalDate startDate = LocalDate.of(2023, 1, 1);
         LocalDate endDate = LocalDate.of(2023, 1, 5);
 
+        List<CurrencyRate> currencyRateList = createAverageRateCurrencyRates();
+
+        return Stream.of(
+                Arguments.of(startDate, endDate, "USD", currencyRateList, BigDecimal.valueOf(4.65)),
+                Arguments.of(startDate, endDate, "EUR", currencyRateList, BigDecimal.valueOf(7.65)),
+                Arguments.of(startDate, endDate, "GBP", currencyRateList, BigDecimal.valueOf(10.65)),
+                Arguments.of(startDate, endDate, "JPY", currencyRateList, BigDecimal.valueOf(13.65)),
+                Arguments.of(startDate, endDate, "CAD", currencyRateList, BigDecimal.valueOf(16.65))
+        );
+    }
+
+    private static List<CurrencyRate> createAverageRateCurrencyRates() {
         // Assuming we have currency rates for 5 consecutive days
-        List<CurrencyRate> currencyRateList = IntStream.rangeClosed(1, 5)
+        return IntStream.rangeClosed(1, 5)
                 .mapToObj(i -> createCurrencyRate(
                         LocalDate.of(2023, 1, i),
                         new Currency("USD", BigDecimal.valueOf(i * 1.55)),
@@ -248,14 +446,6 @@ class CurrencyRateServiceTest {
                         new Currency("CAD", BigDecimal.valueOf(i * 5.55))
                 ))
                 .collect(Collectors.toList());
-
-        return Stream.of(
-                Arguments.of(startDate, endDate, "USD", currencyRateList, BigDecimal.valueOf(4.65)),
-                Arguments.of(startDate, endDate, "EUR", currencyRateList, BigDecimal.valueOf(7.65)),
-                Arguments.of(startDate, endDate, "GBP", currencyRateList, BigDecimal.valueOf(10.65)),
-                Arguments.of(startDate, endDate, "JPY", currencyRateList, BigDecimal.valueOf(13.65)),
-                Arguments.of(startDate, endDate, "CAD", currencyRateList, BigDecimal.valueOf(16.65))
-        );
     }
 
     private static Stream<Arguments> provideCurrencyRateCombinationsForHighestRate() {
@@ -340,6 +530,14 @@ class CurrencyRateServiceTest {
         );
     }
 
+    private CurrencyRateService createIndexedCurrencyRateService(List<CurrencyRate> currencyRates) {
+        CurrencyRatesContextHolder currencyRatesContextHolder = new CurrencyRatesContextHolder();
+        currencyRatesContextHolder.set(currencyRates);
+        IndexedCurrencyRateRepositoryImpl repository = new IndexedCurrencyRateRepositoryImpl(currencyRatesContextHolder);
+        return new CurrencyRateService(currencyRateMapper, repository, new CrossRateProvider(repository, new ConversionProperties()),
+                new RateStatisticsAggregator(new AggregationProperties()));
+    }
+
     private static CurrencyRate createCurrencyRate(LocalDate date, Currency... currencies) {
         return new CurrencyRate(date, Arrays.stream(currencies).collect(Collectors.toMap(Currency::code, Currency::rate)));
     }
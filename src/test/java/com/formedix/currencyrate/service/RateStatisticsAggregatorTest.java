@@ -0,0 +1,118 @@
+package com.formedix.currencyrate.service;
+
+import com.formedix.currencyrate.config.AggregationProperties;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.domain.RateStatistics;
+import com.formedix.currencyrate.repository.CurrencyRateSlice;
+import com.formedix.currencyrate.repository.CurrencyRateSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateStatisticsAggregatorTest {
+    private static final LocalDate START_DATE = LocalDate.of(1990, 1, 1);
+    private static final List<String> CURRENCIES = List.of("USD", "GBP", "JPY", "CHF");
+
+    private List<CurrencyRate> currencyRates;
+    private RateStatisticsAggregator sequentialAggregator;
+    private RateStatisticsAggregator parallelAggregator;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(7);
+        currencyRates = IntStream.range(0, 5_000)
+                .mapToObj(day -> {
+                    Map<String, BigDecimal> rates = new HashMap<>();
+                    CURRENCIES.stream()
+                            .filter(currency -> random.nextInt(10) > 0)
+                            .forEach(currency -> rates.put(currency, BigDecimal.valueOf(random.nextInt(5_000_000), 4)));
+                    return new CurrencyRate(START_DATE.plusDays(day), rates);
+                })
+                .toList();
+        sequentialAggregator = new RateStatisticsAggregator(new AggregationProperties());
+        AggregationProperties parallelProperties = new AggregationProperties();
+        parallelProperties.setParallelism(4);
+        parallelProperties.setParallelThreshold(1);
+        parallelProperties.setChunkSize(97);
+        parallelAggregator = new RateStatisticsAggregator(parallelProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequentialAggregator.destroy();
+        parallelAggregator.destroy();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "JPY,USD,JPY,EUR"})
+    @DisplayName("Should aggregate large ranges in parallel to the same statistics as in a single pass")
+    void shouldAggregateInParallelLikeInSinglePass(String currencyList) {
+        // Given
+        List<String> currencies = currencyList.isEmpty() ? List.of() : List.of(currencyList.split(","));
+
+        // When
+        Map<String, RateStatistics> sequential = sequentialAggregator.aggregate(currencyRates, currencies);
+        Map<String, RateStatistics> parallel = parallelAggregator.aggregate(currencyRates, currencies);
+
+        // Then
+        assertThat(parallel.keySet()).containsExactlyElementsOf(sequential.keySet());
+        assertThat(sequential.keySet()).containsExactlyElementsOf(currencies.isEmpty() ? List.of("CHF", "GBP", "JPY", "USD") : List.of("JPY", "USD", "EUR"));
+        sequential.forEach((currency, expected) -> {
+            RateStatistics actual = parallel.get(currency);
+            assertThat(actual.count()).isEqualTo(expected.count());
+            assertThat(actual.lowestRate()).isEqualTo(expected.lowestRate());
+            assertThat(actual.lowestRateDate()).isEqualTo(expected.lowestRateDate());
+            assertThat(actual.highestRate()).isEqualTo(expected.highestRate());
+            assertThat(actual.highestRateDate()).isEqualTo(expected.highestRateDate());
+            assertThat(actual.averageRate(8)).isEqualTo(expected.averageRate(8));
+            assertThat(actual.standardDeviation(8)).isEqualTo(expected.standardDeviation(8));
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "JPY,USD,JPY,EUR"})
+    @DisplayName("Should aggregate snapshot slices from their indexes to the same statistics as in a single pass")
+    void shouldAggregateSlicesLikeInSinglePass(String currencyList) {
+        // Given
+        List<String> currencies = currencyList.isEmpty() ? List.of() : List.of(currencyList.split(","));
+        LocalDate startDate = START_DATE.plusDays(100);
+        LocalDate endDate = START_DATE.plusDays(4_000);
+        List<CurrencyRate> range = currencyRates.subList(100, 4_001);
+        CurrencyRateSlice slice = CurrencyRateSnapshot.of(currencyRates).between(startDate, endDate);
+
+        // When
+        Map<String, RateStatistics> expected = sequentialAggregator.aggregate(range, currencies);
+        Map<String, RateStatistics> sequential = sequentialAggregator.aggregate(slice, currencies);
+        Map<String, RateStatistics> parallel = parallelAggregator.aggregate(slice, currencies);
+
+        // Then
+        assertThat(sequential.keySet()).containsExactlyElementsOf(expected.keySet());
+        assertThat(parallel.keySet()).containsExactlyElementsOf(expected.keySet());
+        expected.forEach((currency, statistics) -> {
+            assertSameStatistics(sequential.get(currency), statistics);
+            assertSameStatistics(parallel.get(currency), statistics);
+        });
+    }
+
+    private static void assertSameStatistics(RateStatistics actual, RateStatistics expected) {
+        assertThat(actual.count()).isEqualTo(expected.count());
+        assertThat(actual.lowestRate()).isEqualTo(expected.lowestRate());
+        assertThat(actual.lowestRateDate()).isEqualTo(expected.lowestRateDate());
+        assertThat(actual.highestRate()).isEqualTo(expected.highestRate());
+        assertThat(actual.highestRateDate()).isEqualTo(expected.highestRateDate());
+        assertThat(actual.averageRate(8)).isEqualTo(expected.averageRate(8));
+        assertThat(actual.standardDeviation(6)).isEqualTo(expected.standardDeviation(6));
+    }
+}
@@ -0,0 +1,84 @@
+package com.formedix.currencyrate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formedix.currencyrate.config.JacksonConfiguration;
+import com.formedix.currencyrate.config.SerializedResponseProperties;
+import com.formedix.currencyrate.domain.CurrencyRate;
+import com.formedix.currencyrate.error.exception.CurrencyRateNotFoundException;
+import com.formedix.currencyrate.mapper.CurrencyRateMapper;
+import com.formedix.currencyrate.repository.CurrencyRatesContextHolder;
+import com.formedix.currencyrate.service.SerializedCurrencyRateCache.SerializedCurrencyRate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SerializedCurrencyRateCacheTest {
+    private static final LocalDate DATE = LocalDate.of(2023, 1, 2);
+
+    private final ObjectMapper objectMapper = new JacksonConfiguration().buildObjectMapper();
+    private final CurrencyRatesContextHolder currencyRatesContextHolder = new CurrencyRatesContextHolder();
+    private SerializedCurrencyRateCache serializedCurrencyRateCache;
+
+    @BeforeEach
+    void setUp() {
+        SerializedResponseProperties serializedResponseProperties = new SerializedResponseProperties();
+        serializedResponseProperties.setEnabled(true);
+        serializedCurrencyRateCache = new SerializedCurrencyRateCache(currencyRatesContextHolder,
+                Mappers.getMapper(CurrencyRateMapper.class), objectMapper, serializedResponseProperties);
+        currencyRatesContextHolder.set(List.of(new CurrencyRate(DATE, Map.of("USD", new BigDecimal("1.0808")))));
+    }
+
+    @Test
+    @DisplayName("Should serialise the currency rates of a date once per snapshot, with a gzip-compressed copy")
+    void shouldSerializeOncePerSnapshot() throws IOException {
+        // When
+        SerializedCurrencyRate first = serializedCurrencyRateCache.getCurrencyRatesByDate(DATE);
+        SerializedCurrencyRate second = serializedCurrencyRateCache.getCurrencyRatesByDate(DATE);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.json(), StandardCharsets.UTF_8)).isEqualTo("{\"date\":\"2023-01-02\",\"currencies\":{\"USD\":1.0808}}");
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(first.gzippedJson()))) {
+            assertThat(inputStream.readAllBytes()).isEqualTo(first.json());
+        }
+        assertThat(first.eTag()).isEqualTo("\"" + Long.toHexString(currencyRatesContextHolder.getSnapshot().version()) + "\"");
+    }
+
+    @Test
+    @DisplayName("Should serialise the currency rates again with a new ETag once a new snapshot is published")
+    void shouldSerializeAgainForNewSnapshot() {
+        // Given
+        SerializedCurrencyRate previous = serializedCurrencyRateCache.getCurrencyRatesByDate(DATE);
+
+        // When
+        currencyRatesContextHolder.set(List.of(new CurrencyRate(DATE, Map.of("USD", new BigDecimal("1.0900")))));
+        SerializedCurrencyRate current = serializedCurrencyRateCache.getCurrencyRatesByDate(DATE);
+
+        // Then
+        assertThat(new String(current.json(), StandardCharsets.UTF_8)).contains("1.09");
+        assertThat(current.eTag()).isNotEqualTo(previous.eTag());
+    }
+
+    @Test
+    @DisplayName("Should throw CurrencyRateNotFoundException when the date has no currency rates")
+    void shouldThrowWhenDateIsMissing() {
+        // When & Then
+        assertThatThrownBy(() -> serializedCurrencyRateCache.getCurrencyRatesByDate(DATE.plusDays(1)))
+                .isInstanceOf(CurrencyRateNotFoundException.class)
+                .hasMessage("Currency rates are not available for the specified date `2023-01-03`");
+    }
+}
@@ -1,6 +1,7 @@
 package com.formedix.currencyrate.validator;
 
 import com.formedix.currencyrate.error.exception.CsvFileException;
+import com.formedix.currencyrate.error.exception.CsvParsingException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.mock.web.MockMultipartFile;
@@ -58,4 +59,30 @@ class CsvValidatorTest {
                 .isThrownBy(() -> CsvValidator.validate(file))
                 .withMessage("Empty csv file is not allowed.");
     }
+
+    @Test
+    @DisplayName("Should throw CsvParsingException when the CSV file has no header row")
+    void shouldThrowCsvParsingExceptionForMissingHeader() {
+        // When & Then
+        assertThatExceptionOfType(CsvParsingException.class)
+                .isThrownBy(() -> CsvValidator.validateHeader(null))
+                .withMessage("CSV file is empty");
+    }
+
+    @Test
+    @DisplayName("Should throw CsvParsingException when the header row has less than 2 columns")
+    void shouldThrowCsvParsingExceptionForSingleColumnHeader() {
+        // When & Then
+        assertThatExceptionOfType(CsvParsingException.class)
+                .isThrownBy(() -> CsvValidator.validateHeader(new String[]{"Date"}))
+                .withMessage("CSV file must have at least 2 columns");
+    }
+
+    @Test
+    @DisplayName("Should validate CSV header row")
+    void shouldValidateCsvHeader() {
+        // When & Then
+        assertThatCode(() -> CsvValidator.validateHeader(new String[]{"Date", "USD"}))
+                .doesNotThrowAnyException();
+    }
 }
@@ -1,8 +1,11 @@
 package com.formedix.currencyrate.validator;
 
 import com.formedix.currencyrate.error.exception.InvalidDateException;
+import com.formedix.currencyrate.error.exception.InvalidPageSizeException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.time.LocalDate;
 
@@ -36,4 +39,14 @@ class CurrencyRateValidatorTest {
                 .isInstanceOf(InvalidDateException.class)
                 .hasMessage("Invalid date range: Start date `2023-02-01` should not be greater than End date `2023-01-01`");
     }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 10_001})
+    @DisplayName("Should throw InvalidPageSizeException when page size is out of range")
+    void shouldThrowInvalidPageSizeExceptionWhenPageSizeIsOutOfRange(int limit) {
+        // When & Then
+        assertThatThrownBy(() -> CurrencyRateValidator.checkIfValidPageSize(limit))
+                .isInstanceOf(InvalidPageSizeException.class)
+                .hasMessage("Invalid page size: `" + limit + "` should be between 1 and 10000");
+    }
 }